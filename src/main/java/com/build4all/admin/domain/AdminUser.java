@@ -2,6 +2,7 @@ package com.build4all.admin.domain;
 
 import com.build4all.role.domain.Role;
 import com.build4all.business.domain.Businesses;
+import com.build4all.security.service.AuthPrincipalCacheListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -19,6 +20,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
+@EntityListeners(AuthPrincipalCacheListener.class) // evicts the cached auth principal on update/delete
 @Table(name = "admin_user")
 /**
  * AdminUser represents a back-office/admin account in the system.
@@ -3,6 +3,7 @@ package com.build4all.admin.domain;
 import com.build4all.catalog.domain.Currency;
 import com.build4all.project.domain.Project;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.build4all.app.service.RuntimeConfigArtifactListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -20,6 +21,7 @@ import java.time.LocalDateTime;
                 @Index(name = "idx_aup_slug", columnList = "slug")
         }
 )
+@EntityListeners(RuntimeConfigArtifactListener.class) // drops the compiled public runtime config on change
 public class AdminUserProject {
 
     @Id
@@ -190,6 +190,15 @@ public interface AdminUserProjectRepository extends JpaRepository<AdminUserProje
           where a.id = :linkId
         """)
     Optional<String> findOwnerNameByLinkId(@Param("linkId") Long linkId);
+
+    /** Runtime-config warm-up: active apps, newest first. */
+    @Query("""
+          select a.id
+          from AdminUserProject a
+          where upper(coalesce(a.status, 'ACTIVE')) = 'ACTIVE'
+          order by a.id desc
+        """)
+    List<Long> findActiveIdsForRuntimeWarmUp();
     
     
     @Query("""
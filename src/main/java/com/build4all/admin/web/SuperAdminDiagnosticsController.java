@@ -0,0 +1,195 @@
+package com.build4all.admin.web;
+
+import com.build4all.ai.service.AiCallLimiter;
+import com.build4all.ai.service.AiUsageLimitService;
+import com.build4all.catalog.service.ItemLockMetrics;
+import com.build4all.common.jobs.RetentionJobMetrics;
+import com.build4all.config.OutboundHttpMetrics;
+import com.build4all.notifications.domain.PushOutboxJob;
+import com.build4all.notifications.repository.PushOutboxJobRepository;
+import com.build4all.notifications.service.PushDeliveryMetrics;
+import com.build4all.payment.gateway.impl.PaypalApiClient;
+import com.build4all.security.JwtClaimsCache;
+import com.build4all.security.JwtUtil;
+import com.build4all.security.service.AuthPrincipalCache;
+import com.build4all.webSocket.service.WebSocketMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime counters of this instance (SUPER_ADMIN only).
+ * Values are in-memory and per replica; they reset on restart.
+ */
+@RestController
+@RequestMapping("/api/admin/super/diagnostics")
+public class SuperAdminDiagnosticsController {
+
+    private final ItemLockMetrics itemLockMetrics;
+    private final JwtUtil jwtUtil;
+    private final AuthPrincipalCache principalCache;
+    private final PushDeliveryMetrics pushDeliveryMetrics;
+    private final PushOutboxJobRepository pushOutboxJobRepository;
+    private final RetentionJobMetrics retentionJobMetrics;
+    private final WebSocketMetrics webSocketMetrics;
+    private final OutboundHttpMetrics outboundHttpMetrics;
+    private final PaypalApiClient paypalApiClient;
+    private final AiCallLimiter aiCallLimiter;
+    private final AiUsageLimitService aiUsageLimitService;
+
+    public SuperAdminDiagnosticsController(ItemLockMetrics itemLockMetrics,
+                                           JwtUtil jwtUtil,
+                                           AuthPrincipalCache principalCache,
+                                           PushDeliveryMetrics pushDeliveryMetrics,
+                                           PushOutboxJobRepository pushOutboxJobRepository,
+                                           RetentionJobMetrics retentionJobMetrics,
+                                           WebSocketMetrics webSocketMetrics,
+                                           OutboundHttpMetrics outboundHttpMetrics,
+                                           PaypalApiClient paypalApiClient,
+                                           AiCallLimiter aiCallLimiter,
+                                           AiUsageLimitService aiUsageLimitService) {
+        this.itemLockMetrics = itemLockMetrics;
+        this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.pushDeliveryMetrics = pushDeliveryMetrics;
+        this.pushOutboxJobRepository = pushOutboxJobRepository;
+        this.retentionJobMetrics = retentionJobMetrics;
+        this.webSocketMetrics = webSocketMetrics;
+        this.outboundHttpMetrics = outboundHttpMetrics;
+        this.paypalApiClient = paypalApiClient;
+        this.aiCallLimiter = aiCallLimiter;
+        this.aiUsageLimitService = aiUsageLimitService;
+    }
+
+    /** Items with the most time spent waiting on their row lock (checkout / order edit). */
+    @GetMapping("/item-locks")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> itemLocks(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(Map.of(
+                "items", itemLockMetrics.top(Math.min(limit, 200))
+        ));
+    }
+
+    @DeleteMapping("/item-locks")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> resetItemLocks() {
+        itemLockMetrics.reset();
+        return ResponseEntity.ok(Map.of("message", "Item lock metrics reset"));
+    }
+
+    /** JWT claims cache + principal cache hit counters. */
+    @GetMapping("/auth")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> auth() {
+        JwtClaimsCache.Stats jwt = jwtUtil.claimsCacheStats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("jwt", Map.of(
+                "requestHits", jwt.requestHits(),
+                "cacheHits", jwt.cacheHits(),
+                "parses", jwt.parses(),
+                "failures", jwt.failures(),
+                "size", jwt.size(),
+                "parseAvoidanceRate", jwt.parseAvoidanceRate()
+        ));
+        body.put("principals", Map.of(
+                "hits", principalCache.hits(),
+                "misses", principalCache.misses(),
+                "size", principalCache.size()
+        ));
+        return ResponseEntity.ok(body);
+    }
+
+    /** FCM delivery per tenant (this instance) + outbox backlog (all instances). */
+    @GetMapping("/push")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> push(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tenants", pushDeliveryMetrics.top(Math.min(limit, 200)));
+        body.put("outbox", Map.of(
+                "pending", pushOutboxJobRepository.countByStatus(PushOutboxJob.STATUS_PENDING),
+                "sending", pushOutboxJobRepository.countByStatus(PushOutboxJob.STATUS_SENDING),
+                "failed", pushOutboxJobRepository.countByStatus(PushOutboxJob.STATUS_FAILED)
+        ));
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/push")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> resetPush() {
+        pushDeliveryMetrics.reset();
+        return ResponseEntity.ok(Map.of("message", "Push delivery metrics reset"));
+    }
+
+    /** Retention / cleanup jobs run by this instance (rows touched, duration, skipped when another replica held the lease). */
+    @GetMapping("/retention")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> retention() {
+        return ResponseEntity.ok(Map.of(
+                "jobs", retentionJobMetrics.snapshot()
+        ));
+    }
+
+    @DeleteMapping("/retention")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> resetRetention() {
+        retentionJobMetrics.reset();
+        return ResponseEntity.ok(Map.of("message", "Retention job metrics reset"));
+    }
+
+    /** STOMP inbound/outbound executor pool + queue depth, and tenant event coalescing counters. */
+    @GetMapping("/websocket")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> websocket() {
+        return ResponseEntity.ok(webSocketMetrics.snapshot());
+    }
+
+    /** Outbound HTTP calls per host (shared RestTemplate) + PayPal OAuth token cache. */
+    @GetMapping("/http")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> http() {
+        PaypalApiClient.Stats paypal = paypalApiClient.stats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hosts", outboundHttpMetrics.snapshot());
+        body.put("paypalTokens", Map.of(
+                "hits", paypal.hits(),
+                "fetches", paypal.fetches(),
+                "unauthorizedRetries", paypal.unauthorizedRetries(),
+                "size", paypal.size()
+        ));
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/http")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> resetHttp() {
+        outboundHttpMetrics.reset();
+        return ResponseEntity.ok(Map.of("message", "Outbound HTTP metrics reset"));
+    }
+
+    /** AI provider calls: concurrency / queue / timeouts (AiCallLimiter) + daily usage quota decisions. */
+    @GetMapping("/ai")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> ai(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("calls", aiCallLimiter.snapshot(Math.min(limit, 200)));
+        body.put("usage", Map.of(
+                "allowed", aiUsageLimitService.allowedCount(),
+                "rejectedFromMemory", aiUsageLimitService.rejectedFromMemoryCount(),
+                "rejectedFromDb", aiUsageLimitService.rejectedFromDbCount(),
+                "refunded", aiUsageLimitService.refundedCount()
+        ));
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/ai")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<?> resetAi() {
+        aiCallLimiter.reset();
+        return ResponseEntity.ok(Map.of("message", "AI call metrics reset"));
+    }
+}
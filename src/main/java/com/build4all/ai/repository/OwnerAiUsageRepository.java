@@ -3,11 +3,54 @@ package com.build4all.ai.repository;
 import com.build4all.ai.domain.OwnerAiUsage;
 import com.build4all.ai.domain.OwnerAiUsageId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface OwnerAiUsageRepository extends JpaRepository<OwnerAiUsage, OwnerAiUsageId> {
 	
     Optional<OwnerAiUsage> findByOwnerIdAndUsageDate(Long ownerId, LocalDate usageDate);
+
+    /**
+     * Atomic meter (same idea as OrderSequenceRepository.allocateNext):
+     * - no row for (owner, day): create it with request_count = 1
+     * - row below :limit: request_count + 1
+     * - row at/over :limit: untouched, nothing returned (=> limit reached)
+     * Returns the new count. Callers must pass limit >= 1.
+     */
+    @Query(value = """
+        INSERT INTO owner_ai_usage (owner_id, usage_date, request_count, updated_at)
+        VALUES (:ownerId, :day, 1, :now)
+        ON CONFLICT (owner_id, usage_date) DO UPDATE
+           SET request_count = owner_ai_usage.request_count + 1,
+               updated_at = EXCLUDED.updated_at
+         WHERE owner_ai_usage.request_count < :limit
+        RETURNING request_count
+    """, nativeQuery = true)
+    List<Integer> incrementIfBelow(@Param("ownerId") Long ownerId,
+                                   @Param("day") LocalDate day,
+                                   @Param("limit") int limit,
+                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Gives back one request counted by incrementIfBelow (the call was rejected, timed out or
+     * cancelled before an answer). Never goes below 0.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE owner_ai_usage
+           SET request_count = request_count - 1,
+               updated_at = :now
+         WHERE owner_id = :ownerId
+           AND usage_date = :day
+           AND request_count > 0
+    """, nativeQuery = true)
+    int decrement(@Param("ownerId") Long ownerId,
+                  @Param("day") LocalDate day,
+                  @Param("now") LocalDateTime now);
 }
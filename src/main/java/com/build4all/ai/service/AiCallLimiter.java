@@ -0,0 +1,229 @@
+package com.build4all.ai.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bounded concurrency for AI provider calls (this instance).
+ *
+ * - each call runs on its own virtual thread ("aiExecutor"), never on a Tomcat or common-pool thread
+ * - a call needs a tenant permit (build4all.ai.maxConcurrentPerTenant) then a global one
+ *   (build4all.ai.maxConcurrent); both semaphores are fair, so waiters are served in arrival order
+ * - at most build4all.ai.maxQueued calls wait for permits (a call counts as waiting until it holds both),
+ *   each for at most build4all.ai.queueTimeoutMs; beyond that the call is rejected with 429 instead of piling up
+ * - the returned future fails with TimeoutException after the given timeout (queue wait included);
+ *   timing out or cancelling it interrupts the virtual thread, which aborts the provider's blocking I/O
+ */
+@Component
+public class AiCallLimiter {
+
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+    private final int maxPerTenant;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+
+    private final Semaphore global;
+    private final ConcurrentHashMap<Long, Semaphore> tenants = new ConcurrentHashMap<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong totalCallNanos = new AtomicLong();
+
+    public AiCallLimiter(@Qualifier("aiExecutor") ExecutorService executor,
+                         @Value("${build4all.ai.maxConcurrent:32}") int maxConcurrent,
+                         @Value("${build4all.ai.maxConcurrentPerTenant:4}") int maxPerTenant,
+                         @Value("${build4all.ai.maxQueued:200}") int maxQueued,
+                         @Value("${build4all.ai.queueTimeoutMs:5000}") long queueTimeoutMs) {
+        this.executor = executor;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxPerTenant = Math.max(1, Math.min(maxPerTenant, this.maxConcurrent));
+        this.maxQueued = Math.max(1, maxQueued);
+        this.queueTimeoutMs = Math.max(0, queueTimeoutMs);
+        this.global = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * Runs call for tenant aupId on a virtual thread once permits are available.
+     * Fails with 429 (busy), TimeoutException (deadline), or whatever the call threw.
+     */
+    public <T> CompletableFuture<T> submit(Long aupId, Callable<T> call, Duration timeout) {
+        submitted.incrementAndGet();
+
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(busy());
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Semaphore tenant = tenants.computeIfAbsent(aupId, k -> new Semaphore(maxPerTenant, true));
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        try {
+            executor.execute(() -> run(tenant, call, result, runner));
+        } catch (RejectedExecutionException e) {
+            // executor shut down (application stopping)
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(busy());
+        }
+
+        result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((v, ex) -> {
+            if (ex == null) return;
+            if (ex instanceof TimeoutException) timedOut.incrementAndGet();
+            if (result.isCancelled()) cancelled.incrementAndGet();
+            Thread t = runner.get();
+            if (t != null) t.interrupt(); // virtual threads are never reused: a late interrupt is harmless
+        });
+        return result;
+    }
+
+    private <T> void run(Semaphore tenant, Callable<T> call, CompletableFuture<T> result,
+                         AtomicReference<Thread> runner) {
+        long queuedAt = System.nanoTime();
+        boolean tenantHeld = false;
+        boolean globalHeld = false;
+        boolean queued = true;
+
+        try {
+            runner.set(Thread.currentThread());
+            if (result.isDone()) return; // timed out / cancelled before this thread started
+
+            long deadline = queuedAt + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+
+            tenantHeld = tenant.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            if (tenantHeld) {
+                globalHeld = global.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+
+            waiting.decrementAndGet();
+            queued = false;
+
+            if (!globalHeld) {
+                if (result.completeExceptionally(busy())) rejected.incrementAndGet();
+                return;
+            }
+
+            long waited = System.nanoTime() - queuedAt;
+            started.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            if (result.isDone()) return; // deadline passed / caller gone while queued
+
+            active.incrementAndGet();
+            long callStart = System.nanoTime();
+            try {
+                T value = call.call();
+                if (result.complete(value)) completed.incrementAndGet();
+            } catch (Throwable t) {
+                if (result.completeExceptionally(t)) failed.incrementAndGet();
+            } finally {
+                active.decrementAndGet();
+                finished.incrementAndGet();
+                totalCallNanos.addAndGet(System.nanoTime() - callStart);
+            }
+
+        } catch (InterruptedException ie) {
+            // cancelled while waiting for a permit: the future is already completed
+            result.completeExceptionally(ie);
+        } finally {
+            if (queued) waiting.decrementAndGet();
+            if (globalHeld) global.release();
+            if (tenantHeld) tenant.release();
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "AI is busy. Try again in a moment.");
+    }
+
+    /* ==================== diagnostics ==================== */
+
+    public Map<String, Object> snapshot(int topTenants) {
+        long startedCount = started.get();
+        long finishedCount = finished.get();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("maxConcurrent", maxConcurrent);
+        body.put("maxConcurrentPerTenant", maxPerTenant);
+        body.put("maxQueued", maxQueued);
+        body.put("queueTimeoutMs", queueTimeoutMs);
+        body.put("active", active.get());
+        body.put("waiting", waiting.get());
+        body.put("globalPermitsFree", global.availablePermits());
+        body.put("submitted", submitted.get());
+        body.put("completed", completed.get());
+        body.put("failed", failed.get());
+        body.put("rejected", rejected.get());
+        body.put("timedOut", timedOut.get());
+        body.put("cancelled", cancelled.get());
+        body.put("avgQueueWaitMs", startedCount == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / startedCount);
+        body.put("maxQueueWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        body.put("avgCallMs", finishedCount == 0 ? 0.0 : totalCallNanos.get() / 1_000_000.0 / finishedCount);
+
+        List<Map<String, Object>> busiest = new ArrayList<>();
+        tenants.entrySet().stream()
+                .filter(e -> e.getValue().availablePermits() < maxPerTenant || e.getValue().hasQueuedThreads())
+                .sorted(Comparator.comparingInt((Map.Entry<Long, Semaphore> e) -> e.getValue().availablePermits())
+                        .thenComparingInt(e -> -e.getValue().getQueueLength()))
+                .limit(Math.max(topTenants, 0))
+                .forEach(e -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("ownerProjectLinkId", e.getKey());
+                    row.put("active", maxPerTenant - e.getValue().availablePermits());
+                    row.put("waiting", e.getValue().getQueueLength());
+                    busiest.add(row);
+                });
+        body.put("tenants", busiest);
+        return body;
+    }
+
+    public void reset() {
+        submitted.set(0);
+        completed.set(0);
+        failed.set(0);
+        rejected.set(0);
+        timedOut.set(0);
+        cancelled.set(0);
+        started.set(0);
+        totalWaitNanos.set(0);
+        maxWaitNanos.set(0);
+        finished.set(0);
+        totalCallNanos.set(0);
+    }
+}
@@ -14,7 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Duration;
-import java.util.concurrent.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AiItemChatService {
@@ -22,7 +25,7 @@ public class AiItemChatService {
     private static final Logger log = LoggerFactory.getLogger(AiItemChatService.class);
 
     // ✅ Keep this < Dio receiveTimeout (60s) so frontend doesn't hang forever
-    private static final Duration AI_TIMEOUT = Duration.ofSeconds(45);
+    public static final Duration AI_TIMEOUT = Duration.ofSeconds(45);
 
     // ✅ Prevent huge prompts (tune if needed)
     private static final int MAX_CONTEXT_CHARS = 7000;
@@ -32,6 +35,7 @@ public class AiItemChatService {
     private final ProductRepository productRepo;
     private final ActivitiesRepository activitiesRepo;
     private final AiProviderService ai;
+    private final AiCallLimiter limiter;
 
     
     
@@ -39,17 +43,24 @@ public class AiItemChatService {
             ItemRepository itemRepo,
             ProductRepository productRepo,
             ActivitiesRepository activitiesRepo,
-            AiProviderService ai
+            AiProviderService ai,
+            AiCallLimiter limiter
     ) {
         this.itemRepo = itemRepo;
         this.productRepo = productRepo;
         this.activitiesRepo = activitiesRepo;
         this.ai = ai;
+        this.limiter = limiter;
     }
     
     
 
-    public String handle(AiItemChatRequest req) {
+    /**
+     * Validates, loads the item and builds the prompt on the caller's thread (needs TenantContext),
+     * then hands the provider call to AiCallLimiter. The future fails with ResponseStatusException
+     * 504 (timeout), 429 (busy) or 502 (provider error); cancelling it interrupts the provider call.
+     */
+    public CompletableFuture<String> handle(AiItemChatRequest req) {
 
         long t0 = System.currentTimeMillis();
 
@@ -100,70 +111,64 @@ public class AiItemChatService {
 
         long tPromptReady = System.currentTimeMillis();
 
-        // 8) Ask AI provider with timeout + clean errors
-        try {
-            String answer = askWithTimeout(prompt, AI_TIMEOUT);
-
-            long tDone = System.currentTimeMillis();
-            log.info(
-                    "AI item-chat OK (aupId={}, itemId={}) timings: itemLoad={}ms, prompt={}ms, aiCall={}ms, total={}ms",
-                    aupId,
-                    itemId,
-                    (tItemLoaded - t0),
-                    (tPromptReady - tItemLoaded),
-                    (tDone - tPromptReady),
-                    (tDone - t0)
-            );
-
-            if (answer == null) answer = "";
-            answer = answer.trim();
-            return answer.isEmpty() ? "I couldn't generate a response. Try rephrasing 😅" : answer;
-
-        } catch (TimeoutException te) {
-            long tNow = System.currentTimeMillis();
-            log.warn(
-                    "AI item-chat TIMEOUT (aupId={}, itemId={}) after {}ms total={}ms",
-                    aupId, itemId, AI_TIMEOUT.toMillis(), (tNow - t0)
-            );
-            // ✅ 504 = backend took too long
-            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "AI provider took too long. Try again.");
-
-        } catch (ExecutionException ee) {
-            long tNow = System.currentTimeMillis();
-            Throwable root = ee.getCause() != null ? ee.getCause() : ee;
-            log.error(
-                    "AI item-chat FAILED (aupId={}, itemId={}) total={}ms error={}",
-                    aupId, itemId, (tNow - t0), root.toString(), root
-            );
-            // ✅ 502 = upstream AI provider failed
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI provider failed. Try again.");
-
-        } catch (Exception ex) {
-            long tNow = System.currentTimeMillis();
-            log.error(
-                    "AI item-chat ERROR (aupId={}, itemId={}) total={}ms error={}",
-                    aupId, itemId, (tNow - t0), ex.toString(), ex
-            );
-            // ✅ avoid raw 500 with mystery
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "AI chat error. Try again.");
-        }
-    }
-
-    /**
-     * Runs ai.ask(prompt) on another thread and enforces a hard timeout.
-     * This prevents hanging requests that keep the client "loading".
-     */
-    private String askWithTimeout(String prompt, Duration timeout)
-            throws TimeoutException, ExecutionException, InterruptedException {
+        // 8) Ask AI provider on a virtual thread (bounded per tenant + globally), hard timeout + clean errors
+        CompletableFuture<String> call = limiter.submit(aupId, () -> ai.ask(prompt), AI_TIMEOUT);
+        CompletableFuture<String> out = new CompletableFuture<>();
 
-        CompletableFuture<String> f = CompletableFuture.supplyAsync(() -> ai.ask(prompt));
+        call.whenComplete((answer, err) -> {
+            long tNow = System.currentTimeMillis();
 
-        try {
-            return f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
-        } catch (TimeoutException te) {
-            f.cancel(true);
-            throw te;
-        }
+            if (err == null) {
+                log.info(
+                        "AI item-chat OK (aupId={}, itemId={}) timings: itemLoad={}ms, prompt={}ms, aiCall={}ms, total={}ms",
+                        aupId,
+                        itemId,
+                        (tItemLoaded - t0),
+                        (tPromptReady - tItemLoaded),
+                        (tNow - tPromptReady),
+                        (tNow - t0)
+                );
+
+                String text = answer == null ? "" : answer.trim();
+                out.complete(text.isEmpty() ? "I couldn't generate a response. Try rephrasing 😅" : text);
+                return;
+            }
+
+            Throwable root = (err instanceof CompletionException && err.getCause() != null) ? err.getCause() : err;
+
+            if (root instanceof TimeoutException) {
+                log.warn(
+                        "AI item-chat TIMEOUT (aupId={}, itemId={}) after {}ms total={}ms",
+                        aupId, itemId, AI_TIMEOUT.toMillis(), (tNow - t0)
+                );
+                // ✅ 504 = backend took too long
+                out.completeExceptionally(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "AI provider took too long. Try again."));
+
+            } else if (root instanceof ResponseStatusException rse && rse.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                log.warn("AI item-chat BUSY (aupId={}, itemId={}) total={}ms", aupId, itemId, (tNow - t0));
+                // ✅ 429 = limiter full (per tenant or global), client may retry
+                out.completeExceptionally(rse);
+
+            } else if (root instanceof CancellationException) {
+                // client went away / response timed out: nobody is waiting for an answer
+                out.completeExceptionally(root);
+
+            } else {
+                log.error(
+                        "AI item-chat FAILED (aupId={}, itemId={}) total={}ms error={}",
+                        aupId, itemId, (tNow - t0), root.toString(), root
+                );
+                // ✅ 502 = upstream AI provider failed
+                out.completeExceptionally(new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI provider failed. Try again."));
+            }
+        });
+
+        // ✅ cancelling the answer (client gone) interrupts the provider call
+        out.whenComplete((answer, err) -> {
+            if (out.isCancelled()) call.cancel(true);
+        });
+
+        return out;
     }
 
     private String v(Object x) {
@@ -1,45 +1,128 @@
 package com.build4all.ai.service;
 
-import com.build4all.ai.domain.OwnerAiUsage;
 import com.build4all.ai.repository.OwnerAiUsageRepository;
+import com.build4all.licensing.service.LicensingService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Daily AI request limit per owner.
+ *
+ * - one statement per request: upsert + increment + limit check (OwnerAiUsageRepository.incrementIfBelow),
+ *   so concurrent chats can't lose updates or go past the limit
+ * - limit comes from the app's plan (PlanCatalog.aiDailyLimit, via the cached entitlement snapshot),
+ *   else build4all.ai.dailyLimit
+ * - owners already at the cap today are rejected from memory (no DB round trip) until the day
+ *   or their limit changes
+ * - a request that got no answer (busy 429, timeout, client gone, provider error) is given back
+ *   with refund(), which also lifts the in-memory cap
+ */
 @Service
 public class AiUsageLimitService {
 
-    // ✅ Change this number anytime (or later make it per plan)
-    private static final int DAILY_LIMIT = 20;
+    private static final int MAX_CAPPED_OWNERS = 10_000;
 
     private final OwnerAiUsageRepository repo;
+    private final LicensingService licensingService;
+    private final int defaultDailyLimit;
+    private final TransactionTemplate tx;
 
-    public AiUsageLimitService(OwnerAiUsageRepository repo) {
+    /** ownerId -> (day, limit) at which the owner was seen at the cap. */
+    private final ConcurrentHashMap<Long, Cap> capped = new ConcurrentHashMap<>();
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejectedFromMemory = new AtomicLong();
+    private final AtomicLong rejectedFromDb = new AtomicLong();
+    private final AtomicLong refunded = new AtomicLong();
+
+    public AiUsageLimitService(OwnerAiUsageRepository repo,
+                               LicensingService licensingService,
+                               PlatformTransactionManager txManager,
+                               @Value("${build4all.ai.dailyLimit:20}") int defaultDailyLimit) {
         this.repo = repo;
+        this.licensingService = licensingService;
+        this.tx = new TransactionTemplate(txManager);
+        this.defaultDailyLimit = defaultDailyLimit;
     }
 
-    @Transactional
-    public void checkAndIncrement(Long ownerId) {
+    private record Cap(LocalDate day, int limit) {}
+
+    /**
+     * Counts one AI request of ownerId (made through app aupId) or throws 429.
+     * Returns the day it was counted on (pass it to refund()).
+     */
+    public LocalDate checkAndIncrement(Long ownerId, Long aupId) {
         LocalDate today = LocalDate.now();
+        int limit = getDailyLimit(aupId);
+
+        Cap cap = capped.get(ownerId);
+        if (cap != null && cap.day().equals(today) && cap.limit() == limit) {
+            rejectedFromMemory.incrementAndGet();
+            throw limitReached();
+        }
 
-        OwnerAiUsage usage = repo.findByOwnerIdAndUsageDate(ownerId, today)
-                .orElseGet(() -> new OwnerAiUsage(ownerId, today, 0));
+        if (limit <= 0) {
+            rejectedFromDb.incrementAndGet();
+            throw limitReached();
+        }
+
+        List<Integer> count = tx.execute(s -> repo.incrementIfBelow(ownerId, today, limit, LocalDateTime.now()));
 
-        if (usage.getRequestCount() >= DAILY_LIMIT) {
-            throw new ResponseStatusException(
-                    HttpStatus.TOO_MANY_REQUESTS,
-                    "Daily AI limit reached"
-            );
+        if (count == null || count.isEmpty()) {
+            rememberCap(ownerId, today, limit);
+            rejectedFromDb.incrementAndGet();
+            throw limitReached();
         }
 
-        usage.setRequestCount(usage.getRequestCount() + 1);
-        repo.save(usage);
+        // that was the last one: the next request is rejected without a query
+        if (count.get(0) >= limit) rememberCap(ownerId, today, limit);
+        allowed.incrementAndGet();
+        return today;
+    }
+
+    /** Gives back a request counted by checkAndIncrement on day. */
+    public void refund(Long ownerId, LocalDate day) {
+        try {
+            tx.execute(s -> repo.decrement(ownerId, day, LocalDateTime.now()));
+            capped.computeIfPresent(ownerId, (k, c) -> c.day().equals(day) ? null : c);
+            refunded.incrementAndGet();
+        } catch (RuntimeException e) {
+            System.out.println("⚠️ AI usage refund failed for owner " + ownerId + " => " + e.getMessage());
+        }
+    }
+
+    public int getDailyLimit(Long aupId) {
+        Integer planLimit = aupId == null ? null : licensingService.aiDailyLimit(aupId);
+        return planLimit != null ? planLimit : defaultDailyLimit;
+    }
+
+    public long allowedCount() { return allowed.get(); }
+
+    public long rejectedFromMemoryCount() { return rejectedFromMemory.get(); }
+
+    public long rejectedFromDbCount() { return rejectedFromDb.get(); }
+
+    public long refundedCount() { return refunded.get(); }
+
+    private void rememberCap(Long ownerId, LocalDate day, int limit) {
+        if (capped.size() >= MAX_CAPPED_OWNERS) {
+            capped.values().removeIf(c -> !c.day().equals(day));
+            if (capped.size() >= MAX_CAPPED_OWNERS) return;
+        }
+        capped.put(ownerId, new Cap(day, limit));
     }
 
-    public int getDailyLimit() {
-        return DAILY_LIMIT;
+    private static ResponseStatusException limitReached() {
+        return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Daily AI limit reached");
     }
 }
@@ -1,11 +1,37 @@
 package com.build4all.ai.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Offline provider: only with an explicit build4all.ai.provider=dummy (local dev, load tests).
+ * Without it Gemini is required, so a missing key fails at startup instead of serving dummy answers.
+ *
+ * build4all.ai.dummy.latencyMs (+ up to build4all.ai.dummy.jitterMs) simulates a slow upstream, so a
+ * load test against /api/ai/item-chat exercises AiCallLimiter (queueing, 429, timeouts, cancellation)
+ * without calling Gemini; compare with /api/admin/super/diagnostics/ai.
+ */
 @Service
-public class DummyAiProviderService  {
+@ConditionalOnProperty(name = "build4all.ai.provider", havingValue = "dummy")
+public class DummyAiProviderService implements AiProviderService {
+
+    private final long latencyMs;
+    private final long jitterMs;
+
+    public DummyAiProviderService(@Value("${build4all.ai.dummy.latencyMs:0}") long latencyMs,
+                                  @Value("${build4all.ai.dummy.jitterMs:0}") long jitterMs) {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        System.out.println("✅ AI provider: dummy (latency=" + this.latencyMs + "ms, jitter=" + this.jitterMs + "ms)");
+    }
 
+    @Override
     public String ask(String prompt) {
+        simulateLatency();
+
         // just a quick check: show that we received the item name from context
         String name = extractAfter(prompt, "Name:");
         if (name == null || name.isBlank()) name = "Not available";
@@ -13,6 +39,18 @@ public class DummyAiProviderService  {
         return "Dummy summary ✅\nName: " + name;
     }
 
+    /** Interruptible like a real socket read on a virtual thread. */
+    private void simulateLatency() {
+        long ms = latencyMs + (jitterMs == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitterMs + 1));
+        if (ms == 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("AI call interrupted", e);
+        }
+    }
+
     private String extractAfter(String text, String key) {
         int idx = text.indexOf(key);
         if (idx < 0) return null;
@@ -11,8 +11,13 @@ import com.build4all.security.TenantContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/ai")
 @PreAuthorize("hasAnyRole('OWNER','USER','SUPER_ADMIN')") // ✅ FIXED
@@ -38,8 +43,15 @@ public class AiItemController {
         this.jwtUtil = jwtUtil;
     }
 
+    // ✅ async response deadline: above AiItemChatService.AI_TIMEOUT so the service answers 504 itself
+    private static final long RESPONSE_TIMEOUT_MS = AiItemChatService.AI_TIMEOUT.toMillis() + 5_000L;
+
+    /**
+     * The Tomcat thread is released once the prompt is built; the answer is written when the
+     * provider call (virtual thread, see AiCallLimiter) completes.
+     */
     @PostMapping("/item-chat")
-    public AiChatResponse itemChat(
+    public DeferredResult<AiChatResponse> itemChat(
             @RequestHeader("Authorization") String authHeader,
             @RequestBody AiItemChatRequest req
     ) {
@@ -85,11 +97,35 @@ public class AiItemController {
             // 1) feature flag
             entitlement.assertAiEnabled(aupId);
 
-            // 2) usage limit for OWNER (owner-based)
-            usageLimit.checkAndIncrement(linkOwnerId);
+            // 2) usage limit for OWNER (owner-based, limit from the app's plan)
+            LocalDate chargedDay = usageLimit.checkAndIncrement(linkOwnerId, aupId);
 
             // 3) run AI (service will load item by tenant from TenantContext)
-            return new AiChatResponse(service.handle(req));
+            final CompletableFuture<String> answer;
+            try {
+                answer = service.handle(req);
+            } catch (RuntimeException ex) {
+                usageLimit.refund(linkOwnerId, chargedDay); // bad request / item not found: nothing was asked
+                throw ex;
+            }
+
+            DeferredResult<AiChatResponse> result = new DeferredResult<>(RESPONSE_TIMEOUT_MS);
+            result.onTimeout(() -> {
+                answer.cancel(true);
+                result.setErrorResult(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "AI provider took too long. Try again."));
+            });
+            result.onError(ex -> answer.cancel(true)); // client disconnected: stop the provider call
+
+            answer.whenComplete((text, ex) -> {
+                if (ex == null) {
+                    result.setResult(new AiChatResponse(text));
+                } else {
+                    // ✅ no answer (busy, timeout, client gone, provider error): don't spend a daily request
+                    usageLimit.refund(linkOwnerId, chargedDay);
+                    result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                }
+            });
+            return result;
 
         } finally {
             // ✅ CRITICAL: prevent ThreadLocal leaking between requests
@@ -2,12 +2,14 @@ package com.build4all.app.domain;
 
 import com.build4all.admin.domain.AdminUserProject;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.build4all.app.service.RuntimeConfigArtifactListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "app_runtime_config")
+@EntityListeners(RuntimeConfigArtifactListener.class) // drops the compiled public runtime config on change
 public class AppRuntimeConfig {
 
     @Id
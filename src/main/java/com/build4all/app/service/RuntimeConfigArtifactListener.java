@@ -0,0 +1,38 @@
+package com.build4all.app.service;
+
+import com.build4all.admin.domain.AdminUserProject;
+import com.build4all.app.domain.AppRuntimeConfig;
+import com.build4all.theme.domain.Theme;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on the sources of the compiled runtime config:
+ * - AdminUserProject (name, logo, urls, status, theme, currency...) => that app
+ * - AppRuntimeConfig (nav / home / features / branding)             => that app
+ * - Theme (shared; the active theme is the fallback of every app)   => all apps
+ */
+public class RuntimeConfigArtifactListener {
+
+    private final RuntimeConfigArtifactService artifactService;
+
+    public RuntimeConfigArtifactListener(RuntimeConfigArtifactService artifactService) {
+        this.artifactService = artifactService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        if (entity instanceof AdminUserProject app) {
+            if (app.getId() != null) artifactService.invalidateNowAndAfterCommit(app.getId());
+        } else if (entity instanceof AppRuntimeConfig cfg) {
+            if (cfg.getApp() != null && cfg.getApp().getId() != null) {
+                artifactService.invalidateNowAndAfterCommit(cfg.getApp().getId());
+            }
+        } else if (entity instanceof Theme) {
+            artifactService.invalidateNowAndAfterCommit(null);
+        }
+    }
+}
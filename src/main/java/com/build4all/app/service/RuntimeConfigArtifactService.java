@@ -0,0 +1,470 @@
+package com.build4all.app.service;
+
+import com.build4all.admin.domain.AdminUserProject;
+import com.build4all.admin.repository.AdminUserProjectRepository;
+import com.build4all.app.domain.AppRuntimeConfig;
+import com.build4all.app.repository.AppRuntimeConfigRepository;
+import com.build4all.common.cache.InvalidatingCache;
+import com.build4all.theme.domain.Theme;
+import com.build4all.theme.repository.ThemeRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled public runtime config (GET /api/public/runtime-config[/by-link]).
+ *
+ * The payload (app identity + pre-merged mobile theme + nav/home/features/branding JSON and their
+ * base64 copies) is built once per app and kept as serialized JSON bytes + strong ETag, so an app
+ * launch costs a map lookup (or a 304) instead of 2-4 queries and several JSON parses.
+ *
+ * Invalidation:
+ * - AdminUserProject / AppRuntimeConfig change => that app (RuntimeConfigArtifactListener)
+ * - Theme change => every app (a theme is shared, and the active theme is the fallback)
+ * - TTL_MS bounds staleness for changes made by another instance
+ *
+ * Active apps are compiled at startup (warmUp) so the first launch after a deploy is served from memory.
+ */
+@Service
+public class RuntimeConfigArtifactService {
+
+    private static final long TTL_MS = 10 * 60_000L;
+    private static final int MAX_APPS = 10_000;
+    private static final int MAX_WARM_APPS = 2_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Serialized runtime config of one app. */
+    public record Artifact(byte[] json, String etag, long builtAtMs) {
+
+        /** If-None-Match may list several tags, or be "*". */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.equals("*") || t.equals(etag)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final AdminUserProjectRepository linkRepo;
+    private final AppRuntimeConfigRepository runtimeRepo;
+    private final ThemeRepository themeRepo;
+    private final TransactionTemplate readTx;
+
+    private final InvalidatingCache<Long, Artifact> artifacts = InvalidatingCache.perScope(TTL_MS, MAX_APPS);
+    /** "ownerId|projectId|slug" -> linkId (slug lookups skip the AUP query too) */
+    private final ConcurrentHashMap<String, Long> linkIdsBySlug = new ConcurrentHashMap<>();
+
+    public RuntimeConfigArtifactService(AdminUserProjectRepository linkRepo,
+                                        AppRuntimeConfigRepository runtimeRepo,
+                                        ThemeRepository themeRepo,
+                                        PlatformTransactionManager txManager) {
+        this.linkRepo = linkRepo;
+        this.runtimeRepo = runtimeRepo;
+        this.themeRepo = themeRepo;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // lookups
+    // ─────────────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public Artifact getBySlug(Long ownerId, Long projectId, String slug) {
+        String s = slugify(slug);
+        String key = ownerId + "|" + projectId + "|" + s;
+
+        Long linkId = linkIdsBySlug.get(key);
+        if (linkId != null) {
+            Artifact cached = fresh(linkId);
+            if (cached != null) return cached;
+        }
+
+        AdminUserProject link = linkRepo
+                .findByAdmin_AdminIdAndProject_IdAndSlug(ownerId, projectId, s)
+                .orElseThrow(() -> new IllegalArgumentException("App not found"));
+
+        if (linkIdsBySlug.size() >= MAX_APPS) linkIdsBySlug.clear();
+        linkIdsBySlug.put(key, link.getId());
+
+        return compile(link);
+    }
+
+    @Transactional(readOnly = true)
+    public Artifact getByLinkId(Long linkId) {
+        Artifact cached = fresh(linkId);
+        if (cached != null) return cached;
+
+        AdminUserProject link = linkRepo.findById(linkId)
+                .orElseThrow(() -> new IllegalArgumentException("App not found"));
+
+        return compile(link);
+    }
+
+    private Artifact fresh(Long linkId) {
+        return artifacts.getIfFresh(linkId);
+    }
+
+    private Artifact compile(AdminUserProject link) {
+        // a build that raced with an invalidation is served once but not stored
+        return artifacts.load(link.getId(), () -> {
+            byte[] json;
+            try {
+                json = MAPPER.writeValueAsBytes(buildResponse(link));
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to serialize runtime config", e);
+            }
+            return new Artifact(json, etagOf(json), System.currentTimeMillis());
+        });
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // invalidation + warm-up
+    // ─────────────────────────────────────────────────────────────────────
+
+    public void invalidate(Long linkId) {
+        if (linkId == null) return;
+        artifacts.invalidate(linkId);
+        linkIdsBySlug.values().removeIf(linkId::equals); // slug may have changed
+    }
+
+    public void invalidateAll() {
+        artifacts.invalidateAll();
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). linkId == null => all. */
+    public void invalidateNowAndAfterCommit(Long linkId) {
+        Runnable action = (linkId == null) ? this::invalidateAll : () -> invalidate(linkId);
+        action.run();
+        InvalidatingCache.afterCommit(action);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.currentTimeMillis();
+        int compiled = 0;
+
+        try {
+            List<Long> ids = readTx.execute(tx -> linkRepo.findActiveIdsForRuntimeWarmUp());
+            if (ids == null) return;
+
+            for (Long id : ids) {
+                if (compiled >= MAX_WARM_APPS) break;
+                try {
+                    readTx.executeWithoutResult(tx -> linkRepo.findById(id).ifPresent(this::compile));
+                    compiled++;
+                } catch (Exception e) {
+                    System.out.println("⚠️ runtime-config warm-up skipped app " + id + ": " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ runtime-config warm-up failed: " + e.getMessage());
+        }
+
+        System.out.println("✅ runtime-config warm-up: " + compiled + " apps in "
+                + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    /** Strong validator: hash of the exact bytes served. */
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // core builder
+    // ─────────────────────────────────────────────────────────────────────
+
+    private Map<String, Object> buildResponse(AdminUserProject link) {
+        AppRuntimeConfig cfg = runtimeRepo.findByApp_Id(link.getId()).orElse(null);
+
+        String nav      = cfg != null ? nz(cfg.getNavJson())              : "[]";
+        String home     = cfg != null ? nz(cfg.getHomeJson())             : "{}";
+        String features = cfg != null ? nz(cfg.getEnabledFeaturesJson())  : "[]";
+        String branding = cfg != null ? nz(cfg.getBrandingJson())         : "{}";
+
+        // ✅ Resolve theme JSON, normalize to Flutter schema,
+        //    then override menuType from brandingJson
+        String themeJsonRaw = resolveThemeJson(link.getThemeId());
+        String themeJson    = normalizeThemeJsonToMobileSchema(themeJsonRaw, branding);
+
+        Map<String, Object> res = new HashMap<>();
+
+        res.put("OWNER_ID",              link.getAdmin().getAdminId().toString());
+        res.put("PROJECT_ID",            link.getProject().getId().toString());
+        res.put("SLUG",                  link.getSlug());
+        res.put("OWNER_PROJECT_LINK_ID", String.valueOf(link.getId()));
+
+        res.put("APP_NAME",   nz(link.getAppName()));
+        res.put("STATUS",     nz(link.getStatus()));
+        res.put("LICENSE_ID", nz(link.getLicenseId()));
+
+        res.put("APP_TYPE", link.getProject() != null && link.getProject().getProjectType() != null
+                ? link.getProject().getProjectType().name()
+                : null);
+
+        res.put("THEME_ID", link.getThemeId());
+
+        res.put("THEME_JSON",     themeJson);
+        res.put("THEME_JSON_B64", b64(themeJson));
+
+        res.put("CURRENCY_CODE",   link.getCurrency() != null ? link.getCurrency().getCode()   : null);
+        res.put("CURRENCY_SYMBOL", link.getCurrency() != null ? link.getCurrency().getSymbol() : null);
+
+        res.put("LOGO_URL",   nz(link.getLogoUrl()));
+        res.put("APK_URL",    nz(link.getApkUrl()));
+        res.put("IPA_URL",    nz(link.getIpaUrl()));
+        res.put("BUNDLE_URL", nz(link.getBundleUrl()));
+
+        res.put("API_BASE_URL_OVERRIDE", cfg != null ? cfg.getApiBaseUrlOverride() : null);
+
+        res.put("NAV_JSON",              nav);
+        res.put("HOME_JSON",             home);
+        res.put("ENABLED_FEATURES_JSON", features);
+        res.put("BRANDING_JSON",         branding);
+
+        res.put("NAV_JSON_B64",              b64(nav));
+        res.put("HOME_JSON_B64",             b64(home));
+        res.put("ENABLED_FEATURES_JSON_B64", b64(features));
+        res.put("BRANDING_JSON_B64",         b64(branding));
+
+        return res;
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // theme normalisation
+    // ─────────────────────────────────────────────────────────────────────
+
+    /**
+     * Normalise raw theme JSON to the Flutter mobile schema AND override
+     * menuType from brandingJson if present.
+     *
+     * Priority: brandingJson.menuType > themeJson.menuType > "bottom"
+     */
+    @SuppressWarnings("unchecked")
+    private String normalizeThemeJsonToMobileSchema(String themeJsonRaw, String brandingJson) {
+        try {
+            // ── 1. Parse / build the mobile-schema map ───────────────────
+            Map<String, Object> root;
+
+            if (themeJsonRaw == null || themeJsonRaw.isBlank() || themeJsonRaw.trim().equals("{}")) {
+                root = parseFallbackRoot();
+            } else {
+                Map<String, Object> raw =
+                        MAPPER.readValue(themeJsonRaw, new TypeReference<Map<String, Object>>() {});
+
+                if (raw == null || raw.isEmpty()) {
+                    root = parseFallbackRoot();
+                } else if (raw.containsKey("valuesMobile")) {
+                    // already correct schema – ensure colors complete
+                    Object vmObj = raw.get("valuesMobile");
+                    if (!(vmObj instanceof Map)) {
+                        root = parseFallbackRoot();
+                    } else {
+                        Map<String, Object> vm = (Map<String, Object>) vmObj;
+                        Object colorsObj = vm.get("colors");
+                        if (!(colorsObj instanceof Map)) {
+                            vm.put("colors", defaultColorsMap());
+                        } else {
+                            ensureColorDefaults((Map<String, Object>) colorsObj);
+                        }
+                        root = raw;
+                    }
+                } else {
+                    // flat theme – wrap into mobile schema
+                    root = new LinkedHashMap<>();
+                    root.put("menuType", raw.getOrDefault("menuType", "bottom"));
+
+                    Map<String, Object> valuesMobile = new LinkedHashMap<>();
+                    Map<String, Object> colors       = new LinkedHashMap<>();
+
+                    Object primary = raw.getOrDefault("primary", "#16A34A");
+                    colors.put("primary",    primary);
+                    colors.put("onPrimary",  raw.getOrDefault("onPrimary",  "#FFFFFF"));
+                    colors.put("background", raw.getOrDefault("background", "#FFFFFF"));
+                    colors.put("surface",    raw.getOrDefault("surface",    "#FFFFFF"));
+                    colors.put("label",      raw.getOrDefault("label",      "#111827"));
+                    colors.put("body",       raw.getOrDefault("body",       "#374151"));
+                    colors.put("border",     raw.getOrDefault("border",     primary));
+                    Object error = raw.getOrDefault("error", "#DC2626");
+                    colors.put("error",   error);
+                    colors.put("danger",  raw.getOrDefault("danger",  error));
+                    colors.put("muted",   raw.getOrDefault("muted",   "#9CA3AF"));
+                    colors.put("success", raw.getOrDefault("success", primary));
+
+                    valuesMobile.put("colors", colors);
+                    valuesMobile.put("card",   raw.getOrDefault("card",   defaultCardMap()));
+                    valuesMobile.put("search", raw.getOrDefault("search", defaultSearchMap()));
+                    valuesMobile.put("button", raw.getOrDefault("button", defaultButtonMap()));
+
+                    root.put("valuesMobile", valuesMobile);
+                }
+            }
+
+            // ── 2. ✅ Override menuType from brandingJson ─────────────────
+            String menuFromBranding = ThemeJsonBuilder.extractMenuTypeFromBranding(brandingJson);
+            if (menuFromBranding != null) {
+                String resolved = ThemeJsonBuilder.resolveMenuType(menuFromBranding);
+                root.put("menuType", resolved);
+                System.out.println("✅ runtime-config: menuType overridden from branding → " + resolved);
+            } else {
+                // ensure menuType key exists with a sane default
+                root.putIfAbsent("menuType", "bottom");
+            }
+
+            return MAPPER.writeValueAsString(root);
+
+        } catch (Exception e) {
+            System.out.println("⚠️ Theme normalisation failed: "
+                    + e.getClass().getSimpleName() + " → " + e.getMessage());
+            return fallbackMobileThemeJson();
+        }
+    }
+
+    // ─────────────────────────────────────────────────────────────────────
+    // helpers
+    // ─────────────────────────────────────────────────────────────────────
+
+    private Map<String, Object> parseFallbackRoot() throws Exception {
+        return MAPPER.readValue(fallbackMobileThemeJson(),
+                new TypeReference<Map<String, Object>>() {});
+    }
+
+    private void ensureColorDefaults(Map<String, Object> colors) {
+        Object primary = colors.getOrDefault("primary", "#16A34A");
+        colors.putIfAbsent("onPrimary",  "#FFFFFF");
+        colors.putIfAbsent("background", "#FFFFFF");
+        colors.putIfAbsent("surface",    "#FFFFFF");
+        colors.putIfAbsent("label",      "#111827");
+        colors.putIfAbsent("body",       "#374151");
+        colors.putIfAbsent("border",     primary);
+        Object error = colors.getOrDefault("error", "#DC2626");
+        colors.putIfAbsent("error",   error);
+        colors.putIfAbsent("danger",  error);
+        colors.putIfAbsent("muted",   "#9CA3AF");
+        colors.putIfAbsent("success", primary);
+    }
+
+    private String fallbackMobileThemeJson() {
+        try {
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("menuType", "bottom");
+
+            Map<String, Object> valuesMobile = new LinkedHashMap<>();
+            valuesMobile.put("colors", defaultColorsMap());
+            valuesMobile.put("card",   defaultCardMap());
+            valuesMobile.put("search", defaultSearchMap());
+            valuesMobile.put("button", defaultButtonMap());
+
+            root.put("valuesMobile", valuesMobile);
+            return MAPPER.writeValueAsString(root);
+        } catch (Exception e) {
+            return "{\"menuType\":\"bottom\",\"valuesMobile\":{\"colors\":"
+                    + "{\"primary\":\"#16A34A\",\"onPrimary\":\"#FFFFFF\","
+                    + "\"background\":\"#FFFFFF\",\"surface\":\"#FFFFFF\","
+                    + "\"label\":\"#111827\",\"body\":\"#374151\","
+                    + "\"border\":\"#16A34A\",\"error\":\"#DC2626\","
+                    + "\"danger\":\"#DC2626\",\"muted\":\"#9CA3AF\","
+                    + "\"success\":\"#16A34A\"}}}";
+        }
+    }
+
+    private Map<String, Object> defaultColorsMap() {
+        Map<String, Object> c = new LinkedHashMap<>();
+        c.put("primary",    "#16A34A");
+        c.put("onPrimary",  "#FFFFFF");
+        c.put("background", "#FFFFFF");
+        c.put("surface",    "#FFFFFF");
+        c.put("label",      "#111827");
+        c.put("body",       "#374151");
+        c.put("border",     "#16A34A");
+        c.put("error",      "#DC2626");
+        c.put("danger",     "#DC2626");
+        c.put("muted",      "#9CA3AF");
+        c.put("success",    "#16A34A");
+        return c;
+    }
+
+    private Map<String, Object> defaultCardMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("radius",      16);
+        m.put("elevation",   4);
+        m.put("padding",     12);
+        m.put("imageHeight", 120);
+        m.put("showShadow",  true);
+        m.put("showBorder",  true);
+        return m;
+    }
+
+    private Map<String, Object> defaultSearchMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("radius",      16);
+        m.put("borderWidth", 1.4);
+        m.put("dense",       true);
+        return m;
+    }
+
+    private Map<String, Object> defaultButtonMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("radius",    16);
+        m.put("height",    48);
+        m.put("textSize",  15);
+        m.put("fullWidth", true);
+        return m;
+    }
+
+    private String resolveThemeJson(Long themeId) {
+        Theme theme = null;
+
+        if (themeId != null) {
+            theme = themeRepo.findById(themeId).orElse(null);
+        }
+        if (theme == null) {
+            theme = themeRepo.findByIsActiveTrue().orElse(null);
+        }
+
+        if (theme == null || theme.getThemeJson() == null || theme.getThemeJson().isBlank()) {
+            return "{}";
+        }
+        return theme.getThemeJson();
+    }
+
+    private static String b64(String s) {
+        if (s == null) s = "";
+        return Base64.getEncoder().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nz(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static String slugify(String s) {
+        if (s == null) return "app";
+        return s.trim().toLowerCase()
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("(^-|-$)", "");
+    }
+}
@@ -682,12 +682,8 @@ public class AuthController {
 
             licensingService.requireUserSlotAvailable(ownerProjectLinkId);
 
-            UserStatus active = userStatusRepository.findByNameIgnoreCase("ACTIVE")
-                    .orElseThrow(() -> new RuntimeException("Status 'ACTIVE' not found"));
-
-            user.setStatus(active);
-            user.setLastLogin(LocalDateTime.now());
-            userService.save(user);
+            // takes the plan slot atomically with the status change
+            user = userService.reactivateUser(user);
 
             // ✅ Now issue REAL access token + refresh
             String token = jwtUtil.generateToken(user, ownerProjectLinkId);
@@ -4,6 +4,7 @@ import com.build4all.admin.domain.AdminUserProject;
 import com.build4all.catalog.domain.Item;
 import com.build4all.review.domain.Review;
 import com.build4all.role.domain.Role;
+import com.build4all.security.service.AuthPrincipalCacheListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
@@ -32,6 +33,7 @@ import java.util.List;
  */
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // avoids Jackson errors when serializing Hibernate proxies
 @Entity
+@EntityListeners(AuthPrincipalCacheListener.class) // evicts the cached auth principal on update/delete
 @Table(
         name = "businesses",
         uniqueConstraints = {
@@ -57,7 +59,10 @@ import java.util.List;
                 @Index(name = "idx_biz_email", columnList = "email"),
                 @Index(name = "idx_biz_phone", columnList = "phone_number"),
                 @Index(name = "idx_biz_status", columnList = "status"),
-                @Index(name = "idx_biz_public", columnList = "is_public_profile")
+                @Index(name = "idx_biz_public", columnList = "is_public_profile"),
+
+                // Retention jobs: WHERE status = ? AND updated_at < ?
+                @Index(name = "idx_biz_status_updated", columnList = "status, updated_at")
         }
 )
 public class Businesses implements UserDetails {
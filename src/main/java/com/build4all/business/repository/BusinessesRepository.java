@@ -4,8 +4,11 @@ package com.build4all.business.repository;
 import com.build4all.business.domain.BusinessStatus;
 import com.build4all.business.domain.Businesses;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -264,4 +267,47 @@ public interface BusinessesRepository extends JpaRepository<Businesses, Long> {
      *   AND b.status = :statusId;
      */
     List<Businesses> findByOwnerProjectLink_IdAndIsPublicProfileTrueAndStatus(Long ownerProjectLinkId, BusinessStatus status);
+
+    /* ================ Retention (RetentionJobRunner chunks) ================ */
+
+    /**
+     * Moves at most :limit businesses from one status to another (idle since :cutoff) and returns their ids.
+     * Uses idx_biz_status_updated; SKIP LOCKED so a business being edited right now is left for the next chunk.
+     *
+     * Bulk statement: the AuthPrincipalCache listener does not fire, callers evict the returned ids.
+     */
+    @Query(value = """
+        UPDATE businesses
+           SET status = :toStatusId, updated_at = :now
+         WHERE business_id IN (
+               SELECT business_id
+                 FROM businesses
+                WHERE status = :fromStatusId
+                  AND updated_at < :cutoff
+                ORDER BY updated_at
+                LIMIT :limit
+                  FOR UPDATE SKIP LOCKED
+         )
+        RETURNING business_id
+    """, nativeQuery = true)
+    List<Long> moveStatusBatch(@Param("fromStatusId") Long fromStatusId,
+                               @Param("toStatusId") Long toStatusId,
+                               @Param("cutoff") LocalDateTime cutoff,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
+
+    /** Next :limit businesses in a status idle since :cutoff, keyset-paged by id (business_id > :afterId). */
+    @Query(value = """
+        SELECT business_id
+          FROM businesses
+         WHERE status = :statusId
+           AND updated_at < :cutoff
+           AND business_id > :afterId
+         ORDER BY business_id
+         LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findIdsByStatusBefore(@Param("statusId") Long statusId,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
 }
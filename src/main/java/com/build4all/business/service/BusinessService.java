@@ -10,12 +10,14 @@ import com.build4all.business.dto.LowRatedBusinessDTO;
 import com.build4all.business.repository.*;
 import com.build4all.catalog.domain.Item;
 import com.build4all.catalog.repository.ItemRepository;
+import com.build4all.common.jobs.RetentionJobRunner;
 import com.build4all.notifications.service.EmailService;
 import com.build4all.order.repository.OrderItemRepository;
 import com.build4all.review.domain.Review;
 import com.build4all.review.repository.ReviewRepository;
 import com.build4all.role.domain.Role;
 import com.build4all.role.repository.RoleRepository;
+import com.build4all.security.service.AuthPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -43,6 +45,8 @@ public class BusinessService {
     @Autowired private RoleRepository roleRepository;                        // Role table (BUSINESS, OWNER, SUPER_ADMIN, USER)
     @Autowired private BusinessStatusRepository businessStatusRepository;    // BusinessStatus table (ACTIVE, INACTIVE, DELETED, ...)
     @Autowired private AdminUserProjectRepository adminUserProjectRepository;// Tenant link table (app/tenant context)
+    @Autowired private RetentionJobRunner retentionJobRunner;                // Chunked, leased cleanup jobs
+    @Autowired private AuthPrincipalCache authPrincipalCache;                // Evicted after bulk status changes
 
     private final EmailService emailService; // Email sending (verification codes, invites)
     public BusinessService(EmailService emailService) { this.emailService = emailService; }
@@ -876,42 +880,47 @@ public class BusinessService {
      * - Converts status INACTIVE -> DELETED
      * - Updates updatedAt
      *
-     * NOTE: Current implementation loads ALL businesses then filters in memory.
-     * Better: create a repository query that selects only matching businesses.
+     * Set-based: one UPDATE ... WHERE status = INACTIVE AND updated_at < cutoff LIMIT n per chunk
+     * (idx_biz_status_updated), one transaction per chunk, one replica at a time (RetentionJobRunner).
      */
     @Scheduled(cron = "0 0 2 * * *")
     public void deleteInactiveBusinessesOlderThan30Days() {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
 
-        BusinessStatus deleted = businessStatusRepository.findByNameIgnoreCase("DELETED")
-                .orElseThrow(() -> new RuntimeException("DELETED status not found"));
+        Long inactiveId = getStatusByName("INACTIVE").getId();
+        Long deletedId = getStatusByName("DELETED").getId();
 
-        List<Businesses> toSoftDelete = businessRepository.findAll().stream()
-                .filter(b -> b.getStatus() != null && "INACTIVE".equalsIgnoreCase(b.getStatus().getName()))
-                .filter(b -> b.getUpdatedAt() != null && b.getUpdatedAt().isBefore(cutoffDate))
-                .toList();
-
-        for (Businesses b : toSoftDelete) {
-            b.setStatus(deleted);
-            b.setUpdatedAt(LocalDateTime.now());
-            businessRepository.save(b);
-        }
+        retentionJobRunner.run("businesses.softDeleteInactive", limit -> {
+            List<Long> ids = businessRepository.moveStatusBatch(inactiveId, deletedId, cutoffDate, LocalDateTime.now(), limit);
+            authPrincipalCache.evictAll("BUSINESS", ids);
+            return ids.size();
+        });
     }
 
     /**
      * Nightly job: permanently delete businesses that stayed DELETED for 90+ days.
-     * NOTE: Also loads all businesses in memory; consider DB query for performance.
+     * Ids come from the (status, updated_at) index in chunks; rows are removed through JPA
+     * so the cascades on Businesses (items, staff, ...) still apply.
+     * One transaction per row, cursor past the chunk: a business that cannot be deleted is skipped
+     * (retried next night) instead of blocking the rest.
      */
     @Scheduled(cron = "0 0 3 * * *")
     public void permanentlyDeleteBusinessesAfter90Days() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        Long deletedId = getStatusByName("DELETED").getId();
+        long[] lastId = {0L};
+
+        retentionJobRunner.run("businesses.purgeDeleted", limit -> {
+            List<Long> ids = businessRepository.findIdsByStatusBefore(deletedId, cutoff, lastId[0], limit);
+            if (ids.isEmpty()) return 0;
 
-        List<Businesses> toDelete = businessRepository.findAll().stream()
-                .filter(b -> b.getStatus() != null && "DELETED".equalsIgnoreCase(b.getStatus().getName()))
-                .filter(b -> b.getUpdatedAt() != null && b.getUpdatedAt().isBefore(cutoff))
-                .toList();
+            lastId[0] = ids.get(ids.size() - 1);
 
-        for (Businesses b : toDelete) businessRepository.delete(b);
+            for (Long id : ids) {
+                retentionJobRunner.runRow("businesses.purgeDeleted", id, () -> businessRepository.deleteById(id));
+            }
+            return ids.size();
+        });
     }
 
     /* =====================================================================
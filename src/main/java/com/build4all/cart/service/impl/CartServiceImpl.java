@@ -148,8 +148,9 @@ public class CartServiceImpl implements CartService {
 
         Cart cart = getOrCreateActiveCart(userId);
 
-        // 🔒 TENANT-SCOPED STOCK LOCK
-        Item item = itemRepo.findByTenantForUpdate(aupId, request.getItemId())
+        // ✅ No row lock: concurrent add-to-cart on a hot item must not queue on the item row.
+        // Stock is only pre-checked here; checkout re-checks under lock and decrements atomically.
+        Item item = itemRepo.findByTenantSnapshot(aupId, request.getItemId())
                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
         assertItemPurchasableForCart(item);
@@ -199,8 +200,8 @@ public class CartServiceImpl implements CartService {
         } else {
             Long itemId = ci.getItem().getId();
 
-            // 🔒 TENANT-SCOPED LOCK
-            Item fresh = itemRepo.findByTenantForUpdate(aupId, itemId)
+            // ✅ Optimistic pre-check (no lock), authoritative check happens at checkout
+            Item fresh = itemRepo.findByTenantSnapshot(aupId, itemId)
                     .orElseThrow(() -> new IllegalArgumentException("Item not found"));
 
             assertItemPurchasableForCart(fresh);
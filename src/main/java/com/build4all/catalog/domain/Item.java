@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "items")
 @Inheritance(strategy = InheritanceType.JOINED)
-public abstract class Item {
+public abstract class Item implements ItemCapabilities {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -126,6 +126,21 @@ public abstract class Item {
         return isOnSaleNow() ? salePrice : price;
     }
 
+    // ---------------- capabilities (see ItemCapabilities) ----------------
+
+    @Override
+    public Integer stockLevel() { return stock; }
+
+    @Override
+    public Integer seatCapacity() { return null; }
+
+    @Override
+    public String displayName() {
+        if (name == null) return null;
+        String n = name.trim();
+        return n.isEmpty() ? null : n;
+    }
+
     // ---------------- getters & setters ----------------
 
     public Long getId() { return id; }
@@ -0,0 +1,22 @@
+package com.build4all.catalog.domain;
+
+/**
+ * Typed capability view of an Item, used by checkout / quote / owner order edits.
+ *
+ * Item implements the defaults, subclasses of the JOINED hierarchy override what they add
+ * (Activity -> seat capacity). Plain virtual calls: no reflection, no allocation,
+ * and they also work through Hibernate proxies (proxies delegate every public method).
+ *
+ * Method names intentionally avoid the "get" prefix so Jackson / JPA don't see extra properties.
+ */
+public interface ItemCapabilities {
+
+    /** Tracked stock (items.stock), or null when the item does not track stock. */
+    Integer stockLevel();
+
+    /** Max seats / participants (activities), or null when capacity is not limited. */
+    Integer seatCapacity();
+
+    /** Trimmed display name, or null when the item has no usable name. */
+    String displayName();
+}
@@ -8,12 +8,33 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemAttributeValueRepository extends JpaRepository<ItemAttributeValue, Long> {
 
     List<ItemAttributeValue> findByItem(Item item);
 
+    /** Attribute values of many items in one query, attribute fetched (no per-value lazy load). */
+    @Query("""
+           select v
+           from ItemAttributeValue v
+           join fetch v.attribute
+           where v.item.id in :itemIds
+           order by v.item.id, v.id
+           """)
+    List<ItemAttributeValue> findByItemIdsWithAttribute(@Param("itemIds") Collection<Long> itemIds);
+
+    /** Values of the tenant's filterable attributes (search facets), attribute fetched. */
+    @Query("""
+           select v
+           from ItemAttributeValue v
+           join fetch v.attribute a
+           where v.item.ownerProject.id = :ownerProjectId
+             and a.filterable = true
+           """)
+    List<ItemAttributeValue> findFilterableByOwnerProject(@Param("ownerProjectId") Long ownerProjectId);
+
     List<ItemAttributeValue> findByItemAndAttribute(Item item, ItemAttribute attribute);
     
     @Modifying(clearAutomatically = true, flushAutomatically = true)
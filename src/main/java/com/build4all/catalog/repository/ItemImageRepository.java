@@ -2,8 +2,11 @@ package com.build4all.catalog.repository;
 
 import com.build4all.catalog.domain.ItemImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +15,15 @@ public interface ItemImageRepository extends JpaRepository<ItemImage, Long> {
 
     List<ItemImage> findByItem_IdOrderBySortOrderAscIdAsc(Long itemId);
 
+    /** Images of many items in one query (same per-item order as findByItem_IdOrderBySortOrderAscIdAsc). */
+    @Query("""
+           select img
+           from ItemImage img
+           where img.item.id in :itemIds
+           order by img.item.id, img.sortOrder asc, img.id asc
+           """)
+    List<ItemImage> findByItemIdsOrdered(@Param("itemIds") Collection<Long> itemIds);
+
     Optional<ItemImage> findByItem_IdAndMainImageTrue(Long itemId);
 
     Optional<ItemImage> findByIdAndItem_Id(Long id, Long itemId);
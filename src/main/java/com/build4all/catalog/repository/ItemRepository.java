@@ -11,10 +11,14 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,6 +60,22 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     """)
     Optional<Item> findByTenantForUpdate(@Param("aupId") Long aupId,
                                         @Param("itemId") Long itemId);
+
+    /**
+     * Same tenant-scoped lookup WITHOUT a row lock (add/update cart).
+     * The stock check done with it is only optimistic: the authoritative one is the
+     * locked read + conditional decrement at checkout.
+     * Read-only: Hibernate keeps no snapshot for dirty checking.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        select i
+        from Item i
+        where i.id = :itemId
+          and i.ownerProject.id = :aupId
+    """)
+    Optional<Item> findByTenantSnapshot(@Param("aupId") Long aupId,
+                                       @Param("itemId") Long itemId);
     
     
     
@@ -149,6 +169,15 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select i from Item i where i.id = :id")
     Optional<Item> findByIdForStockCheck(@Param("id") Long id);
+
+    /**
+     * Batch variant of findByIdForStockCheck (checkout):
+     * one IN query, rows locked in id order so two concurrent checkouts
+     * touching the same items always lock them in the same order (no deadlock).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :ids order by i.id")
+    List<Item> findAllByIdInForStockCheck(@Param("ids") Collection<Long> ids);
     
     
  
@@ -160,6 +189,27 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
         where i.id = :id and i.stock >= :qty
     """)
     int decrementStockIfEnough(@Param("id") Long id, @Param("qty") int qty);
+
+
+    /**
+     * Batch variant of decrementStockIfEnough + findStockValue (one statement):
+     * ids[k] is decremented by qtys[k] only if it has enough stock.
+     *
+     * Returns one row [itemId, newStock] per decremented item;
+     * an item missing from the result did NOT have enough stock.
+     */
+    @Query(value = """
+        UPDATE items i
+        SET stock = i.stock - v.qty
+        FROM (
+            SELECT UNNEST(CAST(:ids AS BIGINT[])) AS item_id,
+                   UNNEST(CAST(:qtys AS INTEGER[])) AS qty
+        ) v
+        WHERE i.item_id = v.item_id
+          AND i.stock >= v.qty
+        RETURNING i.item_id, i.stock
+    """, nativeQuery = true)
+    List<Object[]> decrementStocksIfEnough(@Param("ids") Long[] ids, @Param("qtys") Integer[] qtys);
     
     
     @Lock(LockModeType.PESSIMISTIC_WRITE)
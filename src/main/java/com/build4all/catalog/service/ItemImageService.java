@@ -12,8 +12,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,6 +24,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class ItemImageService {
 
+    /** Max ids per IN (...) list. */
+    private static final int IN_CHUNK = 1_000;
+
     private final ItemImageRepository itemImageRepository;
     private final Path uploadRoot = Paths.get("uploads", "items");
 
@@ -43,6 +49,23 @@ public class ItemImageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Images of many items with one query per IN_CHUNK ids (list screens).
+     * Items without images are absent from the map.
+     */
+    public Map<Long, List<ItemImageDTO>> getImagesByItemIds(Collection<Long> itemIds) {
+        if (itemIds == null || itemIds.isEmpty()) return Map.of();
+
+        List<Long> ids = new ArrayList<>(itemIds);
+        Map<Long, List<ItemImageDTO>> byItemId = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            for (ItemImage img : itemImageRepository.findByItemIdsOrdered(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)))) {
+                byItemId.computeIfAbsent(img.getItem().getId(), k -> new ArrayList<>()).add(toDto(img));
+            }
+        }
+        return byItemId;
+    }
+
     public List<ItemImage> saveNewImages(Item item, List<MultipartFile> files, Integer mainImageIndex) throws IOException {
         if (item == null || item.getId() == null) {
             throw new IllegalArgumentException("Item must be saved before adding images");
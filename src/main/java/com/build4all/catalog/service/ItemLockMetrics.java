@@ -0,0 +1,101 @@
+package com.build4all.catalog.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Wait time spent acquiring item row locks (SELECT ... FOR UPDATE on items), per item.
+ *
+ * Wrap every locking item read with {@link #timed}; the elapsed time of the call is
+ * almost entirely lock wait when the row is contended (the read itself is a PK lookup).
+ *
+ * In-memory, per instance, bounded to MAX_TRACKED_ITEMS (the hottest ones are kept).
+ */
+@Component
+public class ItemLockMetrics {
+
+    private static final int MAX_TRACKED_ITEMS = 2_000;
+
+    private final ConcurrentHashMap<Long, Stat> stats = new ConcurrentHashMap<>();
+
+    public <T> T timed(Long itemId, Supplier<T> lockingRead) {
+        long start = System.nanoTime();
+        try {
+            return lockingRead.get();
+        } finally {
+            record(itemId, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Batch lock (one SELECT ... FOR UPDATE over several ids): the whole wait is charged
+     * to every item, since any one of them may be the row we were queued behind.
+     */
+    public <T> T timedAll(Collection<Long> itemIds, Supplier<T> lockingRead) {
+        long start = System.nanoTime();
+        try {
+            return lockingRead.get();
+        } finally {
+            long waited = System.nanoTime() - start;
+            for (Long id : itemIds) record(id, waited);
+        }
+    }
+
+    public void record(Long itemId, long waitNanos) {
+        if (itemId == null) return;
+
+        if (stats.size() >= MAX_TRACKED_ITEMS && !stats.containsKey(itemId)) {
+            evictColdest();
+        }
+
+        Stat s = stats.computeIfAbsent(itemId, k -> new Stat());
+        s.count.incrementAndGet();
+        s.totalNanos.addAndGet(waitNanos);
+        s.maxNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /** Top N items by total lock wait (ms). */
+    public List<Map<String, Object>> top(int limit) {
+        List<Map.Entry<Long, Stat>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Long, Stat> e) -> e.getValue().totalNanos.get()).reversed());
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (var e : entries.subList(0, Math.min(Math.max(limit, 0), entries.size()))) {
+            Stat s = e.getValue();
+            long count = s.count.get();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("itemId", e.getKey());
+            row.put("locks", count);
+            row.put("totalWaitMs", s.totalNanos.get() / 1_000_000.0);
+            row.put("avgWaitMs", count == 0 ? 0.0 : s.totalNanos.get() / 1_000_000.0 / count);
+            row.put("maxWaitMs", s.maxNanos.get() / 1_000_000.0);
+            out.add(row);
+        }
+        return out;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private void evictColdest() {
+        stats.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().totalNanos.get()))
+                .ifPresent(e -> stats.remove(e.getKey(), e.getValue()));
+    }
+
+    private static final class Stat {
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+}
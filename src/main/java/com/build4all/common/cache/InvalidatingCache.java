@@ -0,0 +1,143 @@
+package com.build4all.common.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache invalidated by JPA listeners, shared by the per-tenant caches
+ * (ProductSearchIndexCache, TaxRuleIndexCache, PaymentConfigCache, HomePageSnapshotCache,
+ * EntitlementSnapshotCache, RuntimeConfigArtifactService).
+ *
+ * - every key belongs to a scope (usually the tenant / app id); invalidate(scope) drops all its keys
+ * - entries live at most ttlMs (or until the expiry given to put), bounding staleness for changes
+ *   made by another instance
+ * - a load that raced with an invalidation is returned to its caller but not stored: stamp() before
+ *   loading, put() only stores while the scope (and the global) generation is unchanged
+ * - at maxEntries expired entries are purged, then everything is dropped (reloaded on next read)
+ * - invalidateNowAndAfterCommit also runs after the surrounding transaction commits, so a concurrent
+ *   reload of the pre-commit rows can't stay cached
+ */
+public final class InvalidatingCache<K, V> {
+
+    /** Generations seen before a load (see put). */
+    public record Stamp(long scope, long global) {}
+
+    private record Entry<V>(V value, long expiresAtMs) {}
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Function<K, Long> scopeOf;
+    private final boolean keyIsScope;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    private InvalidatingCache(long ttlMs, int maxEntries, Function<K, Long> scopeOf, boolean keyIsScope) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.scopeOf = scopeOf;
+        this.keyIsScope = keyIsScope;
+    }
+
+    /** One entry per scope id (tenant / app). */
+    public static <V> InvalidatingCache<Long, V> perScope(long ttlMs, int maxEntries) {
+        return new InvalidatingCache<>(ttlMs, maxEntries, k -> k, true);
+    }
+
+    /** Several entries per scope; scopeOf maps a key to its scope id. */
+    public static <K, V> InvalidatingCache<K, V> keyed(long ttlMs, int maxEntries, Function<K, Long> scopeOf) {
+        return new InvalidatingCache<>(ttlMs, maxEntries, scopeOf, false);
+    }
+
+    /** Cached value, or null when missing / expired. */
+    public V getIfFresh(K key) {
+        if (key == null) return null;
+        Entry<V> e = entries.get(key);
+        return e != null && System.currentTimeMillis() < e.expiresAtMs() ? e.value() : null;
+    }
+
+    /** Cached value, else loader.get() (stored unless invalidated meanwhile; null is not stored). */
+    public V get(K key, Supplier<V> loader) {
+        V cached = getIfFresh(key);
+        return cached != null ? cached : load(key, loader);
+    }
+
+    /** Always loads, then stores unless invalidated meanwhile. */
+    public V load(K key, Supplier<V> loader) {
+        Stamp stamp = stamp(key);
+        V loaded = loader.get();
+        put(key, stamp, loaded);
+        return loaded;
+    }
+
+    public Stamp stamp(K key) {
+        Long scope = key == null ? null : scopeOf.apply(key);
+        long generation = scope == null ? 0L : generations.getOrDefault(scope, 0L);
+        return new Stamp(generation, globalGeneration.get());
+    }
+
+    public void put(K key, Stamp stamp, V value) {
+        put(key, stamp, value, Long.MAX_VALUE);
+    }
+
+    /** Stores value until min(now + ttlMs, expiresAtMs), if nothing was invalidated since stamp. */
+    public void put(K key, Stamp stamp, V value, long expiresAtMs) {
+        if (key == null || value == null) return;
+
+        long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(x -> now >= x.expiresAtMs());
+            if (entries.size() >= maxEntries) entries.clear();
+        }
+
+        Entry<V> entry = new Entry<>(value, Math.min(now + ttlMs, expiresAtMs));
+        entries.compute(key, (k, cur) -> stamp.equals(stamp(k)) ? entry : cur);
+    }
+
+    public void invalidate(Long scope) {
+        if (scope == null) return;
+        generations.merge(scope, 1L, Long::sum);
+        if (keyIsScope) {
+            entries.remove(scope);
+        } else {
+            entries.keySet().removeIf(k -> scope.equals(scopeOf.apply(k)));
+        }
+    }
+
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        entries.clear();
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long scope) {
+        if (scope == null) return;
+        invalidate(scope);
+        afterCommit(() -> invalidate(scope));
+    }
+
+    public void invalidateAllNowAndAfterCommit() {
+        invalidateAll();
+        afterCommit(this::invalidateAll);
+    }
+
+    public int size() { return entries.size(); }
+
+    /** Runs r after the surrounding transaction commits; nothing when there is no transaction. */
+    public static void afterCommit(Runnable r) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    r.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.build4all.common.jobs;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per scheduled job: whoever holds an unexpired lease is the only replica running it.
+ *
+ * Rows are created/taken over by JobLeaseRepository.tryAcquire (INSERT ... ON CONFLICT),
+ * never through save().
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "locked_by", length = 200)
+    private String lockedBy;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    public String getName() { return name; }
+
+    public String getLockedBy() { return lockedBy; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+
+    public LocalDateTime getLastStartedAt() { return lastStartedAt; }
+
+    public LocalDateTime getLastFinishedAt() { return lastFinishedAt; }
+}
@@ -0,0 +1,46 @@
+package com.build4all.common.jobs;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Takes the lease if nobody holds it (or the holder's lease expired).
+     * Returns 1 when acquired, 0 when another replica holds it.
+     *
+     * Equivalent SQL: one atomic upsert; the conflicting row is only overwritten when expired.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO job_leases (name, locked_by, locked_until, last_started_at)
+        VALUES (:name, :owner, :until, :now)
+        ON CONFLICT (name) DO UPDATE
+           SET locked_by = EXCLUDED.locked_by,
+               locked_until = EXCLUDED.locked_until,
+               last_started_at = EXCLUDED.last_started_at
+         WHERE job_leases.locked_until < :now
+    """, nativeQuery = true)
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    /** Releases only our own lease (a replica that took over an expired one keeps it). */
+    @Modifying
+    @Query(value = """
+        UPDATE job_leases
+           SET locked_until = :now, last_finished_at = :now
+         WHERE name = :name
+           AND locked_by = :owner
+    """, nativeQuery = true)
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
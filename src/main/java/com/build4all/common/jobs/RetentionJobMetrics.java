@@ -0,0 +1,82 @@
+package com.build4all.common.jobs;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-job counters of RetentionJobRunner (in-memory, per instance).
+ * Only runs that actually held the lease are recorded as runs; skipped ones are counted apart.
+ */
+@Component
+public class RetentionJobMetrics {
+
+    /** Outcome of one run. */
+    public record Run(String job, boolean leased, long rows, int chunks, long elapsedMs, String error) {}
+
+    private final ConcurrentHashMap<String, Stat> stats = new ConcurrentHashMap<>();
+
+    public void record(Run run) {
+        Stat s = stats.computeIfAbsent(run.job(), k -> new Stat());
+
+        if (!run.leased()) {
+            s.skipped.incrementAndGet();
+            return;
+        }
+
+        s.runs.incrementAndGet();
+        s.rows.addAndGet(run.rows());
+        s.totalMs.addAndGet(run.elapsedMs());
+        if (run.error() != null) s.errors.incrementAndGet();
+        s.last = run;
+        s.lastAt = LocalDateTime.now();
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> out = new ArrayList<>();
+
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .forEach(e -> {
+                    Stat s = e.getValue();
+                    Run last = s.last;
+
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("job", e.getKey());
+                    row.put("runs", s.runs.get());
+                    row.put("skippedNotLeader", s.skipped.get());
+                    row.put("errors", s.errors.get());
+                    row.put("rowsTotal", s.rows.get());
+                    row.put("msTotal", s.totalMs.get());
+                    row.put("lastRunAt", s.lastAt);
+                    row.put("lastRows", last == null ? null : last.rows());
+                    row.put("lastChunks", last == null ? null : last.chunks());
+                    row.put("lastMs", last == null ? null : last.elapsedMs());
+                    row.put("lastError", last == null ? null : last.error());
+                    out.add(row);
+                });
+
+        return out;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private static final class Stat {
+        final AtomicLong runs = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong totalMs = new AtomicLong();
+        volatile Run last;
+        volatile LocalDateTime lastAt;
+    }
+}
@@ -0,0 +1,113 @@
+package com.build4all.common.jobs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Runs retention / cleanup jobs as a sequence of small transactions:
+ *
+ * - a DB lease (job_leases) so only one replica runs a given job at a time
+ * - each chunk touches at most batchSize rows in its own transaction (short locks, bounded undo)
+ * - loops until a chunk comes back short, or the run budget (a bit less than the lease) is used up;
+ *   what is left is picked up by the next run
+ * - rows / chunks / duration of each run go to RetentionJobMetrics
+ */
+@Component
+public class RetentionJobRunner {
+
+    private static final long LEASE_MS = 30 * 60_000L;
+    private static final long RUN_BUDGET_MS = 25 * 60_000L;
+
+    /** One chunk: process at most {@code limit} rows, return how many were processed. */
+    @FunctionalInterface
+    public interface Chunk {
+        int run(int limit);
+    }
+
+    private final JobLeaseRepository leaseRepo;
+    private final RetentionJobMetrics metrics;
+    private final TransactionTemplate newTx;
+    private final int batchSize;
+    private final String owner;
+
+    public RetentionJobRunner(JobLeaseRepository leaseRepo,
+                              RetentionJobMetrics metrics,
+                              PlatformTransactionManager txManager,
+                              @Value("${build4all.retention.batchSize:500}") int batchSize) {
+        this.leaseRepo = leaseRepo;
+        this.metrics = metrics;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = Math.max(1, batchSize);
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public RetentionJobMetrics.Run run(String job, Chunk chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer acquired = newTx.execute(s -> leaseRepo.tryAcquire(job, owner, now, now.plus(LEASE_MS, ChronoUnit.MILLIS)));
+
+        if (acquired == null || acquired == 0) {
+            RetentionJobMetrics.Run skipped = new RetentionJobMetrics.Run(job, false, 0, 0, 0, null);
+            metrics.record(skipped);
+            return skipped;
+        }
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        int chunks = 0;
+        String error = null;
+
+        try {
+            while (System.currentTimeMillis() - start < RUN_BUDGET_MS) {
+                Integer n = newTx.execute(s -> chunk.run(batchSize));
+                int done = n == null ? 0 : n;
+
+                chunks++;
+                rows += done;
+                if (done < batchSize) break;
+            }
+        } catch (Exception e) {
+            // the failing chunk rolled back alone; earlier chunks stay committed
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            System.out.println("⚠️ Retention job " + job + " failed after " + rows + " rows => " + e.getMessage());
+        } finally {
+            try {
+                newTx.execute(s -> leaseRepo.release(job, owner, LocalDateTime.now()));
+            } catch (Exception e) {
+                System.out.println("⚠️ Retention job " + job + " could not release its lease => " + e.getMessage());
+            }
+        }
+
+        RetentionJobMetrics.Run run = new RetentionJobMetrics.Run(job, true, rows, chunks,
+                System.currentTimeMillis() - start, error);
+        metrics.record(run);
+
+        if (error == null) {
+            System.out.println("✅ Retention job " + job + ": " + rows + " rows in " + chunks + " chunks, " + run.elapsedMs() + " ms");
+        }
+        return run;
+    }
+
+    /**
+     * Inside a chunk: runs one row's work in its own transaction (the chunk's is suspended).
+     * A failure (FK, cascade, ...) rolls back that row only and returns false, so the chunk can
+     * move its cursor past it instead of failing on the same row every run.
+     */
+    public boolean runRow(String job, Object id, Runnable work) {
+        try {
+            newTx.executeWithoutResult(s -> work.run());
+            return true;
+        } catch (Exception e) {
+            System.out.println("⚠️ Retention job " + job + " skipped id=" + id + " => " + e.getMessage());
+            return false;
+        }
+    }
+}
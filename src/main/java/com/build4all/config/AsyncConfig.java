@@ -6,6 +6,9 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -21,4 +24,31 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * FCM outbox workers (PushDispatchService). Bounded: when full, execute() throws
+     * TaskRejectedException and the caller leaves / puts the job back to PENDING in push_outbox_jobs,
+     * where the scheduled drain picks it up.
+     */
+    @Bean(name = "pushExecutor")
+    public Executor pushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("push-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * AI provider calls (AiCallLimiter): one virtual thread per call, so a slow upstream only parks a
+     * virtual thread; concurrency is bounded by the limiter's permits, not by this executor.
+     * Interrupting a call (timeout / client gone) unblocks its socket I/O.
+     */
+    @Bean(name = "aiExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService aiExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-call-", 0).factory());
+    }
+}
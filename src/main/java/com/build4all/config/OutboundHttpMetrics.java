@@ -0,0 +1,79 @@
+package com.build4all.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound HTTP counters per remote host (PayPal, Facebook Graph...), fed by the shared RestTemplate interceptor.
+ *
+ * In-memory, per instance. "errors" = non-2xx responses, "ioErrors" = connect / read timeouts and resets.
+ */
+@Component
+public class OutboundHttpMetrics {
+
+    private static final int MAX_TRACKED_HOSTS = 500;
+
+    private final ConcurrentHashMap<String, Stat> stats = new ConcurrentHashMap<>();
+
+    public void record(String host, int status, long elapsedNanos) {
+        Stat s = stat(host);
+        s.requests.incrementAndGet();
+        if (status < 200 || status >= 300) s.errors.incrementAndGet();
+        s.totalNanos.addAndGet(elapsedNanos);
+        s.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public void recordIoError(String host, long elapsedNanos) {
+        Stat s = stat(host);
+        s.requests.incrementAndGet();
+        s.ioErrors.incrementAndGet();
+        s.totalNanos.addAndGet(elapsedNanos);
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        List<Map.Entry<String, Stat>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Stat> e) -> e.getValue().requests.get()).reversed());
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (var e : entries) {
+            Stat s = e.getValue();
+            long requests = s.requests.get();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("host", e.getKey());
+            row.put("requests", requests);
+            row.put("errors", s.errors.get());
+            row.put("ioErrors", s.ioErrors.get());
+            row.put("avgMs", requests == 0 ? 0.0 : s.totalNanos.get() / 1_000_000.0 / requests);
+            row.put("maxMs", s.maxNanos.get() / 1_000_000.0);
+            out.add(row);
+        }
+        return out;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private Stat stat(String host) {
+        String key = host == null ? "unknown" : host;
+        if (stats.size() >= MAX_TRACKED_HOSTS && !stats.containsKey(key)) {
+            key = "other";
+        }
+        return stats.computeIfAbsent(key, k -> new Stat());
+    }
+
+    private static final class Stat {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong ioErrors = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos = new AtomicLong();
+    }
+}
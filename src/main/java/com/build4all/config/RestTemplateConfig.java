@@ -1,13 +1,65 @@
 package com.build4all.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Shared outbound RestTemplate (PayPal, ...).
+ *
+ * - one java.net.http.HttpClient for the whole app: it keeps idle connections alive and reuses them
+ *   per host, so repeated provider calls skip the TCP + TLS handshake
+ * - connect / read timeouts, so a slow provider can't hold a request thread forever
+ * - every call is counted per host in OutboundHttpMetrics (/api/admin/super/diagnostics/http)
+ */
 @Configuration
 public class RestTemplateConfig {
+
+    @Value("${build4all.http.connectTimeoutMs:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${build4all.http.readTimeoutMs:15000}")
+    private long readTimeoutMs;
+
+    @Bean
+    public HttpClient outboundHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient outboundHttpClient, OutboundHttpMetrics metrics) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(outboundHttpClient);
+        factory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(metricsInterceptor(metrics));
+        return restTemplate;
+    }
+
+    private static ClientHttpRequestInterceptor metricsInterceptor(OutboundHttpMetrics metrics) {
+        return (request, body, execution) -> {
+            String host = request.getURI().getHost();
+            long start = System.nanoTime();
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                metrics.record(host, response.getStatusCode().value(), System.nanoTime() - start);
+                return response;
+            } catch (IOException e) {
+                metrics.recordIoError(host, System.nanoTime() - start);
+                throw e;
+            }
+        };
     }
 }
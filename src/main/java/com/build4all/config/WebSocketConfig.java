@@ -1,7 +1,9 @@
 package com.build4all.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -9,10 +11,60 @@ import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBr
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over WebSocket.
+ *
+ * Broker:
+ * - default: in-memory simple broker (single node: clients only see events published on their node)
+ * - build4all.ws.relay.enabled=true: STOMP broker relay (RabbitMQ / ActiveMQ / Artemis with the STOMP plugin),
+ *   so every replica publishes to, and every client subscribes through, the same external broker
+ *
+ * Channels: inbound (client -> app) and outbound (app -> client) executors are sized from properties;
+ * their pool / queue depth is visible on /api/admin/super/diagnostics/websocket.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${build4all.ws.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${build4all.ws.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${build4all.ws.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${build4all.ws.relay.virtualHost:}")
+    private String relayVirtualHost;
+
+    @Value("${build4all.ws.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${build4all.ws.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${build4all.ws.inbound.corePoolSize:4}")
+    private int inboundCore;
+
+    @Value("${build4all.ws.inbound.maxPoolSize:16}")
+    private int inboundMax;
+
+    @Value("${build4all.ws.inbound.queueCapacity:1000}")
+    private int inboundQueue;
+
+    @Value("${build4all.ws.outbound.corePoolSize:4}")
+    private int outboundCore;
+
+    @Value("${build4all.ws.outbound.maxPoolSize:16}")
+    private int outboundMax;
+
+    @Value("${build4all.ws.outbound.queueCapacity:5000}")
+    private int outboundQueue;
+
+    @Value("${build4all.scheduler.poolSize:4}")
+    private int schedulerPoolSize;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
 
@@ -37,20 +89,58 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
 
-        // ✅ IMPORTANT: enable heartbeat so mobile STOMP clients don't disconnect
-        registry.enableSimpleBroker("/topic")
-                .setHeartbeatValue(new long[]{10000, 10000})
-                .setTaskScheduler(heartBeatScheduler());
+        if (relayEnabled) {
+            // ✅ Multi-replica: fan-out through the external broker (heartbeats handled by the relay)
+            var relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(10000)
+                    .setSystemHeartbeatReceiveInterval(10000);
+
+            if (relayVirtualHost != null && !relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            System.out.println("✅ WebSocket: STOMP broker relay " + relayHost + ":" + relayPort);
+        } else {
+            // ✅ IMPORTANT: enable heartbeat so mobile STOMP clients don't disconnect
+            registry.enableSimpleBroker("/topic")
+                    .setHeartbeatValue(new long[]{10000, 10000})
+                    .setTaskScheduler(heartBeatScheduler());
+        }
 
         registry.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundCore)
+                .maxPoolSize(Math.max(inboundCore, inboundMax))
+                .queueCapacity(inboundQueue);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCore)
+                .maxPoolSize(Math.max(outboundCore, outboundMax))
+                .queueCapacity(outboundQueue);
+    }
+
+    /**
+     * Only TaskScheduler bean of the app, so it also runs every @Scheduled job
+     * (and the WebSocket event flush): more than one thread, or a long cleanup job would stall heartbeats.
+     */
     @Bean
     public TaskScheduler heartBeatScheduler() {
         ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
-        scheduler.setPoolSize(1);
+        scheduler.setPoolSize(Math.max(2, schedulerPoolSize));
         scheduler.setThreadNamePrefix("ws-heartbeat-");
         scheduler.initialize();
         return scheduler;
     }
-}
\ No newline at end of file
+}
@@ -28,6 +28,9 @@ public class Activity extends Item {
     @Column(name = "end_datetime")
     private LocalDateTime endDatetime;
 
+    @Override
+    public Integer seatCapacity() { return maxParticipants; }
+
     // Getters/Setters
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
@@ -1,12 +1,18 @@
 package com.build4all.features.ecommerce.domain;
 
 import com.build4all.catalog.domain.Item;
+import com.build4all.features.ecommerce.service.ProductSearchIndexListener;
+import com.build4all.home.sections.service.HomePageSnapshotListener;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "products")
+@EntityListeners({
+        ProductSearchIndexListener.class, // drops the tenant's cached search index on change
+        HomePageSnapshotListener.class    // home sections show product name/price/image
+})
 @PrimaryKeyJoinColumn(name = "item_id")  // FK to items.item_id
 public class Product extends Item {
 
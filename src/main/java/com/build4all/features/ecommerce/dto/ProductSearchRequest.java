@@ -0,0 +1,27 @@
+package com.build4all.features.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Storefront search query (GET /api/products/search).
+ *
+ * - q: free text over name, description and SKU (every word must match, as a prefix)
+ * - attributes: attribute code -> accepted values (OR inside one code, AND across codes)
+ * - sort: newest (default) | price_asc | price_desc | name
+ * - cursor: opaque token from the previous page (nextCursor)
+ */
+public record ProductSearchRequest(
+        String q,
+        Long categoryId,
+        Long itemTypeId,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean onSale,
+        Map<String, Set<String>> attributes,
+        String sort,
+        String cursor,
+        int limit
+) {
+}
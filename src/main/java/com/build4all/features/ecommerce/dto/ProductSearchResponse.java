@@ -0,0 +1,35 @@
+package com.build4all.features.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of storefront search results + facets.
+ *
+ * Facet counts are computed over ALL matches (not only this page); each facet ignores its own
+ * filter, so picking "Shoes" still shows how many results the other categories would give.
+ */
+public record ProductSearchResponse(
+        List<ProductResponse> items,
+        boolean hasMore,
+        String nextCursor,
+        long total,
+        Facets facets
+) {
+
+    public record Facets(
+            List<IdFacet> categories,
+            List<IdFacet> itemTypes,
+            PriceRange priceRange,
+            long onSaleCount,
+            Map<String, List<ValueFacet>> attributes
+    ) {}
+
+    public record IdFacet(Long id, String name, long count) {}
+
+    public record ValueFacet(String value, long count) {}
+
+    /** Effective (sale-aware) price bounds of the matches; null/null when nothing matched. */
+    public record PriceRange(BigDecimal min, BigDecimal max) {}
+}
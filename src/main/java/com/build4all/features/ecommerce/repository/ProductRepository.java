@@ -24,6 +24,17 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Search
     List<Product> findByOwnerProject_IdAndNameContainingIgnoreCase(Long ownerProjectId, String q);
 
+    /** Storefront search index source: every product of the tenant with type/category/status fetched. */
+    @Query("""
+           SELECT p
+           FROM Product p
+           JOIN FETCH p.itemType it
+           LEFT JOIN FETCH it.category c
+           LEFT JOIN FETCH p.status s
+           WHERE p.ownerProject.id = :ownerProjectId
+           """)
+    List<Product> findForSearchIndex(@Param("ownerProjectId") Long ownerProjectId);
+
     List<Product> findByOwnerProject_IdAndCreatedAtAfterOrderByCreatedAtDesc(
             Long ownerProjectId,
             LocalDateTime fromDate
@@ -0,0 +1,433 @@
+package com.build4all.features.ecommerce.service;
+
+import com.build4all.catalog.domain.ItemAttributeValue;
+import com.build4all.catalog.domain.ItemType;
+import com.build4all.features.ecommerce.domain.Product;
+import com.build4all.features.ecommerce.dto.ProductSearchRequest;
+import com.build4all.features.ecommerce.dto.ProductSearchResponse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, in-memory search index over the storefront-visible products of ONE tenant.
+ *
+ * - inverted index: token -> sorted doc ordinals (name, description, SKU); query words match as prefixes
+ * - facets: category, item type, effective price range, on-sale, filterable attribute values
+ * - keyset pagination: opaque cursor = (sort, sort key, id) of the last returned row
+ *
+ * Holds plain values only (no entities), so it is safe to share across threads/transactions.
+ * Built and invalidated by ProductSearchIndexCache.
+ */
+public final class ProductSearchIndex {
+
+    public enum Sort {
+        NEWEST, PRICE_ASC, PRICE_DESC, NAME;
+
+        static Sort parse(String s) {
+            if (s == null || s.isBlank()) return NEWEST;
+            try {
+                return Sort.valueOf(s.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid sort: " + s);
+            }
+        }
+    }
+
+    /** One page of ids (hydrated into ProductResponse by ProductService) + facets over all matches. */
+    public record Result(List<Long> pageIds, boolean hasMore, String nextCursor, long total,
+                         ProductSearchResponse.Facets facets) {}
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_VALUES_PER_ATTRIBUTE = 50;
+
+    private static final ProductSearchIndex EMPTY = new ProductSearchIndex(new Doc[0], new TreeMap<>());
+
+    /** Ordered by id desc (newest first), so NEWEST needs no sort. */
+    private final Doc[] docs;
+    private final TreeMap<String, int[]> postings;
+
+    private ProductSearchIndex(Doc[] docs, TreeMap<String, int[]> postings) {
+        this.docs = docs;
+        this.postings = postings;
+    }
+
+    public static ProductSearchIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return docs.length;
+    }
+
+    /**
+     * @param products        tenant products (only PUBLISHED / UPCOMING are indexed)
+     * @param attributeValues values of the tenant's filterable attributes (attribute fetched)
+     */
+    public static ProductSearchIndex build(List<Product> products, List<ItemAttributeValue> attributeValues) {
+        if (products == null || products.isEmpty()) return EMPTY;
+
+        Map<Long, Map<String, List<String>>> attrsByItem = new HashMap<>();
+        if (attributeValues != null) {
+            for (ItemAttributeValue v : attributeValues) {
+                if (v.getItem() == null || v.getAttribute() == null) continue;
+                String code = v.getAttribute().getCode();
+                String value = v.getValue() == null ? null : v.getValue().trim();
+                if (code == null || value == null || value.isEmpty()) continue;
+
+                attrsByItem.computeIfAbsent(v.getItem().getId(), k -> new HashMap<>())
+                        .computeIfAbsent(code, k -> new ArrayList<>(1))
+                        .add(value);
+            }
+        }
+
+        List<Product> visible = new ArrayList<>(products.size());
+        for (Product p : products) {
+            if (p != null && p.getId() != null && isPublicVisible(p)) visible.add(p);
+        }
+        visible.sort(Comparator.comparing(Product::getId).reversed());
+
+        Doc[] docs = new Doc[visible.size()];
+        Map<String, IntList> building = new HashMap<>();
+
+        for (int i = 0; i < docs.length; i++) {
+            Product p = visible.get(i);
+            ItemType type = p.getItemType();
+
+            docs[i] = new Doc(
+                    p.getId(),
+                    p.getName() == null ? "" : p.getName().trim().toLowerCase(Locale.ROOT),
+                    type == null || type.getCategory() == null ? null : type.getCategory().getId(),
+                    type == null || type.getCategory() == null ? null : type.getCategory().getName(),
+                    type == null ? null : type.getId(),
+                    type == null ? null : type.getName(),
+                    p.getPrice(),
+                    p.getSalePrice(),
+                    p.getSaleStart(),
+                    p.getSaleEnd(),
+                    attrsByItem.getOrDefault(p.getId(), Map.of())
+            );
+
+            Set<String> tokens = new HashSet<>();
+            tokenize(p.getName(), tokens);
+            tokenize(p.getDescription(), tokens);
+            tokenize(p.getSku(), tokens);
+            if (p.getSku() != null && !p.getSku().isBlank()) {
+                tokens.add(p.getSku().trim().toLowerCase(Locale.ROOT)); // "AB-123" also matches as a whole
+            }
+
+            for (String t : tokens) {
+                building.computeIfAbsent(t, k -> new IntList()).add(i);
+            }
+        }
+
+        TreeMap<String, int[]> postings = new TreeMap<>();
+        for (Map.Entry<String, IntList> en : building.entrySet()) {
+            postings.put(en.getKey(), en.getValue().toArray());
+        }
+
+        return new ProductSearchIndex(docs, postings);
+    }
+
+    /* ==================== search ==================== */
+
+    public Result search(ProductSearchRequest req, LocalDateTime now) {
+        Sort sort = Sort.parse(req.sort());
+        Doc after = decodeCursor(req.cursor(), sort);
+        Filters f = new Filters(req, now);
+
+        BitSet matched = matchText(req.q());
+
+        // Facets are disjunctive: each one counts docs passing every filter except its own
+        Map<Long, long[]> categoryCounts = new HashMap<>();
+        Map<Long, String> categoryNames = new HashMap<>();
+        Map<Long, long[]> typeCounts = new HashMap<>();
+        Map<Long, String> typeNames = new HashMap<>();
+        Map<String, Map<String, long[]>> attrCounts = new HashMap<>();
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        long onSaleCount = 0;
+
+        List<Doc> hits = new ArrayList<>();
+
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            Doc d = docs[i];
+
+            boolean cat = f.category(d);
+            boolean type = f.itemType(d);
+            boolean price = f.price(d);
+            boolean sale = f.onSale(d);
+            String failedAttr = null;
+            int attrFailures = 0;
+            for (Map.Entry<String, Set<String>> en : f.attributes.entrySet()) {
+                if (!Filters.attributeMatches(d, en.getKey(), en.getValue())) {
+                    failedAttr = en.getKey();
+                    attrFailures++;
+                }
+            }
+            boolean attrs = attrFailures == 0;
+
+            if (type && price && sale && attrs && d.categoryId() != null) {
+                categoryCounts.computeIfAbsent(d.categoryId(), k -> new long[1])[0]++;
+                categoryNames.putIfAbsent(d.categoryId(), d.categoryName());
+            }
+            if (cat && price && sale && attrs && d.itemTypeId() != null) {
+                typeCounts.computeIfAbsent(d.itemTypeId(), k -> new long[1])[0]++;
+                typeNames.putIfAbsent(d.itemTypeId(), d.itemTypeName());
+            }
+            if (cat && type && sale && attrs) {
+                BigDecimal p = d.effectivePrice(now);
+                if (p != null) {
+                    if (minPrice == null || p.compareTo(minPrice) < 0) minPrice = p;
+                    if (maxPrice == null || p.compareTo(maxPrice) > 0) maxPrice = p;
+                }
+            }
+            if (cat && type && price && attrs && d.onSale(now)) {
+                onSaleCount++;
+            }
+            if (cat && type && price && sale && attrFailures <= 1) {
+                for (Map.Entry<String, List<String>> en : d.attributes().entrySet()) {
+                    // with one failing attribute, only that attribute's own facet may count this doc
+                    if (attrFailures == 1 && !en.getKey().equals(failedAttr)) continue;
+                    Map<String, long[]> values = attrCounts.computeIfAbsent(en.getKey(), k -> new HashMap<>());
+                    for (String v : new LinkedHashSet<>(en.getValue())) {
+                        values.computeIfAbsent(v, k -> new long[1])[0]++;
+                    }
+                }
+            }
+
+            if (cat && type && price && sale && attrs) hits.add(d);
+        }
+
+        Comparator<Doc> order = order(sort, now);
+        if (sort != Sort.NEWEST) hits.sort(order);
+
+        int start = 0;
+        if (after != null) {
+            int pos = Collections.binarySearch(hits, after, order);
+            start = pos >= 0 ? pos + 1 : -(pos + 1);
+        }
+
+        int end = Math.min(hits.size(), start + req.limit());
+        List<Long> pageIds = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) pageIds.add(hits.get(i).id());
+
+        boolean hasMore = end < hits.size();
+        String nextCursor = hasMore ? encodeCursor(sort, hits.get(end - 1), now) : null;
+
+        ProductSearchResponse.Facets facets = new ProductSearchResponse.Facets(
+                idFacets(categoryCounts, categoryNames),
+                idFacets(typeCounts, typeNames),
+                new ProductSearchResponse.PriceRange(minPrice, maxPrice),
+                onSaleCount,
+                valueFacets(attrCounts)
+        );
+
+        return new Result(pageIds, hasMore, nextCursor, hits.size(), facets);
+    }
+
+    /** AND over query words; each word matches every indexed token it is a prefix of. */
+    private BitSet matchText(String q) {
+        BitSet matched = new BitSet(docs.length);
+        matched.set(0, docs.length);
+
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(q, terms);
+        if (terms.isEmpty()) return matched;
+
+        int used = 0;
+        for (String term : terms) {
+            if (used++ >= MAX_QUERY_TERMS) break;
+
+            BitSet termDocs = new BitSet(docs.length);
+            for (int[] list : postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                for (int ord : list) termDocs.set(ord);
+            }
+            matched.and(termDocs);
+            if (matched.isEmpty()) break;
+        }
+        return matched;
+    }
+
+    private static Comparator<Doc> order(Sort sort, LocalDateTime now) {
+        Comparator<Doc> newest = Comparator.comparing(Doc::id, Comparator.reverseOrder());
+        return switch (sort) {
+            case NEWEST -> newest;
+            case PRICE_ASC -> Comparator
+                    .comparing((Doc d) -> d.effectivePrice(now), Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()))
+                    .thenComparing(newest);
+            case PRICE_DESC -> Comparator
+                    .comparing((Doc d) -> d.effectivePrice(now), Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+                    .thenComparing(newest);
+            case NAME -> Comparator.comparing(Doc::nameKey).thenComparing(newest);
+        };
+    }
+
+    /* ==================== cursor ==================== */
+
+    private static String encodeCursor(Sort sort, Doc last, LocalDateTime now) {
+        BigDecimal price = last.effectivePrice(now);
+        String raw = sort.name() + "|" + last.id() + "|" + (price == null ? "" : price.toPlainString()) + "|" + last.nameKey();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes into a probe doc positioned exactly at the last returned row; null/blank => first page. */
+    private static Doc decodeCursor(String token, Sort sort) {
+        if (token == null || token.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || Sort.valueOf(parts[0]) != sort) throw new IllegalArgumentException();
+
+            BigDecimal price = parts[2].isEmpty() ? null : new BigDecimal(parts[2]);
+            return new Doc(Long.valueOf(parts[1]), parts[3], null, null, null, null,
+                    price, null, null, null, Map.of());
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /* ==================== helpers ==================== */
+
+    private static boolean isPublicVisible(Product p) {
+        if (p.getStatus() == null || p.getStatus().getCode() == null) return false;
+        String code = p.getStatus().getCode().trim().toUpperCase(Locale.ROOT);
+        return "PUBLISHED".equals(code) || "UPCOMING".equals(code);
+    }
+
+    private static void tokenize(String text, Set<String> out) {
+        if (text == null || text.isBlank()) return;
+        for (String t : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!t.isEmpty()) out.add(t);
+        }
+    }
+
+    private static List<ProductSearchResponse.IdFacet> idFacets(Map<Long, long[]> counts, Map<Long, String> names) {
+        List<ProductSearchResponse.IdFacet> out = new ArrayList<>(counts.size());
+        for (Map.Entry<Long, long[]> en : counts.entrySet()) {
+            out.add(new ProductSearchResponse.IdFacet(en.getKey(), names.get(en.getKey()), en.getValue()[0]));
+        }
+        out.sort(Comparator.comparingLong(ProductSearchResponse.IdFacet::count).reversed()
+                .thenComparing(ProductSearchResponse.IdFacet::id));
+        return out;
+    }
+
+    private static Map<String, List<ProductSearchResponse.ValueFacet>> valueFacets(Map<String, Map<String, long[]>> counts) {
+        Map<String, List<ProductSearchResponse.ValueFacet>> out = new TreeMap<>();
+        for (Map.Entry<String, Map<String, long[]>> en : counts.entrySet()) {
+            List<ProductSearchResponse.ValueFacet> values = new ArrayList<>(en.getValue().size());
+            for (Map.Entry<String, long[]> v : en.getValue().entrySet()) {
+                values.add(new ProductSearchResponse.ValueFacet(v.getKey(), v.getValue()[0]));
+            }
+            values.sort(Comparator.comparingLong(ProductSearchResponse.ValueFacet::count).reversed()
+                    .thenComparing(ProductSearchResponse.ValueFacet::value));
+            out.put(en.getKey(), values.size() > MAX_VALUES_PER_ATTRIBUTE
+                    ? new ArrayList<>(values.subList(0, MAX_VALUES_PER_ATTRIBUTE))
+                    : values);
+        }
+        return out;
+    }
+
+    /** Indexed values of one product (same sale rules as Item.isOnSaleNow, evaluated at query time). */
+    private record Doc(Long id, String nameKey,
+                       Long categoryId, String categoryName,
+                       Long itemTypeId, String itemTypeName,
+                       BigDecimal price, BigDecimal salePrice,
+                       LocalDateTime saleStart, LocalDateTime saleEnd,
+                       Map<String, List<String>> attributes) {
+
+        boolean onSale(LocalDateTime now) {
+            if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) return false;
+            if (salePrice == null || salePrice.compareTo(BigDecimal.ZERO) <= 0) return false;
+            if (salePrice.compareTo(price) >= 0) return false;
+            if (saleStart != null && now.isBefore(saleStart)) return false;
+            if (saleEnd != null && now.isAfter(saleEnd)) return false;
+            return true;
+        }
+
+        BigDecimal effectivePrice(LocalDateTime now) {
+            return onSale(now) ? salePrice : price;
+        }
+    }
+
+    private static final class Filters {
+        final Long categoryId;
+        final Long itemTypeId;
+        final BigDecimal minPrice;
+        final BigDecimal maxPrice;
+        final Boolean onSale;
+        final Map<String, Set<String>> attributes;
+        final LocalDateTime now;
+
+        Filters(ProductSearchRequest req, LocalDateTime now) {
+            this.categoryId = req.categoryId();
+            this.itemTypeId = req.itemTypeId();
+            this.minPrice = req.minPrice();
+            this.maxPrice = req.maxPrice();
+            this.onSale = req.onSale();
+            this.now = now;
+
+            Map<String, Set<String>> attrs = new HashMap<>();
+            if (req.attributes() != null) {
+                req.attributes().forEach((code, values) -> {
+                    if (code == null || code.isBlank() || values == null || values.isEmpty()) return;
+                    Set<String> lower = new HashSet<>();
+                    for (String v : values) if (v != null && !v.isBlank()) lower.add(v.trim().toLowerCase(Locale.ROOT));
+                    if (!lower.isEmpty()) attrs.put(code.trim(), lower);
+                });
+            }
+            this.attributes = attrs;
+        }
+
+        boolean category(Doc d) {
+            return categoryId == null || categoryId.equals(d.categoryId());
+        }
+
+        boolean itemType(Doc d) {
+            return itemTypeId == null || itemTypeId.equals(d.itemTypeId());
+        }
+
+        boolean price(Doc d) {
+            if (minPrice == null && maxPrice == null) return true;
+            BigDecimal p = d.effectivePrice(now);
+            if (p == null) return false;
+            if (minPrice != null && p.compareTo(minPrice) < 0) return false;
+            if (maxPrice != null && p.compareTo(maxPrice) > 0) return false;
+            return true;
+        }
+
+        boolean onSale(Doc d) {
+            return onSale == null || onSale == d.onSale(now);
+        }
+
+        static boolean attributeMatches(Doc d, String code, Set<String> acceptedLower) {
+            List<String> values = d.attributes().get(code);
+            if (values == null) return false;
+            for (String v : values) {
+                if (acceptedLower.contains(v.toLowerCase(Locale.ROOT))) return true;
+            }
+            return false;
+        }
+    }
+
+    /** Growable int[] (postings are appended in doc order, so they stay sorted and unique). */
+    private static final class IntList {
+        private int[] a = new int[4];
+        private int n;
+
+        void add(int v) {
+            if (n > 0 && a[n - 1] == v) return;
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(a, n);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.build4all.features.ecommerce.service;
+
+import com.build4all.catalog.repository.ItemAttributeValueRepository;
+import com.build4all.common.cache.InvalidatingCache;
+import com.build4all.features.ecommerce.repository.ProductRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant cache of {@link ProductSearchIndex} (storefront search).
+ *
+ * Invalidation:
+ * - any insert/update/delete of a Product or ItemAttributeValue row (ProductSearchIndexListener),
+ *   so owner CRUD, the dataset importer and the seeders are all covered; invalidated again after commit
+ * - TTL_MS bounds staleness for changes made by another instance (and category/type renames)
+ *
+ * Rebuild is lazy (next search) and atomic: a build that raced with an invalidation is discarded.
+ * Rebuilds are coalesced per tenant: concurrent searches on a cold/expired tenant wait for the one
+ * running build of the current generation instead of each loading the whole catalog.
+ */
+@Component
+public class ProductSearchIndexCache {
+
+    private static final long TTL_MS = 10 * 60_000L;
+    private static final int MAX_TENANTS = 1_000;
+
+    private final ProductRepository productRepository;
+    private final ItemAttributeValueRepository itemAttributeValueRepository;
+
+    private final InvalidatingCache<Long, ProductSearchIndex> indexes = InvalidatingCache.perScope(TTL_MS, MAX_TENANTS);
+    /** tenant -> build in progress (only reused by callers that see the same generation). */
+    private final ConcurrentHashMap<Long, Build> building = new ConcurrentHashMap<>();
+
+    public ProductSearchIndexCache(ProductRepository productRepository,
+                                   ItemAttributeValueRepository itemAttributeValueRepository) {
+        this.productRepository = productRepository;
+        this.itemAttributeValueRepository = itemAttributeValueRepository;
+    }
+
+    public ProductSearchIndex get(Long ownerProjectId) {
+        if (ownerProjectId == null) return ProductSearchIndex.empty();
+
+        ProductSearchIndex cached = indexes.getIfFresh(ownerProjectId);
+        if (cached != null) return cached;
+
+        InvalidatingCache.Stamp stamp = indexes.stamp(ownerProjectId);
+        Build mine = new Build(stamp, new CompletableFuture<>());
+        Build running = building.compute(ownerProjectId, (k, cur) ->
+                cur != null && cur.stamp().equals(stamp) ? cur : mine);
+        if (running != mine) return await(running.future());
+
+        try {
+            ProductSearchIndex built = ProductSearchIndex.build(
+                    productRepository.findForSearchIndex(ownerProjectId),
+                    itemAttributeValueRepository.findFilterableByOwnerProject(ownerProjectId)
+            );
+            indexes.put(ownerProjectId, stamp, built);
+
+            mine.future().complete(built);
+            return built;
+        } catch (RuntimeException | Error ex) {
+            mine.future().completeExceptionally(ex); // never leave waiters hanging
+            throw ex;
+        } finally {
+            building.remove(ownerProjectId, mine);
+        }
+    }
+
+    public void invalidate(Long ownerProjectId) {
+        indexes.invalidate(ownerProjectId);
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long ownerProjectId) {
+        indexes.invalidateNowAndAfterCommit(ownerProjectId);
+    }
+
+    private static ProductSearchIndex await(CompletableFuture<ProductSearchIndex> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+
+    private record Build(InvalidatingCache.Stamp stamp, CompletableFuture<ProductSearchIndex> future) {}
+}
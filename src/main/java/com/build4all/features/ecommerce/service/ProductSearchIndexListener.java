@@ -0,0 +1,40 @@
+package com.build4all.features.ecommerce.service;
+
+import com.build4all.catalog.domain.Item;
+import com.build4all.catalog.domain.ItemAttributeValue;
+import com.build4all.features.ecommerce.domain.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on Product and ItemAttributeValue: any change drops the tenant's cached ProductSearchIndex.
+ * Product declares it with @EntityListeners; ItemAttributeValue (catalog) gets it from META-INF/orm.xml,
+ * so the catalog domain doesn't depend on features.ecommerce.
+ *
+ * Bulk JPQL updates (stock decrements, attribute value bulk deletes) bypass listeners; stock is not
+ * indexed, and the bulk attribute delete always goes with a Product save/delete in ProductService.
+ */
+public class ProductSearchIndexListener {
+
+    private final ProductSearchIndexCache indexCache;
+
+    public ProductSearchIndexListener(ProductSearchIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        Item item = null;
+        if (entity instanceof Product p) {
+            item = p;
+        } else if (entity instanceof ItemAttributeValue v) {
+            item = v.getItem(); // may be a lazy Item proxy: no instanceof Product check
+        }
+
+        if (item == null || item.getOwnerProject() == null) return;
+        indexCache.invalidateNowAndAfterCommit(item.getOwnerProject().getId());
+    }
+}
@@ -9,6 +9,7 @@ import com.build4all.catalog.domain.ItemAttributeDataType;
 import com.build4all.catalog.domain.ItemAttributeValue;
 import com.build4all.catalog.domain.ItemStatus;
 import com.build4all.catalog.domain.ItemType;
+import com.build4all.catalog.dto.ItemImageDTO;
 import com.build4all.catalog.repository.CategoryRepository;
 import com.build4all.catalog.repository.CurrencyRepository;
 import com.build4all.catalog.repository.ItemAttributeRepository;
@@ -21,9 +22,12 @@ import com.build4all.features.ecommerce.domain.ProductType;
 import com.build4all.features.ecommerce.dto.AttributeValueDTO;
 import com.build4all.features.ecommerce.dto.ProductRequest;
 import com.build4all.features.ecommerce.dto.ProductResponse;
+import com.build4all.features.ecommerce.dto.ProductSearchRequest;
+import com.build4all.features.ecommerce.dto.ProductSearchResponse;
 import com.build4all.features.ecommerce.dto.ProductUpdateRequest;
 import com.build4all.features.ecommerce.repository.ProductRepository;
 import com.build4all.order.repository.OrderItemRepository;
+import com.build4all.order.service.ItemSalesRankService;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -48,6 +52,9 @@ public class ProductService {
     private static final String STATUS_PUBLISHED = "PUBLISHED";
     private static final String STATUS_ARCHIVED = "ARCHIVED";
 
+    /** Max ids per IN (...) list (attribute values of a product list). */
+    private static final int IN_CHUNK = 1_000;
+
     private final ItemImageService itemImageService;
     
     private final ProductRepository productRepository;
@@ -59,6 +66,8 @@ public class ProductService {
     private final OrderItemRepository orderItemRepository;
     private final CategoryRepository categoryRepository;
     private final ItemStatusRepository itemStatusRepository;
+    private final ItemSalesRankService itemSalesRankService;
+    private final ProductSearchIndexCache searchIndexCache;
 
     public ProductService(ProductRepository productRepository,
                           ItemTypeRepository itemTypeRepository,
@@ -69,7 +78,9 @@ public class ProductService {
                           OrderItemRepository orderItemRepository,
                           CategoryRepository categoryRepository,
                           ItemStatusRepository itemStatusRepository,
-                          ItemImageService itemImageService) {
+                          ItemImageService itemImageService,
+                          ItemSalesRankService itemSalesRankService,
+                          ProductSearchIndexCache searchIndexCache) {
         this.productRepository = productRepository;
         this.itemTypeRepository = itemTypeRepository;
         this.currencyRepository = currencyRepository;
@@ -80,6 +91,8 @@ public class ProductService {
         this.categoryRepository = categoryRepository;
         this.itemStatusRepository = itemStatusRepository;
         this.itemImageService = itemImageService;
+        this.itemSalesRankService = itemSalesRankService;
+        this.searchIndexCache = searchIndexCache;
     }
 
     /* =========================================================
@@ -508,16 +521,13 @@ public class ProductService {
        ========================================================= */
 
     public List<ProductResponse> listByOwnerProject(Long ownerProjectId) {
-        return productRepository.findByOwnerProject_Id(ownerProjectId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(productRepository.findByOwnerProject_Id(ownerProjectId));
     }
     
     public List<ProductResponse> listCustomerVisibleByOwnerProject(Long ownerProjectId) {
-        return productRepository.findByOwnerProject_Id(ownerProjectId).stream()
+        return toResponses(productRepository.findByOwnerProject_Id(ownerProjectId).stream()
                 .filter(this::isPublicVisibleStatus)
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
 
     public List<ProductResponse> listNewArrivals(Long ownerProjectId, Integer daysBack) {
@@ -526,12 +536,11 @@ public class ProductService {
         int days = (daysBack == null || daysBack <= 0) ? 14 : daysBack;
         LocalDateTime from = LocalDateTime.now().minusDays(days);
 
-        return productRepository
+        return toResponses(productRepository
                 .findByOwnerProject_IdAndCreatedAtAfterOrderByCreatedAtDesc(ownerProjectId, from)
                 .stream()
                 .filter(this::isPurchasableStatus)
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
     }
     
     public ProductResponse getCustomerVisibleSafe(Long id, Long ownerProjectId) {
@@ -539,9 +548,10 @@ public class ProductService {
     }
 
     public List<ProductResponse> listCustomerVisibleSafeByOwnerProject(Long ownerProjectId) {
-        return productRepository.findByOwnerProject_Id(ownerProjectId).stream()
+        return toResponses(productRepository.findByOwnerProject_Id(ownerProjectId).stream()
                 .filter(this::isPublicVisibleStatus)
-                .map(this::toResponse)
+                .toList())
+                .stream()
                 .map(this::hideCustomerDownloadUrl)
                 .collect(Collectors.toList());
     }
@@ -613,14 +623,8 @@ public class ProductService {
         if (ownerProjectId == null) throw new IllegalArgumentException("ownerProjectId is required");
         int max = (limit == null || limit <= 0) ? 10 : limit;
 
-        List<Object[]> rows = orderItemRepository.findBestSellingItemsByOwnerProject(ownerProjectId);
-        if (rows.isEmpty()) return List.of();
-
-        List<Long> itemIdsOrdered = rows.stream()
-                .map(r -> ((Number) r[0]).longValue())
-                .distinct()
-                .limit(max)
-                .toList();
+        // Precomputed ranking: bounded read of the top N, no GROUP BY over all sales
+        List<Long> itemIdsOrdered = itemSalesRankService.topProductIds(ownerProjectId, max);
 
         if (itemIdsOrdered.isEmpty()) return List.of();
 
@@ -628,12 +632,11 @@ public class ProductService {
         Map<Long, Product> productById = new HashMap<>();
         for (Product p : products) productById.put(p.getId(), p);
 
-        return itemIdsOrdered.stream()
+        return toResponses(itemIdsOrdered.stream()
                 .map(productById::get)
                 .filter(Objects::nonNull)
                 .filter(this::isPublicVisibleStatus)
-                .map(this::toResponse)
-                .toList();
+                .toList());
     }
     
     public List<ProductResponse> listCustomerVisibleSafeNewArrivals(Long ownerProjectId, Integer daysBack) {
@@ -642,11 +645,12 @@ public class ProductService {
         int days = (daysBack == null || daysBack <= 0) ? 14 : daysBack;
         LocalDateTime from = LocalDateTime.now().minusDays(days);
 
-        return productRepository
+        return toResponses(productRepository
                 .findByOwnerProject_IdAndCreatedAtAfterOrderByCreatedAtDesc(ownerProjectId, from)
                 .stream()
                 .filter(this::isPurchasableStatus)
-                .map(this::toResponse)
+                .toList())
+                .stream()
                 .map(this::hideCustomerDownloadUrl)
                 .collect(Collectors.toList());
     }
@@ -656,14 +660,8 @@ public class ProductService {
         if (ownerProjectId == null) throw new IllegalArgumentException("ownerProjectId is required");
         int max = (limit == null || limit <= 0) ? 10 : limit;
 
-        List<Object[]> rows = orderItemRepository.findBestSellingItemsByOwnerProject(ownerProjectId);
-        if (rows.isEmpty()) return List.of();
-
-        List<Long> itemIdsOrdered = rows.stream()
-                .map(r -> ((Number) r[0]).longValue())
-                .distinct()
-                .limit(max)
-                .toList();
+        // Precomputed ranking: bounded read of the top N, no GROUP BY over all sales
+        List<Long> itemIdsOrdered = itemSalesRankService.topProductIds(ownerProjectId, max);
 
         if (itemIdsOrdered.isEmpty()) return List.of();
 
@@ -671,13 +669,14 @@ public class ProductService {
         Map<Long, Product> productById = new HashMap<>();
         for (Product p : products) productById.put(p.getId(), p);
 
-        return itemIdsOrdered.stream()
+        return toResponses(itemIdsOrdered.stream()
                 .map(productById::get)
                 .filter(Objects::nonNull)
                 .filter(this::isPublicVisibleStatus)
-                .map(this::toResponse)
+                .toList())
+                .stream()
                 .map(this::hideCustomerDownloadUrl)
-                .toList();
+                .collect(Collectors.toList());
     }
 
     @Transactional(Transactional.TxType.SUPPORTS)
@@ -688,10 +687,11 @@ public class ProductService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        return productRepository.findActiveDiscountedByOwnerProject(ownerProjectId, now)
+        return toResponses(productRepository.findActiveDiscountedByOwnerProject(ownerProjectId, now)
                 .stream()
                 .filter(this::isRealActiveFlashSale)
-                .map(this::toResponse)
+                .toList())
+                .stream()
                 .map(this::hideCustomerDownloadUrl)
                 .collect(Collectors.toList());
     }
@@ -710,11 +710,8 @@ public class ProductService {
             throw new IllegalArgumentException("itemTypeId does not belong to ownerProject's project");
         }
 
-        return productRepository
-                .findByOwnerProject_IdAndItemType_Id(ownerProjectId, itemTypeId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(productRepository
+                .findByOwnerProject_IdAndItemType_Id(ownerProjectId, itemTypeId));
     }
     
     public List<ProductResponse> listCustomerVisibleByItemType(Long ownerProjectId, Long itemTypeId) {
@@ -740,11 +737,8 @@ public class ProductService {
             throw new IllegalArgumentException("categoryId does not belong to ownerProject's project");
         }
 
-        return productRepository
-                .findByOwnerProject_IdAndItemType_Category_Id(ownerProjectId, categoryId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(productRepository
+                .findByOwnerProject_IdAndItemType_Category_Id(ownerProjectId, categoryId));
     }
     
     
@@ -765,11 +759,60 @@ public class ProductService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        return productRepository.findActiveDiscountedByOwnerProject(ownerProjectId, now)
+        return toResponses(productRepository.findActiveDiscountedByOwnerProject(ownerProjectId, now)
                 .stream()
                 .filter(this::isRealActiveFlashSale)
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+                .toList());
+    }
+
+    /* =========================================================
+       SEARCH (storefront)
+       ========================================================= */
+
+    private static final int SEARCH_DEFAULT_LIMIT = 20;
+    private static final int SEARCH_MAX_LIMIT = 100;
+
+    /**
+     * Text + facet search over the tenant's PUBLISHED / UPCOMING products.
+     * Matching, facets and keyset paging run on the cached per-tenant ProductSearchIndex;
+     * only the returned page is loaded from DB (batched hydration).
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ProductSearchResponse search(Long ownerProjectId, ProductSearchRequest request, boolean hideDownloadUrl) {
+        if (ownerProjectId == null) throw new IllegalArgumentException("ownerProjectId is required");
+        if (request == null) throw new IllegalArgumentException("search request is required");
+
+        int limit = request.limit() <= 0 ? SEARCH_DEFAULT_LIMIT : Math.min(request.limit(), SEARCH_MAX_LIMIT);
+        ProductSearchRequest req = new ProductSearchRequest(
+                request.q(), request.categoryId(), request.itemTypeId(),
+                request.minPrice(), request.maxPrice(), request.onSale(),
+                request.attributes(), request.sort(), request.cursor(), limit
+        );
+
+        ProductSearchIndex.Result result = searchIndexCache.get(ownerProjectId).search(req, LocalDateTime.now());
+
+        List<Product> page = new ArrayList<>(result.pageIds().size());
+        if (!result.pageIds().isEmpty()) {
+            Map<Long, Product> byId = new HashMap<>();
+            for (Product p : productRepository.findByIdIn(result.pageIds())) byId.put(p.getId(), p);
+
+            for (Long id : result.pageIds()) {
+                Product p = byId.get(id);
+                // index may lag a just-changed product (other instance): re-check tenant + visibility
+                if (p != null && p.getOwnerProject() != null
+                        && ownerProjectId.equals(p.getOwnerProject().getId())
+                        && isPublicVisibleStatus(p)) {
+                    page.add(p);
+                }
+            }
+        }
+
+        List<ProductResponse> items = toResponses(page);
+        if (hideDownloadUrl) {
+            items = items.stream().map(this::hideCustomerDownloadUrl).collect(Collectors.toList());
+        }
+
+        return new ProductSearchResponse(items, result.hasMore(), result.nextCursor(), result.total(), result.facets());
     }
 
     private boolean isRealActiveFlashSale(Product p) {
@@ -889,6 +932,45 @@ public class ProductService {
        ========================================================= */
 
     private ProductResponse toResponse(Product p) {
+        return toResponses(List.of(p)).get(0);
+    }
+
+    /**
+     * Bulk mapping for list endpoints: images and attribute values of ALL products
+     * are fetched with two IN queries per IN_CHUNK products (instead of 2 queries per product),
+     * then joined in memory.
+     * Output order = input order.
+     */
+    private List<ProductResponse> toResponses(List<Product> products) {
+        if (products == null || products.isEmpty()) return new ArrayList<>();
+
+        List<Long> ids = new ArrayList<>(products.size());
+        for (Product p : products) ids.add(p.getId());
+
+        Map<Long, List<ItemImageDTO>> imagesById = itemImageService.getImagesByItemIds(ids);
+
+        Map<Long, List<AttributeValueDTO>> attrsById = new HashMap<>(products.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            for (ItemAttributeValue v : itemAttributeValueRepository.findByItemIdsWithAttribute(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)))) {
+                AttributeValueDTO dto = new AttributeValueDTO();
+                dto.setCode(v.getAttribute().getCode());
+                dto.setValue(v.getValue());
+                attrsById.computeIfAbsent(v.getItem().getId(), k -> new ArrayList<>()).add(dto);
+            }
+        }
+
+        List<ProductResponse> out = new ArrayList<>(products.size());
+        for (Product p : products) {
+            out.add(toResponse(
+                    p,
+                    imagesById.getOrDefault(p.getId(), new ArrayList<>()),
+                    attrsById.getOrDefault(p.getId(), new ArrayList<>())
+            ));
+        }
+        return out;
+    }
+
+    private ProductResponse toResponse(Product p, List<ItemImageDTO> images, List<AttributeValueDTO> attrs) {
         ProductResponse r = new ProductResponse();
 
         r.setId(p.getId());
@@ -905,7 +987,7 @@ public class ProductService {
         r.setPrice(p.getPrice());
         r.setStock(p.getStock());
         r.setImageUrl(p.getImageUrl());
-        r.setImages(itemImageService.getImages(p.getId()));
+        r.setImages(images);
 
         r.setStatusId(p.getStatus() != null ? p.getStatus().getId() : null);
         r.setStatusCode(p.getStatus() != null ? p.getStatus().getCode() : null);
@@ -926,15 +1008,6 @@ public class ProductService {
         r.setEffectivePrice(p.getEffectivePrice());
         r.setOnSale(p.isOnSaleNow());
 
-        var values = itemAttributeValueRepository.findByItem(p);
-        List<AttributeValueDTO> attrs = values.stream()
-                .map(v -> {
-                    AttributeValueDTO dto = new AttributeValueDTO();
-                    dto.setCode(v.getAttribute().getCode());
-                    dto.setValue(v.getValue());
-                    return dto;
-                })
-                .collect(Collectors.toList());
         r.setAttributes(attrs);
 
         r.setTaxable(p.isTaxable());
@@ -5,6 +5,7 @@ import com.build4all.features.ecommerce.domain.ProductType;
 import com.build4all.features.ecommerce.dto.AttributeValueDTO;
 import com.build4all.features.ecommerce.dto.ProductRequest;
 import com.build4all.features.ecommerce.dto.ProductResponse;
+import com.build4all.features.ecommerce.dto.ProductSearchRequest;
 import com.build4all.features.ecommerce.dto.ProductUpdateRequest;
 import com.build4all.features.ecommerce.service.ProductService;
 import com.build4all.licensing.dto.OwnerAppAccessResponse;
@@ -26,8 +27,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
@@ -509,6 +513,58 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search products (text + facets, keyset paginated) - tenant from token")
+    @PreAuthorize("hasAnyRole('USER','OWNER')")
+    public ResponseEntity<?> search(
+            @RequestHeader(value = "Authorization", required = false) String auth,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long itemTypeId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean onSale,
+            // repeated "code:value", e.g. attr=color:red&attr=color:blue&attr=size:M
+            @RequestParam(value = "attr", required = false) List<String> attr,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (auth == null || auth.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Missing Authorization header"));
+        }
+
+        Long ownerProjectId = tenantFromAuth(auth);
+
+        try {
+            Map<String, Set<String>> attributes = new HashMap<>();
+            if (attr != null) {
+                for (String a : attr) {
+                    int sep = (a == null) ? -1 : a.indexOf(':');
+                    if (sep <= 0 || sep == a.length() - 1) {
+                        throw new IllegalArgumentException("attr must be code:value");
+                    }
+                    attributes.computeIfAbsent(a.substring(0, sep).trim(), k -> new HashSet<>())
+                            .add(a.substring(sep + 1).trim());
+                }
+            }
+
+            ProductSearchRequest request = new ProductSearchRequest(
+                    q, categoryId, itemTypeId, minPrice, maxPrice, onSale,
+                    attributes, sort, cursor, limit == null ? 0 : limit
+            );
+
+            return ResponseEntity.ok(productService.search(ownerProjectId, request, !isOwner(auth)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/new-arrivals")
     @Operation(summary = "List new arrival products - tenant from token")
     @PreAuthorize("hasAnyRole('USER','OWNER')")
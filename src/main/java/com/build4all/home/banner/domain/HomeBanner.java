@@ -2,12 +2,14 @@ package com.build4all.home.banner.domain;
 
 import com.build4all.admin.domain.AdminUserProject;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.build4all.home.sections.service.HomePageSnapshotListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "home_banners")
+@EntityListeners(HomePageSnapshotListener.class) // drops the tenant's cached home page snapshot on change
 public class HomeBanner {
 
     @Id
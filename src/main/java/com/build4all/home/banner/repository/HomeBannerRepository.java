@@ -25,4 +25,25 @@ public interface HomeBannerRepository extends JpaRepository<HomeBanner, Long> {
                                                       @Param("now") LocalDateTime now);
 
     List<HomeBanner> findByOwnerProject_IdOrderBySortOrderAscCreatedAtDesc(Long ownerProjectId);
+
+    // Next moment the public banner list changes on its own (a window opens or closes)
+    @Query("""
+           select min(b.startAt)
+           from HomeBanner b
+           where b.ownerProject.id = :ownerProjectId
+             and b.active = true
+             and b.startAt > :now
+           """)
+    LocalDateTime findNextStartAt(@Param("ownerProjectId") Long ownerProjectId,
+                                  @Param("now") LocalDateTime now);
+
+    @Query("""
+           select min(b.endAt)
+           from HomeBanner b
+           where b.ownerProject.id = :ownerProjectId
+             and b.active = true
+             and b.endAt >= :now
+           """)
+    LocalDateTime findNextEndAt(@Param("ownerProjectId") Long ownerProjectId,
+                                @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -38,6 +38,24 @@ public class HomeBannerService {
                 .toList();
     }
 
+    /**
+     * First instant after now at which listActivePublic(ownerProjectId) returns a different list
+     * (a start/end window is crossed), or null if no window is pending.
+     * Used to cap the lifetime of the cached home snapshot.
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public LocalDateTime nextPublicChangeAt(Long ownerProjectId, LocalDateTime now) {
+        LocalDateTime nextStart = bannerRepo.findNextStartAt(ownerProjectId, now);
+        LocalDateTime nextEnd = bannerRepo.findNextEndAt(ownerProjectId, now);
+
+        // endAt is inclusive: the banner disappears right after it
+        if (nextEnd != null) nextEnd = nextEnd.plusSeconds(1);
+
+        if (nextStart == null) return nextEnd;
+        if (nextEnd == null) return nextStart;
+        return nextStart.isBefore(nextEnd) ? nextStart : nextEnd;
+    }
+
     @Transactional(Transactional.TxType.SUPPORTS)
     public List<HomeBannerResponse> listByOwnerProjectForAdmin(Long ownerProjectId, Long adminId) {
         AdminUserProject app = requireOwnedProject(ownerProjectId, adminId);
@@ -2,6 +2,7 @@ package com.build4all.home.sections.domain;
 
 import com.build4all.admin.domain.AdminUserProject;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.build4all.home.sections.service.HomePageSnapshotListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -36,6 +37,7 @@ import java.time.LocalDateTime;
         name = "home_sections",
         uniqueConstraints = @UniqueConstraint(columnNames = {"aup_id", "code"})
 )
+@EntityListeners(HomePageSnapshotListener.class) // drops the tenant's cached home page snapshot on change
 public class HomeSection {
 
     /**
@@ -1,5 +1,6 @@
 package com.build4all.home.sections.domain;
 
+import com.build4all.home.sections.service.HomePageSnapshotListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -32,6 +33,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "home_section_products")
+@EntityListeners(HomePageSnapshotListener.class) // drops the tenant's cached home page snapshot on change
 public class HomeSectionProduct {
 
     /**
@@ -3,6 +3,7 @@ package com.build4all.home.sections.repository;
 import com.build4all.home.sections.domain.HomeSectionProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +37,12 @@ public interface HomeSectionProductRepository extends JpaRepository<HomeSectionP
      */
     List<HomeSectionProduct> findBySection_IdAndActiveTrueOrderBySortOrderAsc(Long sectionId);
 
+    /**
+     * Active product links of MANY sections in one query (home page build),
+     * ordered by sortOrder inside each section.
+     */
+    List<HomeSectionProduct> findBySection_IdInAndActiveTrueOrderBySortOrderAsc(Collection<Long> sectionIds);
+
     /**
      * Find an existing link between a section and a specific product.
      * Used to prevent inserting duplicate links (same section + product).
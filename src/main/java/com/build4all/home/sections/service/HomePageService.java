@@ -16,8 +16,13 @@ import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * HomePageService
@@ -44,10 +49,10 @@ import java.util.List;
  *     requireOwnedProject(...) and requireOwnedSection(...)
  *
  * Performance note:
- * - This implementation loads products one-by-one (N+1 style).
- * - For small home sections it is usually fine.
- * - If you expect many products per section, consider optimizing with:
- *     productRepo.findAllById(listOfIds) and mapping in-memory.
+ * - getPublicHome runs a fixed number of queries (banners, sections, ALL links, ALL products),
+ *   whatever the number of sections/products.
+ * - GET /api/home goes through getPublicHomeSnapshot: the payload is cached per tenant as
+ *   pre-serialized JSON + ETag (HomePageSnapshotCache) and rebuilt only after a change.
  */
 @Service
 @Transactional
@@ -81,19 +86,44 @@ public class HomePageService {
      */
     private final AdminUserProjectRepository aupRepo;
 
+    /**
+     * Pre-serialized public home per tenant (invalidated by HomePageSnapshotListener).
+     */
+    private final HomePageSnapshotCache snapshotCache;
+
     public HomePageService(HomeBannerService bannerService,
                            HomeSectionRepository sectionRepo,
                            HomeSectionProductRepository sectionProductRepo,
                            ProductRepository productRepo,
-                           AdminUserProjectRepository aupRepo) {
+                           AdminUserProjectRepository aupRepo,
+                           HomePageSnapshotCache snapshotCache) {
         this.bannerService = bannerService;
         this.sectionRepo = sectionRepo;
         this.sectionProductRepo = sectionProductRepo;
         this.productRepo = productRepo;
         this.aupRepo = aupRepo;
+        this.snapshotCache = snapshotCache;
     }
 
     // ---------------- PUBLIC (USER/OWNER) ----------------
+
+    /**
+     * Cached variant of getPublicHome used by GET /api/home:
+     * JSON bytes + strong ETag, valid until the next change (or banner window crossing).
+     */
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public HomePageSnapshotCache.Snapshot getPublicHomeSnapshot(Long ownerProjectId) {
+        if (ownerProjectId == null) throw new IllegalArgumentException("ownerProjectId is required");
+
+        return snapshotCache.get(ownerProjectId, () -> {
+            LocalDateTime now = LocalDateTime.now();
+            return new HomePageSnapshotCache.Source(
+                    getPublicHome(ownerProjectId),
+                    bannerService.nextPublicChangeAt(ownerProjectId, now)
+            );
+        });
+    }
+
     @Transactional(Transactional.TxType.SUPPORTS)
     public HomePageResponse getPublicHome(Long ownerProjectId) {
 
@@ -106,6 +136,24 @@ public class HomePageService {
         // - only active sections for this tenant (AUP)
         // - ordered by sortOrder asc
         List<HomeSection> sections = sectionRepo.findByOwnerProject_IdAndActiveTrueOrderBySortOrderAsc(ownerProjectId);
+        if (sections.isEmpty()) return new HomePageResponse(banners, new ArrayList<>());
+
+        // 3) active product links of ALL sections in one query (sortOrder asc inside each section)
+        List<Long> sectionIds = new ArrayList<>(sections.size());
+        for (HomeSection s : sections) sectionIds.add(s.getId());
+
+        Map<Long, List<HomeSectionProduct>> linksBySection = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        for (HomeSectionProduct link : sectionProductRepo.findBySection_IdInAndActiveTrueOrderBySortOrderAsc(sectionIds)) {
+            linksBySection.computeIfAbsent(link.getSection().getId(), k -> new ArrayList<>()).add(link);
+            productIds.add(link.getProductId());
+        }
+
+        // 4) every linked product in one query
+        Map<Long, Product> productsById = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product p : productRepo.findAllById(productIds)) productsById.put(p.getId(), p);
+        }
 
         // Output list that will be returned to the client
         List<HomeSectionResponse> outSections = new ArrayList<>();
@@ -113,17 +161,12 @@ public class HomePageService {
         // Build each section with its product list
         for (HomeSection s : sections) {
 
-            // Fetch active product links for this section in the exact order the owner configured
-            List<HomeSectionProduct> links =
-                    sectionProductRepo.findBySection_IdAndActiveTrueOrderBySortOrderAsc(s.getId());
-
-            // Map linked productIds into ProductSummaryDTO
+            // Map linked productIds into ProductSummaryDTO (exact order the owner configured)
             List<ProductSummaryDTO> products = new ArrayList<>();
-            for (HomeSectionProduct link : links) {
+            for (HomeSectionProduct link : linksBySection.getOrDefault(s.getId(), List.of())) {
 
-                // load product by ID
                 // If a product was deleted but link remains, we skip it safely.
-                Product p = productRepo.findById(link.getProductId()).orElse(null);
+                Product p = productsById.get(link.getProductId());
                 if (p == null) continue;
 
                 // IMPORTANT:
@@ -0,0 +1,103 @@
+package com.build4all.home.sections.service;
+
+import com.build4all.common.cache.InvalidatingCache;
+import com.build4all.home.sections.dto.HomePageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant cache of the public home page, stored as pre-serialized JSON + strong ETag.
+ *
+ * - GET /api/home serves the bytes as-is (no DB, no Jackson) and answers 304 on a matching If-None-Match
+ * - invalidated by HomePageSnapshotListener (banner / section / section link / product changes),
+ *   now and again after commit
+ * - an entry lives at most TTL_MS, and never past the next banner start/end window crossing
+ *
+ * A build that raced with an invalidation is returned to its caller but not stored (see InvalidatingCache).
+ */
+@Component
+public class HomePageSnapshotCache {
+
+    private static final long TTL_MS = 5 * 60_000L;
+    private static final int MAX_TENANTS = 5_000;
+
+    /** What the builder returns: the payload + when it stops being valid on its own (null = no bound). */
+    public record Source(HomePageResponse body, LocalDateTime validUntil) {}
+
+    public record Snapshot(byte[] json, String etag, long expiresAtMs) {
+
+        /** If-None-Match may list several tags, or be "*". */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.equals("*") || t.equals(etag)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final InvalidatingCache<Long, Snapshot> snapshots = InvalidatingCache.perScope(TTL_MS, MAX_TENANTS);
+
+    public HomePageSnapshotCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Snapshot get(Long ownerProjectId, Supplier<Source> builder) {
+        Snapshot cached = snapshots.getIfFresh(ownerProjectId);
+        if (cached != null) return cached;
+
+        InvalidatingCache.Stamp stamp = snapshots.stamp(ownerProjectId);
+        long now = System.currentTimeMillis();
+        Source source = builder.get();
+
+        long expiresAt = now + TTL_MS;
+        if (source.validUntil() != null) {
+            long until = source.validUntil().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            expiresAt = Math.min(expiresAt, until);
+        }
+
+        byte[] json = serialize(source.body());
+        Snapshot built = new Snapshot(json, etagOf(json), expiresAt);
+
+        snapshots.put(ownerProjectId, stamp, built, expiresAt);
+        return built;
+    }
+
+    public void invalidate(Long ownerProjectId) {
+        snapshots.invalidate(ownerProjectId);
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long ownerProjectId) {
+        snapshots.invalidateNowAndAfterCommit(ownerProjectId);
+    }
+
+    private byte[] serialize(HomePageResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize home page", e);
+        }
+    }
+
+    /** Strong validator: hash of the exact bytes served. */
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
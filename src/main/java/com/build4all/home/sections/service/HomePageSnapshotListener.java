@@ -0,0 +1,46 @@
+package com.build4all.home.sections.service;
+
+import com.build4all.admin.domain.AdminUserProject;
+import com.build4all.catalog.domain.Item;
+import com.build4all.home.banner.domain.HomeBanner;
+import com.build4all.home.sections.domain.HomeSection;
+import com.build4all.home.sections.domain.HomeSectionProduct;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on everything the public home page is built from
+ * (HomeBanner, HomeSection, HomeSectionProduct, Product): any change drops the tenant's snapshot.
+ *
+ * Covers the owner admin endpoints as well as importers/seeders.
+ * Stock is not part of the home payload, so bulk stock updates (which bypass listeners) need nothing.
+ */
+public class HomePageSnapshotListener {
+
+    private final HomePageSnapshotCache snapshotCache;
+
+    public HomePageSnapshotListener(HomePageSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        AdminUserProject app = null;
+
+        if (entity instanceof HomeBanner b) {
+            app = b.getOwnerProject();
+        } else if (entity instanceof HomeSection s) {
+            app = s.getOwnerProject();
+        } else if (entity instanceof HomeSectionProduct link && link.getSection() != null) {
+            app = link.getSection().getOwnerProject();
+        } else if (entity instanceof Item item) {
+            app = item.getOwnerProject();
+        }
+
+        if (app == null) return;
+        snapshotCache.invalidateNowAndAfterCommit(app.getId());
+    }
+}
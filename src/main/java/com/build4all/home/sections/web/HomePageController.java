@@ -1,12 +1,15 @@
 package com.build4all.home.sections.web;
 
-import com.build4all.home.sections.dto.HomePageResponse;
 import com.build4all.home.sections.dto.HomeSectionRequest;
 import com.build4all.home.sections.dto.SectionAddProductRequest;
 import com.build4all.home.sections.service.HomePageService;
+import com.build4all.home.sections.service.HomePageSnapshotCache;
 import com.build4all.security.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -97,11 +100,16 @@ public class HomePageController {
      * - load active banners for that AUP (time-window + active filter)
      * - load active sections and their product links (ordered)
      * - load product summary data for each linked product
+     *
+     * Caching:
+     * - the JSON is served from a per-tenant snapshot (pre-serialized bytes)
+     * - strong ETag; a client sending If-None-Match with the current tag gets 304 (empty body)
      */
     @GetMapping
     @Operation(summary = "Get home page: top banners + sections (products)")
     public ResponseEntity<?> getHome(
             @RequestHeader("Authorization") String auth,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @RequestParam Long ownerProjectId
     ) {
         String token = strip(auth);
@@ -113,8 +121,23 @@ public class HomePageController {
         }
 
         try {
-            HomePageResponse result = homePageService.getPublicHome(ownerProjectId);
-            return ResponseEntity.ok(result);
+            HomePageSnapshotCache.Snapshot snapshot = homePageService.getPublicHomeSnapshot(ownerProjectId);
+
+            // private: content depends on the token; no-cache: clients revalidate with the ETag
+            CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.etag())
+                        .cacheControl(cacheControl)
+                        .build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(snapshot.etag())
+                    .cacheControl(cacheControl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.json());
 
         } catch (IllegalArgumentException e) {
             // Used for validation errors (e.g. bad ownerProjectId)
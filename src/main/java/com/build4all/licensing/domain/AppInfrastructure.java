@@ -1,11 +1,13 @@
 package com.build4all.licensing.domain;
 
+import com.build4all.licensing.service.EntitlementSnapshotListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "app_infrastructure")
+@EntityListeners(EntitlementSnapshotListener.class) // refreshes the app's cached entitlement snapshot
 public class AppInfrastructure {
 
     @Id
@@ -0,0 +1,37 @@
+package com.build4all.licensing.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ACTIVE users per app (AUP): the number the plan's usersAllowed is checked against.
+ *
+ * Written only with atomic native statements (AppUserCounterRepository):
+ * - signup / reactivation admission: conditional increment (count < limit) in the same transaction as the user row
+ * - any other ACTIVE <-> non-ACTIVE transition: +/- delta applied before commit (UserSlotService)
+ * - seeded lazily from COUNT(*) on first use, recomputed nightly by UserSlotService.reconcileAll()
+ */
+@Entity
+@Table(name = "app_user_counters")
+public class AppUserCounter {
+
+    @Id
+    @Column(name = "aup_id")
+    private Long aupId;
+
+    @Column(name = "active_user_count", nullable = false)
+    private long activeUserCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public Long getAupId() { return aupId; }
+    public void setAupId(Long aupId) { this.aupId = aupId; }
+
+    public long getActiveUserCount() { return activeUserCount; }
+    public void setActiveUserCount(long activeUserCount) { this.activeUserCount = activeUserCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
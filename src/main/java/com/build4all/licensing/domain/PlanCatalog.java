@@ -1,9 +1,11 @@
 package com.build4all.licensing.domain;
 
+import com.build4all.licensing.service.EntitlementSnapshotListener;
 import jakarta.persistence.*;
 
 @Entity
 @Table(name = "plan_catalog")
+@EntityListeners(EntitlementSnapshotListener.class) // refreshes the app's cached entitlement snapshot
 public class PlanCatalog {
 
     @Id
@@ -17,6 +19,9 @@ public class PlanCatalog {
     @Column(name = "users_allowed")
     private Integer usersAllowed; // null = unlimited
 
+    @Column(name = "ai_daily_limit")
+    private Integer aiDailyLimit; // AI requests per owner per day; null = platform default (build4all.ai.dailyLimit)
+
     @Column(name = "requires_dedicated_server", nullable = false)
     private boolean requiresDedicatedServer = false;
 
@@ -34,6 +39,9 @@ public class PlanCatalog {
     public Integer getUsersAllowed() { return usersAllowed; }
     public void setUsersAllowed(Integer usersAllowed) { this.usersAllowed = usersAllowed; }
 
+    public Integer getAiDailyLimit() { return aiDailyLimit; }
+    public void setAiDailyLimit(Integer aiDailyLimit) { this.aiDailyLimit = aiDailyLimit; }
+
     public boolean isRequiresDedicatedServer() { return requiresDedicatedServer; }
     public void setRequiresDedicatedServer(boolean requiresDedicatedServer) { this.requiresDedicatedServer = requiresDedicatedServer; }
 
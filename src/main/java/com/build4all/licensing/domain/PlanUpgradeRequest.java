@@ -1,10 +1,12 @@
 package com.build4all.licensing.domain;
 
+import com.build4all.licensing.service.EntitlementSnapshotListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "plan_upgrade_requests")
+@EntityListeners(EntitlementSnapshotListener.class) // refreshes the app's cached entitlement snapshot
 public class PlanUpgradeRequest {
 
     @Id
@@ -1,6 +1,7 @@
 package com.build4all.licensing.domain;
 
 import com.build4all.admin.domain.AdminUserProject;
+import com.build4all.licensing.service.EntitlementSnapshotListener;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
         @Index(name = "idx_sub_status", columnList = "status"),
         @Index(name = "idx_sub_plan", columnList = "plan_code")
 })
+@EntityListeners(EntitlementSnapshotListener.class) // refreshes the app's cached entitlement snapshot
 public class Subscription {
 
     @Id
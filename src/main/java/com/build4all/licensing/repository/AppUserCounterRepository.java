@@ -0,0 +1,82 @@
+package com.build4all.licensing.repository;
+
+import com.build4all.licensing.domain.AppUserCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AppUserCounterRepository extends JpaRepository<AppUserCounter, Long> {
+
+    /** Creates the app's row from a COUNT(*) if it has none yet (1 = seeded, 0 = already there). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO app_user_counters (aup_id, active_user_count, updated_at)
+        SELECT :aupId, COUNT(u.user_id), :now
+          FROM users u
+          JOIN user_status s ON s.id = u.status
+         WHERE u.aup_id = :aupId
+           AND UPPER(s.name) = 'ACTIVE'
+        ON CONFLICT (aup_id) DO NOTHING
+    """, nativeQuery = true)
+    int seed(@Param("aupId") Long aupId, @Param("now") LocalDateTime now);
+
+    /**
+     * Admission: takes one slot only if the app is below :limit. The row stays locked until the
+     * caller's transaction ends, so concurrent signups of the same app queue here instead of overshooting.
+     * Empty result = limit reached.
+     */
+    @Query(value = """
+        UPDATE app_user_counters
+           SET active_user_count = active_user_count + 1,
+               updated_at = :now
+         WHERE aup_id = :aupId
+           AND active_user_count < :limit
+        RETURNING active_user_count
+    """, nativeQuery = true)
+    List<Long> tryAdmit(@Param("aupId") Long aupId,
+                        @Param("limit") long limit,
+                        @Param("now") LocalDateTime now);
+
+    /** Status transitions outside admission; never below 0. */
+    @Modifying
+    @Query(value = """
+        UPDATE app_user_counters
+           SET active_user_count = GREATEST(active_user_count + :delta, 0),
+               updated_at = :now
+         WHERE aup_id = :aupId
+    """, nativeQuery = true)
+    int add(@Param("aupId") Long aupId,
+            @Param("delta") long delta,
+            @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT active_user_count FROM app_user_counters WHERE aup_id = :aupId", nativeQuery = true)
+    Optional<Long> findCount(@Param("aupId") Long aupId);
+
+    /** Recomputes (or creates) the counters of the next :limit apps after :afterId; returns their ids. */
+    @Query(value = """
+        INSERT INTO app_user_counters (aup_id, active_user_count, updated_at)
+        SELECT a.aup_id,
+               (SELECT COUNT(u.user_id)
+                  FROM users u
+                  JOIN user_status s ON s.id = u.status
+                 WHERE u.aup_id = a.aup_id
+                   AND UPPER(s.name) = 'ACTIVE'),
+               :now
+          FROM admin_user_projects a
+         WHERE a.aup_id > :afterId
+         ORDER BY a.aup_id
+         LIMIT :limit
+        ON CONFLICT (aup_id) DO UPDATE
+           SET active_user_count = EXCLUDED.active_user_count,
+               updated_at = EXCLUDED.updated_at
+        RETURNING aup_id
+    """, nativeQuery = true)
+    List<Long> recountAfter(@Param("afterId") long afterId,
+                            @Param("limit") int limit,
+                            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,102 @@
+package com.build4all.licensing.service;
+
+import com.build4all.licensing.domain.PlanCode;
+import com.build4all.licensing.domain.SubscriptionStatus;
+import com.build4all.licensing.dto.OwnerAppAccessResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * What an app (AUP) is entitled to, as loaded from DB: latest subscription, plan limits (users, AI requests),
+ * ACTIVE user count, dedicated infra state and the latest upgrade request.
+ *
+ * Immutable and cached by EntitlementSnapshotCache. Everything that depends on "today"
+ * (days left, expired-by-date) is computed in toResponse(), so a cached snapshot never
+ * keeps granting access past periodEnd.
+ */
+public record EntitlementSnapshot(
+        boolean hasSubscription,
+        PlanCode planCode,
+        String planName,
+        SubscriptionStatus subscriptionStatus,
+        LocalDate periodEnd,
+        Integer usersAllowed,
+        long activeUsers,
+        Integer aiDailyLimit,
+        boolean requiresDedicatedServer,
+        boolean dedicatedInfraReady,
+        String upgradeRequestStatus,
+        PlanCode upgradeRequestedPlan,
+        LocalDateTime upgradeRequestedAt,
+        String upgradeDecisionNote,
+        long loadedAtMs
+) {
+
+    public static EntitlementSnapshot none(long loadedAtMs) {
+        return new EntitlementSnapshot(false, null, null, null, null, null, 0L, null,
+                false, true, null, null, null, null, loadedAtMs);
+    }
+
+    /** Same decision rules as the original uncached LicensingService.getOwnerDashboardAccess. */
+    public OwnerAppAccessResponse toResponse(LocalDate today) {
+        OwnerAppAccessResponse res = new OwnerAppAccessResponse();
+
+        if (!hasSubscription) {
+            res.setCanAccessDashboard(false);
+            res.setBlockingReason("NO_SUBSCRIPTION");
+            return res;
+        }
+
+        boolean expiredByDate = today.isAfter(periodEnd);
+
+        // ACTIVE but past periodEnd reads as EXPIRED (the row itself is marked on the next load)
+        SubscriptionStatus status = (expiredByDate && subscriptionStatus == SubscriptionStatus.ACTIVE)
+                ? SubscriptionStatus.EXPIRED
+                : subscriptionStatus;
+
+        res.setPlanCode(planCode);
+        res.setPlanName(planName);
+        res.setSubscriptionStatus(status);
+        res.setPeriodEnd(periodEnd);
+        res.setDaysLeft(Math.max(ChronoUnit.DAYS.between(today, periodEnd), 0));
+
+        res.setUsersAllowed(usersAllowed);
+        res.setActiveUsers(activeUsers);
+
+        boolean limitReached = false;
+        if (usersAllowed != null) {
+            limitReached = activeUsers >= usersAllowed;
+            res.setUsersRemaining(Math.max((long) usersAllowed - activeUsers, 0L));
+        } else {
+            res.setUsersRemaining(null); // unlimited
+        }
+
+        res.setRequiresDedicatedServer(requiresDedicatedServer);
+        res.setDedicatedInfraReady(dedicatedInfraReady);
+
+        boolean subscriptionOk = (status == SubscriptionStatus.ACTIVE) && !expiredByDate;
+
+        boolean canAccess = subscriptionOk && dedicatedInfraReady && !limitReached;
+        res.setCanAccessDashboard(canAccess);
+
+        if (!canAccess) {
+            if (!subscriptionOk) {
+                res.setBlockingReason(expiredByDate ? "LICENSE_EXPIRED" : "NO_ACTIVE_SUBSCRIPTION");
+            } else if (!dedicatedInfraReady) {
+                res.setBlockingReason("DEDICATED_SERVER_NOT_ASSIGNED");
+            } else if (limitReached) {
+                res.setBlockingReason("USER_LIMIT_REACHED");
+            } else {
+                res.setBlockingReason("ACCESS_BLOCKED");
+            }
+        }
+
+        res.setUpgradeRequestStatus(upgradeRequestStatus);
+        res.setUpgradeRequestedPlan(upgradeRequestedPlan);
+        res.setUpgradeRequestedAt(upgradeRequestedAt);
+        res.setUpgradeDecisionNote(upgradeDecisionNote);
+        return res;
+    }
+}
@@ -0,0 +1,77 @@
+package com.build4all.licensing.service;
+
+import com.build4all.common.cache.InvalidatingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per-app (aupId) cache of {@link EntitlementSnapshot}: owner write guards (products, tax, coupons...)
+ * used to run 5+ queries, including a COUNT(*) over users, on every request.
+ *
+ * Invalidation (EntitlementSnapshotListener, now + after commit):
+ * - Subscription / PlanUpgradeRequest / AppInfrastructure insert/update/delete -> that app
+ * - Users insert/update/delete -> the user's app (active-user count)
+ * - PlanCatalog update -> every app (plan limits are shared)
+ * - TTL (build4all.licensing.snapshotTtlMs, default 60s) as a safety net for other instances
+ *   and bulk SQL that bypasses the listeners
+ *
+ * A load that raced with an invalidation is not stored (per-app generation check; a global
+ * generation covers invalidateAll; see InvalidatingCache).
+ */
+@Component
+public class EntitlementSnapshotCache {
+
+    private static final int MAX_APPS = 20_000;
+
+    private final TransactionTemplate tx;
+    private final InvalidatingCache<Long, EntitlementSnapshot> snapshots;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EntitlementSnapshotCache(PlatformTransactionManager txManager,
+                                    @Value("${build4all.licensing.snapshotTtlMs:60000}") long ttlMs) {
+        this.tx = new TransactionTemplate(txManager);
+        this.snapshots = InvalidatingCache.perScope(Math.max(1_000L, ttlMs), MAX_APPS);
+    }
+
+    /** Cached snapshot, or loader.apply(aupId) in a transaction (the loader may mark an expired subscription). */
+    public EntitlementSnapshot get(Long aupId, Function<Long, EntitlementSnapshot> loader) {
+        EntitlementSnapshot s = snapshots.getIfFresh(aupId);
+        if (s != null) {
+            hits.incrementAndGet();
+            return s;
+        }
+
+        misses.incrementAndGet();
+        return snapshots.load(aupId, () -> tx.execute(st -> loader.apply(aupId)));
+    }
+
+    public void invalidate(Long aupId) {
+        snapshots.invalidate(aupId);
+    }
+
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long aupId) {
+        snapshots.invalidateNowAndAfterCommit(aupId);
+    }
+
+    public void invalidateAllNowAndAfterCommit() {
+        snapshots.invalidateAllNowAndAfterCommit();
+    }
+
+    public long hits() { return hits.get(); }
+
+    public long misses() { return misses.get(); }
+
+    public int size() { return snapshots.size(); }
+}
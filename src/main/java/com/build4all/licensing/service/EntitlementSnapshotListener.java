@@ -0,0 +1,70 @@
+package com.build4all.licensing.service;
+
+import com.build4all.licensing.domain.AppInfrastructure;
+import com.build4all.licensing.domain.PlanCatalog;
+import com.build4all.licensing.domain.PlanUpgradeRequest;
+import com.build4all.licensing.domain.Subscription;
+import com.build4all.user.domain.Users;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on everything an {@link EntitlementSnapshot} is built from
+ * (Subscription, PlanCatalog, PlanUpgradeRequest, AppInfrastructure, Users).
+ *
+ * Users only matter through the app's active-user count: a user row invalidates the snapshot only
+ * when its ACTIVE state flips (so lastLogin / profile writes keep the snapshot cached). Declared
+ * before UserSlotListener on Users, so isActiveWhenLoaded() still holds the pre-update state here.
+ */
+public class EntitlementSnapshotListener {
+
+    private final EntitlementSnapshotCache snapshotCache;
+
+    public EntitlementSnapshotListener(EntitlementSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    @PostPersist
+    public void onInsert(Object entity) {
+        if (entity instanceof Users u) {
+            if (u.isActiveStatus()) invalidateApp(u);
+        } else {
+            onEntitlementChanged(entity);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Users u) {
+            if (u.isActiveWhenLoaded() != u.isActiveStatus()) invalidateApp(u);
+        } else {
+            onEntitlementChanged(entity);
+        }
+    }
+
+    @PostRemove
+    public void onDelete(Object entity) {
+        if (entity instanceof Users u) {
+            if (u.isActiveWhenLoaded()) invalidateApp(u);
+        } else {
+            onEntitlementChanged(entity);
+        }
+    }
+
+    private void invalidateApp(Users u) {
+        if (u.getOwnerProject() != null) snapshotCache.invalidateNowAndAfterCommit(u.getOwnerProject().getId());
+    }
+
+    private void onEntitlementChanged(Object entity) {
+        if (entity instanceof Subscription s) {
+            if (s.getApp() != null) snapshotCache.invalidateNowAndAfterCommit(s.getApp().getId());
+        } else if (entity instanceof PlanUpgradeRequest r) {
+            snapshotCache.invalidateNowAndAfterCommit(r.getAupId());
+        } else if (entity instanceof AppInfrastructure i) {
+            snapshotCache.invalidateNowAndAfterCommit(i.getAupId());
+        } else if (entity instanceof PlanCatalog) {
+            snapshotCache.invalidateAllNowAndAfterCommit();
+        }
+    }
+}
@@ -14,7 +14,6 @@ import com.build4all.licensing.repository.AppInfrastructureRepository;
 import com.build4all.licensing.repository.PlanCatalogRepository;
 import com.build4all.licensing.repository.PlanUpgradeRequestRepository;
 import com.build4all.licensing.repository.SubscriptionRepository;
-import com.build4all.user.repository.UsersRepository;
 import com.build4all.admin.domain.AdminUser;
 import com.build4all.licensing.dto.SuperAdminAppLicenseRow;
 import com.build4all.project.domain.Project;
@@ -23,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -30,7 +30,6 @@ import com.build4all.licensing.dto.OwnerAppAccessResponse;
 import com.build4all.licensing.dto.UpdatePlanUsersAllowedRequest;
 import com.build4all.licensing.dto.UpgradePlanRequest;
 
-import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.time.LocalDate;
 
@@ -41,25 +40,28 @@ public class LicensingService {
     private final SubscriptionRepository subscriptionRepo;
     private final PlanCatalogRepository planRepo;
     private final AppInfrastructureRepository infraRepo;
-    private final UsersRepository usersRepository;
     private final AdminUserProjectRepository aupRepo;
     private final PlanUpgradeRequestRepository upgradeReqRepo;
+    private final EntitlementSnapshotCache snapshotCache;
+    private final UserSlotService userSlotService;
 
 
     public LicensingService(
     	    SubscriptionRepository subscriptionRepo,
     	    PlanCatalogRepository planRepo,
     	    AppInfrastructureRepository infraRepo,
-    	    UsersRepository usersRepository,
     	    AdminUserProjectRepository aupRepo,
-    	    PlanUpgradeRequestRepository upgradeReqRepo
+    	    PlanUpgradeRequestRepository upgradeReqRepo,
+    	    EntitlementSnapshotCache snapshotCache,
+    	    UserSlotService userSlotService
     	) {
     	    this.subscriptionRepo = subscriptionRepo;
     	    this.planRepo = planRepo;
     	    this.infraRepo = infraRepo;
-    	    this.usersRepository = usersRepository;
     	    this.aupRepo = aupRepo;
     	    this.upgradeReqRepo=upgradeReqRepo;
+    	    this.snapshotCache = snapshotCache;
+    	    this.userSlotService = userSlotService;
     	}
 
 
@@ -129,128 +131,107 @@ public class LicensingService {
         }
     }
 
+    /** Fast pre-check (O(1) counter read); the race-free check is admitUser() in the activating transaction. */
     public void requireUserSlotAvailable(Long aupId) {
 
         // ✅ re-use the canonical "active + expiry check"
         Subscription sub = requireActiveSubscription(aupId);
 
-        Integer allowed = (sub.getUsersAllowedOverride() != null)
-                ? sub.getUsersAllowedOverride()
-                : sub.getPlan().getUsersAllowed();
+        Integer allowed = usersAllowed(sub);
 
         // ✅ unlimited plan
         if (allowed == null) return;
 
-        long activeUsers = usersRepository
-                .countByOwnerProject_IdAndStatus_NameIgnoreCase(aupId, "ACTIVE");
-
-        if (activeUsers >= allowed) {
+        if (userSlotService.activeUsers(aupId) >= allowed) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "USER_LIMIT_REACHED");
         }
     }
-    
+
+    /**
+     * Takes one user slot of the app's plan (403 USER_LIMIT_REACHED when full).
+     * Call it in the same transaction that makes the user ACTIVE (signup, reactivation).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void admitUser(Long aupId) {
+        Subscription sub = requireActiveSubscription(aupId);
+
+        Integer allowed = usersAllowed(sub);
+        if (allowed == null) return; // unlimited: UserSlotListener still counts the user
+
+        userSlotService.admit(aupId, allowed);
+    }
+
+    private static Integer usersAllowed(Subscription sub) {
+        return (sub.getUsersAllowedOverride() != null)
+                ? sub.getUsersAllowedOverride()
+                : sub.getPlan().getUsersAllowed();
+    }
+
+    /**
+     * Dashboard / owner-write access decision, served from EntitlementSnapshotCache.
+     * SUPPORTS: a cache hit runs no query and opens no transaction; a miss loads inside the cache's transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public OwnerAppAccessResponse getOwnerDashboardAccess(Long aupId) {
+        return snapshotCache.get(aupId, this::loadEntitlementSnapshot).toResponse(LocalDate.now());
+    }
 
-        // 1) fetch latest subscription (even if not ACTIVE)
-        var subOpt = subscriptionRepo.findTopByApp_IdOrderByPeriodEndDesc(aupId);
+    /** Plan's AI requests/day for this app (cached snapshot); null = no subscription or platform default. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Integer aiDailyLimit(Long aupId) {
+        return snapshotCache.get(aupId, this::loadEntitlementSnapshot).aiDailyLimit();
+    }
 
-        OwnerAppAccessResponse res = new OwnerAppAccessResponse();
+    private EntitlementSnapshot loadEntitlementSnapshot(Long aupId) {
+        long now = System.currentTimeMillis();
 
-        if (subOpt.isEmpty()) {
-            res.setCanAccessDashboard(false);
-            res.setBlockingReason("NO_SUBSCRIPTION");
-            return res;
-        }
+        // 1) fetch latest subscription (even if not ACTIVE)
+        var subOpt = subscriptionRepo.findTopByApp_IdOrderByPeriodEndDesc(aupId);
+        if (subOpt.isEmpty()) return EntitlementSnapshot.none(now);
 
         Subscription sub = subOpt.get();
 
-        LocalDate today = LocalDate.now();
-        boolean expiredByDate = today.isAfter(sub.getPeriodEnd());
-
         // auto mark expired if needed
-        if (expiredByDate && sub.getStatus() == SubscriptionStatus.ACTIVE) {
+        if (LocalDate.now().isAfter(sub.getPeriodEnd()) && sub.getStatus() == SubscriptionStatus.ACTIVE) {
             sub.setStatus(SubscriptionStatus.EXPIRED);
             subscriptionRepo.save(sub);
         }
 
-        // plan info
-        res.setPlanCode(sub.getPlan().getCode());
-        res.setPlanName(sub.getPlan().getDisplayName());
-        res.setSubscriptionStatus(sub.getStatus());
-        res.setPeriodEnd(sub.getPeriodEnd());
-
-        long daysLeft = ChronoUnit.DAYS.between(today, sub.getPeriodEnd());
-        res.setDaysLeft(Math.max(daysLeft, 0));
-
-        // 2) user limit calc
-        Integer allowed = (sub.getUsersAllowedOverride() != null)
-                ? sub.getUsersAllowedOverride()
-                : sub.getPlan().getUsersAllowed();
-
-        long activeUsers = usersRepository.countByOwnerProject_IdAndStatus_NameIgnoreCase(aupId, "ACTIVE");
-
-        res.setUsersAllowed(allowed);
-        res.setActiveUsers(activeUsers);
-
-        boolean limitReached = false;
-        if (allowed != null) {
-       
-            limitReached = activeUsers >= allowed;
-            res.setUsersRemaining(Math.max((long) allowed - activeUsers, 0L));
-
-        } else {
-            res.setUsersRemaining(null); // unlimited
-        }
+        // 2) user limit (counter row, not COUNT(*) over users)
+        Integer allowed = usersAllowed(sub);
+        long activeUsers = userSlotService.activeUsers(aupId);
 
         // 3) dedicated infra check
         boolean requiresDedicated = sub.getPlan().isRequiresDedicatedServer();
-        res.setRequiresDedicatedServer(requiresDedicated);
-
         boolean infraReady = true;
         if (requiresDedicated) {
             infraReady = infraRepo.findById(aupId)
                     .map(i -> i.getDedicatedServer() != null)
                     .orElse(false);
         }
-        res.setDedicatedInfraReady(infraReady);
-
-        // 4) final decision
-        boolean subscriptionOk = (sub.getStatus() == SubscriptionStatus.ACTIVE) && !expiredByDate;
-
-        boolean canAccess = subscriptionOk && infraReady && !limitReached;
-        res.setCanAccessDashboard(canAccess);
-
-        if (!canAccess) {
-            if (!subscriptionOk) {
-                res.setBlockingReason(expiredByDate ? "LICENSE_EXPIRED" : "NO_ACTIVE_SUBSCRIPTION");
-            } else if (!infraReady) {
-                res.setBlockingReason("DEDICATED_SERVER_NOT_ASSIGNED");
-            } else if (limitReached) {
-                res.setBlockingReason("USER_LIMIT_REACHED");
-            } else {
-                res.setBlockingReason("ACCESS_BLOCKED");
-            }
-        }
 
-        
-     // ✅ attach latest upgrade request state for UI
-        var lastReqOpt = upgradeReqRepo.findTopByAupIdOrderByRequestedAtDesc(aupId);
-
-        if (lastReqOpt.isPresent()) {
-            var r = lastReqOpt.get();
-            res.setUpgradeRequestStatus(r.getStatus().name());
-            res.setUpgradeRequestedPlan(r.getRequestedPlanCode());
-            res.setUpgradeRequestedAt(r.getRequestedAt());
-            res.setUpgradeDecisionNote(r.getDecisionNote());
-        } else {
-            res.setUpgradeRequestStatus(null);
-            res.setUpgradeRequestedPlan(null);
-            res.setUpgradeRequestedAt(null);
-            res.setUpgradeDecisionNote(null);
-        }
-        return res;
+        // 4) latest upgrade request state for UI
+        var lastReq = upgradeReqRepo.findTopByAupIdOrderByRequestedAtDesc(aupId).orElse(null);
+
+        return new EntitlementSnapshot(
+                true,
+                sub.getPlan().getCode(),
+                sub.getPlan().getDisplayName(),
+                sub.getStatus(),
+                sub.getPeriodEnd(),
+                allowed,
+                activeUsers,
+                sub.getPlan().getAiDailyLimit(),
+                requiresDedicated,
+                infraReady,
+                lastReq == null ? null : lastReq.getStatus().name(),
+                lastReq == null ? null : lastReq.getRequestedPlanCode(),
+                lastReq == null ? null : lastReq.getRequestedAt(),
+                lastReq == null ? null : lastReq.getDecisionNote(),
+                now
+        );
     }
-    
+
     public Subscription upgradeSubscription(Long aupId, UpgradePlanRequest req) {
 
         if (req == null || req.getPlanCode() == null) {
@@ -0,0 +1,48 @@
+package com.build4all.licensing.service;
+
+import com.build4all.user.domain.Users;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on Users: every ACTIVE <-> non-ACTIVE transition (signup, reactivation, admin toggle,
+ * soft delete, purge...) is handed to UserSlotService, which applies it to app_user_counters before commit.
+ *
+ * Only records: no queries from inside the flush.
+ */
+public class UserSlotListener {
+
+    private final UserSlotService userSlotService;
+
+    public UserSlotListener(UserSlotService userSlotService) {
+        this.userSlotService = userSlotService;
+    }
+
+    @PostLoad
+    public void onLoad(Users u) {
+        u.rememberActiveState();
+    }
+
+    @PostPersist
+    public void onInsert(Users u) {
+        userSlotService.recordTransition(aupId(u), false, u.isActiveStatus());
+        u.rememberActiveState();
+    }
+
+    @PostUpdate
+    public void onUpdate(Users u) {
+        userSlotService.recordTransition(aupId(u), u.isActiveWhenLoaded(), u.isActiveStatus());
+        u.rememberActiveState();
+    }
+
+    @PostRemove
+    public void onDelete(Users u) {
+        userSlotService.recordTransition(aupId(u), u.isActiveWhenLoaded(), false);
+    }
+
+    private static Long aupId(Users u) {
+        return u.getOwnerProject() == null ? null : u.getOwnerProject().getId();
+    }
+}
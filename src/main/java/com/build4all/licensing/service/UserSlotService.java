@@ -0,0 +1,186 @@
+package com.build4all.licensing.service;
+
+import com.build4all.common.jobs.RetentionJobRunner;
+import com.build4all.licensing.repository.AppUserCounterRepository;
+import com.build4all.user.repository.UsersRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-app ACTIVE user counter (app_user_counters) behind the plan's usersAllowed limit.
+ *
+ * - admit(): signup / reactivation takes a slot with one conditional UPDATE (count < limit), in the
+ *   same transaction that activates the user; the counter row stays locked until commit, so a signup
+ *   burst can't oversubscribe the plan
+ * - every other transition is recorded by UserSlotListener and applied as one +/- delta per app
+ *   right before commit (same transaction); an admitted slot pre-counts the user, so its own
+ *   "became ACTIVE" transition cancels out, and an unused slot is given back
+ * - rows are seeded from COUNT(*) on first use; reconcileAll() recomputes them nightly
+ */
+@Service
+public class UserSlotService {
+
+    private static final int MAX_FLUSH_ROUNDS = 3;
+
+    private final AppUserCounterRepository counterRepo;
+    private final UsersRepository usersRepository;
+    private final RetentionJobRunner jobRunner;
+    private final TransactionTemplate newTx;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public UserSlotService(AppUserCounterRepository counterRepo,
+                           UsersRepository usersRepository,
+                           RetentionJobRunner jobRunner,
+                           PlatformTransactionManager txManager) {
+        this.counterRepo = counterRepo;
+        this.usersRepository = usersRepository;
+        this.jobRunner = jobRunner;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /* ==================== admission (caller's transaction) ==================== */
+
+    /**
+     * Takes one slot of aupId's limit or throws 403 USER_LIMIT_REACHED.
+     * Must run in the transaction that then makes the user ACTIVE.
+     */
+    public void admit(Long aupId, long limit) {
+        Pending p = pending();
+        if (p == null) throw new IllegalStateException("User slot admission requires a transaction");
+
+        LocalDateTime now = LocalDateTime.now();
+        counterRepo.seed(aupId, now);
+
+        if (counterRepo.tryAdmit(aupId, limit, now).isEmpty()) {
+            rejected.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "USER_LIMIT_REACHED");
+        }
+
+        admitted.incrementAndGet();
+        // already counted: the user's own +1 transition cancels this, an unused slot is released at commit
+        p.deltas.merge(aupId, -1L, Long::sum);
+    }
+
+    /** O(1) read of the counter (falls back to COUNT(*) when the row is missing and the transaction is read-only). */
+    public long activeUsers(Long aupId) {
+        var count = counterRepo.findCount(aupId);
+        if (count.isPresent()) return count.get();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            counterRepo.seed(aupId, LocalDateTime.now());
+            return counterRepo.findCount(aupId).orElse(0L);
+        }
+        return usersRepository.countByOwnerProject_IdAndStatus_NameIgnoreCase(aupId, "ACTIVE");
+    }
+
+    /* ==================== transitions (UserSlotListener) ==================== */
+
+    public void recordTransition(Long aupId, boolean wasActive, boolean isActive) {
+        if (aupId == null || wasActive == isActive) return;
+
+        Pending p = pending();
+        if (p == null) {
+            System.out.println("⚠️ User slot transition outside a transaction (aupId=" + aupId + "), left to reconcile");
+            return;
+        }
+        p.deltas.merge(aupId, isActive ? 1L : -1L, Long::sum);
+    }
+
+    /* ==================== reconcile ==================== */
+
+    @Scheduled(cron = "0 15 4 * * *")
+    public void reconcileAll() {
+        long[] lastId = {0L};
+
+        jobRunner.run("licensing.reconcileUserSlots", limit -> {
+            List<Long> ids = counterRepo.recountAfter(lastId[0], limit, LocalDateTime.now());
+            if (ids.isEmpty()) return 0;
+
+            lastId[0] = ids.stream().mapToLong(Long::longValue).max().orElse(lastId[0]);
+            return ids.size();
+        });
+    }
+
+    public long admittedCount() { return admitted.get(); }
+
+    public long rejectedCount() { return rejected.get(); }
+
+    /* ==================== per-transaction deltas ==================== */
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+
+        Pending p = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (p == null) {
+            p = new Pending();
+            TransactionSynchronizationManager.bindResource(this, p);
+            TransactionSynchronizationManager.registerSynchronization(p);
+        }
+        return p;
+    }
+
+    /** Applies and clears the recorded deltas; false when there was nothing to apply. */
+    private boolean apply(Pending p) {
+        if (p.deltas.isEmpty()) return false;
+
+        Map<Long, Long> deltas = new HashMap<>(p.deltas);
+        p.deltas.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((aupId, delta) -> {
+            if (delta == 0) return;
+            // a freshly seeded row already reflects the flushed changes
+            if (counterRepo.seed(aupId, now) == 0) {
+                counterRepo.add(aupId, delta, now);
+            }
+        });
+        return true;
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        final Map<Long, Long> deltas = new HashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (readOnly) return;
+            // flush first so the listener has seen every pending Users change of this transaction
+            for (int i = 0; i < MAX_FLUSH_ROUNDS; i++) {
+                counterRepo.flush();
+                if (!apply(this)) break;
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            // transitions flushed by the commit itself (registered after beforeCommit ran)
+            if (deltas.isEmpty()) return;
+            try {
+                newTx.executeWithoutResult(s -> apply(this));
+            } catch (Exception e) {
+                System.out.println("⚠️ User slot counters update failed, left to reconcile => " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(UserSlotService.this);
+        }
+    }
+}
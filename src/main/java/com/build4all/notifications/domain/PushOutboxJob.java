@@ -0,0 +1,139 @@
+package com.build4all.notifications.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pending FCM delivery (notification x recipient tokens), written in the SAME transaction
+ * as the FrontAppNotification it belongs to, and sent after commit by PushDispatchService.
+ *
+ * Lifecycle:
+ *   PENDING --claim--> SENDING --> SENT      (every token delivered or permanently rejected)
+ *                              \-> PENDING   (some tokens hit a retryable error: tokensJson = those tokens,
+ *                                             nextAttemptAt = backoff)
+ *                              \-> FAILED    (MAX_ATTEMPTS reached)
+ * A SENDING row whose lockedUntil has passed (worker died) goes back to PENDING.
+ */
+@Entity
+@Table(
+        name = "push_outbox_jobs",
+        indexes = {
+                @Index(name = "idx_push_outbox_due", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_push_outbox_link", columnList = "owner_project_link_id")
+        }
+)
+public class PushOutboxJob {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENDING = "SENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_project_link_id", nullable = false)
+    private Long ownerProjectLinkId;
+
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Column(name = "title", length = 255)
+    private String title;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    /** FCM data map (string -> string) as JSON. */
+    @Column(name = "data_json", columnDefinition = "TEXT")
+    private String dataJson;
+
+    /** Tokens still to deliver, JSON array. */
+    @Column(name = "tokens_json", nullable = false, columnDefinition = "TEXT")
+    private String tokensJson;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status = STATUS_PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "sent_count", nullable = false)
+    private int sentCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    private int failedCount = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = this.updatedAt = LocalDateTime.now();
+        if (this.nextAttemptAt == null) this.nextAttemptAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public Long getOwnerProjectLinkId() { return ownerProjectLinkId; }
+    public void setOwnerProjectLinkId(Long ownerProjectLinkId) { this.ownerProjectLinkId = ownerProjectLinkId; }
+
+    public Long getNotificationId() { return notificationId; }
+    public void setNotificationId(Long notificationId) { this.notificationId = notificationId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public String getDataJson() { return dataJson; }
+    public void setDataJson(String dataJson) { this.dataJson = dataJson; }
+
+    public String getTokensJson() { return tokensJson; }
+    public void setTokensJson(String tokensJson) { this.tokensJson = tokensJson; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+
+    public int getSentCount() { return sentCount; }
+    public void setSentCount(int sentCount) { this.sentCount = sentCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
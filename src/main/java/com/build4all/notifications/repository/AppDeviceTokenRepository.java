@@ -4,7 +4,12 @@ import com.build4all.notifications.domain.AppDeviceToken;
 import com.build4all.notifications.domain.AppScope;
 import com.build4all.notifications.domain.NotificationActorType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,16 @@ public interface AppDeviceTokenRepository extends JpaRepository<AppDeviceToken,
             Long actorId
     );
 
+    /** Tokens FCM reported as UNREGISTERED (app uninstalled / token rotated). */
+    @Modifying
+    @Query("""
+           update AppDeviceToken t
+           set t.isActive = false, t.updatedAt = :now
+           where t.fcmToken in :tokens
+             and t.isActive = true
+           """)
+    int deactivateByFcmTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
     List<AppDeviceToken> findByAppScopeAndActorTypeAndActorIdAndIsActiveTrue(
             AppScope appScope,
             NotificationActorType actorType,
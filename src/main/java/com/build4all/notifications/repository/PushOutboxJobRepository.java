@@ -0,0 +1,132 @@
+package com.build4all.notifications.repository;
+
+import com.build4all.notifications.domain.PushOutboxJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PushOutboxJobRepository extends JpaRepository<PushOutboxJob, Long> {
+
+    /**
+     * Due PENDING jobs, row-locked; SKIP LOCKED lets several replicas drain the outbox
+     * concurrently without picking the same job. Must run in the transaction that marks them SENDING.
+     */
+    @Query(value = """
+        SELECT id
+        FROM push_outbox_jobs
+        WHERE status = 'PENDING'
+          AND next_attempt_at <= :now
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'SENDING', j.lockedUntil = :lockedUntil, j.attempts = j.attempts + 1, j.updatedAt = :now
+           WHERE j.id IN :ids
+             AND j.status = 'PENDING'
+           """)
+    int markSending(@Param("ids") Collection<Long> ids,
+                    @Param("lockedUntil") LocalDateTime lockedUntil,
+                    @Param("now") LocalDateTime now);
+
+    /** Claim of one job right after its transaction committed (0 => someone else has it). */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'SENDING', j.lockedUntil = :lockedUntil, j.attempts = j.attempts + 1, j.updatedAt = :now
+           WHERE j.id = :id
+             AND j.status = 'PENDING'
+           """)
+    int claim(@Param("id") Long id,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * After each multicast batch: tokens still to send, counts of the batch, and a longer lease.
+     * Fenced on the claim's attempts value: 0 => the job was requeued / claimed again, stop sending.
+     */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.tokensJson = :tokensJson,
+               j.sentCount = j.sentCount + :sent,
+               j.failedCount = j.failedCount + :failed,
+               j.lockedUntil = :lockedUntil,
+               j.updatedAt = :now
+           WHERE j.id = :id
+             AND j.status = 'SENDING'
+             AND j.attempts = :attempts
+           """)
+    int checkpoint(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("tokensJson") String tokensJson,
+                   @Param("sent") int sent,
+                   @Param("failed") int failed,
+                   @Param("lockedUntil") LocalDateTime lockedUntil,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Drained jobs the push pool rejected (full) go straight back to PENDING; the claim's attempt
+     * is given back since nothing was sent.
+     */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'PENDING', j.lockedUntil = null, j.attempts = j.attempts - 1,
+               j.nextAttemptAt = :now, j.updatedAt = :now
+           WHERE j.id IN :ids
+             AND j.status = 'SENDING'
+           """)
+    int releaseUnsent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /** Jobs whose worker died mid-send go back to the queue, while they have attempts left. */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'PENDING', j.lockedUntil = null, j.nextAttemptAt = :now
+           WHERE j.status = 'SENDING'
+             AND j.lockedUntil < :now
+             AND j.attempts < :maxAttempts
+           """)
+    int releaseStale(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+
+    /** Companion of releaseStale: stale jobs out of attempts (e.g. a poison job crashing its worker) end FAILED. */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'FAILED', j.lockedUntil = null, j.lastError = :lastError, j.updatedAt = :now
+           WHERE j.status = 'SENDING'
+             AND j.lockedUntil < :now
+             AND j.attempts >= :maxAttempts
+           """)
+    int failStale(@Param("now") LocalDateTime now,
+                  @Param("maxAttempts") int maxAttempts,
+                  @Param("lastError") String lastError);
+
+    /** Marks a claimed job FAILED (unreadable payload); fenced like checkpoint. */
+    @Modifying
+    @Query("""
+           UPDATE PushOutboxJob j
+           SET j.status = 'FAILED', j.lockedUntil = null, j.lastError = :lastError, j.updatedAt = :now
+           WHERE j.id = :id
+             AND j.status = 'SENDING'
+             AND j.attempts = :attempts
+           """)
+    int markFailed(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("lastError") String lastError,
+                   @Param("now") LocalDateTime now);
+
+    long countByStatus(String status);
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -23,18 +24,18 @@ public class FrontAppNotificationService {
 
     private final FrontAppNotificationRepository frontAppNotificationRepository;
     private final AppDeviceTokenRepository appDeviceTokenRepository;
-    private final FrontPushService frontPushService;
+    private final PushDispatchService pushDispatchService;
     private final ObjectMapper objectMapper;
 
     public FrontAppNotificationService(
             FrontAppNotificationRepository frontAppNotificationRepository,
             AppDeviceTokenRepository appDeviceTokenRepository,
-            FrontPushService frontPushService,
+            PushDispatchService pushDispatchService,
             ObjectMapper objectMapper
     ) {
         this.frontAppNotificationRepository = frontAppNotificationRepository;
         this.appDeviceTokenRepository = appDeviceTokenRepository;
-        this.frontPushService = frontPushService;
+        this.pushDispatchService = pushDispatchService;
         this.objectMapper = objectMapper;
     }
 
@@ -106,32 +107,32 @@ public class FrontAppNotificationService {
             return saved;
         }
 
+        Map<String, String> data = new HashMap<>();
+        data.put("type", notificationType.name());
+        data.put("notificationId", String.valueOf(saved.getId()));
+        data.put("ownerProjectLinkId", String.valueOf(ownerProjectLinkId));
+        data.put("receiverType", receiverType.name());
+        data.put("receiverId", String.valueOf(receiverId));
+
+        if (saved.getPayloadJson() != null) {
+            data.put("payloadJson", saved.getPayloadJson());
+        }
+
+        List<String> fcmTokens = new ArrayList<>(recipientTokens.size());
         for (AppDeviceToken deviceToken : recipientTokens) {
-            try {
-                Map<String, String> data = new HashMap<>();
-                data.put("type", notificationType.name());
-                data.put("notificationId", String.valueOf(saved.getId()));
-                data.put("ownerProjectLinkId", String.valueOf(ownerProjectLinkId));
-                data.put("receiverType", receiverType.name());
-                data.put("receiverId", String.valueOf(receiverId));
-
-                if (saved.getPayloadJson() != null) {
-                    data.put("payloadJson", saved.getPayloadJson());
-                }
-
-                frontPushService.sendPush(
-                        ownerProjectLinkId,
-                        deviceToken.getFcmToken(),
-                        saved.getTitle(),
-                        saved.getBody(),
-                        data
-                );
-            } catch (Exception e) {
-                System.out.println("Failed to send FRONT push for notificationId="
-                        + saved.getId() + " to tokenId=" + deviceToken.getId() + " => " + e.getMessage());
-            }
+            fcmTokens.add(deviceToken.getFcmToken());
         }
 
+        // ✅ Outbox: only an INSERT here; FCM is called after commit, off this thread (PushDispatchService)
+        pushDispatchService.enqueue(
+                ownerProjectLinkId,
+                saved.getId(),
+                saved.getTitle(),
+                saved.getBody(),
+                data,
+                fcmTokens
+        );
+
         return saved;
     }
 
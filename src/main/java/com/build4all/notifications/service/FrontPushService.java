@@ -3,17 +3,23 @@ package com.build4all.notifications.service;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.messaging.AndroidConfig;
 import com.google.firebase.messaging.AndroidNotification;
+import com.google.firebase.messaging.BatchResponse;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class FrontPushService {
 
+    /** FCM limit per multicast call. */
+    public static final int MAX_MULTICAST_TOKENS = 500;
+
     private final FirebaseAppRegistry firebaseAppRegistry;
 
     public FrontPushService(FirebaseAppRegistry firebaseAppRegistry) {
@@ -69,4 +75,56 @@ public class FrontPushService {
         System.out.println("Front push sent => " + response);
         return response;
     }
+
+    /**
+     * Same message as sendPush, to up to MAX_MULTICAST_TOKENS tokens in ONE FCM call.
+     * Responses are in token order; per-token failures are reported in the BatchResponse (no exception).
+     */
+    public BatchResponse sendMulticast(
+            Long ownerProjectLinkId,
+            List<String> targetTokens,
+            String title,
+            String body,
+            Map<String, String> data
+    ) throws Exception {
+
+        if (ownerProjectLinkId == null) {
+            throw new RuntimeException("ownerProjectLinkId is required");
+        }
+
+        if (targetTokens == null || targetTokens.isEmpty() || targetTokens.size() > MAX_MULTICAST_TOKENS) {
+            throw new RuntimeException("1.." + MAX_MULTICAST_TOKENS + " FCM target tokens are required");
+        }
+
+        String safeTitle = title == null ? "" : title;
+        String safeBody = body == null ? "" : body;
+
+        FirebaseApp firebaseApp = firebaseAppRegistry.getOrCreate(ownerProjectLinkId);
+        FirebaseMessaging firebaseMessaging = FirebaseMessaging.getInstance(firebaseApp);
+
+        MulticastMessage.Builder builder = MulticastMessage.builder()
+                .addAllTokens(targetTokens)
+                .setNotification(Notification.builder()
+                        .setTitle(safeTitle)
+                        .setBody(safeBody)
+                        .build())
+                .putData("title", safeTitle)
+                .putData("body", safeBody)
+                .setAndroidConfig(AndroidConfig.builder()
+                        .setPriority(AndroidConfig.Priority.HIGH)
+                        .setNotification(AndroidNotification.builder()
+                                .setSound("default")
+                                .build())
+                        .build());
+
+        if (data != null) {
+            data.forEach((k, v) -> {
+                if (k != null && v != null) {
+                    builder.putData(k, v);
+                }
+            });
+        }
+
+        return firebaseMessaging.sendEachForMulticast(builder.build());
+    }
 }
\ No newline at end of file
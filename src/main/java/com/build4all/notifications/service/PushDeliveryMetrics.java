@@ -0,0 +1,86 @@
+package com.build4all.notifications.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FCM delivery counters per tenant (ownerProjectLinkId), fed by PushDispatchService.
+ *
+ * In-memory, per instance, bounded to MAX_TRACKED_TENANTS (the busiest ones are kept).
+ */
+@Component
+public class PushDeliveryMetrics {
+
+    private static final int MAX_TRACKED_TENANTS = 5_000;
+
+    private final ConcurrentHashMap<Long, Stat> stats = new ConcurrentHashMap<>();
+
+    /** One delivery attempt of one outbox job. */
+    public void record(Long ownerProjectLinkId, int sent, int failed, int deactivated, int retried, long elapsedNanos) {
+        if (ownerProjectLinkId == null) return;
+
+        if (stats.size() >= MAX_TRACKED_TENANTS && !stats.containsKey(ownerProjectLinkId)) {
+            evictQuietest();
+        }
+
+        Stat s = stats.computeIfAbsent(ownerProjectLinkId, k -> new Stat());
+        s.attempts.incrementAndGet();
+        s.sent.addAndGet(sent);
+        s.failed.addAndGet(failed);
+        s.deactivated.addAndGet(deactivated);
+        s.retried.addAndGet(retried);
+        s.totalNanos.addAndGet(elapsedNanos);
+    }
+
+    /** Top N tenants by delivered + failed pushes. */
+    public List<Map<String, Object>> top(int limit) {
+        List<Map.Entry<Long, Stat>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Long, Stat> e) -> e.getValue().volume()).reversed());
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (var e : entries.subList(0, Math.min(Math.max(limit, 0), entries.size()))) {
+            Stat s = e.getValue();
+            long attempts = s.attempts.get();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("ownerProjectLinkId", e.getKey());
+            row.put("attempts", attempts);
+            row.put("sent", s.sent.get());
+            row.put("failed", s.failed.get());
+            row.put("tokensDeactivated", s.deactivated.get());
+            row.put("tokensRetried", s.retried.get());
+            row.put("avgAttemptMs", attempts == 0 ? 0.0 : s.totalNanos.get() / 1_000_000.0 / attempts);
+            out.add(row);
+        }
+        return out;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private void evictQuietest() {
+        stats.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().volume()))
+                .ifPresent(e -> stats.remove(e.getKey()));
+    }
+
+    private static final class Stat {
+        final AtomicLong attempts = new AtomicLong();
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong deactivated = new AtomicLong();
+        final AtomicLong retried = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+
+        long volume() {
+            return sent.get() + failed.get();
+        }
+    }
+}
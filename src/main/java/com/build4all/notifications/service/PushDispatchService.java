@@ -0,0 +1,341 @@
+package com.build4all.notifications.service;
+
+import com.build4all.notifications.domain.PushOutboxJob;
+import com.build4all.notifications.repository.AppDeviceTokenRepository;
+import com.build4all.notifications.repository.PushOutboxJobRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.SendResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * FCM delivery through a durable outbox (push_outbox_jobs).
+ *
+ * - enqueue() only INSERTs a job in the caller's transaction (no network call inside order/chat
+ *   transactions); the job is handed to the bounded "pushExecutor" pool after commit
+ * - a worker sends the job's tokens in multicast batches of up to 500 (one FCM call per batch),
+ *   checkpointing progress and extending its lease after each batch
+ * - per token: UNREGISTERED => token deactivated; UNAVAILABLE / INTERNAL / QUOTA_EXCEEDED / transport
+ *   error => retried with exponential backoff; anything else => dropped (counted as failed)
+ * - drainDue() picks up whatever was not dispatched right away (pool full, crash, retry due),
+ *   with FOR UPDATE SKIP LOCKED so replicas never send the same job twice; a job whose lease expired
+ *   is requeued only while it has attempts left, then ends FAILED (a poison job can't loop forever)
+ */
+@Service
+public class PushDispatchService {
+
+    private static final int MAX_ATTEMPTS = 6;
+    private static final long BASE_BACKOFF_MS = 10_000L;
+    private static final long MAX_BACKOFF_MS = 15 * 60_000L;
+    private static final long LOCK_MS = 2 * 60_000L;
+    private static final int DRAIN_BATCH = 50;
+
+    private static final TypeReference<List<String>> TOKENS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, String>> DATA = new TypeReference<>() {};
+
+    private final PushOutboxJobRepository jobRepo;
+    private final AppDeviceTokenRepository tokenRepo;
+    private final FrontPushService frontPushService;
+    private final PushDeliveryMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final Executor pushExecutor;
+
+    public PushDispatchService(PushOutboxJobRepository jobRepo,
+                               AppDeviceTokenRepository tokenRepo,
+                               FrontPushService frontPushService,
+                               PushDeliveryMetrics metrics,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager txManager,
+                               @Qualifier("pushExecutor") Executor pushExecutor) {
+        this.jobRepo = jobRepo;
+        this.tokenRepo = tokenRepo;
+        this.frontPushService = frontPushService;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(txManager);
+        this.pushExecutor = pushExecutor;
+    }
+
+    /* ==================== enqueue (caller's transaction) ==================== */
+
+    /**
+     * Writes one outbox job for these tokens; sending starts after the surrounding transaction commits
+     * (or right away if there is none). Returns null when there is nothing to send.
+     */
+    public PushOutboxJob enqueue(Long ownerProjectLinkId,
+                                 Long notificationId,
+                                 String title,
+                                 String body,
+                                 Map<String, String> data,
+                                 List<String> tokens) {
+        if (ownerProjectLinkId == null) {
+            throw new RuntimeException("ownerProjectLinkId is required");
+        }
+
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(tokens == null ? List.of() : tokens));
+        distinct.removeIf(t -> t == null || t.isBlank());
+        if (distinct.isEmpty()) return null;
+
+        PushOutboxJob job = new PushOutboxJob();
+        job.setOwnerProjectLinkId(ownerProjectLinkId);
+        job.setNotificationId(notificationId);
+        job.setTitle(title);
+        job.setBody(body);
+        job.setDataJson(toJson(data));
+        job.setTokensJson(toJson(distinct));
+
+        PushOutboxJob saved = jobRepo.save(job);
+        Long jobId = saved.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+
+        return saved;
+    }
+
+    private void submit(Long jobId) {
+        try {
+            pushExecutor.execute(() -> dispatch(jobId));
+        } catch (RejectedExecutionException ignored) {
+            // pool full (TaskRejectedException): stays PENDING, drainDue() will send it
+        }
+    }
+
+    /** Runs on the push pool: claim (no-op if a drain/replica got it first), then deliver. */
+    private void dispatch(Long jobId) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer claimed = tx.execute(s -> jobRepo.claim(jobId, now.plus(LOCK_MS, ChronoUnit.MILLIS), now));
+            if (claimed == null || claimed == 0) return;
+
+            deliverClaimed(jobId);
+        } catch (Exception e) {
+            System.out.println("⚠️ Push dispatch failed for jobId=" + jobId + " => " + e.getMessage());
+        }
+    }
+
+    /* ==================== scheduled drain ==================== */
+
+    @Scheduled(fixedDelay = 5_000L, initialDelay = 15_000L)
+    public void drainDue() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            tx.executeWithoutResult(s -> {
+                jobRepo.releaseStale(now, MAX_ATTEMPTS);
+                jobRepo.failStale(now, MAX_ATTEMPTS, "Gave up after " + MAX_ATTEMPTS + " attempts (worker lost its lease)");
+            });
+
+            List<Long> ids = tx.execute(s -> {
+                List<Long> due = jobRepo.lockDueIds(now, DRAIN_BATCH);
+                if (!due.isEmpty()) jobRepo.markSending(due, now.plus(LOCK_MS, ChronoUnit.MILLIS), now);
+                return due;
+            });
+            if (ids == null) return;
+
+            for (int i = 0; i < ids.size(); i++) {
+                Long id = ids.get(i);
+                try {
+                    pushExecutor.execute(() -> {
+                        try {
+                            deliverClaimed(id);
+                        } catch (Exception e) {
+                            System.out.println("⚠️ Push dispatch failed for jobId=" + id + " => " + e.getMessage());
+                        }
+                    });
+                } catch (RejectedExecutionException rejected) {
+                    // pool full: this job and the rest go back to PENDING for the next drain
+                    List<Long> unsent = List.copyOf(ids.subList(i, ids.size()));
+                    tx.execute(s -> jobRepo.releaseUnsent(unsent, LocalDateTime.now()));
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("⚠️ Push outbox drain failed => " + e.getMessage());
+        }
+    }
+
+    /* ==================== delivery (job already SENDING) ==================== */
+
+    /**
+     * Sends the job batch by batch. After each batch a checkpoint (same transaction as the token
+     * deactivations) stores what is left to send and the counts, and pushes locked_until forward:
+     * a long job keeps its lease, and a job requeued after a crash resumes instead of resending.
+     * The checkpoint is fenced on the claim's attempts value; 0 rows => someone else owns the job => stop.
+     */
+    private void deliverClaimed(Long jobId) throws Exception {
+        PushOutboxJob job = tx.execute(s -> jobRepo.findById(jobId).orElse(null));
+        if (job == null) return;
+
+        long start = System.nanoTime();
+        int attempts = job.getAttempts();
+
+        List<String> tokens;
+        Map<String, String> data;
+        try {
+            tokens = objectMapper.readValue(job.getTokensJson(), TOKENS);
+            data = job.getDataJson() == null ? Map.of() : objectMapper.readValue(job.getDataJson(), DATA);
+        } catch (Exception e) {
+            // unreadable payload: retrying can't help, end it now instead of waiting for lease expiry
+            String error = truncate("Unreadable job payload: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            tx.execute(s -> jobRepo.markFailed(jobId, attempts, error, LocalDateTime.now()));
+            System.out.println("⚠️ Push job " + jobId + " failed => " + error);
+            return;
+        }
+
+        List<String> retry = new ArrayList<>();
+        int sent = 0;
+        int failed = 0;
+        int deactivated = 0;
+        String lastError = null;
+
+        for (int from = 0; from < tokens.size(); from += FrontPushService.MAX_MULTICAST_TOKENS) {
+            int to = Math.min(tokens.size(), from + FrontPushService.MAX_MULTICAST_TOKENS);
+            List<String> chunk = tokens.subList(from, to);
+
+            List<String> unregistered = new ArrayList<>();
+            int batchSent = 0;
+            int batchFailed = 0;
+
+            try {
+                BatchResponse batch = frontPushService.sendMulticast(
+                        job.getOwnerProjectLinkId(), chunk, job.getTitle(), job.getBody(), data);
+
+                List<SendResponse> responses = batch.getResponses();
+                for (int i = 0; i < responses.size(); i++) {
+                    SendResponse r = responses.get(i);
+                    if (r.isSuccessful()) {
+                        batchSent++;
+                        continue;
+                    }
+
+                    FirebaseMessagingException ex = r.getException();
+                    MessagingErrorCode code = ex == null ? null : ex.getMessagingErrorCode();
+                    lastError = code + ": " + (ex == null ? "unknown" : ex.getMessage());
+
+                    if (code == MessagingErrorCode.UNREGISTERED) {
+                        unregistered.add(chunk.get(i));
+                    } else if (isRetryable(code)) {
+                        retry.add(chunk.get(i));
+                    } else {
+                        batchFailed++;
+                    }
+                }
+            } catch (Exception e) {
+                // whole call failed (network, credentials, FirebaseApp init): retry the batch
+                retry.addAll(chunk);
+                lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+
+            sent += batchSent;
+            failed += batchFailed + unregistered.size();
+            deactivated += unregistered.size();
+
+            // still to send if this job is picked up again: retryable tokens so far + batches not sent yet
+            List<String> remaining = new ArrayList<>(retry);
+            remaining.addAll(tokens.subList(to, tokens.size()));
+
+            String remainingJson = toJson(remaining);
+            int batchFailedTotal = batchFailed + unregistered.size();
+            int sentInBatch = batchSent;
+            LocalDateTime now = LocalDateTime.now();
+
+            Integer owned = tx.execute(s -> {
+                if (!unregistered.isEmpty()) tokenRepo.deactivateByFcmTokens(unregistered, now);
+                return jobRepo.checkpoint(jobId, attempts, remainingJson, sentInBatch, batchFailedTotal,
+                        now.plus(LOCK_MS, ChronoUnit.MILLIS), now);
+            });
+            if (owned == null || owned == 0) {
+                System.out.println("⚠️ Push job " + jobId + " lost its lease mid-send, stopping");
+                metrics.record(job.getOwnerProjectLinkId(), sent, failed, deactivated, 0, System.nanoTime() - start);
+                return;
+            }
+        }
+
+        finish(jobId, attempts, retry, lastError);
+
+        metrics.record(job.getOwnerProjectLinkId(), sent, failed, deactivated, retry.size(), System.nanoTime() - start);
+    }
+
+    /** Counts and remaining tokens are already stored by the per-batch checkpoints. */
+    private void finish(Long jobId, int attempts, List<String> retry, String lastError) {
+        tx.executeWithoutResult(s -> {
+            PushOutboxJob job = jobRepo.findById(jobId).orElse(null);
+            if (job == null) return;
+            if (!PushOutboxJob.STATUS_SENDING.equals(job.getStatus()) || job.getAttempts() != attempts) return; // not ours anymore
+
+            job.setLockedUntil(null);
+            if (lastError != null) job.setLastError(truncate(lastError));
+
+            if (retry.isEmpty()) {
+                job.setStatus(PushOutboxJob.STATUS_SENT);
+            } else if (job.getAttempts() >= MAX_ATTEMPTS) {
+                job.setStatus(PushOutboxJob.STATUS_FAILED);
+                job.setFailedCount(job.getFailedCount() + retry.size());
+            } else {
+                job.setStatus(PushOutboxJob.STATUS_PENDING);
+                job.setTokensJson(toJson(retry));
+                job.setNextAttemptAt(LocalDateTime.now().plus(backoffMs(job.getAttempts()), ChronoUnit.MILLIS));
+            }
+
+            jobRepo.save(job);
+        });
+    }
+
+    /* ==================== helpers ==================== */
+
+    private static boolean isRetryable(MessagingErrorCode code) {
+        return code == null
+                || code == MessagingErrorCode.UNAVAILABLE
+                || code == MessagingErrorCode.INTERNAL
+                || code == MessagingErrorCode.QUOTA_EXCEEDED;
+    }
+
+    /** 10s, 20s, 40s ... capped at 15 min, +/-20% jitter so retries of many jobs spread out. */
+    private static long backoffMs(int attempts) {
+        long base = BASE_BACKOFF_MS << Math.min(Math.max(attempts - 1, 0), 16);
+        long capped = Math.min(base, MAX_BACKOFF_MS);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return (long) (capped * jitter);
+    }
+
+    private String toJson(Object value) {
+        if (value == null) return null;
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize push job", e);
+        }
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= 1000 ? s : s.substring(0, 1000);
+    }
+}
@@ -0,0 +1,51 @@
+package com.build4all.order.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running units sold per item of an application (tenant), from COMPLETED orders only.
+ *
+ * Maintained incrementally (ItemSalesRankService) when an order enters / leaves COMPLETED,
+ * and rebuilt from order_items by a nightly reconciliation.
+ * Read by the best-sellers endpoints as a bounded index scan instead of a GROUP BY over all sales.
+ */
+@Entity
+@Table(
+        name = "item_sales_ranks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_item_sales_rank", columnNames = {"owner_project_id", "item_id"}),
+        indexes = @Index(name = "idx_item_sales_rank_top", columnList = "owner_project_id, sold_qty")
+)
+public class ItemSalesRank {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_project_id", nullable = false)
+    private Long ownerProjectId;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "sold_qty", nullable = false)
+    private Long soldQty = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public Long getId() { return id; }
+
+    public Long getOwnerProjectId() { return ownerProjectId; }
+    public void setOwnerProjectId(Long ownerProjectId) { this.ownerProjectId = ownerProjectId; }
+
+    public Long getItemId() { return itemId; }
+    public void setItemId(Long itemId) { this.itemId = itemId; }
+
+    public Long getSoldQty() { return soldQty; }
+    public void setSoldQty(Long soldQty) { this.soldQty = soldQty; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -5,6 +5,7 @@ import com.build4all.catalog.domain.Country;
 import com.build4all.catalog.domain.Region;
 import com.build4all.user.domain.Users;
 import com.build4all.payment.domain.PaymentMethod;
+import com.build4all.order.service.OrderSalesRankListener;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
@@ -20,7 +21,14 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
 @Entity
-@Table(name = "orders")
+@EntityListeners(OrderSalesRankListener.class) // keeps item_sales_ranks in sync with COMPLETED transitions
+@Table(
+        name = "orders",
+        indexes = {
+                // keyset pagination of an application's order listing: tenant first, then (order_date desc, order_id desc)
+                @Index(name = "idx_orders_aup_date_id", columnList = "owner_project_id, order_date desc, order_id desc")
+        }
+)
 public class Order {
 
     @Id
@@ -105,6 +113,10 @@ public class Order {
     @Column(name = "order_seq")
     private Long orderSeq;
 
+    /** Application (AUP) of the order's items, denormalized so listings seek on one tenant-scoped index. */
+    @Column(name = "owner_project_id")
+    private Long ownerProjectId;
+
     @Column(name = "coupon_code", length = 100)
     private String couponCode;
 
@@ -115,6 +127,11 @@ public class Order {
     @JoinColumn(name = "payment_method_id")
     private PaymentMethod paymentMethod;
 
+    /** Status name as loaded/last flushed (set by OrderSalesRankListener, not persisted). */
+    @Transient
+    @JsonIgnore
+    private String statusAtLoad;
+
     /* ==========================
        ✅ Auto timestamps
        ========================== */
@@ -228,6 +245,9 @@ public class Order {
     public Long getOrderSeq() { return orderSeq; }
     public void setOrderSeq(Long orderSeq) { this.orderSeq = orderSeq; }
 
+    public Long getOwnerProjectId() { return ownerProjectId; }
+    public void setOwnerProjectId(Long ownerProjectId) { this.ownerProjectId = ownerProjectId; }
+
     public String getCouponCode() { return couponCode; }
     public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
 
@@ -236,4 +256,7 @@ public class Order {
 
     public PaymentMethod getPaymentMethod() { return paymentMethod; }
     public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
-}
\ No newline at end of file
+
+    public String getStatusAtLoad() { return statusAtLoad; }
+    public void setStatusAtLoad(String statusAtLoad) { this.statusAtLoad = statusAtLoad; }
+}
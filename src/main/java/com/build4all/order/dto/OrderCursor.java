@@ -0,0 +1,37 @@
+package com.build4all.order.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset (seek) position in an order listing sorted by (orderDate desc, id desc).
+ *
+ * Sent to clients as an opaque url-safe token; the next page starts strictly after it.
+ */
+public record OrderCursor(LocalDateTime orderDate, Long id) {
+
+    /** Position before the first row (newest order). */
+    public static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** null/blank => START. */
+    public static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.valueOf(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
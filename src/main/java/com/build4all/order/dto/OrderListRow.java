@@ -0,0 +1,23 @@
+package com.build4all.order.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat projection of one order header for the OWNER / SUPER_ADMIN order listings.
+ *
+ * Filled by a JPQL constructor expression (OrderRepository.findOwnerOrdersPage):
+ * no Order/OrderItem entities are hydrated, itemsCount is a scalar subquery.
+ */
+public record OrderListRow(
+        Long id,
+        LocalDateTime orderDate,
+        BigDecimal totalPrice,
+        String status,
+        String shippingAddress,
+        String shippingPhone,
+        String shippingFullName,
+        String orderCode,
+        Long orderSeq,
+        Long itemsCount
+) {}
@@ -0,0 +1,108 @@
+package com.build4all.order.repository;
+
+import com.build4all.order.domain.ItemSalesRank;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemSalesRankRepository extends JpaRepository<ItemSalesRank, Long> {
+
+    /**
+     * Adds sign * quantity of every line of the order to its item's counter (atomic upsert).
+     * sign = +1 when the order becomes COMPLETED, -1 when it leaves COMPLETED.
+     * Counters never go below 0 (EXCLUDED holds the clamped insert value, so the
+     * signed line sum is re-read for the update branch).
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO item_sales_ranks(owner_project_id, item_id, sold_qty, updated_at)
+        SELECT i.aup_id, oi.item_id, GREATEST(0, SUM(oi.quantity) * :sign), now()
+        FROM order_items oi
+        JOIN items i ON i.item_id = oi.item_id
+        WHERE oi.order_id = :orderId
+          AND i.aup_id IS NOT NULL
+        GROUP BY i.aup_id, oi.item_id
+        ON CONFLICT (owner_project_id, item_id)
+        DO UPDATE SET sold_qty = GREATEST(0, item_sales_ranks.sold_qty + :sign * (
+                          SELECT SUM(x.quantity) FROM order_items x
+                          WHERE x.order_id = :orderId AND x.item_id = EXCLUDED.item_id)),
+                      updated_at = now()
+    """, nativeQuery = true)
+    int applyOrderDelta(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    /**
+     * Top published products of one app by units sold (same filters as the old aggregate:
+     * Product subtype only, PUBLISHED only).
+     */
+    @Query("""
+           select r.itemId
+           from ItemSalesRank r, Product p
+           where p.id = r.itemId
+             and r.ownerProjectId = :ownerProjectId
+             and r.soldQty > 0
+             and upper(p.status.code) = 'PUBLISHED'
+           order by r.soldQty desc, r.itemId asc
+           """)
+    List<Long> findTopPublishedProductIds(@Param("ownerProjectId") Long ownerProjectId, Limit limit);
+
+    @Query("select count(r) > 0 from ItemSalesRank r where r.ownerProjectId = :ownerProjectId")
+    boolean existsForOwnerProject(@Param("ownerProjectId") Long ownerProjectId);
+
+    /* -------------------- reconciliation -------------------- */
+
+    /**
+     * Serializes rebuilds of one app (first-read bootstrap vs nightly reconcile vs another replica);
+     * released at the end of the transaction.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:ownerProjectId)) l", nativeQuery = true)
+    long lockOwnerProject(@Param("ownerProjectId") Long ownerProjectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM item_sales_ranks WHERE owner_project_id = :ownerProjectId", nativeQuery = true)
+    int deleteForOwnerProject(@Param("ownerProjectId") Long ownerProjectId);
+
+    /**
+     * Recomputes the app's counters from completed orders. ON CONFLICT covers a row upserted by a
+     * concurrent applyOrderDelta after the delete: the recomputed total wins.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO item_sales_ranks(owner_project_id, item_id, sold_qty, updated_at)
+        SELECT i.aup_id, oi.item_id, SUM(oi.quantity), now()
+        FROM order_items oi
+        JOIN orders o ON o.order_id = oi.order_id
+        JOIN order_status s ON s.id = o.status_id
+        JOIN items i ON i.item_id = oi.item_id
+        WHERE i.aup_id = :ownerProjectId
+          AND UPPER(s.name) = 'COMPLETED'
+        GROUP BY i.aup_id, oi.item_id
+        ON CONFLICT (owner_project_id, item_id)
+        DO UPDATE SET sold_qty = EXCLUDED.sold_qty,
+                      updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    int rebuildForOwnerProject(@Param("ownerProjectId") Long ownerProjectId);
+
+    /**
+     * Apps that have any sale or any counter (the set the nightly reconciliation walks),
+     * keyset-paged by id.
+     */
+    @Query(value = """
+        SELECT a.id FROM (
+            SELECT i.aup_id AS id
+            FROM order_items oi
+            JOIN items i ON i.item_id = oi.item_id
+            WHERE i.aup_id > :afterId
+            UNION
+            SELECT owner_project_id FROM item_sales_ranks WHERE owner_project_id > :afterId
+        ) a
+        ORDER BY a.id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findOwnerProjectIdsToReconcile(@Param("afterId") long afterId, @Param("limit") int limit);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -98,6 +99,20 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     int sumQuantityByItemIdAndStatusNames(@Param("itemId") Long itemId,
                                           @Param("statusNames") List<String> statusNames);
 
+    /**
+     * Batch variant of sumQuantityByItemIdAndStatusNames: one grouped query for all items.
+     * Returns [itemId, sum] rows; items without matching order items are absent (= 0).
+     */
+    @Query("""
+           SELECT oi.item.id, COALESCE(SUM(oi.quantity), 0)
+           FROM OrderItem oi
+           WHERE oi.item.id IN :itemIds
+             AND UPPER(oi.order.status.name) IN :statusNames
+           GROUP BY oi.item.id
+           """)
+    List<Object[]> sumQuantityByItemIdsAndStatusNames(@Param("itemIds") Collection<Long> itemIds,
+                                                      @Param("statusNames") List<String> statusNames);
+
     @Query("""
            SELECT COALESCE(SUM(oi.quantity), 0)
            FROM OrderItem oi
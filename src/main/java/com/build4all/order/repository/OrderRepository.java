@@ -1,8 +1,11 @@
 package com.build4all.order.repository;
 
 import com.build4all.order.domain.Order;
+import com.build4all.order.dto.OrderListRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -330,6 +333,65 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findAllByOwnerProjectIdWithItemsAndStatuses(@Param("ownerProjectId") Long ownerProjectId,
                                                             @Param("statuses") List<String> statuses);
 
+    /**
+     * OWNER / SUPER_ADMIN: one page of an application's orders, newest first.
+     *
+     * - Keyset pagination on (orderDate, id): "after" the cursor = strictly older,
+     *   so the cost does not grow with the page number (no OFFSET).
+     * - Projection only (no entity hydration, no orderItems fetch); tenant scope on the denormalized
+     *   orders.owner_project_id, so the seek runs on idx_orders_aup_date_id and never walks other tenants' orders.
+     * - filterStatuses = false => statuses is ignored (pass a non-empty placeholder).
+     * - from inclusive, to exclusive.
+     *
+     * Fetch limit = page size + 1 to know if there is a next page.
+     */
+    @Query("""
+           select new com.build4all.order.dto.OrderListRow(
+               o.id, o.orderDate, o.totalPrice, s.name,
+               o.shippingAddress, o.shippingPhone, o.shippingFullName,
+               o.orderCode, o.orderSeq,
+               (select count(oi2) from OrderItem oi2 where oi2.order = o)
+           )
+           from Order o
+           left join o.status s
+           where o.ownerProjectId = :ownerProjectId
+             and (:filterStatuses = false or upper(s.name) in :statuses)
+             and o.orderDate >= :from
+             and o.orderDate < :to
+             and (o.orderDate < :cursorDate or (o.orderDate = :cursorDate and o.id < :cursorId))
+           order by o.orderDate desc, o.id desc
+           """)
+    List<OrderListRow> findOwnerOrdersPage(@Param("ownerProjectId") Long ownerProjectId,
+                                           @Param("filterStatuses") boolean filterStatuses,
+                                           @Param("statuses") List<String> statuses,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("cursorDate") LocalDateTime cursorDate,
+                                           @Param("cursorId") Long cursorId,
+                                           Limit limit);
+
+    /** Sets owner_project_id (from the first line's item) on at most :limit orders created before the column existed. */
+    @Modifying
+    @Query(value = """
+        UPDATE orders o
+           SET owner_project_id = (SELECT i.aup_id
+                                     FROM order_items oi
+                                     JOIN items i ON i.item_id = oi.item_id
+                                    WHERE oi.order_id = o.order_id
+                                      AND i.aup_id IS NOT NULL
+                                    ORDER BY oi.id
+                                    LIMIT 1)
+         WHERE o.order_id IN (
+               SELECT o2.order_id FROM orders o2
+                WHERE o2.owner_project_id IS NULL
+                  AND EXISTS (SELECT 1 FROM order_items oi2
+                                JOIN items i2 ON i2.item_id = oi2.item_id
+                               WHERE oi2.order_id = o2.order_id AND i2.aup_id IS NOT NULL)
+                LIMIT :limit
+         )
+    """, nativeQuery = true)
+    int fillMissingOwnerProject(@Param("limit") int limit);
+
     /* =========================================================================================
        SUPER_ADMIN (Engine) - aggregation by application (ownerProjectId) ✅ NEW
        ========================================================================================= */
@@ -1,8 +1,11 @@
 package com.build4all.order.service;
 
+import com.build4all.order.dto.CartLine;
 import com.build4all.order.dto.CheckoutRequest;
 import com.build4all.order.dto.CheckoutSummaryResponse;
 
+import java.util.List;
+
 /**
  * CheckoutPricingService
  *
@@ -56,4 +59,22 @@ public interface CheckoutPricingService {
     CheckoutSummaryResponse priceCheckout(Long ownerProjectId,
                                           Long currencyId,
                                           CheckoutRequest request);
+
+    /**
+     * Loads the tenant's pricing configuration (shipping methods, tax rules) once and
+     * normalizes the lines (unitPrice null -> 0, lineSubtotal = unitPrice * quantity).
+     *
+     * Reuse the returned context for every priceCheckout of the same lines
+     * (e.g. the retry without coupon) and for coupon re-validation.
+     */
+    PricingContext openContext(Long ownerProjectId, List<CartLine> lines);
+
+    /**
+     * Single-pass pricing on an opened context: shipping, coupon and taxes are evaluated
+     * from the already loaded configuration and line aggregates.
+     * request supplies shippingAddress / shippingMethodId / couponCode; lines come from the context.
+     */
+    CheckoutSummaryResponse priceCheckout(PricingContext context,
+                                          Long currencyId,
+                                          CheckoutRequest request);
 }
@@ -0,0 +1,135 @@
+package com.build4all.order.service;
+
+import com.build4all.common.jobs.RetentionJobRunner;
+import com.build4all.order.repository.ItemSalesRankRepository;
+import com.build4all.order.repository.OrderItemRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-application best-sellers ranking (item_sales_ranks).
+ *
+ * - Incremental: OrderSalesRankListener reports every order that enters / leaves COMPLETED;
+ *   the counters are adjusted right after that transaction commits (own transaction,
+ *   so a rollback never counts a sale and a ranking failure never fails the order).
+ * - Reconciliation: rebuilt from order_items every night, which also repairs drift
+ *   (e.g. lines edited on a completed order, orders deleted, a missed after-commit);
+ *   runs through RetentionJobRunner (one replica, apps walked in id order, one transaction per app).
+ * - Bootstrap: an app with no counters yet is rebuilt once on first read; if that fails the
+ *   request is served from the order_items aggregate instead.
+ * - Rebuilds of one app are serialized (advisory lock), so concurrent rebuilds don't collide.
+ */
+@Service
+public class ItemSalesRankService {
+
+    private static final String RECONCILE_JOB = "orders.reconcileSalesRanks";
+
+    private final ItemSalesRankRepository rankRepo;
+    private final OrderItemRepository orderItemRepo;
+    private final RetentionJobRunner jobRunner;
+    private final TransactionTemplate newTx;
+
+    private final Set<Long> bootstrapped = ConcurrentHashMap.newKeySet();
+
+    public ItemSalesRankService(ItemSalesRankRepository rankRepo,
+                                OrderItemRepository orderItemRepo,
+                                RetentionJobRunner jobRunner,
+                                PlatformTransactionManager txManager) {
+        this.rankRepo = rankRepo;
+        this.orderItemRepo = orderItemRepo;
+        this.jobRunner = jobRunner;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Called by OrderSalesRankListener when an order's status crosses COMPLETED. */
+    public void onCompletedChanged(Long orderId, boolean nowCompleted) {
+        if (orderId == null) return;
+        int sign = nowCompleted ? 1 : -1;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyDelta(orderId, sign);
+                }
+            });
+        } else {
+            applyDelta(orderId, sign);
+        }
+    }
+
+    /** Item ids of the top published products, best first (bounded index read). */
+    public List<Long> topProductIds(Long ownerProjectId, int limit) {
+        if (ownerProjectId == null || limit <= 0) return List.of();
+
+        if (!bootstrapped.contains(ownerProjectId)) {
+            try {
+                if (!rankRepo.existsForOwnerProject(ownerProjectId)) {
+                    rebuild(ownerProjectId);
+                }
+                bootstrapped.add(ownerProjectId);
+            } catch (Exception e) {
+                System.out.println("⚠️ Best-sellers bootstrap failed for ownerProjectId=" + ownerProjectId + " => " + e.getMessage());
+                return aggregateTopProductIds(ownerProjectId, limit);
+            }
+        }
+
+        return rankRepo.findTopPublishedProductIds(ownerProjectId, Limit.of(limit));
+    }
+
+    /** The pre-ranking query (GROUP BY over the app's sales); only used when the bootstrap fails. */
+    private List<Long> aggregateTopProductIds(Long ownerProjectId, int limit) {
+        return orderItemRepo.findBestSellingItemsByOwnerProject(ownerProjectId).stream()
+                .limit(limit)
+                .map(row -> ((Number) row[0]).longValue())
+                .toList();
+    }
+
+    /** Nightly full reconciliation, one app per transaction. */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void reconcileAll() {
+        long[] lastId = {0L};
+
+        jobRunner.run(RECONCILE_JOB, limit -> {
+            List<Long> ownerProjectIds = rankRepo.findOwnerProjectIdsToReconcile(lastId[0], limit);
+            if (ownerProjectIds.isEmpty()) return 0;
+
+            lastId[0] = ownerProjectIds.get(ownerProjectIds.size() - 1);
+
+            for (Long ownerProjectId : ownerProjectIds) {
+                jobRunner.runRow(RECONCILE_JOB, ownerProjectId, () -> rebuildInCurrentTx(ownerProjectId));
+            }
+            return ownerProjectIds.size();
+        });
+    }
+
+    public void rebuild(Long ownerProjectId) {
+        newTx.executeWithoutResult(status -> rebuildInCurrentTx(ownerProjectId));
+    }
+
+    private void rebuildInCurrentTx(Long ownerProjectId) {
+        rankRepo.lockOwnerProject(ownerProjectId);
+        rankRepo.deleteForOwnerProject(ownerProjectId);
+        rankRepo.rebuildForOwnerProject(ownerProjectId);
+    }
+
+    private void applyDelta(Long orderId, int sign) {
+        try {
+            newTx.executeWithoutResult(status -> rankRepo.applyOrderDelta(orderId, sign));
+        } catch (Exception e) {
+            // Counters are repaired by the nightly reconciliation
+            System.out.println("Best-sellers update failed for orderId=" + orderId + " => " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.build4all.order.service;
+
+import com.build4all.order.domain.Order;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+import java.util.Locale;
+
+/**
+ * JPA listener on Order: detects status transitions into / out of COMPLETED
+ * and feeds the best-sellers ranking (ItemSalesRankService).
+ *
+ * Works for every code path that flips a status (service, controller, payment callbacks),
+ * by comparing the status at load time with the status being flushed.
+ */
+public class OrderSalesRankListener {
+
+    private static final String COMPLETED = "COMPLETED";
+
+    private final ItemSalesRankService rankService;
+
+    public OrderSalesRankListener(ItemSalesRankService rankService) {
+        this.rankService = rankService;
+    }
+
+    @PostLoad
+    public void onLoad(Order order) {
+        order.setStatusAtLoad(statusName(order));
+    }
+
+    @PostPersist
+    public void onInsert(Order order) {
+        String now = statusName(order);
+        if (COMPLETED.equals(now)) {
+            rankService.onCompletedChanged(order.getId(), true);
+        }
+        order.setStatusAtLoad(now);
+    }
+
+    @PostUpdate
+    public void onUpdate(Order order) {
+        String before = order.getStatusAtLoad();
+        String now = statusName(order);
+
+        boolean wasCompleted = COMPLETED.equals(before);
+        boolean isCompleted = COMPLETED.equals(now);
+
+        if (wasCompleted != isCompleted) {
+            rankService.onCompletedChanged(order.getId(), isCompleted);
+        }
+        order.setStatusAtLoad(now);
+    }
+
+    private static String statusName(Order order) {
+        if (order == null || order.getStatus() == null || order.getStatus().getName() == null) return null;
+        return order.getStatus().getName().trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package com.build4all.order.service;
+
+import com.build4all.common.jobs.RetentionJobRunner;
+import com.build4all.order.repository.OrderRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills orders.owner_project_id for orders created before the column existed (new orders get it
+ * at creation), so tenant-scoped order listings see them.
+ *
+ * Runs at startup in chunks through RetentionJobRunner (one replica, one transaction per chunk).
+ */
+@Service
+public class OrderTenantBackfillService {
+
+    private final OrderRepository orderRepository;
+    private final RetentionJobRunner jobRunner;
+
+    public OrderTenantBackfillService(OrderRepository orderRepository, RetentionJobRunner jobRunner) {
+        this.orderRepository = orderRepository;
+        this.jobRunner = jobRunner;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        try {
+            jobRunner.run("orders.backfillOwnerProject", orderRepository::fillMissingOwnerProject);
+        } catch (Exception e) {
+            System.out.println("⚠️ Order owner_project_id backfill failed => " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.build4all.order.service;
+
+import com.build4all.order.dto.CartLine;
+import com.build4all.promo.domain.Coupon;
+import com.build4all.shipping.domain.ShippingMethod;
+import com.build4all.tax.service.TaxRuleIndex;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Everything one checkout pricing run needs, loaded/computed ONCE
+ * (see CheckoutPricingService.openContext):
+ *
+ * - tenant pricing config: enabled shipping methods + tax rule index
+ * - line aggregates: items subtotal and total weight (one walk over the lines)
+ * - coupon validations, memoized per (code, items subtotal) for the lifetime of the context
+ *
+ * Quote, checkout and owner order edit price through it, so a retry without coupon
+ * or a coupon re-validation does not reload shipping/tax/coupon rows.
+ *
+ * Not thread-safe: one context per request.
+ */
+public final class PricingContext {
+
+    private final Long ownerProjectId;
+    private final List<CartLine> lines;
+    private final BigDecimal itemsSubtotal;
+    private final BigDecimal totalWeight;
+    private final List<ShippingMethod> shippingMethods;
+    private final TaxRuleIndex taxRules;
+
+    private final Map<CouponKey, CouponCheck> couponChecks = new HashMap<>();
+
+    public PricingContext(Long ownerProjectId,
+                          List<CartLine> lines,
+                          List<ShippingMethod> shippingMethods,
+                          TaxRuleIndex taxRules) {
+        this.ownerProjectId = ownerProjectId;
+        this.lines = (lines == null) ? List.of() : lines;
+        this.shippingMethods = (shippingMethods == null) ? List.of() : shippingMethods;
+        this.taxRules = (taxRules == null) ? TaxRuleIndex.empty() : taxRules;
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal weight = BigDecimal.ZERO;
+        for (CartLine line : this.lines) {
+            if (line == null) continue;
+
+            if (line.getLineSubtotal() != null) {
+                subtotal = subtotal.add(line.getLineSubtotal());
+            } else if (line.getUnitPrice() != null) {
+                subtotal = subtotal.add(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            }
+
+            if (line.getWeightKg() != null) {
+                weight = weight.add(line.getWeightKg());
+            }
+        }
+        this.itemsSubtotal = subtotal;
+        this.totalWeight = weight;
+    }
+
+    public Long getOwnerProjectId() { return ownerProjectId; }
+
+    public List<CartLine> getLines() { return lines; }
+
+    public BigDecimal getItemsSubtotal() { return itemsSubtotal; }
+
+    public BigDecimal getTotalWeight() { return totalWeight; }
+
+    public List<ShippingMethod> getShippingMethods() { return shippingMethods; }
+
+    public TaxRuleIndex getTaxRules() { return taxRules; }
+
+    /**
+     * Validates a coupon code against itemsSubtotal at most once per context (codes are
+     * case-insensitive). itemsSubtotal must be the subtotal the validator checks (minOrderAmount...):
+     * the same code against another subtotal is validated again.
+     * A failed validation is remembered too and re-thrown on the next call.
+     */
+    public Coupon validateCoupon(String code, BigDecimal itemsSubtotal, Supplier<Coupon> validator) {
+        CouponKey key = new CouponKey(
+                (code == null) ? "" : code.trim().toUpperCase(Locale.ROOT),
+                (itemsSubtotal == null) ? null : itemsSubtotal.stripTrailingZeros()
+        );
+
+        CouponCheck check = couponChecks.get(key);
+        if (check == null) {
+            try {
+                check = new CouponCheck(validator.get(), null);
+            } catch (RuntimeException ex) {
+                check = new CouponCheck(null, ex);
+            }
+            couponChecks.put(key, check);
+        }
+
+        if (check.error() != null) throw check.error();
+        return check.coupon();
+    }
+
+    /** Subtotal without trailing zeros, so 10.0 and 10.00 share an entry. */
+    private record CouponKey(String code, BigDecimal itemsSubtotal) {}
+
+    private record CouponCheck(Coupon coupon, RuntimeException error) {}
+}
@@ -9,6 +9,7 @@ import com.build4all.order.dto.CheckoutRequest;
 import com.build4all.order.dto.CheckoutSummaryResponse;
 import com.build4all.order.dto.ShippingAddressDTO;
 import com.build4all.order.service.CheckoutPricingService;
+import com.build4all.order.service.PricingContext;
 import com.build4all.promo.domain.Coupon;
 import com.build4all.promo.domain.CouponDiscountType;
 import com.build4all.promo.service.CouponService;
@@ -50,20 +51,42 @@ public class CheckoutPricingServiceImpl implements CheckoutPricingService {
             throw new IllegalArgumentException("Cart is empty");
         }
 
-        List<CartLine> lines = request.getLines();
+        return priceCheckout(openContext(ownerProjectId, request.getLines()), currencyId, request);
+    }
+
+    @Override
+    public PricingContext openContext(Long ownerProjectId, List<CartLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
+        }
 
-        BigDecimal itemsSubtotal = BigDecimal.ZERO;
         for (CartLine line : lines) {
             BigDecimal unit = line.getUnitPrice() != null ? line.getUnitPrice() : BigDecimal.ZERO;
-            int qty = line.getQuantity();
-            BigDecimal lineTotal = unit.multiply(BigDecimal.valueOf(qty));
-
             line.setUnitPrice(unit);
-            line.setLineSubtotal(lineTotal);
+            line.setLineSubtotal(unit.multiply(BigDecimal.valueOf(line.getQuantity())));
+        }
 
-            itemsSubtotal = itemsSubtotal.add(lineTotal);
+        return new PricingContext(
+                ownerProjectId,
+                lines,
+                shippingService.findEnabledMethods(ownerProjectId),
+                taxService.ruleIndex(ownerProjectId)
+        );
+    }
+
+    @Override
+    public CheckoutSummaryResponse priceCheckout(PricingContext ctx,
+                                                 Long currencyId,
+                                                 CheckoutRequest request) {
+
+        if (ctx == null || ctx.getLines().isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty");
         }
 
+        Long ownerProjectId = ctx.getOwnerProjectId();
+        List<CartLine> lines = ctx.getLines();
+        BigDecimal itemsSubtotal = ctx.getItemsSubtotal();
+
         ShippingAddressDTO address = request.getShippingAddress();
 
         if (address != null && request.getShippingMethodId() != null) {
@@ -73,11 +96,7 @@ public class CheckoutPricingServiceImpl implements CheckoutPricingService {
         BigDecimal shippingTotal = BigDecimal.ZERO;
 
         if (address != null && address.getShippingMethodId() != null) {
-            ShippingQuote quote = shippingService.getQuote(
-                    ownerProjectId,
-                    address,
-                    lines
-            );
+            ShippingQuote quote = shippingService.getQuote(ctx, address);
 
             if (quote != null) {
                 if (quote.getCost() != null) {
@@ -100,11 +119,8 @@ public class CheckoutPricingServiceImpl implements CheckoutPricingService {
 
         if (requestedCouponCode != null && !requestedCouponCode.isBlank()) {
             try {
-                Coupon coupon = couponService.validateForOrder(
-                        ownerProjectId,
-                        requestedCouponCode,
-                        itemsSubtotal
-                );
+                Coupon coupon = ctx.validateCoupon(requestedCouponCode, itemsSubtotal, () ->
+                        couponService.validateForOrder(ownerProjectId, requestedCouponCode, itemsSubtotal));
 
                 if (coupon != null) {
                     if (coupon.getType() == CouponDiscountType.FREE_SHIPPING) {
@@ -137,15 +153,15 @@ public class CheckoutPricingServiceImpl implements CheckoutPricingService {
         }
 
         BigDecimal itemTaxTotal = taxService.calculateItemTax(
-                ownerProjectId,
+                ctx.getTaxRules(),
                 address,
-                lines
+                itemsSubtotal
         );
 
         // IMPORTANT:
         // Calculate shipping tax ONLY after coupon/final shipping is known
         BigDecimal shippingTaxTotal = taxService.calculateShippingTax(
-                ownerProjectId,
+                ctx.getTaxRules(),
                 address,
                 shippingTotal
         );
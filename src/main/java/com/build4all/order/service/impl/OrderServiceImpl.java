@@ -15,6 +15,7 @@ import com.build4all.catalog.repository.CountryRepository;
 import com.build4all.catalog.repository.CurrencyRepository;
 import com.build4all.catalog.repository.ItemRepository;
 import com.build4all.catalog.repository.RegionRepository;
+import com.build4all.catalog.service.ItemLockMetrics;
 import com.build4all.common.errors.ApiException;
 import com.build4all.notifications.service.FrontAppNotificationService;
 import com.build4all.order.domain.Order;
@@ -32,6 +33,7 @@ import com.build4all.order.repository.OrderSequenceRepository;
 import com.build4all.order.repository.OrderStatusRepository;
 import com.build4all.order.service.CheckoutPricingService;
 import com.build4all.order.service.OrderService;
+import com.build4all.order.service.PricingContext;
 import com.build4all.payment.domain.PaymentMethod;
 import com.build4all.payment.dto.StartPaymentResponse;
 import com.build4all.payment.repository.PaymentMethodRepository;
@@ -48,7 +50,6 @@ import com.build4all.webSocket.service.WebSocketEventService;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
-import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -83,6 +84,8 @@ public class OrderServiceImpl implements OrderService {
     private final PaymentOrchestratorService paymentOrchestrator;
     private final PaymentMethodRepository paymentMethodRepo;
 
+    private final ItemLockMetrics itemLockMetrics;
+
     public OrderServiceImpl(
             OrderItemRepository orderItemRepo,
             OrderRepository orderRepo,
@@ -103,7 +106,8 @@ public class OrderServiceImpl implements OrderService {
             OrderSequenceRepository orderSeqRepo,
             WebSocketEventService wsEvents,
             FrontAppNotificationService frontAppNotificationService,
-            AdminUserProjectRepository adminUserProjectRepository
+            AdminUserProjectRepository adminUserProjectRepository,
+            ItemLockMetrics itemLockMetrics
     ) {
         this.orderItemRepo = orderItemRepo;
         this.orderRepo = orderRepo;
@@ -125,6 +129,7 @@ public class OrderServiceImpl implements OrderService {
         this.wsEvents = wsEvents;
         this.frontAppNotificationService = frontAppNotificationService;
         this.adminUserProjectRepository = adminUserProjectRepository;
+        this.itemLockMetrics = itemLockMetrics;
     }
 
     
@@ -192,11 +197,8 @@ public class OrderServiceImpl implements OrderService {
     private String resolveItemDisplayName(Item item) {
         if (item == null) return "Item";
 
-        Object v = tryGet(item, "getName", "getItemName", "getTitle");
-        if (v == null) return "Item";
-
-        String s = v.toString().trim();
-        return s.isEmpty() ? "Item" : s;
+        String name = item.displayName();
+        return name == null ? "Item" : name;
     }
 
     private void notifyOwnerStockAlertIfNeeded(Item item, Integer newStock) {
@@ -346,16 +348,7 @@ public class OrderServiceImpl implements OrderService {
        =============================== */
 
     private Integer tryCapacity(Item item) {
-        String[] names = {"getMaxParticipants", "getCapacity", "getSeats", "getQuantityLimit"};
-        for (String n : names) {
-            try {
-                Method m = item.getClass().getMethod(n);
-                Object v = m.invoke(item);
-                if (v instanceof Integer i) return i;
-                if (v instanceof Number x) return x.intValue();
-            } catch (Exception ignored) {}
-        }
-        return null;
+        return item.seatCapacity();
     }
 
     
@@ -396,7 +389,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         requireActiveUser(user);
 
-        Item item = itemRepo.findByIdForStockCheck(itemId)
+        Item item = itemLockMetrics.timed(itemId, () -> itemRepo.findByIdForStockCheck(itemId))
                 .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
         assertItemPurchasable(item);
 
@@ -422,6 +415,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = new Order();
         order.setUser(user);
         order.setStatus(requireStatus("PENDING"));
+        order.setOwnerProjectId(item.getOwnerProject() != null ? item.getOwnerProject().getId() : null);
 
         // ✅ keep as creation time (if you later add createdAt, this can be removed)
         order.setOrderDate(LocalDateTime.now());
@@ -541,6 +535,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = new Order();
         order.setUser(user);
         order.setStatus(requireStatus("PENDING"));
+        order.setOwnerProjectId(item.getOwnerProject() != null ? item.getOwnerProject().getId() : null);
         order.setOrderDate(LocalDateTime.now());
         order.setTotalPrice(total);
         if (currency != null) order.setCurrency(currency);
@@ -1069,11 +1064,7 @@ public class OrderServiceImpl implements OrderService {
             BigDecimal unit = resolveUnitPrice(item);
 
             CartLine line = new CartLine();
-            String itemName = Optional.ofNullable(tryGet(item, "getName", "getItemName", "getTitle"))
-                    .map(Object::toString)
-                    .map(String::trim)
-                    .filter(x -> !x.isBlank())
-                    .orElse(null);
+            String itemName = item.displayName();
 
             line.setItemName(itemName);
             line.setItemId(itemId);
@@ -1122,28 +1113,32 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new IllegalArgumentException("Currency not found"));
 
         List<CartLine> lines = request.getLines();
-        Map<Long, Item> itemCache = new HashMap<>();
         Long ownerProjectId = null;
         String ownerSlug = null;
 
         boolean shippingRequired = false; // ✅ NEW
 
+        // One IN query for all items + one grouped query for all capacity sums
+        Map<Long, Item> itemCache = loadItemsById(lines, false);
+        Map<Long, Integer> completedQty = sumQuantitiesForItems(
+                itemCache.values().stream().filter(i -> tryCapacity(i) != null).toList(),
+                List.of("COMPLETED")
+        );
+
         for (CartLine line : lines) {
             if (line.getItemId() == null)
                 throw new IllegalArgumentException("itemId is required in cart line");
             if (line.getQuantity() <= 0)
                 throw new IllegalArgumentException("quantity must be > 0 for itemId = " + line.getItemId());
 
-            Item item = itemRepo.findById(line.getItemId())
-                    .orElseThrow(() -> new IllegalArgumentException("Item not found: " + line.getItemId()));
+            Item item = requireLoaded(itemCache, line.getItemId());
             assertItemPurchasable(item);
             itemCache.put(item.getId(), item);
 
             if (isShippingRequired(item)) shippingRequired = true; // ✅ NEW
 
-            Object n = tryGet(item, "getName", "getItemName", "getTitle");
-            String itemName = (n == null) ? null : n.toString().trim();
-            if (itemName != null && !itemName.isBlank()) {
+            String itemName = item.displayName();
+            if (itemName != null) {
                 line.setItemName(itemName);
             }
 
@@ -1160,7 +1155,7 @@ public class OrderServiceImpl implements OrderService {
 
             Integer capacity = tryCapacity(item);
             if (capacity != null) {
-                int already = orderItemRepo.sumQuantityByItemIdAndStatusNames(item.getId(), List.of("COMPLETED"));
+                int already = completedQty.getOrDefault(item.getId(), 0);
                 int remaining = capacity - already;
                 if (line.getQuantity() > remaining)
                     throw new IllegalStateException("Not enough quantity available for itemId = " + item.getId());
@@ -1204,9 +1199,12 @@ public class OrderServiceImpl implements OrderService {
         CheckoutSummaryResponse priced;
         String couponMessage = null;
 
+        // Shipping methods + tax rules loaded once, reused by the retry and the coupon re-check
+        PricingContext pricing = checkoutPricingService.openContext(ownerProjectId, lines);
+
         try {
             priced = checkoutPricingService.priceCheckout(
-                    ownerProjectId,
+                    pricing,
                     request.getCurrencyId(),
                     request
             );
@@ -1215,7 +1213,7 @@ public class OrderServiceImpl implements OrderService {
                 request.setCouponCode(null);
 
                 priced = checkoutPricingService.priceCheckout(
-                        ownerProjectId,
+                        pricing,
                         request.getCurrencyId(),
                         request
                 );
@@ -1238,9 +1236,12 @@ public class OrderServiceImpl implements OrderService {
         if (pricedCouponCode != null && !pricedCouponCode.isBlank()) {
             try {
                 BigDecimal itemsSubtotal = computeItemsSubtotal(lines);
+                final Long couponOwnerProjectId = ownerProjectId;
 
-                // Re-validate against actual order subtotal (minOrderAmount etc)
-                Coupon validated = couponService.validateForOrder(ownerProjectId, pricedCouponCode, itemsSubtotal);
+                // Re-validate against actual order subtotal (minOrderAmount etc);
+                // memoized in the pricing context, so this does not reload the coupon
+                Coupon validated = pricing.validateCoupon(pricedCouponCode, itemsSubtotal, () ->
+                        couponService.validateForOrder(couponOwnerProjectId, pricedCouponCode, itemsSubtotal));
 
                 if (validated == null) {
                     priced.setCouponCode(null);
@@ -1276,6 +1277,7 @@ public class OrderServiceImpl implements OrderService {
         Order order = new Order();
         order.setUser(user);
         order.setStatus(requireStatus("PENDING"));
+        order.setOwnerProjectId(ownerProjectId);
         order.setOrderDate(LocalDateTime.now()); // creation time
         order.setCurrency(currency);
         order.setTotalPrice(priced.getGrandTotal());
@@ -1303,11 +1305,7 @@ public class OrderServiceImpl implements OrderService {
         order = orderRepo.save(order);
 
         for (CartLine line : lines) {
-            Item item = itemCache.get(line.getItemId());
-            if (item == null) {
-                item = itemRepo.findById(line.getItemId())
-                        .orElseThrow(() -> new IllegalArgumentException("Item not found: " + line.getItemId()));
-            }
+            Item item = requireLoaded(itemCache, line.getItemId());
 
             OrderItem oi = new OrderItem();
             oi.setOrder(order);
@@ -1442,11 +1440,20 @@ public class OrderServiceImpl implements OrderService {
         boolean shippingRequired = false;
         List<String> reservedStatuses = List.of("PENDING", "COMPLETED", "CANCEL_REQUESTED");
 
+        // One locked IN query (rows locked in id order => concurrent checkouts can't deadlock)
+        // + one grouped query for the seat capacity of every non-stock item.
+        Map<Long, Item> lockedItems = loadItemsById(lines, true);
+        Map<Long, Integer> reservedQty = sumQuantitiesForItems(
+                lockedItems.values().stream()
+                        .filter(i -> readStock(i) == null && readSeatsCapacity(i) != null)
+                        .toList(),
+                reservedStatuses
+        );
+
         for (CartLine line : lines) {
             if (line.getItemId() == null) continue;
 
-            Item fresh = itemRepo.findByIdForStockCheck(line.getItemId())
-                    .orElseThrow(() -> new IllegalArgumentException("Item not found: " + line.getItemId()));
+            Item fresh = requireLoaded(lockedItems, line.getItemId());
             assertItemPurchasable(fresh);
 
             if (isShippingRequired(fresh)) {
@@ -1490,7 +1497,7 @@ public class OrderServiceImpl implements OrderService {
 
             Integer capacity = readSeatsCapacity(fresh);
             if (capacity != null) {
-                int alreadyReserved = orderItemRepo.sumQuantityByItemIdAndStatusNames(fresh.getId(), reservedStatuses);
+                int alreadyReserved = reservedQty.getOrDefault(fresh.getId(), 0);
                 int remaining = capacity - alreadyReserved;
                 if (remaining <= 0 || qty > remaining) {
                     blockingErrors.add("Only " + remaining + " seats left for item " + fresh.getId());
@@ -1511,48 +1518,111 @@ public class OrderServiceImpl implements OrderService {
         // ✅ validate shipping BEFORE decrementing stock
         validateShippingOrThrow(request.getShippingAddress(), shippingRequired);
 
+        // Stock-tracked lines, in cart order
+        List<CartLine> stockLines = new ArrayList<>();
         for (CartLine line : lines) {
             if (line.getItemId() == null) continue;
 
-            Item fresh = itemRepo.findByIdForStockCheck(line.getItemId())
-                    .orElseThrow(() -> new IllegalArgumentException("Item not found: " + line.getItemId()));
-            assertItemPurchasable(fresh);
+            Item fresh = requireLoaded(lockedItems, line.getItemId());
+            if (readStock(fresh) != null) stockLines.add(line);
+        }
 
-            Integer stock = readStock(fresh);
-            if (stock != null) {
-                int qty = line.getQuantity();
-                int updated = itemRepo.decrementStockIfEnough(fresh.getId(), qty);
-                if (updated != 1) {
-                    throw new com.build4all.order.web.CheckoutBlockedException(
-                            List.of("Stock changed for item " + fresh.getId() + ". Please refresh cart."),
-                            List.of(Map.of("itemId", fresh.getId(), "reason", "STOCK_CHANGED", "message", "Stock changed, please refresh"))
-                    );
-                }
+        // One UPDATE ... RETURNING for every decrement (rows are already locked above)
+        Map<Long, Integer> newStockById = decrementStocks(stockLines);
 
-                Integer newStock = itemRepo.findStockValue(fresh.getId());
-                Long tenantId = fresh.getOwnerProject().getId();
-                wsEvents.sendStockChanged(tenantId, fresh.getId(), -qty, newStock, "ORDER_RESERVED", null);
+        for (CartLine line : stockLines) {
+            Item fresh = lockedItems.get(line.getItemId());
+            Integer newStock = newStockById.get(fresh.getId());
 
-                notifyOwnerStockAlertIfNeeded(fresh, newStock);
+            if (newStock == null) {
+                throw new com.build4all.order.web.CheckoutBlockedException(
+                        List.of("Stock changed for item " + fresh.getId() + ". Please refresh cart."),
+                        List.of(Map.of("itemId", fresh.getId(), "reason", "STOCK_CHANGED", "message", "Stock changed, please refresh"))
+                );
             }
         }
 
+        for (CartLine line : stockLines) {
+            Item fresh = lockedItems.get(line.getItemId());
+            int qty = line.getQuantity();
+            Integer newStock = newStockById.get(fresh.getId());
+
+            Long tenantId = fresh.getOwnerProject().getId();
+            wsEvents.sendStockChanged(tenantId, fresh.getId(), -qty, newStock, "ORDER_RESERVED", null);
+
+            notifyOwnerStockAlertIfNeeded(fresh, newStock);
+        }
+
         request.setLines(lines);
         return checkout(userId, request);
     }
 
-    /* -------------------- helpers -------------------- */
+    /* -------------------- batch checkout helpers -------------------- */
 
-    private Integer readStock(Item item) {
-        Object v = tryGet(item, "getStock", "getAvailableStock", "getQuantity", "getAvailableQuantity");
-        if (v == null) return null;
+    /**
+     * Loads every item referenced by the lines with ONE query.
+     * lockForUpdate = true => SELECT ... FOR UPDATE ordered by id (deadlock-free lock order).
+     * Missing items are simply absent; callers report them via requireLoaded (same message as before).
+     */
+    private Map<Long, Item> loadItemsById(List<CartLine> lines, boolean lockForUpdate) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (CartLine l : lines) {
+            if (l != null && l.getItemId() != null) ids.add(l.getItemId());
+        }
+        if (ids.isEmpty()) return new HashMap<>();
 
-        if (v instanceof Integer i) return i;
-        if (v instanceof Long l) return l.intValue();
-        if (v instanceof Number n) return n.intValue();
+        List<Item> loaded = lockForUpdate
+                ? itemLockMetrics.timedAll(ids, () -> itemRepo.findAllByIdInForStockCheck(ids))
+                : itemRepo.findAllById(ids);
 
-        try { return Integer.parseInt(v.toString()); }
-        catch (Exception e) { return null; }
+        Map<Long, Item> byId = new HashMap<>(loaded.size() * 2);
+        for (Item i : loaded) byId.put(i.getId(), i);
+        return byId;
+    }
+
+    private Item requireLoaded(Map<Long, Item> items, Long itemId) {
+        Item item = items.get(itemId);
+        if (item == null) throw new IllegalArgumentException("Item not found: " + itemId);
+        return item;
+    }
+
+    /** One grouped SUM(quantity) for all given items; items with no order lines are absent (= 0). */
+    private Map<Long, Integer> sumQuantitiesForItems(List<Item> items, List<String> statusNames) {
+        if (items == null || items.isEmpty()) return Map.of();
+
+        List<Long> ids = items.stream().map(Item::getId).toList();
+        Map<Long, Integer> out = new HashMap<>(ids.size() * 2);
+        for (Object[] row : orderItemRepo.sumQuantityByItemIdsAndStatusNames(ids, statusNames)) {
+            out.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+        return out;
+    }
+
+    /**
+     * Decrements the stock of every line in one statement.
+     * Returns itemId -> new stock for the lines that had enough stock; a missing id = not enough.
+     */
+    private Map<Long, Integer> decrementStocks(List<CartLine> stockLines) {
+        if (stockLines.isEmpty()) return Map.of();
+
+        Long[] ids = new Long[stockLines.size()];
+        Integer[] qtys = new Integer[stockLines.size()];
+        for (int k = 0; k < stockLines.size(); k++) {
+            ids[k] = stockLines.get(k).getItemId();
+            qtys[k] = stockLines.get(k).getQuantity();
+        }
+
+        Map<Long, Integer> newStock = new HashMap<>(ids.length * 2);
+        for (Object[] row : itemRepo.decrementStocksIfEnough(ids, qtys)) {
+            newStock.put(((Number) row[0]).longValue(), row[1] == null ? null : ((Number) row[1]).intValue());
+        }
+        return newStock;
+    }
+
+    /* -------------------- helpers -------------------- */
+
+    private Integer readStock(Item item) {
+        return item.stockLevel();
     }
 
     private void releaseStockForOrder(Order order) {
@@ -1607,28 +1677,7 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private Integer readSeatsCapacity(Item item) {
-        String[] names = {"getMaxParticipants", "getCapacity", "getSeats", "getQuantityLimit"};
-        for (String n : names) {
-            try {
-                Method m = item.getClass().getMethod(n);
-                Object v = m.invoke(item);
-                if (v instanceof Integer i) return i;
-                if (v instanceof Number x) return x.intValue();
-            } catch (Exception ignored) {}
-        }
-        return null;
-    }
-
-    private Object tryGet(Object target, String... candidates) {
-        if (target == null) return null;
-        Class<?> c = target.getClass();
-        for (String name : candidates) {
-            try {
-                Method m = c.getMethod(name);
-                return m.invoke(target);
-            } catch (Exception ignored) {}
-        }
-        return null;
+        return item.seatCapacity();
     }
 
     private void recalcTotals(Cart cart) {
@@ -1745,11 +1794,8 @@ public class OrderServiceImpl implements OrderService {
             cl.setUnitPrice(unitPrice);
             cl.setLineSubtotal(unitPrice.multiply(BigDecimal.valueOf(qty)));
 
-            Object n = tryGet(item, "getName", "getItemName", "getTitle");
-            if (n != null) {
-                String itemName = n.toString().trim();
-                if (!itemName.isBlank()) cl.setItemName(itemName);
-            }
+            String itemName = item.displayName();
+            if (itemName != null) cl.setItemName(itemName);
 
             lines.add(cl);
         }
@@ -1826,7 +1872,7 @@ public class OrderServiceImpl implements OrderService {
         boolean shippingRequired = false;
 
         for (Long itemId : affectedIds) {
-            Item locked = itemRepo.findByIdForStockCheck(itemId)
+            Item locked = itemLockMetrics.timed(itemId, () -> itemRepo.findByIdForStockCheck(itemId))
                     .orElseThrow(() -> new IllegalArgumentException("Item not found: " + itemId));
 
             int oldQuantity = oldQty.getOrDefault(itemId, 0);
@@ -1995,9 +2041,11 @@ public class OrderServiceImpl implements OrderService {
         String previousCouponCode = trimOrNull(order.getCouponCode());
         boolean releaseRemovedCoupon = false;
 
+        PricingContext pricing = checkoutPricingService.openContext(ownerProjectId, pricingRequest.getLines());
+
         try {
             priced = checkoutPricingService.priceCheckout(
-                    ownerProjectId,
+                    pricing,
                     order.getCurrency().getId(),
                     pricingRequest
             );
@@ -2006,7 +2054,7 @@ public class OrderServiceImpl implements OrderService {
                 pricingRequest.setCouponCode(null);
 
                 priced = checkoutPricingService.priceCheckout(
-                        ownerProjectId,
+                        pricing,
                         order.getCurrency().getId(),
                         pricingRequest
                 );
@@ -6,7 +6,9 @@ import com.build4all.order.domain.OrderItem;
 import com.build4all.order.domain.OrderStatus;
 import com.build4all.order.dto.CheckoutRequest;
 import com.build4all.order.dto.CheckoutSummaryResponse;
+import com.build4all.order.dto.OrderCursor;
 import com.build4all.order.dto.OrderEditRequest;
+import com.build4all.order.dto.OrderListRow;
 import com.build4all.order.repository.OrderItemRepository;
 import com.build4all.order.repository.OrderRepository;
 import com.build4all.order.repository.OrderStatusRepository;
@@ -15,6 +17,8 @@ import com.build4all.payment.service.OrderPaymentWriteService;
 import com.build4all.security.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -687,132 +691,142 @@ public class OrderController {
         return ResponseEntity.ok().build();
     }
 
-    /* =========================================================================================
-       OWNER APIs (tenant from token)
-       ========================================================================================= */
-
-    @PreAuthorize("hasRole('OWNER')")
-    @GetMapping("/owner/orders")
-    public ResponseEntity<?> ownerAllOrders(@RequestHeader("Authorization") String auth) {
-        Long ownerProjectId = jwt.requireOwnerProjectId(auth);
+    /* ----------------------------- order listings ----------------------------- */
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final LocalDateTime MIN_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * One keyset page of an application's orders (newest first), for OWNER and SUPER_ADMIN listings.
+     *
+     * - rows come from a projection query (no Order/OrderItem entities loaded)
+     * - payment summaries are computed for the page only
+     * - optional filters: statuses (empty = all), from (inclusive) / to (exclusive) on orderDate
+     *
+     * Paging is opt-in: without ?limit= and ?cursor= the whole listing is returned, as before.
+     * Body stays a plain list (same shape as before). When paging, it goes through headers:
+     * X-Has-More, and X-Next-Cursor to pass back as ?cursor= (absent on the last page);
+     * both are exposed to browsers (SecurityConfig CORS).
+     */
+    private ResponseEntity<?> orderListPage(Long ownerProjectId,
+                                            List<String> statuses,
+                                            LocalDateTime from,
+                                            LocalDateTime to,
+                                            String cursor,
+                                            Integer limit,
+                                            boolean ownerView) {
+
+        boolean paged = cursor != null || limit != null;
+        int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        OrderCursor after = OrderCursor.decode(cursor);
+        boolean filterStatuses = statuses != null && !statuses.isEmpty();
+
+        List<OrderListRow> rows = orderRepo.findOwnerOrdersPage(
+                ownerProjectId,
+                filterStatuses,
+                filterStatuses ? statuses : List.of(""),
+                (from != null) ? from : MIN_ORDER_DATE,
+                (to != null) ? to : OrderCursor.START.orderDate(),
+                after.orderDate(),
+                after.id(),
+                paged ? Limit.of(size + 1) : Limit.unlimited()
+        );
 
-        var list = orderRepo.findAllByOwnerProjectIdWithItems(ownerProjectId);
+        boolean hasMore = paged && rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
 
         Map<Long, BigDecimal> totalsByOrderId = new HashMap<>();
-        for (Order o : list) totalsByOrderId.put(o.getId(), o.getTotalPrice());
+        for (OrderListRow r : rows) totalsByOrderId.put(r.id(), r.totalPrice());
 
         Map<Long, OrderPaymentReadService.PaymentSummary> payByOrderId =
                 paymentRead.summariesForOrders(totalsByOrderId);
 
-        var out = list.stream().map(o -> {
+        var out = rows.stream().map(r -> {
             Map<String, Object> m = new HashMap<>();
-            m.put("id", o.getId());
-            m.put("orderDate", o.getOrderDate());
-            m.put("addressline", o.getShippingAddress());
-            m.put("phone", o.getShippingPhone());
-            m.put("totalPrice", o.getTotalPrice());
-
-            String st = (o.getStatus() != null) ? o.getStatus().getName() : null;
-            m.put("status", st);
-            m.put("statusUi", titleCaseStatus(st));
-
-            m.put("itemsCount", (o.getOrderItems() == null) ? 0 : o.getOrderItems().size());
-            m.put("fullName", o.getShippingFullName());
-            m.put("shippingFullName", o.getShippingFullName());
-            m.put("orderCode", o.getOrderCode());
-            m.put("orderSeq", o.getOrderSeq());
-
-            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(o.getId());
+            m.put("id", r.id());
+            m.put("orderDate", r.orderDate());
+            m.put("totalPrice", r.totalPrice());
+
+            if (ownerView) {
+                m.put("addressline", r.shippingAddress());
+                m.put("phone", r.shippingPhone());
+                m.put("fullName", r.shippingFullName());
+                m.put("shippingFullName", r.shippingFullName());
+            }
+
+            m.put("status", r.status());
+            m.put("statusUi", titleCaseStatus(r.status()));
+            m.put("itemsCount", (r.itemsCount() == null) ? 0 : r.itemsCount().intValue());
+            m.put("orderCode", r.orderCode());
+            m.put("orderSeq", r.orderSeq());
+
+            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(r.id());
             m.put("fullyPaid", ps != null && ps.isFullyPaid());
             m.put("payment", paymentToMap(ps));
             return m;
         }).toList();
 
-        return ResponseEntity.ok(out);
+        if (!paged) return ResponseEntity.ok(out);
+
+        var response = ResponseEntity.ok().header("X-Has-More", String.valueOf(hasMore));
+        if (hasMore) {
+            OrderListRow last = rows.get(rows.size() - 1);
+            response.header("X-Next-Cursor", new OrderCursor(last.orderDate(), last.id()).encode());
+        }
+        return response.body(out);
+    }
+
+    /* =========================================================================================
+       OWNER APIs (tenant from token)
+       ========================================================================================= */
+
+    @PreAuthorize("hasRole('OWNER')")
+    @GetMapping("/owner/orders")
+    public ResponseEntity<?> ownerAllOrders(
+            @RequestHeader("Authorization") String auth,
+            @RequestParam(name = "statuses", required = false) List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        Long ownerProjectId = jwt.requireOwnerProjectId(auth);
+        return orderListPage(ownerProjectId, normalizeStatuses(statuses), from, to, cursor, limit, true);
     }
 
     @PreAuthorize("hasRole('OWNER')")
     @GetMapping("/owner/orders/status/{status}")
     public ResponseEntity<?> ownerOrdersByStatus(
             @RequestHeader("Authorization") String auth,
-            @PathVariable String status
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
         Long ownerProjectId = jwt.requireOwnerProjectId(auth);
         String normalized = (status == null) ? "" : status.trim().toUpperCase(Locale.ROOT);
 
-        var list = orderRepo.findAllByOwnerProjectIdWithItemsAndStatuses(ownerProjectId, List.of(normalized));
-
-        Map<Long, BigDecimal> totalsByOrderId = new HashMap<>();
-        for (Order o : list) totalsByOrderId.put(o.getId(), o.getTotalPrice());
-
-        Map<Long, OrderPaymentReadService.PaymentSummary> payByOrderId =
-                paymentRead.summariesForOrders(totalsByOrderId);
-
-        var out = list.stream().map(o -> {
-            Map<String, Object> m = new HashMap<>();
-            m.put("id", o.getId());
-            m.put("orderDate", o.getOrderDate());
-            m.put("totalPrice", o.getTotalPrice());
-            m.put("addressline", o.getShippingAddress());
-            m.put("phone", o.getShippingPhone());
-
-            String st = (o.getStatus() != null) ? o.getStatus().getName() : null;
-            m.put("status", st);
-            m.put("statusUi", titleCaseStatus(st));
-
-            m.put("itemsCount", (o.getOrderItems() == null) ? 0 : o.getOrderItems().size());
-            m.put("fullName", o.getShippingFullName());
-            m.put("shippingFullName", o.getShippingFullName());
-
-            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(o.getId());
-            m.put("fullyPaid", ps != null && ps.isFullyPaid());
-            m.put("payment", paymentToMap(ps));
-            return m;
-        }).toList();
-
-        return ResponseEntity.ok(out);
+        return orderListPage(ownerProjectId, List.of(normalized), from, to, cursor, limit, true);
     }
 
     @PreAuthorize("hasRole('OWNER')")
     @GetMapping("/owner/orders/status")
     public ResponseEntity<?> ownerOrdersByStatuses(
             @RequestHeader("Authorization") String auth,
-            @RequestParam(name = "statuses") List<String> statuses
+            @RequestParam(name = "statuses") List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
         Long ownerProjectId = jwt.requireOwnerProjectId(auth);
 
         List<String> normalized = normalizeStatuses(statuses);
-        var list = orderRepo.findAllByOwnerProjectIdWithItemsAndStatuses(ownerProjectId, normalized);
-
-        Map<Long, BigDecimal> totalsByOrderId = new HashMap<>();
-        for (Order o : list) totalsByOrderId.put(o.getId(), o.getTotalPrice());
-
-        Map<Long, OrderPaymentReadService.PaymentSummary> payByOrderId =
-                paymentRead.summariesForOrders(totalsByOrderId);
+        if (normalized.isEmpty()) normalized = List.of("");  // explicit filter matching nothing, as before
 
-        var out = list.stream().map(o -> {
-            Map<String, Object> m = new HashMap<>();
-            m.put("id", o.getId());
-            m.put("orderDate", o.getOrderDate());
-            m.put("totalPrice", o.getTotalPrice());
-            m.put("addressline", o.getShippingAddress());
-            m.put("phone", o.getShippingPhone());
-
-            String st = (o.getStatus() != null) ? o.getStatus().getName() : null;
-            m.put("status", st);
-            m.put("statusUi", titleCaseStatus(st));
-
-            m.put("itemsCount", (o.getOrderItems() == null) ? 0 : o.getOrderItems().size());
-            m.put("fullName", o.getShippingFullName());
-            m.put("shippingFullName", o.getShippingFullName());
-
-            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(o.getId());
-            m.put("fullyPaid", ps != null && ps.isFullyPaid());
-            m.put("payment", paymentToMap(ps));
-            return m;
-        }).toList();
-
-        return ResponseEntity.ok(out);
+        return orderListPage(ownerProjectId, normalized, from, to, cursor, limit, true);
     }
 
     @PreAuthorize("hasRole('OWNER')")
@@ -951,80 +965,30 @@ public class OrderController {
 
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     @GetMapping("/superadmin/applications/{ownerProjectId}/orders")
-    public ResponseEntity<?> superAdminOrdersByApplication(@PathVariable Long ownerProjectId) {
-
-        var list = orderRepo.findAllByOwnerProjectIdWithItems(ownerProjectId);
-
-        Map<Long, BigDecimal> totalsByOrderId = new HashMap<>();
-        for (Order o : list) totalsByOrderId.put(o.getId(), o.getTotalPrice());
-
-        Map<Long, OrderPaymentReadService.PaymentSummary> payByOrderId =
-                paymentRead.summariesForOrders(totalsByOrderId);
-
-        var out = list.stream().map(o -> {
-            Map<String, Object> m = new HashMap<>();
-            m.put("id", o.getId());
-            m.put("orderDate", o.getOrderDate());
-            m.put("totalPrice", o.getTotalPrice());
-
-            String st = (o.getStatus() != null) ? o.getStatus().getName() : null;
-            m.put("status", st);
-            m.put("statusUi", titleCaseStatus(st));
-
-            m.put("itemsCount", (o.getOrderItems() == null) ? 0 : o.getOrderItems().size());
-
-            // ✅ ADD THESE (THE FIX)
-            m.put("orderCode", o.getOrderCode());
-            m.put("orderSeq", o.getOrderSeq());
-
-            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(o.getId());
-            m.put("fullyPaid", ps != null && ps.isFullyPaid());
-            m.put("payment", paymentToMap(ps));
-            return m;
-        }).toList();
-
-        return ResponseEntity.ok(out);
+    public ResponseEntity<?> superAdminOrdersByApplication(
+            @PathVariable Long ownerProjectId,
+            @RequestParam(name = "statuses", required = false) List<String> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return orderListPage(ownerProjectId, normalizeStatuses(statuses), from, to, cursor, limit, false);
     }
 
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     @GetMapping("/superadmin/applications/{ownerProjectId}/orders/status/{status}")
     public ResponseEntity<?> superAdminOrdersByApplicationAndStatus(
             @PathVariable Long ownerProjectId,
-            @PathVariable String status
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
     ) {
         String normalized = (status == null) ? "" : status.trim().toUpperCase(Locale.ROOT);
 
-        var list = orderRepo.findAllByOwnerProjectIdWithItemsAndStatuses(ownerProjectId, List.of(normalized));
-
-        Map<Long, BigDecimal> totalsByOrderId = new HashMap<>();
-        for (Order o : list) totalsByOrderId.put(o.getId(), o.getTotalPrice());
-
-        Map<Long, OrderPaymentReadService.PaymentSummary> payByOrderId =
-                paymentRead.summariesForOrders(totalsByOrderId);
-
-        var out = list.stream().map(o -> {
-            Map<String, Object> m = new HashMap<>();
-            m.put("id", o.getId());
-            m.put("orderDate", o.getOrderDate());
-            m.put("totalPrice", o.getTotalPrice());
-
-            String st = (o.getStatus() != null) ? o.getStatus().getName() : null;
-            m.put("status", st);
-            m.put("statusUi", titleCaseStatus(st));
-
-            m.put("itemsCount", (o.getOrderItems() == null) ? 0 : o.getOrderItems().size());
-
-            // ✅ ADD THESE (THE FIX)
-            m.put("orderCode", o.getOrderCode());
-            m.put("orderSeq", o.getOrderSeq());
-
-            OrderPaymentReadService.PaymentSummary ps = payByOrderId.get(o.getId());
-            m.put("fullyPaid", ps != null && ps.isFullyPaid());
-            m.put("payment", paymentToMap(ps));
-            return m;
-        }).toList();
-
-        return ResponseEntity.ok(out);
+        return orderListPage(ownerProjectId, List.of(normalized), from, to, cursor, limit, false);
     }
 
    
@@ -1,5 +1,6 @@
 package com.build4all.payment.domain;
 
+import com.build4all.payment.service.PaymentConfigCacheListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
         // Example: ownerProjectId=100 can have only one STRIPE config row.
         uniqueConstraints = @UniqueConstraint(columnNames = {"owner_project_id", "payment_method_id"})
 )
+@EntityListeners(PaymentConfigCacheListener.class)
 public class PaymentMethodConfig {
 
     @Id
@@ -1,5 +1,7 @@
 package com.build4all.payment.gateway.dto;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -16,6 +18,8 @@ import java.util.Map;
  *
  * PaymentConfigService.parse(configJson) -> Map -> new GatewayConfig(map)
  * Then the gateway reads values using helper methods.
+ *
+ * Immutable (read-only copy of the map): instances are shared between requests by PaymentConfigCache.
  */
 public class GatewayConfig {
 
@@ -26,8 +30,10 @@ public class GatewayConfig {
     private final Map<String, Object> values;
 
     public GatewayConfig(Map<String, Object> values) {
-        // If PaymentConfigService returns emptyMap, values is still non-null.
-        this.values = values;
+        // Read-only copy (null values allowed); never null even if the caller passes null.
+        this.values = values == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(values));
     }
 
     /**
@@ -0,0 +1,204 @@
+package com.build4all.payment.gateway.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PayPal REST calls shared by PaypalGateway (create order) and PaypalCaptureService (capture).
+ *
+ * OAuth tokens (client_credentials) are cached per tenant credentials (base URL + clientId):
+ * - an entry expires EXPIRY_MARGIN before PayPal's "expires_in" (or 10% of it for short-lived tokens)
+ * - a changed clientSecret (tenant re-saved its config) never reuses the old token
+ * - one token fetch per key at a time; concurrent callers wait for it instead of fetching too
+ * - a 401 on an API call drops the token and retries once with a fresh one (revoked / rotated credentials)
+ *
+ * Base URLs can be overridden (build4all.paypal.sandboxBaseUrl / liveBaseUrl) to point at a local stub server.
+ */
+@Component
+public class PaypalApiClient {
+
+    private static final long EXPIRY_MARGIN_MS = 60_000L;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final RestTemplate restTemplate;
+    private final String sandboxBaseUrl;
+    private final String liveBaseUrl;
+
+    private final ConcurrentHashMap<String, CachedToken> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Object> fetchLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong unauthorizedRetries = new AtomicLong();
+
+    public PaypalApiClient(RestTemplate restTemplate,
+                           @Value("${build4all.paypal.sandboxBaseUrl:https://api-m.sandbox.paypal.com}") String sandboxBaseUrl,
+                           @Value("${build4all.paypal.liveBaseUrl:https://api-m.paypal.com}") String liveBaseUrl) {
+        this.restTemplate = restTemplate;
+        this.sandboxBaseUrl = trimSlash(sandboxBaseUrl);
+        this.liveBaseUrl = trimSlash(liveBaseUrl);
+    }
+
+    /** Tenant credentials + environment of one PayPal call. */
+    public record Credentials(String baseUrl, String clientId, String clientSecret) {
+        String key() {
+            return baseUrl + "|" + clientId;
+        }
+    }
+
+    public record Stats(long hits, long fetches, long unauthorizedRetries, int size) {}
+
+    public Credentials credentials(String mode, String clientId, String clientSecret) {
+        return new Credentials(isLive(mode) ? liveBaseUrl : sandboxBaseUrl, clientId, clientSecret);
+    }
+
+    public static boolean isLive(String mode) {
+        return "LIVE".equalsIgnoreCase(mode) || "PROD".equalsIgnoreCase(mode) || "PRODUCTION".equalsIgnoreCase(mode);
+    }
+
+    /** POST JSON with a (cached) bearer token; retried once with a new token on 401. */
+    public ResponseEntity<Map> postJson(Credentials creds, String path, Object body) {
+        try {
+            return restTemplate.exchange(creds.baseUrl() + path, HttpMethod.POST,
+                    new HttpEntity<>(body, jsonHeaders(accessToken(creds))), Map.class);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            invalidate(creds);
+            unauthorizedRetries.incrementAndGet();
+            return restTemplate.exchange(creds.baseUrl() + path, HttpMethod.POST,
+                    new HttpEntity<>(body, jsonHeaders(accessToken(creds))), Map.class);
+        }
+    }
+
+    public String accessToken(Credentials creds) {
+        String key = creds.key();
+        String secretHash = hash(creds.clientSecret());
+
+        String cached = valid(key, secretHash);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        synchronized (fetchLocks.computeIfAbsent(key, k -> new Object())) {
+            cached = valid(key, secretHash);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+
+            CachedToken fresh = fetch(creds, secretHash);
+            if (tokens.size() >= MAX_ENTRIES) evictExpired();
+            tokens.put(key, fresh);
+            return fresh.token();
+        }
+    }
+
+    public void invalidate(Credentials creds) {
+        tokens.remove(creds.key());
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), fetches.get(), unauthorizedRetries.get(), tokens.size());
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    // -------- helpers --------
+
+    private String valid(String key, String secretHash) {
+        CachedToken t = tokens.get(key);
+        if (t == null) return null;
+        if (t.expiresAtMs() <= System.currentTimeMillis() || !t.secretHash().equals(secretHash)) {
+            tokens.remove(key, t);
+            return null;
+        }
+        return t.token();
+    }
+
+    private CachedToken fetch(Credentials creds, String secretHash) {
+        fetches.incrementAndGet();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        String basic = Base64.getEncoder().encodeToString(
+                (creds.clientId() + ":" + creds.clientSecret()).getBytes(StandardCharsets.UTF_8)
+        );
+        headers.set("Authorization", "Basic " + basic);
+
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+
+        ResponseEntity<Map> res = restTemplate.exchange(
+                creds.baseUrl() + "/v1/oauth2/token",
+                HttpMethod.POST,
+                new HttpEntity<>(form, headers),
+                Map.class
+        );
+
+        if (!res.getStatusCode().is2xxSuccessful() || res.getBody() == null) {
+            throw new IllegalStateException("PayPal token failed: " + res.getStatusCode());
+        }
+
+        Object token = res.getBody().get("access_token");
+        String t = token == null ? null : token.toString();
+        if (t == null || t.isBlank()) throw new IllegalStateException("PayPal token response missing access_token");
+
+        long ttlMs = expiresInSeconds(res.getBody().get("expires_in")) * 1000L;
+        long margin = Math.min(EXPIRY_MARGIN_MS, ttlMs / 10);
+        return new CachedToken(t, secretHash, System.currentTimeMillis() + ttlMs - margin);
+    }
+
+    private static long expiresInSeconds(Object v) {
+        if (v instanceof Number n) return Math.max(0, n.longValue());
+        try {
+            return v == null ? 0 : Math.max(0, Long.parseLong(v.toString().trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        tokens.entrySet().removeIf(e -> e.getValue().expiresAtMs() <= now);
+        if (tokens.size() >= MAX_ENTRIES) tokens.clear();
+    }
+
+    private static HttpHeaders jsonHeaders(String accessToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static String hash(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(String.valueOf(s).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String trimSlash(String url) {
+        return url != null && url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private record CachedToken(String token, String secretHash, long expiresAtMs) {}
+}
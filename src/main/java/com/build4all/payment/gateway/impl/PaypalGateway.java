@@ -4,24 +4,20 @@ import com.build4all.payment.gateway.PaymentGateway;
 import com.build4all.payment.gateway.dto.CreatePaymentCommand;
 import com.build4all.payment.gateway.dto.CreatePaymentResult;
 import com.build4all.payment.gateway.dto.GatewayConfig;
-import org.springframework.http.*;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 public class PaypalGateway implements PaymentGateway {
 
-    private final RestTemplate restTemplate;
+    private final PaypalApiClient paypal;
 
-    public PaypalGateway(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public PaypalGateway(PaypalApiClient paypal) {
+        this.paypal = paypal;
     }
 
     @Override public String code() { return "PAYPAL"; }
@@ -69,14 +65,9 @@ public class PaypalGateway implements PaymentGateway {
         String cancelUrl = must(config.getString("cancelUrl"), "PayPal cancelUrl missing");
         String brandName = Optional.ofNullable(config.getString("brandName")).orElse("Build4All");
 
-        String baseUrl = isLive(mode)
-                ? "https://api-m.paypal.com"
-                : "https://api-m.sandbox.paypal.com";
+        // OAuth token comes from PaypalApiClient's cache: usually only the create-order call hits PayPal
+        PaypalApiClient.Credentials creds = paypal.credentials(mode, clientId, clientSecret);
 
-        // 1) OAuth token
-        String accessToken = getAccessToken(baseUrl, clientId, clientSecret);
-
-        // 2) Create order
         BigDecimal amount = cmd.getAmount() == null ? BigDecimal.ZERO : cmd.getAmount();
         String currency = (cmd.getCurrency() == null ? "USD" : cmd.getCurrency()).toUpperCase(Locale.ROOT);
         String value = amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
@@ -97,16 +88,7 @@ public class PaypalGateway implements PaymentGateway {
         body.put("purchase_units", List.of(purchaseUnit));
         body.put("application_context", appContext);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        ResponseEntity<Map> res = restTemplate.exchange(
-                baseUrl + "/v2/checkout/orders",
-                HttpMethod.POST,
-                new HttpEntity<>(body, headers),
-                Map.class
-        );
+        ResponseEntity<Map> res = paypal.postJson(creds, "/v2/checkout/orders", body);
 
         if (!res.getStatusCode().is2xxSuccessful() || res.getBody() == null) {
             throw new IllegalStateException("PayPal create order failed: " + res.getStatusCode());
@@ -125,35 +107,6 @@ public class PaypalGateway implements PaymentGateway {
 
     // -------- helpers --------
 
-    private String getAccessToken(String baseUrl, String clientId, String clientSecret) {
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-        String basic = Base64.getEncoder().encodeToString(
-                (clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)
-        );
-        headers.set("Authorization", "Basic " + basic);
-
-        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
-        form.add("grant_type", "client_credentials");
-
-        ResponseEntity<Map> res = restTemplate.exchange(
-                baseUrl + "/v1/oauth2/token",
-                HttpMethod.POST,
-                new HttpEntity<>(form, headers),
-                Map.class
-        );
-
-        if (!res.getStatusCode().is2xxSuccessful() || res.getBody() == null) {
-            throw new IllegalStateException("PayPal token failed: " + res.getStatusCode());
-        }
-
-        String token = asString(res.getBody().get("access_token"));
-        if (token == null || token.isBlank()) throw new IllegalStateException("PayPal token response missing access_token");
-        return token;
-    }
-
     private String extractApprovalUrl(Map<String, Object> resp) {
         Object linksObj = resp.get("links");
         if (!(linksObj instanceof List<?> links)) return null;
@@ -167,10 +120,6 @@ public class PaypalGateway implements PaymentGateway {
         return null;
     }
 
-    private boolean isLive(String mode) {
-        return "LIVE".equalsIgnoreCase(mode) || "PROD".equalsIgnoreCase(mode) || "PRODUCTION".equalsIgnoreCase(mode);
-    }
-
     private String asString(Object o) { return o == null ? null : o.toString(); }
 
     private String must(String v, String err) {
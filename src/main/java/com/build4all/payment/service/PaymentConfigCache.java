@@ -0,0 +1,97 @@
+package com.build4all.payment.service;
+
+import com.build4all.common.cache.InvalidatingCache;
+import com.build4all.payment.domain.PaymentMethodConfig;
+import com.build4all.payment.gateway.dto.GatewayConfig;
+import com.build4all.payment.repository.PaymentMethodConfigRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Per (ownerProjectId, payment method) cache of the parsed, immutable GatewayConfig.
+ *
+ * startPayment / PayPal capture / owner dashboard used to read the @Lob configJson and run Jackson
+ * on every call; now they only touch the DB on a miss.
+ *
+ * Invalidation:
+ * - any insert/update/delete of a PaymentMethodConfig row (PaymentConfigCacheListener), i.e. the owner
+ *   saving settings through OwnerPaymentConfigController; invalidated again after commit
+ * - TTL_MS bounds staleness for changes made by another instance
+ *
+ * Missing rows are cached too (present=false), so "not configured" checks don't hit the DB either.
+ * A load that raced with an invalidation is not stored (per-tenant generation check, see InvalidatingCache).
+ */
+@Component
+public class PaymentConfigCache {
+
+    private static final long TTL_MS = 5 * 60_000L;
+    private static final int MAX_ENTRIES = 20_000;
+
+    private final PaymentMethodConfigRepository configRepo;
+    private final TransactionTemplate readTx;
+
+    private final InvalidatingCache<Key, Snapshot> entries =
+            InvalidatingCache.keyed(TTL_MS, MAX_ENTRIES, Key::ownerProjectId);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PaymentConfigCache(PaymentMethodConfigRepository configRepo, PlatformTransactionManager txManager) {
+        this.configRepo = configRepo;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /**
+     * Config of one gateway for one project, as stored (enabled or not).
+     * present=false when the project never configured that method.
+     */
+    public record Snapshot(boolean present, boolean enabled, GatewayConfig config, long loadedAtMs) {}
+
+    private record Key(Long ownerProjectId, String method) {}
+
+    public Snapshot get(Long ownerProjectId, String methodName, Function<String, GatewayConfig> parser) {
+        String method = methodName == null ? "" : methodName.trim().toUpperCase(Locale.ROOT);
+        Key key = new Key(ownerProjectId, method);
+
+        Snapshot s = entries.getIfFresh(key);
+        if (s != null) {
+            hits.incrementAndGet();
+            return s;
+        }
+
+        misses.incrementAndGet();
+
+        // LOB read + parse inside one read-only transaction
+        return entries.load(key, () -> readTx.execute(st -> {
+            long now = System.currentTimeMillis();
+            PaymentMethodConfig cfg = configRepo
+                    .findByOwnerProjectIdAndPaymentMethod_NameIgnoreCase(ownerProjectId, method)
+                    .orElse(null);
+            if (cfg == null) return new Snapshot(false, false, new GatewayConfig(Map.of()), now);
+            return new Snapshot(true, cfg.isEnabled(), parser.apply(cfg.getConfigJson()), now);
+        }));
+    }
+
+    /** Drops every cached method config of this project. */
+    public void invalidate(Long ownerProjectId) {
+        entries.invalidate(ownerProjectId);
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long ownerProjectId) {
+        entries.invalidateNowAndAfterCommit(ownerProjectId);
+    }
+
+    public long hits() { return hits.get(); }
+
+    public long misses() { return misses.get(); }
+
+    public int size() { return entries.size(); }
+}
@@ -0,0 +1,26 @@
+package com.build4all.payment.service;
+
+import com.build4all.payment.domain.PaymentMethodConfig;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on PaymentMethodConfig: any change to a project's gateway settings drops its cached GatewayConfigs.
+ */
+public class PaymentConfigCacheListener {
+
+    private final PaymentConfigCache configCache;
+
+    public PaymentConfigCacheListener(PaymentConfigCache configCache) {
+        this.configCache = configCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onConfigChanged(PaymentMethodConfig cfg) {
+        if (cfg == null || cfg.getOwnerProjectId() == null) return;
+        configCache.invalidateNowAndAfterCommit(cfg.getOwnerProjectId());
+    }
+}
@@ -17,17 +17,22 @@ import java.util.Map;
 // 2) Ensuring the gateway is enabled for that project
 // 3) Parsing configJson (String) -> GatewayConfig (Map wrapper)
 // 4) Serializing Map -> JSON for saving config
+// 5) Serving parsed configs from PaymentConfigCache (hot payment paths never read the @Lob on a hit)
 public class PaymentConfigService {
 
     private final PaymentMethodConfigRepository configRepo;
+    private final PaymentConfigCache configCache;
 
     // ObjectMapper is used to parse/serialize the config JSON.
     // Note: creating a new ObjectMapper manually is okay,
     // but best practice is injecting Spring's shared ObjectMapper.
     private final ObjectMapper mapper;
 
-    public PaymentConfigService(PaymentMethodConfigRepository configRepo, ObjectMapper mapper) {
+    public PaymentConfigService(PaymentMethodConfigRepository configRepo,
+                                PaymentConfigCache configCache,
+                                ObjectMapper mapper) {
         this.configRepo = configRepo;
+        this.configCache = configCache;
         this.mapper = mapper;
     }
 
@@ -58,19 +63,29 @@ public class PaymentConfigService {
     }
 
     /**
-     * ✅ Safe helper when using @Lob:
-     * Loads + parses configJson inside the same transaction.
+     * Same checks as requireEnabled, but returns the parsed, immutable GatewayConfig from PaymentConfigCache.
      *
-     * Use this instead of:
+     * Use this on payment paths (startPayment, capture) instead of:
      *   cfg = requireEnabled(...)
-     *   parse(cfg.getConfigJson())   // might happen outside tx -> LOB error
+     *   parse(cfg.getConfigJson())   // LOB read + Jackson on every call
      */
-    @Transactional(readOnly = true)
     public GatewayConfig requireEnabledConfig(Long ownerProjectId, String methodName) {
-        PaymentMethodConfig cfg = requireEnabled(ownerProjectId, methodName);
+        PaymentConfigCache.Snapshot s = configCache.get(ownerProjectId, methodName, this::parse);
 
-        // ✅ Reading cfg.getConfigJson() happens inside @Transactional
-        return parse(cfg.getConfigJson());
+        if (!s.present())
+            throw new IllegalArgumentException("Payment method not configured for project: " + methodName);
+        if (!s.enabled())
+            throw new IllegalStateException("Payment method disabled for project: " + methodName);
+
+        return s.config();
+    }
+
+    /**
+     * Cached config of one gateway for a project, enabled or not (owner dashboard).
+     * Snapshot.present() is false when the project never configured it.
+     */
+    public PaymentConfigCache.Snapshot findConfig(Long ownerProjectId, String methodName) {
+        return configCache.get(ownerProjectId, methodName, this::parse);
     }
 
     /**
@@ -1,6 +1,5 @@
 package com.build4all.payment.service;
 
-import com.build4all.payment.domain.PaymentMethodConfig;
 import com.build4all.payment.domain.PaymentTransaction;
 import com.build4all.payment.dto.StartPaymentResponse;
 import com.build4all.payment.gateway.PaymentGateway;
@@ -60,11 +59,9 @@ public class PaymentOrchestratorService {
 
         // 2) Load and enforce per-project gateway config (like WooCommerce store settings).
         // If Stripe is not configured for this project, fail.
-        PaymentMethodConfig cfgEntity = configService.requireEnabled(ownerProjectId, paymentMethod);
-
-        // 3) Parse the config JSON into a runtime object (GatewayConfig),
-        // so the gateway can read values like "secretKey".
-        GatewayConfig cfg = configService.parse(cfgEntity.getConfigJson());
+        // 3) The parsed runtime object (GatewayConfig) comes from PaymentConfigCache,
+        // so the gateway can read values like "secretKey" without a LOB read / JSON parse per payment.
+        GatewayConfig cfg = configService.requireEnabledConfig(ownerProjectId, paymentMethod);
 
         // 4) Create an internal transaction record BEFORE calling the provider.
         // This gives you an audit record even if Stripe call fails later.
@@ -1,32 +1,26 @@
 package com.build4all.payment.service;
 
-import com.build4all.payment.domain.PaymentMethodConfig;
 import com.build4all.payment.domain.PaymentTransaction;
 import com.build4all.payment.gateway.dto.GatewayConfig;
+import com.build4all.payment.gateway.impl.PaypalApiClient;
 import com.build4all.payment.repository.PaymentTransactionRepository;
-import org.springframework.http.*;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.Locale;
 import java.util.Map;
 
 @Service
 public class PaypalCaptureService {
 
-    private final RestTemplate restTemplate;
+    private final PaypalApiClient paypal;
     private final PaymentTransactionRepository txRepo;
     private final PaymentConfigService configService;
 
-    public PaypalCaptureService(RestTemplate restTemplate,
+    public PaypalCaptureService(PaypalApiClient paypal,
                                 PaymentTransactionRepository txRepo,
                                 PaymentConfigService configService) {
-        this.restTemplate = restTemplate;
+        this.paypal = paypal;
         this.txRepo = txRepo;
         this.configService = configService;
     }
@@ -39,26 +33,16 @@ public class PaypalCaptureService {
                 .orElseThrow(() -> new IllegalArgumentException("PaymentTransaction not found for PayPal orderId: " + paypalOrderId));
 
         // Load PAYPAL config for the same ownerProject
-        PaymentMethodConfig cfgEntity = configService.requireEnabled(tx.getOwnerProjectId(), "PAYPAL");
-        GatewayConfig cfg = configService.parse(cfgEntity.getConfigJson());
+        GatewayConfig cfg = configService.requireEnabledConfig(tx.getOwnerProjectId(), "PAYPAL");
 
         String clientId = must(cfg.getString("clientId"), "PayPal clientId missing");
         String clientSecret = must(cfg.getString("clientSecret"), "PayPal clientSecret missing");
         String mode = cfg.getString("mode");
-        String baseUrl = ("LIVE".equalsIgnoreCase(mode) ? "https://api-m.paypal.com" : "https://api-m.sandbox.paypal.com");
 
-        String accessToken = getAccessToken(baseUrl, clientId, clientSecret);
+        // cached token (same cache as PaypalGateway): one PayPal round trip per capture
+        PaypalApiClient.Credentials creds = paypal.credentials(mode, clientId, clientSecret);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(accessToken);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        ResponseEntity<Map> res = restTemplate.exchange(
-                baseUrl + "/v2/checkout/orders/" + paypalOrderId + "/capture",
-                HttpMethod.POST,
-                new HttpEntity<>(Map.of(), headers),
-                Map.class
-        );
+        ResponseEntity<Map> res = paypal.postJson(creds, "/v2/checkout/orders/" + paypalOrderId + "/capture", Map.of());
 
         // Update transaction status
         if (res.getStatusCode().is2xxSuccessful()) {
@@ -72,36 +56,6 @@ public class PaypalCaptureService {
         return txRepo.save(tx);
     }
 
-    private String getAccessToken(String baseUrl, String clientId, String clientSecret) {
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-
-        String basic = Base64.getEncoder().encodeToString(
-                (clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8)
-        );
-        headers.set("Authorization", "Basic " + basic);
-
-        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
-        form.add("grant_type", "client_credentials");
-
-        ResponseEntity<Map> res = restTemplate.exchange(
-                baseUrl + "/v1/oauth2/token",
-                HttpMethod.POST,
-                new HttpEntity<>(form, headers),
-                Map.class
-        );
-
-        if (!res.getStatusCode().is2xxSuccessful() || res.getBody() == null) {
-            throw new IllegalStateException("PayPal token failed: " + res.getStatusCode());
-        }
-
-        Object token = res.getBody().get("access_token");
-        String t = token == null ? null : token.toString();
-        if (t == null || t.isBlank()) throw new IllegalStateException("PayPal token response missing access_token");
-        return t;
-    }
-
     private String must(String v, String err) {
         if (v == null || v.isBlank()) throw new IllegalStateException(err);
         return v.trim();
@@ -6,6 +6,7 @@ import com.build4all.payment.dto.SavePaymentMethodConfigRequest;
 import com.build4all.payment.gateway.PaymentGatewayRegistry;
 import com.build4all.payment.repository.PaymentMethodConfigRepository;
 import com.build4all.payment.repository.PaymentMethodRepository;
+import com.build4all.payment.service.PaymentConfigCache;
 import com.build4all.payment.service.PaymentConfigService;
 import com.build4all.security.JwtUtil;
 import org.springframework.http.ResponseEntity;
@@ -87,7 +88,6 @@ public class OwnerPaymentConfigController {
 
     @PreAuthorize("hasRole('OWNER') or hasRole('SUPER_ADMIN')")
     @GetMapping("/methods")
-    @Transactional(readOnly = true)
     public ResponseEntity<?> list(@RequestHeader("Authorization") String auth) {
 
         Long ownerProjectId = ownerProjectIdFromToken(auth);
@@ -99,18 +99,16 @@ public class OwnerPaymentConfigController {
         for (PaymentMethod m : platformEnabled) {
             var gw = registry.require(m.getName());
 
-            PaymentMethodConfig cfg = configRepo
-                    .findByOwnerProjectIdAndPaymentMethod_NameIgnoreCase(ownerProjectId, m.getName())
-                    .orElse(null);
+            // cached + already parsed (no LOB read per method)
+            PaymentConfigCache.Snapshot cfg = configService.findConfig(ownerProjectId, m.getName());
 
             Map<String, Object> row = new LinkedHashMap<>();
             row.put("name", m.getName());
             row.put("platformEnabled", m.isEnabled());
-            row.put("projectEnabled", cfg != null && cfg.isEnabled());
+            row.put("projectEnabled", cfg.present() && cfg.enabled());
             row.put("configSchema", gw.configSchema());
 
-            Map<String, Object> currentValues =
-                    (cfg == null) ? Map.of() : configService.parse(cfg.getConfigJson()).values();
+            Map<String, Object> currentValues = cfg.present() ? cfg.config().values() : Map.of();
 
             row.put("configValues", maskSecrets(currentValues));
             out.add(row);
@@ -1,5 +1,9 @@
 package com.build4all.security;
 
+import com.build4all.security.ratelimit.RateLimitProperties;
+import com.build4all.security.ratelimit.RateLimitStore;
+import com.build4all.security.ratelimit.RateLimitStore.Decision;
+import com.build4all.security.ratelimit.RateLimitStore.Limit;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,11 +15,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Simple in-memory rate limiter (single-instance).
+ * Token-bucket rate limiter for /api/**.
  *
  * Enforces both:
  * - per-IP limit
@@ -24,36 +26,19 @@ import java.util.concurrent.atomic.AtomicLong;
  * Returns HTTP 429 with JSON body + Retry-After header.
  *
  * NOTE:
- * - Good quick protection for one app instance.
- * - For multi-instance deployment, move this to Redis/Bucket4j at gateway/app layer.
+ * - Limits per route group (AUTH, CHECKOUT_PRICING, API) come from RateLimitProperties.
+ * - Buckets live in a RateLimitStore: in-memory (per instance) or JDBC (shared by all replicas).
  */
 public class ApiRateLimitFilter extends OncePerRequestFilter {
 
-    private static final long ONE_MINUTE_MS = 60_000L;
-
-    // ---- Tune these ----
-    private static final int AUTH_IP_LIMIT_PER_MIN = 20;    // stricter for login/register/reset
-    private static final int AUTH_USER_LIMIT_PER_MIN = 40;
-
-    // Checkout pricing endpoints are sensitive because one UI refresh can fan out
-    // into shipping methods + tax preview + quote calculation.
-    private static final int CHECKOUT_PRICING_IP_LIMIT_PER_MIN = 10;
-    private static final int CHECKOUT_PRICING_USER_LIMIT_PER_MIN = 15;
-
-    private static final int API_IP_LIMIT_PER_MIN = 180;    // general endpoints
-    private static final int API_USER_LIMIT_PER_MIN = 300;
-
-    // Memory safety cleanup
-    private static final int CLEANUP_EVERY_N_REQUESTS = 500;
-    private static final long STALE_KEY_AFTER_MS = 5 * ONE_MINUTE_MS;
-    private static final int MAX_TRACKED_KEYS_BEFORE_FORCED_CLEANUP = 100_000;
-
     private final JwtUtil jwtUtil;
-    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
-    private final AtomicLong requestCounter = new AtomicLong(0);
+    private final RateLimitStore store;
+    private final RateLimitProperties props;
 
-    public ApiRateLimitFilter(JwtUtil jwtUtil) {
+    public ApiRateLimitFilter(JwtUtil jwtUtil, RateLimitStore store, RateLimitProperties props) {
         this.jwtUtil = jwtUtil;
+        this.store = store;
+        this.props = props;
     }
 
     @Override
@@ -75,9 +60,6 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        final long now = System.currentTimeMillis();
-        maybeCleanup(now);
-
         String path = safe(request.getRequestURI());
 
         boolean authPath = isAuthPath(path);
@@ -86,25 +68,24 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
         String ip = resolveClientIp(request);
         String userKey = resolveUserKey(request); // may be null
 
-        Limit ipLimit;
-        Limit userLimit;
+        RateLimitProperties.Group group;
         String routeGroup;
 
         if (checkoutPricingPath) {
-            ipLimit = new Limit(CHECKOUT_PRICING_IP_LIMIT_PER_MIN, ONE_MINUTE_MS);
-            userLimit = new Limit(CHECKOUT_PRICING_USER_LIMIT_PER_MIN, ONE_MINUTE_MS);
+            group = props.getCheckoutPricing();
             routeGroup = "CHECKOUT_PRICING";
         } else if (authPath) {
-            ipLimit = new Limit(AUTH_IP_LIMIT_PER_MIN, ONE_MINUTE_MS);
-            userLimit = new Limit(AUTH_USER_LIMIT_PER_MIN, ONE_MINUTE_MS);
+            group = props.getAuth();
             routeGroup = "AUTH";
         } else {
-            ipLimit = new Limit(API_IP_LIMIT_PER_MIN, ONE_MINUTE_MS);
-            userLimit = new Limit(API_USER_LIMIT_PER_MIN, ONE_MINUTE_MS);
+            group = props.getApi();
             routeGroup = "API";
         }
 
-        Decision ipDecision = consume("IP|" + routeGroup + "|" + ip, ipLimit, now);
+        Limit ipLimit = group.ipLimit();
+        Limit userLimit = group.userLimit();
+
+        Decision ipDecision = store.tryConsume("IP|" + routeGroup + "|" + ip, ipLimit);
         if (!ipDecision.allowed()) {
             write429(response, "ip", routeGroup, ipDecision, ipLimit);
             return;
@@ -114,7 +95,7 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
         Limit effectiveLimit = ipLimit;
 
         if (userKey != null) {
-            Decision userDecision = consume("USER|" + routeGroup + "|" + userKey, userLimit, now);
+            Decision userDecision = store.tryConsume("USER|" + routeGroup + "|" + userKey, userLimit);
             if (!userDecision.allowed()) {
                 write429(response, "user", routeGroup, userDecision, userLimit);
                 return;
@@ -127,7 +108,7 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
             }
         }
 
-        response.setHeader("X-RateLimit-Limit", String.valueOf(effectiveLimit.maxRequests()));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(effectiveLimit.capacity()));
         response.setHeader("X-RateLimit-Remaining", String.valueOf(effectiveDecision.remaining()));
         response.setHeader("X-RateLimit-Reset", String.valueOf(effectiveDecision.resetEpochSeconds()));
         response.setHeader("X-RateLimit-Policy", routeGroup);
@@ -151,33 +132,6 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
                 || "/api/shipping/quote".equals(path);
     }
 
-    private Decision consume(String key, Limit limit, long now) {
-        Counter c = counters.computeIfAbsent(key, k -> new Counter(now));
-
-        synchronized (c) {
-            // Reset fixed window if expired
-            if ((now - c.windowStartMs) >= limit.windowMs()) {
-                c.windowStartMs = now;
-                c.count = 0;
-            }
-
-            c.lastSeenMs = now;
-            c.count++;
-
-            boolean allowed = c.count <= limit.maxRequests();
-            int remaining = Math.max(0, limit.maxRequests() - Math.min(c.count, limit.maxRequests()));
-            long resetAtMs = c.windowStartMs + limit.windowMs();
-            long retryAfterSec = Math.max(1, (resetAtMs - now + 999) / 1000);
-
-            return new Decision(
-                    allowed,
-                    remaining,
-                    retryAfterSec,
-                    resetAtMs / 1000
-            );
-        }
-    }
-
     private void write429(
             HttpServletResponse response,
             String scope,
@@ -189,7 +143,7 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
 
         response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
-        response.setHeader("X-RateLimit-Limit", String.valueOf(limit.maxRequests()));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limit.capacity()));
         response.setHeader("X-RateLimit-Remaining", "0");
         response.setHeader("X-RateLimit-Reset", String.valueOf(decision.resetEpochSeconds()));
         response.setHeader("X-RateLimit-Policy", routeGroup);
@@ -215,31 +169,18 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
     }
 
     private String resolveUserKey(HttpServletRequest request) {
-        String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (auth == null || auth.isBlank()) return null;
+        // Verifies the bearer token once and attaches it to the request,
+        // so JwtAuthenticationFilter and the controllers don't parse it again.
+        VerifiedToken verified = jwtUtil.verifyRequest(request);
+        if (verified == null) return null;
 
-        String token = auth;
-        if (token.startsWith("Bearer ")) {
-            token = token.substring(7).trim();
-        }
+        String role = verified.role();
+        if (role == null || role.isBlank()) role = "UNKNOWN";
 
-        try {
-            if (!jwtUtil.validateToken(token)) return null;
+        // some token types may not have "id"
+        Long id = verified.id();
 
-            String role = jwtUtil.extractRole(token);
-            if (role == null || role.isBlank()) role = "UNKNOWN";
-
-            Long id = null;
-            try {
-                id = jwtUtil.extractId(token);
-            } catch (Exception ignored) {
-                // some token types may not have "id"
-            }
-
-            return (id != null) ? role.toUpperCase() + ":" + id : role.toUpperCase();
-        } catch (Exception e) {
-            return null;
-        }
+        return (id != null) ? role.toUpperCase() + ":" + id : role.toUpperCase();
     }
 
     private String resolveClientIp(HttpServletRequest request) {
@@ -257,34 +198,7 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
         return (remote == null || remote.isBlank()) ? "unknown" : remote;
     }
 
-    private void maybeCleanup(long now) {
-        long n = requestCounter.incrementAndGet();
-
-        boolean periodic = (n % CLEANUP_EVERY_N_REQUESTS == 0);
-        boolean forced = counters.size() > MAX_TRACKED_KEYS_BEFORE_FORCED_CLEANUP;
-
-        if (!periodic && !forced) return;
-
-        counters.entrySet().removeIf(e -> (now - e.getValue().lastSeenMs) > STALE_KEY_AFTER_MS);
-    }
-
     private static String safe(String s) {
         return s == null ? "" : s;
     }
-
-    private record Limit(int maxRequests, long windowMs) {}
-
-    private record Decision(boolean allowed, int remaining, long retryAfterSeconds, long resetEpochSeconds) {}
-
-    private static final class Counter {
-        volatile long windowStartMs;
-        volatile long lastSeenMs;
-        int count;
-
-        Counter(long now) {
-            this.windowStartMs = now;
-            this.lastSeenMs = now;
-            this.count = 0;
-        }
-    }
-}
\ No newline at end of file
+}
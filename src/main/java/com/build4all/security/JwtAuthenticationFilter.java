@@ -6,10 +6,9 @@ import com.build4all.admin.domain.AdminUser;
 import com.build4all.admin.repository.AdminUsersRepository;
 import com.build4all.business.domain.Businesses;
 import com.build4all.business.repository.BusinessesRepository;
+import com.build4all.security.service.AuthPrincipalCache;
 import com.build4all.security.service.AuthTokenRevocationService;
 
-import io.jsonwebtoken.Claims;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -28,7 +27,6 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * JWT Authentication filter that runs once per request.
@@ -39,6 +37,8 @@ import java.util.Optional;
  * - ✅ IMPORTANT FIX: don't set TenantContext too early for OWNER/SUPER_ADMIN lookup
  * - ✅ IMPORTANT FIX: remove lazy projectLinks check from filter (was causing 401)
  * - Clears TenantContext to avoid ThreadLocal leak
+ * - Principals are read through AuthPrincipalCache (short TTL, evicted on row change / revokeNow);
+ *   the stale / tenant / enabled checks below still run on every request, cached or not
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -47,19 +47,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final AdminUsersRepository adminUsersRepository;
     private final BusinessesRepository businessesRepository;
     private final AuthTokenRevocationService tokenRevocationService;
+    private final AuthPrincipalCache principalCache;
 
     public JwtAuthenticationFilter(
             JwtUtil jwtUtil,
             UsersRepository usersRepository,
             AdminUsersRepository adminUsersRepository,
             BusinessesRepository businessesRepository,
-            AuthTokenRevocationService tokenRevocationService
+            AuthTokenRevocationService tokenRevocationService,
+            AuthPrincipalCache principalCache
     ) {
         this.jwtUtil = jwtUtil;
         this.usersRepository = usersRepository;
         this.adminUsersRepository = adminUsersRepository;
         this.businessesRepository = businessesRepository;
         this.tokenRevocationService = tokenRevocationService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -78,23 +81,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            String token = authHeader.substring(7).trim();
+            // Verify once for the whole request (ApiRateLimitFilter may already have done it);
+            // the result stays attached to the request for controllers calling JwtUtil.
+            VerifiedToken verified = jwtUtil.verifyRequest(request);
 
             // If token is invalid/expired, treat as anonymous
-            if (!jwtUtil.validateToken(token)) {
+            if (verified == null) {
                 SecurityContextHolder.clearContext();
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            // Parse claims once
-            Claims claims = jwtUtil.extractAllClaims(token);
-
-            String roleName = claims.get("role", String.class);
-            String subject = claims.getSubject(); // USER/BIZ => id string; ADMIN => email
-            Long idClaim = asLong(claims.get("id"));
-            Date issuedAt = claims.getIssuedAt();
-            Long ownerProjectId = asLong(claims.get("ownerProjectId"));
+            String roleName = verified.role();
+            String subject = verified.subject(); // USER/BIZ => id string; ADMIN => email
+            Long idClaim = verified.id();
+            Date issuedAt = verified.issuedAt();
+            Long ownerProjectId = verified.ownerProjectId();
 
             // If role missing OR already authenticated earlier -> continue
             if (roleName == null || roleName.isBlank()
@@ -168,13 +170,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         principal = u;
                         idClaim = u.getId();
                     }else {
-                        Optional<Users> userOpt = usersRepository.findById(idClaim);
-                        if (userOpt.isEmpty()) {
+                        Users user = loadUser(idClaim, ownerProjectId);
+                        if (user == null) {
                             SecurityContextHolder.clearContext();
                             filterChain.doFilter(request, response);
                             return;
                         }
-                        Users user = userOpt.get();
 
                         if (isStaleToken(issuedAt, user.getCreatedAt())) {
                             SecurityContextHolder.clearContext();
@@ -218,13 +219,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         principal = b;
                         idClaim = b.getId();
                     } else {
-                        Optional<Businesses> bizOpt = businessesRepository.findById(idClaim);
-                        if (bizOpt.isEmpty()) {
+                        Businesses biz = loadBusiness(idClaim, ownerProjectId);
+                        if (biz == null) {
                             SecurityContextHolder.clearContext();
                             filterChain.doFilter(request, response);
                             return;
                         }
-                        Businesses biz = bizOpt.get();
 
                         if (isStaleToken(issuedAt, biz.getCreatedAt())) {
                             SecurityContextHolder.clearContext();
@@ -250,7 +250,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     AdminUser admin = null;
 
                     if (idClaim != null) {
-                        admin = adminUsersRepository.findByAdminId(idClaim).orElse(null);
+                        admin = loadAdmin(idClaim, ownerProjectId);
                     }
 
                     if (admin == null && subject != null && !subject.isBlank()) {
@@ -329,12 +329,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return tokenIat.isBefore(accountCreated);
     }
 
-    private Long asLong(Object v) {
-        if (v == null) return null;
-        if (v instanceof Long l) return l;
-        if (v instanceof Integer i) return i.longValue();
-        if (v instanceof Number n) return n.longValue();
-        try { return Long.parseLong(v.toString()); } catch (Exception e) { return null; }
+    /* ==================== cached principal lookups (by id claim) ==================== */
+
+    private Users loadUser(Long id, Long ownerProjectId) {
+        if (principalCache.get("USER", id, ownerProjectId) instanceof Users cached) return cached;
+
+        Users u = usersRepository.findById(id).orElse(null);
+        if (u != null) principalCache.put("USER", id, ownerProjectId, u);
+        return u;
+    }
+
+    private Businesses loadBusiness(Long id, Long ownerProjectId) {
+        if (principalCache.get("BUSINESS", id, ownerProjectId) instanceof Businesses cached) return cached;
+
+        Businesses b = businessesRepository.findById(id).orElse(null);
+        if (b != null) principalCache.put("BUSINESS", id, ownerProjectId, b);
+        return b;
+    }
+
+    private AdminUser loadAdmin(Long adminId, Long ownerProjectId) {
+        if (principalCache.get("ADMIN", adminId, ownerProjectId) instanceof AdminUser cached) return cached;
+
+        AdminUser a = adminUsersRepository.findByAdminId(adminId).orElse(null);
+        if (a != null) principalCache.put("ADMIN", adminId, ownerProjectId, a);
+        return a;
     }
 
     private Users tryFindUserBySubject(String subject) {
@@ -0,0 +1,122 @@
+package com.build4all.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, expiry-aware cache of already verified JWTs.
+ *
+ * Why:
+ * - Controllers call several JwtUtil accessors per request (role, id, ownerProjectId...)
+ *   and each one used to rebuild a parser and re-check the HMAC signature.
+ * - Tokens are immutable, so once a token verified OK it stays valid until its "exp".
+ *
+ * Notes:
+ * - Keyed by SHA-256 of the raw token, so the cache never holds bearer tokens as map keys.
+ * - Entries are dropped as soon as the token expires (checked on read + on cleanup).
+ * - Revocation is NOT decided here: JwtAuthenticationFilter still checks it per request.
+ * - Only successful verifications are cached; invalid tokens are re-parsed every time.
+ */
+public class JwtClaimsCache {
+
+    private static final int CLEANUP_EVERY_N_PUTS = 1_000;
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong requestHits = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong parses = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public JwtClaimsCache(int maxEntries) {
+        this.maxEntries = Math.max(100, maxEntries);
+    }
+
+    VerifiedToken get(String token, long nowMs) {
+        String key = hash(token);
+        VerifiedToken v = entries.get(key);
+        if (v == null) return null;
+
+        if (v.isExpired(nowMs) || !v.token().equals(token)) {
+            entries.remove(key, v);
+            return null;
+        }
+
+        cacheHits.incrementAndGet();
+        return v;
+    }
+
+    void put(VerifiedToken v, long nowMs) {
+        if (v == null || v.isExpired(nowMs)) return;
+
+        long n = puts.incrementAndGet();
+        if (entries.size() >= maxEntries || n % CLEANUP_EVERY_N_PUTS == 0) {
+            evict(nowMs);
+        }
+
+        entries.put(hash(v.token()), v);
+    }
+
+    void recordRequestHit() { requestHits.incrementAndGet(); }
+
+    void recordParse() { parses.incrementAndGet(); }
+
+    void recordFailure() { failures.incrementAndGet(); }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(
+                requestHits.get(),
+                cacheHits.get(),
+                parses.get(),
+                failures.get(),
+                entries.size()
+        );
+    }
+
+    private void evict(long nowMs) {
+        entries.values().removeIf(v -> v.isExpired(nowMs));
+
+        // Still full: drop arbitrary entries until we are back under 90% of the bound.
+        // A dropped entry only costs one extra parse on the next request that uses it.
+        if (entries.size() >= maxEntries) {
+            int target = (int) (maxEntries * 0.9);
+            var it = entries.keySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * requestHits = served from the request attribute (no lookup at all)
+     * cacheHits   = served from this cache (hash lookup, no signature check)
+     * parses      = full parse + HMAC verification
+     */
+    public record Stats(long requestHits, long cacheHits, long parses, long failures, int size) {
+
+        public double parseAvoidanceRate() {
+            long total = requestHits + cacheHits + parses;
+            return total == 0 ? 0.0 : (double) (requestHits + cacheHits) / total;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
  * With @ConfigurationProperties(prefix = "security.jwt"), Spring will map:
  * - security.jwt.secret-key      -> secretKey
  * - security.jwt.expiration-time -> expirationTime
+ * - security.jwt.claims-cache-max-entries -> claimsCacheMaxEntries (optional)
  *
  * Example (application.yml):
  * security:
@@ -38,6 +39,12 @@ public class JwtProperties {
      */
     private long expirationTime;
 
+    /**
+     * Max number of verified tokens kept in JwtClaimsCache.
+     * Each entry is small (claims + a few fields); 10k covers a busy instance.
+     */
+    private int claimsCacheMaxEntries = 10_000;
+
     // Getters and Setters
 
     public String getSecretKey() {
@@ -55,4 +62,12 @@ public class JwtProperties {
     public void setExpirationTime(long expirationTime) {
         this.expirationTime = expirationTime;
     }
+
+    public int getClaimsCacheMaxEntries() {
+        return claimsCacheMaxEntries;
+    }
+
+    public void setClaimsCacheMaxEntries(int claimsCacheMaxEntries) {
+        this.claimsCacheMaxEntries = claimsCacheMaxEntries;
+    }
 }
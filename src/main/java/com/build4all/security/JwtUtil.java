@@ -3,9 +3,15 @@ package com.build4all.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.build4all.admin.domain.AdminUser;
 import com.build4all.business.domain.Businesses;
@@ -29,16 +35,28 @@ import java.util.Map;
  * - For BUSINESS login: ownerProjectId is REQUIRED
  * - For OWNER login: ownerProjectId is REQUIRED (owner is tenant-scoped by AUP)
  * - For SUPER_ADMIN: ownerProjectId is optional (can be global)
+ *
+ * Parsing:
+ * - A token is parsed + HMAC-verified at most once per request: the result ({@link VerifiedToken})
+ *   is attached to the current request and kept in {@link JwtClaimsCache} until the token expires.
+ * - Every extract / is* accessor below reads from that verified token.
  */
 @Component
 public class JwtUtil {
 
+    /** Request attribute holding the {@link VerifiedToken} of the current request's bearer token. */
+    public static final String VERIFIED_TOKEN_ATTR = JwtUtil.class.getName() + ".VERIFIED_TOKEN";
+
     private final Key key;
     private final long expirationTime;
+    private final JwtParser parser;
+    private final JwtClaimsCache claimsCache;
 
     public JwtUtil(JwtProperties jwtProperties) {
         this.key = Keys.hmacShaKeyFor(jwtProperties.getSecretKey().getBytes());
         this.expirationTime = jwtProperties.getExpirationTime();
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build(); // immutable + thread-safe
+        this.claimsCache = new JwtClaimsCache(jwtProperties.getClaimsCacheMaxEntries());
     }
 
     /* ======================== LOGIN TOKENS ======================== */
@@ -227,43 +245,89 @@ public class JwtUtil {
                 .compact();
     }
 
+    /* ======================== VERIFICATION ======================== */
+
+    /**
+     * Verifies the token (signature + expiry) once and returns the parsed result.
+     * Lookup order: current request attribute -> JwtClaimsCache -> full parse.
+     * Accepts raw token or "Bearer <token>".
+     *
+     * @throws JwtException / IllegalArgumentException if the token is missing, invalid or expired
+     */
+    public VerifiedToken verify(String token) {
+        String jwt = normalize(token);
+        if (jwt == null || jwt.isBlank()) {
+            throw new IllegalArgumentException("JWT is empty");
+        }
+
+        long now = System.currentTimeMillis();
+
+        VerifiedToken attached = fromCurrentRequest(jwt, now);
+        if (attached != null) {
+            claimsCache.recordRequestHit();
+            return attached;
+        }
+
+        VerifiedToken cached = claimsCache.get(jwt, now);
+        if (cached == null) {
+            try {
+                claimsCache.recordParse();
+                cached = VerifiedToken.of(jwt, parser.parseClaimsJws(jwt).getBody());
+            } catch (RuntimeException e) {
+                claimsCache.recordFailure();
+                throw e;
+            }
+            claimsCache.put(cached, now);
+        }
+
+        attachToCurrentRequest(cached);
+        return cached;
+    }
+
+    /**
+     * Verifies the bearer token of this request and attaches the result to it,
+     * so filters and controllers downstream reuse it.
+     *
+     * @return null when there is no bearer token or it does not verify
+     */
+    public VerifiedToken verifyRequest(HttpServletRequest request) {
+        Object attached = request.getAttribute(VERIFIED_TOKEN_ATTR);
+        if (attached instanceof VerifiedToken v && !v.isExpired(System.currentTimeMillis())) {
+            claimsCache.recordRequestHit();
+            return v;
+        }
+
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.toLowerCase().startsWith("bearer ")) return null;
+
+        VerifiedToken v = tryVerify(header);
+        if (v != null) {
+            request.setAttribute(VERIFIED_TOKEN_ATTR, v);
+        }
+        return v;
+    }
+
+    public JwtClaimsCache.Stats claimsCacheStats() {
+        return claimsCache.stats();
+    }
+
     /**
      * Helper: returns all claims for debugging/advanced checks.
      * Accepts raw token or "Bearer <token>".
      */
     public Claims extractAllClaims(String token) {
-        String jwt = normalize(token);
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(jwt)
-                .getBody();
+        return verify(token).claims();
     }
 
     /* ======================== EXTRACTION HELPERS ======================== */
 
     public String extractRole(String token) {
-        try {
-            String jwt = normalize(token);
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody()
-                    .get("role", String.class);
-        } catch (Exception e) {
-            return null;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null ? v.role() : null;
     }
 
     public Long extractId(String token) {
-        String jwt = normalize(token);
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(jwt)
-                .getBody()
-                .get("id", Long.class);
+        return verify(token).id();
     }
 
     public Long extractAdminId(String token) {
@@ -271,58 +335,28 @@ public class JwtUtil {
     }
 
     public String extractUsername(String token) {
-        String jwt = normalize(token);
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(jwt)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     public boolean validateToken(String token) {
-        try {
-            String jwt = normalize(token);
-            if (jwt == null || jwt.isBlank()) return false;
-
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt);
-
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return tryVerify(token) != null;
     }
 
     /* ======================== ROLE CHECKS ======================== */
 
     public boolean isBusinessToken(String token) {
-        try {
-            String role = extractRole(token);
-            return role != null && "BUSINESS".equalsIgnoreCase(role);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null && v.hasRole("BUSINESS");
     }
 
     public boolean isUserToken(String token) {
-        try {
-            String role = extractRole(token);
-            return role != null && "USER".equalsIgnoreCase(role);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null && v.hasRole("USER");
     }
 
     public boolean isAdminToken(String token) {
-        try {
-            String role = extractRole(token);
-            return role != null && "SUPER_ADMIN".equalsIgnoreCase(role);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null && v.hasRole("SUPER_ADMIN");
     }
 
     public boolean isSuperAdmin(String token) {
@@ -330,26 +364,23 @@ public class JwtUtil {
     }
 
     public boolean isOwnerToken(String token) {
-        try {
-            String role = extractRole(token);
-            return role != null && "OWNER".equalsIgnoreCase(role);
-        } catch (Exception e) {
-            return false;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null && v.hasRole("OWNER");
     }
 
     public boolean isAdminOrOwner(String token) {
-        return isAdminToken(token) || isOwnerToken(token);
+        VerifiedToken v = tryVerify(token);
+        return v != null && (v.hasRole("SUPER_ADMIN") || v.hasRole("OWNER"));
     }
 
     /* ======================== ID EXTRACTION HELPERS ======================== */
 
     public Long extractBusinessId(String token) {
-        String jwt = normalize(token);
-        if (!isBusinessToken(jwt)) {
+        VerifiedToken v = tryVerify(token);
+        if (v == null || !v.hasRole("BUSINESS")) {
             throw new ApiException(HttpStatus.FORBIDDEN, "INVALID_BUSINESS_TOKEN", "Invalid token: Not a business token");
         }
-        return extractId(jwt);
+        return v.id();
     }
 
     /**
@@ -358,9 +389,9 @@ public class JwtUtil {
      * - SUPER_ADMIN token may be global
      */
     public Long extractOwnerProjectId(String token) {
-        String jwt = normalize(token);
+        VerifiedToken v = tryVerify(token);
 
-        if (!(isOwnerToken(jwt) || isAdminToken(jwt))) {
+        if (v == null || !(v.hasRole("OWNER") || v.hasRole("SUPER_ADMIN"))) {
             throw new ApiException(
                     HttpStatus.FORBIDDEN,
                     "INVALID_OWNER_ADMIN_TOKEN",
@@ -368,121 +399,58 @@ public class JwtUtil {
             );
         }
 
-        try {
-            Long ownerProjectId = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody()
-                    .get("ownerProjectId", Long.class);
-
-            if (ownerProjectId == null && isOwnerToken(jwt)) {
-                throw new ApiException(
-                        HttpStatus.FORBIDDEN,
-                        "OWNER_TENANT_MISSING",
-                        "OWNER token missing ownerProjectId claim"
-                );
-            }
+        Long ownerProjectId = v.ownerProjectId();
 
-            return ownerProjectId;
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
+        if (ownerProjectId == null && v.hasRole("OWNER")) {
             throw new ApiException(
-                    HttpStatus.UNAUTHORIZED,
-                    "INVALID_TOKEN",
-                    "Invalid token: cannot extract ownerProjectId"
+                    HttpStatus.FORBIDDEN,
+                    "OWNER_TENANT_MISSING",
+                    "OWNER token missing ownerProjectId claim"
             );
         }
+
+        return ownerProjectId;
     }
 
     public Long extractOwnerProjectIdForUser(String token) {
-        String jwt = normalize(token);
+        VerifiedToken v = tryVerify(token);
 
-        if (!isUserToken(jwt)) {
+        if (v == null || !v.hasRole("USER")) {
             throw new ApiException(HttpStatus.FORBIDDEN, "INVALID_USER_TOKEN", "Invalid token: Not a USER token");
         }
 
-        try {
-            Long ownerProjectId = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody()
-                    .get("ownerProjectId", Long.class);
-
-            if (ownerProjectId == null) {
-                throw new ApiException(
-                        HttpStatus.FORBIDDEN,
-                        "USER_TENANT_MISSING",
-                        "USER token missing ownerProjectId claim"
-                );
-            }
-
-            return ownerProjectId;
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
+        if (v.ownerProjectId() == null) {
             throw new ApiException(
-                    HttpStatus.UNAUTHORIZED,
-                    "INVALID_TOKEN",
-                    "Invalid token: cannot extract ownerProjectId"
+                    HttpStatus.FORBIDDEN,
+                    "USER_TENANT_MISSING",
+                    "USER token missing ownerProjectId claim"
             );
         }
+
+        return v.ownerProjectId();
     }
 
     public Long extractOwnerProjectIdClaim(String token) {
-        String jwt = normalize(token);
-        try {
-            Object val = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody()
-                    .get("ownerProjectId");
-
-            if (val == null) return null;
-            if (val instanceof Integer i) return i.longValue();
-            if (val instanceof Long l) return l;
-            return Long.parseLong(val.toString());
-        } catch (Exception e) {
-            return null;
-        }
+        VerifiedToken v = tryVerify(token);
+        return v != null ? v.ownerProjectId() : null;
     }
 
     public Long extractOwnerProjectIdForBusiness(String token) {
-        String jwt = normalize(token);
+        VerifiedToken v = tryVerify(token);
 
-        if (!isBusinessToken(jwt)) {
+        if (v == null || !v.hasRole("BUSINESS")) {
             throw new ApiException(HttpStatus.FORBIDDEN, "INVALID_BUSINESS_TOKEN", "Invalid token: Not a BUSINESS token");
         }
 
-        try {
-            Long ownerProjectId = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(jwt)
-                    .getBody()
-                    .get("ownerProjectId", Long.class);
-
-            if (ownerProjectId == null) {
-                throw new ApiException(
-                        HttpStatus.FORBIDDEN,
-                        "BUSINESS_TENANT_MISSING",
-                        "BUSINESS token missing ownerProjectId claim"
-                );
-            }
-
-            return ownerProjectId;
-        } catch (ApiException e) {
-            throw e;
-        } catch (Exception e) {
+        if (v.ownerProjectId() == null) {
             throw new ApiException(
-                    HttpStatus.UNAUTHORIZED,
-                    "INVALID_TOKEN",
-                    "Invalid token: cannot extract ownerProjectId"
+                    HttpStatus.FORBIDDEN,
+                    "BUSINESS_TENANT_MISSING",
+                    "BUSINESS token missing ownerProjectId claim"
             );
         }
+
+        return v.ownerProjectId();
     }
 
     public String extractTokenFromRequest(jakarta.servlet.http.HttpServletRequest request) {
@@ -498,12 +466,13 @@ public class JwtUtil {
     }
 
     public void validateUserToken(String token, Long userId) {
-        if (!isUserToken(token)) {
+        VerifiedToken v = tryVerify(token);
+        if (v == null || !v.hasRole("USER")) {
             throw new ApiException(HttpStatus.FORBIDDEN, "INVALID_USER_TOKEN", "Invalid token for user");
         }
 
-        Long tokenUserId = extractId(token);
-        if (!tokenUserId.equals(userId)) {
+        Long tokenUserId = v.id();
+        if (tokenUserId == null || !tokenUserId.equals(userId)) {
             throw new ApiException(
                     HttpStatus.FORBIDDEN,
                     "USER_ID_MISMATCH",
@@ -531,11 +500,7 @@ public class JwtUtil {
 
     public Map<String, Object> parseOwnerRegistrationToken(String token) {
         try {
-            var claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            var claims = parser.parseClaimsJws(token).getBody();
 
             String type = (String) claims.get("type");
             if (!"OWNER_REG".equals(type)) {
@@ -590,6 +555,36 @@ public class JwtUtil {
     
     /* ==================== internal ==================== */
 
+    /** Same as {@link #verify(String)} but returns null instead of throwing. */
+    private VerifiedToken tryVerify(String token) {
+        try {
+            return verify(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private VerifiedToken fromCurrentRequest(String jwt, long nowMs) {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return null;
+
+        Object v = attrs.getAttribute(VERIFIED_TOKEN_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if (v instanceof VerifiedToken vt && vt.token().equals(jwt) && !vt.isExpired(nowMs)) {
+            return vt;
+        }
+        return null;
+    }
+
+    private void attachToCurrentRequest(VerifiedToken v) {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return;
+
+        // Only the first token seen in a request is attached (the bearer token in practice)
+        if (attrs.getAttribute(VERIFIED_TOKEN_ATTR, RequestAttributes.SCOPE_REQUEST) == null) {
+            attrs.setAttribute(VERIFIED_TOKEN_ATTR, v, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
     private String normalize(String token) {
         if (token == null) return null;
         return token.replaceFirst("(?i)^Bearer\\s+", "").trim();
@@ -3,8 +3,12 @@ package com.build4all.security;
 import com.build4all.user.repository.UsersRepository;
 import com.build4all.admin.repository.AdminUsersRepository;      // 👈 NEW
 import com.build4all.business.repository.BusinessesRepository;  // 👈 NEW
+import com.build4all.security.ratelimit.RateLimitProperties;
+import com.build4all.security.ratelimit.RateLimitStore;
+import com.build4all.security.service.AuthPrincipalCache;
 import com.build4all.security.service.AuthTokenRevocationService;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.http.HttpMethod;
 
 import org.springframework.context.annotation.Bean;
@@ -94,6 +98,7 @@ public class SecurityConfig implements WebMvcConfigurer {
      * - UsersRepository: load Users principal if token role is USER
      * - AdminUsersRepository: load AdminUser principal if role is SUPER_ADMIN / OWNER / MANAGER
      * - BusinessesRepository: load Businesses principal if role is BUSINESS
+     * - AuthPrincipalCache: short-lived principal cache so steady-state auth skips those lookups
      *
      * The filter is expected to:
      * - read Authorization: Bearer <token>
@@ -108,20 +113,26 @@ public class SecurityConfig implements WebMvcConfigurer {
             UsersRepository usersRepository,
             AdminUsersRepository adminUsersRepository,
             BusinessesRepository businessesRepository,
-            AuthTokenRevocationService tokenRevocationService
+            AuthTokenRevocationService tokenRevocationService,
+            AuthPrincipalCache principalCache
     ) {
         return new JwtAuthenticationFilter(
                 jwtUtil,
                 usersRepository,
                 adminUsersRepository,
                 businessesRepository,
-                tokenRevocationService
+                tokenRevocationService,
+                principalCache
         );
     }
 
     @Bean
-    public ApiRateLimitFilter apiRateLimitFilter(JwtUtil jwtUtil) {
-        return new ApiRateLimitFilter(jwtUtil);
+    public ApiRateLimitFilter apiRateLimitFilter(
+            JwtUtil jwtUtil,
+            RateLimitStore rateLimitStore,
+            RateLimitProperties rateLimitProperties
+    ) {
+        return new ApiRateLimitFilter(jwtUtil, rateLimitStore, rateLimitProperties);
     }
     /* =========================================================
      * 4) Main Security Filter Chain
@@ -170,6 +181,10 @@ public class SecurityConfig implements WebMvcConfigurer {
 
                 // Authorization rules: decide which endpoints need authentication.
                 .authorizeHttpRequests(auth -> auth
+
+                        // Async re-dispatch of a DeferredResult (AI item chat): the request was already
+                        // authorized on its first dispatch, the JWT filter does not run again.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 		
                 		.requestMatchers(HttpMethod.GET, "/uploads/**", "/uploadsPublish/**").permitAll()
                 		.requestMatchers(
@@ -237,6 +252,9 @@ public class SecurityConfig implements WebMvcConfigurer {
         // Allows sending Authorization header (and cookies if you ever use them)
         config.setAllowCredentials(true);
 
+        // Keyset paging headers of list endpoints (?limit= / ?cursor=): readable by browser clients
+        config.setExposedHeaders(List.of("X-Has-More", "X-Next-Cursor", "X-Latest-Cursor"));
+
         // Apply CORS config to all endpoints
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
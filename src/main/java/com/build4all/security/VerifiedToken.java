@@ -0,0 +1,55 @@
+package com.build4all.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature and expiry have already been checked by {@link JwtUtil}.
+ *
+ * Instances are shared between threads (they live in {@link JwtClaimsCache} and are
+ * attached to the current request), so treat the claims as read-only.
+ *
+ * The common claims are pulled out once at verification time so the
+ * hot accessors (role / id / ownerProjectId) don't touch the claims map again.
+ */
+public record VerifiedToken(
+        String token,
+        Claims claims,
+        String role,
+        Long id,
+        Long ownerProjectId,
+        String subject,
+        Date issuedAt,
+        long expiresAtMs
+) {
+
+    static VerifiedToken of(String token, Claims claims) {
+        Date exp = claims.getExpiration();
+        return new VerifiedToken(
+                token,
+                claims,
+                claims.get("role", String.class),
+                asLong(claims.get("id")),
+                asLong(claims.get("ownerProjectId")),
+                claims.getSubject(),
+                claims.getIssuedAt(),
+                exp != null ? exp.getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public boolean isExpired(long nowMs) {
+        return nowMs >= expiresAtMs;
+    }
+
+    public boolean hasRole(String expected) {
+        return role != null && role.equalsIgnoreCase(expected);
+    }
+
+    private static Long asLong(Object v) {
+        if (v == null) return null;
+        if (v instanceof Long l) return l;
+        if (v instanceof Number n) return n.longValue();
+        try { return Long.parseLong(v.toString()); } catch (Exception e) { return null; }
+    }
+}
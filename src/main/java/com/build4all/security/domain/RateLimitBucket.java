@@ -0,0 +1,42 @@
+package com.build4all.security.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One token bucket of the shared (JDBC) rate limiter.
+ * Rows are written only through RateLimitBucketRepository.tryConsume (atomic upsert).
+ */
+@Entity
+@Table(name = "api_rate_limit_buckets")
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key", length = 200)
+    private String bucketKey;
+
+    @Column(name = "tokens", nullable = false)
+    private double tokens;
+
+    // epoch millis of the DB clock, so all replicas refill against the same clock
+    @Column(name = "updated_at_ms", nullable = false)
+    private long updatedAtMs;
+
+    // result of the last consume attempt (read back via RETURNING)
+    @Column(name = "allowed", nullable = false)
+    private boolean allowed;
+
+    public String getBucketKey() { return bucketKey; }
+    public void setBucketKey(String bucketKey) { this.bucketKey = bucketKey; }
+
+    public double getTokens() { return tokens; }
+    public void setTokens(double tokens) { this.tokens = tokens; }
+
+    public long getUpdatedAtMs() { return updatedAtMs; }
+    public void setUpdatedAtMs(long updatedAtMs) { this.updatedAtMs = updatedAtMs; }
+
+    public boolean isAllowed() { return allowed; }
+    public void setAllowed(boolean allowed) { this.allowed = allowed; }
+}
@@ -0,0 +1,11 @@
+package com.build4all.security.dto;
+
+/** Native projection returned by RateLimitBucketRepository.tryConsume. */
+public interface RateLimitBucketState {
+
+    Boolean getAllowed();
+
+    Double getTokens();
+
+    Long getNowMs();
+}
@@ -0,0 +1,85 @@
+package com.build4all.security.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance rate limit store backed by Bucket4j lock-free token buckets.
+ *
+ * NOTE:
+ * - No synchronized blocks: Bucket4j buckets are CAS based, and ConcurrentHashMap.get is lock-free.
+ * - With N replicas each client effectively gets N x the limit; use JdbcRateLimitStore there.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // Memory safety cleanup
+    private static final int CLEANUP_EVERY_N_REQUESTS = 500;
+    private static final long STALE_KEY_AFTER_MS = 5 * 60_000L;
+    private static final int MAX_TRACKED_KEYS_BEFORE_FORCED_CLEANUP = 100_000;
+
+    private final ConcurrentHashMap<String, Entry> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong requestCounter = new AtomicLong(0);
+
+    @Override
+    public Decision tryConsume(String key, Limit limit) {
+        final long now = System.currentTimeMillis();
+        maybeCleanup(now);
+
+        Entry e = buckets.get(key);
+        if (e == null) {
+            e = buckets.computeIfAbsent(key, k -> new Entry(newBucket(limit)));
+        }
+        e.lastSeenMs = now;
+
+        ConsumptionProbe probe = e.bucket.tryConsumeAndReturnRemaining(1);
+        long remaining = probe.getRemainingTokens();
+
+        if (probe.isConsumed()) {
+            return Decision.of(true, remaining, limit, now);
+        }
+
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill());
+        long msToFull = (long) Math.ceil(limit.capacity() / limit.tokensPerMs());
+
+        return new Decision(
+                false,
+                0,
+                Math.max(1, (waitMs + 999) / 1000),
+                (now + msToFull) / 1000
+        );
+    }
+
+    private static Bucket newBucket(Limit limit) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(limit.capacity())
+                        .refillGreedy(limit.capacity(), limit.refillPeriod())
+                        .build())
+                .build();
+    }
+
+    private void maybeCleanup(long now) {
+        long n = requestCounter.incrementAndGet();
+
+        boolean periodic = (n % CLEANUP_EVERY_N_REQUESTS == 0);
+        boolean forced = buckets.size() > MAX_TRACKED_KEYS_BEFORE_FORCED_CLEANUP;
+
+        if (!periodic && !forced) return;
+
+        buckets.entrySet().removeIf(en -> (now - en.getValue().lastSeenMs) > STALE_KEY_AFTER_MS);
+    }
+
+    private static final class Entry {
+        final Bucket bucket;
+        volatile long lastSeenMs;
+
+        Entry(Bucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.build4all.security.ratelimit;
+
+import com.build4all.security.dto.RateLimitBucketState;
+import com.build4all.security.repository.RateLimitBucketRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared rate limit store: one Postgres row per bucket (table api_rate_limit_buckets).
+ *
+ * - Every consume is a single atomic upsert (see RateLimitBucketRepository.tryConsume),
+ *   so all replicas enforce one limit per key instead of N x the limit.
+ * - If the DB call fails we fall back to the local in-memory buckets
+ *   (rate limiting must never take the API down); the switch to and back from the fallback
+ *   is logged once, not per request.
+ */
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final int CLEANUP_EVERY_N_REQUESTS = 10_000;
+    private static final long IDLE_BUCKET_MS = 10 * 60_000L;
+
+    private final RateLimitBucketRepository repo;
+    private final RateLimitStore fallback;
+    private final AtomicLong requestCounter = new AtomicLong(0);
+
+    /** true while the DB is failing and the local buckets are in use. */
+    private volatile boolean degraded;
+
+    public JdbcRateLimitStore(RateLimitBucketRepository repo, RateLimitStore fallback) {
+        this.repo = repo;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Decision tryConsume(String key, Limit limit) {
+        try {
+            maybeCleanup();
+
+            RateLimitBucketState state = repo.tryConsume(key, limit.capacity(), limit.tokensPerMs());
+            if (state == null || state.getAllowed() == null) {
+                return fallback.tryConsume(key, limit);
+            }
+
+            double tokens = state.getTokens() != null ? state.getTokens() : 0;
+            long nowMs = state.getNowMs() != null ? state.getNowMs() : System.currentTimeMillis();
+
+            if (degraded) {
+                degraded = false;
+                System.out.println("✅ Rate limit store available again, back to shared buckets");
+            }
+            return Decision.of(state.getAllowed(), tokens, limit, nowMs);
+        } catch (Exception e) {
+            if (!degraded) {
+                degraded = true;
+                System.out.println("⚠️ Rate limit store unavailable, using local buckets: " + e.getMessage());
+            }
+            return fallback.tryConsume(key, limit);
+        }
+    }
+
+    private void maybeCleanup() {
+        if (requestCounter.incrementAndGet() % CLEANUP_EVERY_N_REQUESTS != 0) return;
+        repo.deleteIdle(IDLE_BUCKET_MS);
+    }
+}
@@ -0,0 +1,80 @@
+package com.build4all.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Binds rate limit configuration (prefix "security.rate-limit").
+ *
+ * Example (application.yml):
+ * security:
+ *   rate-limit:
+ *     store: jdbc            # memory (default, per instance) | jdbc (Postgres, shared by all replicas)
+ *     auth:
+ *       ip-per-minute: 20
+ *       user-per-minute: 40
+ *     checkout-pricing:
+ *       ip-per-minute: 10
+ *       user-per-minute: 15
+ *     api:
+ *       ip-per-minute: 180
+ *       user-per-minute: 300
+ *
+ * Each limit is a token bucket: "perMinute" is both the burst capacity and the refill per minute.
+ */
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    /** memory | jdbc */
+    private String store = "memory";
+
+    /** login / register / password reset */
+    private Group auth = new Group(20, 40);
+
+    /** shipping methods + tax preview + checkout quote (one UI refresh fans out into all of them) */
+    private Group checkoutPricing = new Group(10, 15);
+
+    /** every other /api/** endpoint */
+    private Group api = new Group(180, 300);
+
+    public String getStore() { return store; }
+    public void setStore(String store) { this.store = store; }
+
+    public Group getAuth() { return auth; }
+    public void setAuth(Group auth) { this.auth = auth; }
+
+    public Group getCheckoutPricing() { return checkoutPricing; }
+    public void setCheckoutPricing(Group checkoutPricing) { this.checkoutPricing = checkoutPricing; }
+
+    public Group getApi() { return api; }
+    public void setApi(Group api) { this.api = api; }
+
+    public static class Group {
+        private int ipPerMinute;
+        private int userPerMinute;
+
+        public Group() {}
+
+        public Group(int ipPerMinute, int userPerMinute) {
+            this.ipPerMinute = ipPerMinute;
+            this.userPerMinute = userPerMinute;
+        }
+
+        public int getIpPerMinute() { return ipPerMinute; }
+        public void setIpPerMinute(int ipPerMinute) { this.ipPerMinute = ipPerMinute; }
+
+        public int getUserPerMinute() { return userPerMinute; }
+        public void setUserPerMinute(int userPerMinute) { this.userPerMinute = userPerMinute; }
+
+        public RateLimitStore.Limit ipLimit() {
+            return new RateLimitStore.Limit(ipPerMinute, Duration.ofMinutes(1));
+        }
+
+        public RateLimitStore.Limit userLimit() {
+            return new RateLimitStore.Limit(userPerMinute, Duration.ofMinutes(1));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.build4all.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Storage SPI for ApiRateLimitFilter.
+ *
+ * Implementations:
+ * - InMemoryRateLimitStore: Bucket4j lock-free token buckets, per instance
+ * - JdbcRateLimitStore: one Postgres row per bucket, shared by all replicas
+ *
+ * Both are token buckets (no fixed window), so a client can't burst 2x at a window edge.
+ */
+public interface RateLimitStore {
+
+    /** Takes one token from the bucket identified by key (created full on first use). */
+    Decision tryConsume(String key, Limit limit);
+
+    /** capacity tokens, refilled gradually over refillPeriod. */
+    record Limit(int capacity, Duration refillPeriod) {
+
+        public double tokensPerMs() {
+            return (double) capacity / Math.max(1, refillPeriod.toMillis());
+        }
+    }
+
+    record Decision(boolean allowed, long remaining, long retryAfterSeconds, long resetEpochSeconds) {
+
+        /**
+         * Builds a decision from a bucket state after the consume attempt.
+         * - blocked: retry once one token is back
+         * - reset: when the bucket would be full again
+         */
+        static Decision of(boolean allowed, double tokensLeft, Limit limit, long nowMs) {
+            double perMs = limit.tokensPerMs();
+            long msToOne = allowed ? 0 : (long) Math.ceil(Math.max(0, 1 - tokensLeft) / perMs);
+            long msToFull = (long) Math.ceil(Math.max(0, limit.capacity() - tokensLeft) / perMs);
+
+            return new Decision(
+                    allowed,
+                    Math.max(0, (long) Math.floor(tokensLeft)),
+                    allowed ? 0 : Math.max(1, (msToOne + 999) / 1000),
+                    (nowMs + msToFull) / 1000
+            );
+        }
+    }
+}
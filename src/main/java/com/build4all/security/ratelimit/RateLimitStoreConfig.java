@@ -0,0 +1,22 @@
+package com.build4all.security.ratelimit;
+
+import com.build4all.security.repository.RateLimitBucketRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the RateLimitStore from "security.rate-limit.store":
+ * - memory (default): per-instance Bucket4j buckets
+ * - jdbc: Postgres-backed buckets shared by all replicas
+ */
+@Configuration
+public class RateLimitStoreConfig {
+
+    @Bean
+    public RateLimitStore rateLimitStore(RateLimitProperties props, RateLimitBucketRepository bucketRepository) {
+        if ("jdbc".equalsIgnoreCase(props.getStore())) {
+            return new JdbcRateLimitStore(bucketRepository, new InMemoryRateLimitStore());
+        }
+        return new InMemoryRateLimitStore();
+    }
+}
@@ -2,7 +2,10 @@ package com.build4all.security.repository;
 
 import com.build4all.security.domain.AuthTokenRevocation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface AuthTokenRevocationRepository extends JpaRepository<AuthTokenRevocation, Long> {
@@ -17,4 +20,21 @@ public interface AuthTokenRevocationRepository extends JpaRepository<AuthTokenRe
             String subjectType,
             Long subjectId
     );
-}
\ No newline at end of file
+
+    /* ================ per-request watermark (uq_auth_token_revocations index lookup, one column) ================ */
+
+    @Query("""
+           select r.revokedAfter from AuthTokenRevocation r
+           where r.subjectType = :subjectType and r.subjectId = :subjectId and r.ownerProjectId = :ownerProjectId
+           """)
+    Optional<LocalDateTime> findRevokedAfter(@Param("subjectType") String subjectType,
+                                             @Param("subjectId") Long subjectId,
+                                             @Param("ownerProjectId") Long ownerProjectId);
+
+    @Query("""
+           select r.revokedAfter from AuthTokenRevocation r
+           where r.subjectType = :subjectType and r.subjectId = :subjectId and r.ownerProjectId is null
+           """)
+    Optional<LocalDateTime> findRevokedAfterGlobal(@Param("subjectType") String subjectType,
+                                                   @Param("subjectId") Long subjectId);
+}
@@ -0,0 +1,52 @@
+package com.build4all.security.repository;
+
+import com.build4all.security.domain.RateLimitBucket;
+import com.build4all.security.dto.RateLimitBucketState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Atomic token bucket step (one statement, one round trip):
+     * - if row does not exist: create it full, minus the token we take now
+     * - if row exists: refill by elapsed time (capped at capacity), then take 1 token if there is one
+     *
+     * All SET expressions read the OLD row values, so "allowed" and "tokens" agree.
+     * Time comes from the DB clock so replicas with skewed clocks share one timeline.
+     */
+    @Transactional
+    @Query(value = """
+        WITH now_ms AS (
+            SELECT CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT) AS v
+        )
+        INSERT INTO api_rate_limit_buckets AS b (bucket_key, tokens, updated_at_ms, allowed)
+        SELECT :key, :capacity - 1, now_ms.v, TRUE FROM now_ms
+        ON CONFLICT (bucket_key) DO UPDATE SET
+            allowed = LEAST(:capacity, b.tokens + GREATEST(0, EXCLUDED.updated_at_ms - b.updated_at_ms) * :perMs) >= 1,
+            tokens  = LEAST(:capacity, b.tokens + GREATEST(0, EXCLUDED.updated_at_ms - b.updated_at_ms) * :perMs)
+                      - CASE WHEN LEAST(:capacity, b.tokens + GREATEST(0, EXCLUDED.updated_at_ms - b.updated_at_ms) * :perMs) >= 1
+                             THEN 1 ELSE 0 END,
+            updated_at_ms = GREATEST(b.updated_at_ms, EXCLUDED.updated_at_ms)
+        RETURNING allowed AS "allowed", tokens AS "tokens", updated_at_ms AS "nowMs"
+    """, nativeQuery = true)
+    RateLimitBucketState tryConsume(
+            @Param("key") String key,
+            @Param("capacity") double capacity,
+            @Param("perMs") double tokensPerMs
+    );
+
+    /** Housekeeping: buckets idle long enough are full again, so dropping them changes nothing. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM api_rate_limit_buckets
+        WHERE updated_at_ms < CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT) - :idleMs
+    """, nativeQuery = true)
+    int deleteIdle(@Param("idleMs") long idleMs);
+}
@@ -0,0 +1,105 @@
+package com.build4all.security.service;
+
+import com.build4all.common.cache.InvalidatingCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived, tenant-scoped cache of the principals loaded by JwtAuthenticationFilter
+ * (Users / Businesses / AdminUser), so steady-state auth does not hit the DB.
+ *
+ * Key = (subjectType, subjectId, ownerProjectId) — same scoping as auth_token_revocations.
+ *
+ * Safety:
+ * - Entries live at most TTL_MS; the filter still re-checks stale/tenant/enabled on every hit.
+ * - Any update/delete of a principal row evicts it (AuthPrincipalCacheListener),
+ *   once at flush and once more after commit so a concurrent reload can't keep the old row.
+ * - revokeNow evicts too (AuthTokenRevocationService).
+ * - Only successful lookups are cached.
+ *
+ * Staleness: eviction is local to this instance. A principal changed on another instance, or by a
+ * bulk JPQL update that skips the listener, can be served from here for up to TTL_MS. Revocation
+ * does not depend on this cache (its watermark is read from DB on every request), so changes that
+ * must cut sessions at once go through AuthTokenRevocationService.revokeNow.
+ */
+@Service
+public class AuthPrincipalCache {
+
+    private static final long TTL_MS = 60_000L;
+    private static final int MAX_ENTRIES = 20_000;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Object get(String subjectType, Long subjectId, Long ownerProjectId) {
+        if (subjectType == null || subjectId == null) return null;
+
+        Key key = new Key(subjectType, subjectId, ownerProjectId);
+        Entry e = entries.get(key);
+        long now = System.currentTimeMillis();
+
+        if (e == null || (now - e.loadedAtMs()) > TTL_MS) {
+            if (e != null) entries.remove(key, e);
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return e.principal();
+    }
+
+    public void put(String subjectType, Long subjectId, Long ownerProjectId, Object principal) {
+        if (subjectType == null || subjectId == null || principal == null) return;
+
+        long now = System.currentTimeMillis();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(e -> (now - e.loadedAtMs()) > TTL_MS);
+            if (entries.size() >= MAX_ENTRIES) entries.clear();
+        }
+
+        entries.put(new Key(subjectType, subjectId, ownerProjectId), new Entry(principal, now));
+    }
+
+    /** Evicts the subject in every tenant scope (a row change affects all of them). */
+    public void evict(String subjectType, Long subjectId) {
+        if (subjectType == null || subjectId == null) return;
+
+        entries.keySet().removeIf(k -> k.subjectType().equals(subjectType) && k.subjectId().equals(subjectId));
+    }
+
+    /** Same as evict, for many subjects in one pass (bulk status changes bypass the entity listener). */
+    public void evictAll(String subjectType, Collection<Long> subjectIds) {
+        if (subjectType == null || subjectIds == null || subjectIds.isEmpty()) return;
+
+        Set<Long> ids = new HashSet<>(subjectIds);
+        entries.keySet().removeIf(k -> k.subjectType().equals(subjectType) && ids.contains(k.subjectId()));
+    }
+
+    /** Evicts now and again after the surrounding transaction commits (if any). */
+    public void evictNowAndAfterCommit(String subjectType, Long subjectId) {
+        evict(subjectType, subjectId);
+        InvalidatingCache.afterCommit(() -> evict(subjectType, subjectId));
+    }
+
+    public void evictTenant(Long ownerProjectId) {
+        if (ownerProjectId == null) return;
+        entries.keySet().removeIf(k -> ownerProjectId.equals(k.ownerProjectId()));
+    }
+
+    public long hits() { return hits.get(); }
+
+    public long misses() { return misses.get(); }
+
+    public int size() { return entries.size(); }
+
+    private record Key(String subjectType, Long subjectId, Long ownerProjectId) {}
+
+    private record Entry(Object principal, long loadedAtMs) {}
+}
@@ -0,0 +1,34 @@
+package com.build4all.security.service;
+
+import com.build4all.admin.domain.AdminUser;
+import com.build4all.business.domain.Businesses;
+import com.build4all.user.domain.Users;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on the principal entities (Users / Businesses / AdminUser).
+ *
+ * Any status toggle, password change or delete goes through an UPDATE/DELETE of the row,
+ * so evicting here covers every call site without each controller remembering to do it.
+ */
+public class AuthPrincipalCacheListener {
+
+    private final AuthPrincipalCache principalCache;
+
+    public AuthPrincipalCacheListener(AuthPrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onPrincipalChanged(Object entity) {
+        if (entity instanceof Users u) {
+            principalCache.evictNowAndAfterCommit("USER", u.getId());
+        } else if (entity instanceof Businesses b) {
+            principalCache.evictNowAndAfterCommit("BUSINESS", b.getId());
+        } else if (entity instanceof AdminUser a) {
+            principalCache.evictNowAndAfterCommit("ADMIN", a.getAdminId());
+        }
+    }
+}
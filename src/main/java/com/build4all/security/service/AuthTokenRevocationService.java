@@ -5,17 +5,27 @@ import com.build4all.security.repository.AuthTokenRevocationRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 
+/**
+ * Token revocation ("revoked after" watermark per subject and tenant).
+ *
+ * isRevoked reads the watermark from DB on every authenticated request (one lookup on the
+ * uq_auth_token_revocations index, one column), so a revocation done on any instance applies to
+ * every instance from its commit on: no per-node cache, no staleness window.
+ */
 @Service
 public class AuthTokenRevocationService {
 
     private final AuthTokenRevocationRepository repo;
+    private final AuthPrincipalCache principalCache;
 
-    public AuthTokenRevocationService(AuthTokenRevocationRepository repo) {
+    public AuthTokenRevocationService(AuthTokenRevocationRepository repo, AuthPrincipalCache principalCache) {
         this.repo = repo;
+        this.principalCache = principalCache;
     }
 
     @Transactional
@@ -42,6 +52,8 @@ public class AuthTokenRevocationService {
 
         row.setRevokedAfter(now);
         repo.save(row);
+
+        principalCache.evictNowAndAfterCommit(subjectType, subjectId);
     }
 
     public boolean isRevoked(String subjectType, Long subjectId, Long ownerProjectId, Date issuedAt) {
@@ -49,18 +61,23 @@ public class AuthTokenRevocationService {
         if (subjectId == null) return false;
         if (issuedAt == null) return false;
 
-        var rowOpt = (ownerProjectId == null)
-                ? repo.findBySubjectTypeAndSubjectIdAndOwnerProjectIdIsNull(subjectType, subjectId)
-                : repo.findBySubjectTypeAndSubjectIdAndOwnerProjectId(subjectType, subjectId, ownerProjectId);
-
-        if (rowOpt.isEmpty()) return false;
-
-        var revokedAfter = rowOpt.get().getRevokedAfter();
-        if (revokedAfter == null) return false;
+        Instant revokedInstant = revokedAfter(subjectType, subjectId, ownerProjectId);
+        if (revokedInstant == null) return false;
 
         var iatInstant = issuedAt.toInstant();
-        var revokedInstant = revokedAfter.atZone(ZoneId.systemDefault()).toInstant();
 
         return !iatInstant.isAfter(revokedInstant); // iat <= revokedAfter
     }
-}
\ No newline at end of file
+
+    private Instant revokedAfter(String subjectType, Long subjectId, Long ownerProjectId) {
+        var revokedAfter = (ownerProjectId == null)
+                ? repo.findRevokedAfterGlobal(subjectType, subjectId)
+                : repo.findRevokedAfter(subjectType, subjectId, ownerProjectId);
+
+        return revokedAfter.map(AuthTokenRevocationService::toInstant).orElse(null);
+    }
+
+    private static Instant toInstant(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -2,6 +2,8 @@ package com.build4all.shipping.service;
 
 import com.build4all.order.dto.CartLine;
 import com.build4all.order.dto.ShippingAddressDTO;
+import com.build4all.order.service.PricingContext;
+import com.build4all.shipping.domain.ShippingMethod;
 import com.build4all.shipping.dto.ShippingQuote;
 
 import java.util.List;
@@ -24,4 +26,15 @@ public interface ShippingService {
     List<ShippingQuote> getAvailableMethods(Long ownerProjectId,
                                             ShippingAddressDTO address,
                                             List<CartLine> cartLines);
+
+    /**
+     * Enabled methods of the tenant (loaded once into a PricingContext).
+     */
+    List<ShippingMethod> findEnabledMethods(Long ownerProjectId);
+
+    /** getQuote on an already loaded PricingContext (no DB access, aggregates reused). */
+    ShippingQuote getQuote(PricingContext context, ShippingAddressDTO address);
+
+    /** getAvailableMethods on an already loaded PricingContext. */
+    List<ShippingQuote> getAvailableMethods(PricingContext context, ShippingAddressDTO address);
 }
@@ -2,6 +2,7 @@ package com.build4all.shipping.service.impl;
 
 import com.build4all.order.dto.CartLine;
 import com.build4all.order.dto.ShippingAddressDTO;
+import com.build4all.order.service.PricingContext;
 import com.build4all.shipping.domain.ShippingMethod;
 import com.build4all.shipping.domain.ShippingMethodType;
 import com.build4all.shipping.dto.ShippingQuote;
@@ -28,39 +29,6 @@ public class ShippingServiceImpl implements ShippingService {
         return v == null ? BigDecimal.ZERO : v;
     }
 
-    private BigDecimal sumItemsSubtotal(List<CartLine> lines) {
-        if (lines == null || lines.isEmpty()) return BigDecimal.ZERO;
-
-        BigDecimal total = BigDecimal.ZERO;
-        for (CartLine line : lines) {
-            if (line == null) continue;
-
-            BigDecimal lineSubtotal = line.getLineSubtotal();
-            if (lineSubtotal != null) {
-                total = total.add(lineSubtotal);
-            } else if (line.getUnitPrice() != null) {
-                BigDecimal unit = safe(line.getUnitPrice());
-                BigDecimal qty = BigDecimal.valueOf(line.getQuantity());
-                total = total.add(unit.multiply(qty));
-            }
-        }
-        return total;
-    }
-
-    private BigDecimal sumTotalWeight(List<CartLine> lines) {
-        if (lines == null || lines.isEmpty()) return BigDecimal.ZERO;
-
-        BigDecimal total = BigDecimal.ZERO;
-        for (CartLine line : lines) {
-            if (line == null) continue;
-            BigDecimal w = line.getWeightKg();
-            if (w != null) {
-                total = total.add(w);
-            }
-        }
-        return total;
-    }
-
     private boolean matchesAddress(ShippingMethod method, ShippingAddressDTO addr) {
         if (method == null) return false;
 
@@ -170,22 +138,17 @@ public class ShippingServiceImpl implements ShippingService {
         }
     }
 
-    private List<ShippingMethod> findEligibleMethods(Long ownerProjectId,
-                                                     ShippingAddressDTO addr,
-                                                     List<CartLine> cartLines) {
-        List<ShippingMethod> methods =
-                methodRepository.findByOwnerProject_IdAndEnabledTrue(ownerProjectId);
+    private List<ShippingMethod> findEligibleMethods(PricingContext ctx,
+                                                     ShippingAddressDTO addr) {
+        List<ShippingMethod> methods = ctx.getShippingMethods();
 
-        if (methods == null || methods.isEmpty()) {
+        if (methods.isEmpty()) {
             return List.of();
         }
 
-        BigDecimal itemsSubtotal = sumItemsSubtotal(cartLines);
-        BigDecimal totalWeight = sumTotalWeight(cartLines);
-
         List<ShippingMethod> eligible = new ArrayList<>();
         for (ShippingMethod method : methods) {
-            if (isEligible(method, addr, itemsSubtotal, totalWeight)) {
+            if (isEligible(method, addr, ctx.getItemsSubtotal(), ctx.getTotalWeight())) {
                 eligible.add(method);
             }
         }
@@ -193,8 +156,21 @@ public class ShippingServiceImpl implements ShippingService {
         return eligible;
     }
 
+    /** Context for the standalone endpoints (shipping only, no tax rules needed). */
+    private PricingContext shippingContext(Long ownerProjectId, List<CartLine> cartLines) {
+        return new PricingContext(ownerProjectId, cartLines, findEnabledMethods(ownerProjectId), null);
+    }
+
     /* ========================= main API ========================= */
 
+    @Override
+    public List<ShippingMethod> findEnabledMethods(Long ownerProjectId) {
+        if (ownerProjectId == null) return List.of();
+
+        List<ShippingMethod> methods = methodRepository.findByOwnerProject_IdAndEnabledTrue(ownerProjectId);
+        return methods == null ? List.of() : methods;
+    }
+
     @Override
     public ShippingQuote getQuote(Long ownerProjectId,
                                   ShippingAddressDTO addr,
@@ -204,7 +180,13 @@ public class ShippingServiceImpl implements ShippingService {
             throw new IllegalArgumentException("ownerProjectId is required for shipping quote");
         }
 
-        List<ShippingMethod> eligibleMethods = findEligibleMethods(ownerProjectId, addr, cartLines);
+        return getQuote(shippingContext(ownerProjectId, cartLines), addr);
+    }
+
+    @Override
+    public ShippingQuote getQuote(PricingContext ctx, ShippingAddressDTO addr) {
+
+        List<ShippingMethod> eligibleMethods = findEligibleMethods(ctx, addr);
 
         if (eligibleMethods.isEmpty()) {
             return new ShippingQuote(
@@ -215,9 +197,6 @@ public class ShippingServiceImpl implements ShippingService {
             );
         }
 
-        BigDecimal itemsSubtotal = sumItemsSubtotal(cartLines);
-        BigDecimal totalWeight = sumTotalWeight(cartLines);
-
         ShippingMethod chosen = null;
         Long requestedMethodId = (addr != null) ? addr.getShippingMethodId() : null;
 
@@ -238,7 +217,7 @@ public class ShippingServiceImpl implements ShippingService {
             chosen = eligibleMethods.get(0);
         }
 
-        BigDecimal price = computePrice(chosen, itemsSubtotal, totalWeight);
+        BigDecimal price = computePrice(chosen, ctx.getItemsSubtotal(), ctx.getTotalWeight());
 
         return new ShippingQuote(
                 chosen.getId(),
@@ -257,18 +236,21 @@ public class ShippingServiceImpl implements ShippingService {
             throw new IllegalArgumentException("ownerProjectId is required for shipping methods");
         }
 
-        List<ShippingMethod> eligibleMethods = findEligibleMethods(ownerProjectId, addr, cartLines);
+        return getAvailableMethods(shippingContext(ownerProjectId, cartLines), addr);
+    }
+
+    @Override
+    public List<ShippingQuote> getAvailableMethods(PricingContext ctx, ShippingAddressDTO addr) {
+
+        List<ShippingMethod> eligibleMethods = findEligibleMethods(ctx, addr);
 
         if (eligibleMethods.isEmpty()) {
             return List.of();
         }
 
-        BigDecimal itemsSubtotal = sumItemsSubtotal(cartLines);
-        BigDecimal totalWeight = sumTotalWeight(cartLines);
-
         List<ShippingQuote> quotes = new ArrayList<>();
         for (ShippingMethod method : eligibleMethods) {
-            BigDecimal price = computePrice(method, itemsSubtotal, totalWeight);
+            BigDecimal price = computePrice(method, ctx.getItemsSubtotal(), ctx.getTotalWeight());
             quotes.add(new ShippingQuote(
                     method.getId(),
                     method.getName(),
@@ -279,4 +261,4 @@ public class ShippingServiceImpl implements ShippingService {
 
         return quotes;
     }
-}
\ No newline at end of file
+}
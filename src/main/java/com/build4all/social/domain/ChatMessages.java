@@ -10,7 +10,16 @@ import org.hibernate.annotations.OnDeleteAction;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
-@Table(name = "ChatMessages")
+@Table(
+        name = "ChatMessages",
+        indexes = {
+                // one direction of a conversation, in history order (keyset pages)
+                @Index(name = "idx_chat_pair", columnList = "sender_id, receiver_id, sent_at, message_id"),
+                // "everything I sent" / "everything I received"
+                @Index(name = "idx_chat_sender", columnList = "sender_id, sent_at, message_id"),
+                @Index(name = "idx_chat_receiver", columnList = "receiver_id, sent_at, message_id")
+        }
+)
 public class ChatMessages {
 
     @Id
@@ -66,6 +75,7 @@ public class ChatMessages {
     @PrePersist
     protected void onCreate() {
         this.sentAt = LocalDateTime.now();
+        if (this.messageDatetime == null) this.messageDatetime = this.sentAt;
     }
 
     // Getters and Setters
@@ -0,0 +1,71 @@
+package com.build4all.social.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Unread messages per (user, contact): how many messages from contactId that userId has not read.
+ *
+ * Maintained by ChatMessagesService in the same transaction as the message insert / read / delete
+ * (atomic upserts, ChatUnreadCounterRepository), so "unread by contact" is an index read
+ * instead of a GROUP BY over ChatMessages. Rebuilt from ChatMessages by reconcileUnreadCounters().
+ */
+@Entity
+@Table(
+        name = "chat_unread_counters",
+        indexes = {
+                @Index(name = "idx_chat_unread_user", columnList = "user_id, unread_count")
+        }
+)
+@IdClass(ChatUnreadCounter.Key.class)
+public class ChatUnreadCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "contact_id")
+    private Long contactId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public Long getUserId() { return userId; }
+
+    public Long getContactId() { return contactId; }
+
+    public Long getUnreadCount() { return unreadCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long contactId;
+
+        public Key() {}
+
+        public Key(Long userId, Long contactId) {
+            this.userId = userId;
+            this.contactId = contactId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(userId, k.userId) && Objects.equals(contactId, k.contactId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, contactId);
+        }
+    }
+}
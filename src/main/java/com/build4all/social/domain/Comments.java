@@ -8,7 +8,12 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "Comments")
+@Table(
+        name = "Comments",
+        indexes = {
+                @Index(name = "idx_comments_post", columnList = "post_id")
+        }
+)
 public class Comments {
 
     @Id
@@ -8,7 +8,14 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "post_likes")
+@Table(
+        name = "post_likes",
+        indexes = {
+                // "liked by me" for a page of posts: WHERE user_id = ? AND post_id IN (...)
+                @Index(name = "idx_post_likes_user_post", columnList = "user_id, post_id"),
+                @Index(name = "idx_post_likes_post", columnList = "post_id")
+        }
+)
 public class PostLikes {
 
     @Id
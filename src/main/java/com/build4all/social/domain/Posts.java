@@ -13,7 +13,14 @@ import org.hibernate.annotations.OnDeleteAction;
  * Social post. Optionally scoped to an owner-project link (aup_id) for multi-tenant isolation.
  */
 @Entity
-@Table(name = "Posts")
+@Table(
+        name = "Posts",
+        indexes = {
+                // tenant feed: WHERE owner_project_link_id = ? AND post_id < ? ORDER BY post_id DESC
+                @Index(name = "idx_posts_owner_project_id", columnList = "owner_project_link_id, post_id"),
+                @Index(name = "idx_posts_user_id", columnList = "user_id, post_id")
+        }
+)
 public class Posts {
 
     @Id
@@ -54,7 +61,21 @@ public class Posts {
     @JsonIgnore
     private AdminUserProject ownerProject;
 
-    /** Users who liked the post */
+    /**
+     * Denormalized counters, kept in step with post_likes / Comments by atomic
+     * UPDATE ... SET like_count = like_count + :delta (PostLikesService / CommentsService).
+     * NULL = not computed yet (rows older than the column); PostCountersService backfills them.
+     */
+    @Column(name = "like_count")
+    private Integer likeCount;
+
+    @Column(name = "comment_count")
+    private Integer commentCount;
+
+    /**
+     * Users who liked the post. Never read it to count or to check "liked by me":
+     * use likeCount and PostLikesRepository.findLikedPostIds instead.
+     */
     @ManyToMany
     @JoinTable(
         name = "post_likes",
@@ -80,6 +101,8 @@ public class Posts {
 
     @PrePersist
     protected void onCreate() {
+        if (this.likeCount == null) this.likeCount = 0;
+        if (this.commentCount == null) this.commentCount = 0;
         this.postDatetime = LocalDateTime.now();
         this.createdAt = this.updatedAt = LocalDateTime.now();
     }
@@ -126,7 +149,7 @@ public class Posts {
     public List<Comments> getComments() { return comments; }
     public void setComments(List<Comments> comments) { this.comments = comments; }
 
-    // Convenience counters
-    public int getLikeCount() { return likedUsers != null ? likedUsers.size() : 0; }
-    public int getCommentCount() { return comments != null ? comments.size() : 0; }
+    // Denormalized counters (0 until backfilled)
+    public int getLikeCount() { return likeCount != null ? likeCount : 0; }
+    public int getCommentCount() { return commentCount != null ? commentCount : 0; }
 }
@@ -0,0 +1,40 @@
+package com.build4all.social.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset (seek) position in a chat history sorted by (sentAt, id).
+ *
+ * Sent to clients as an opaque url-safe token; a page starts strictly before / after it.
+ */
+public record ChatCursor(LocalDateTime sentAt, Long id) {
+
+    /** After the newest message: "before LATEST" = the latest page. */
+    public static final ChatCursor LATEST = new ChatCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    /** Before the oldest message. */
+    public static final ChatCursor EARLIEST = new ChatCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    public String encode() {
+        String raw = sentAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** null/blank => fallback. */
+    public static ChatCursor decode(String token, ChatCursor fallback) {
+        if (token == null || token.isBlank()) return fallback;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new ChatCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.valueOf(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
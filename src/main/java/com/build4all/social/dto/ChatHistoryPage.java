@@ -0,0 +1,13 @@
+package com.build4all.social.dto;
+
+import com.build4all.social.domain.ChatMessages;
+
+import java.util.List;
+
+/**
+ * One page of chat history, always oldest -> newest.
+ *
+ * hasMore / nextCursor continue in the direction that was asked for (older for ?before=, newer for ?after=);
+ * latestCursor is the newest message of the page (use it as ?after= to poll for new messages).
+ */
+public record ChatHistoryPage(List<ChatMessages> messages, boolean hasMore, String nextCursor, String latestCursor) {}
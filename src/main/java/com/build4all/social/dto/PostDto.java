@@ -21,18 +21,20 @@ public class PostDto {
     public String profilePictureUrl;
     public String visibility; // e.g., "PUBLIC" or "FRIENDS_ONLY"
 
-    public PostDto(Posts post, Long currentUserId) {
+    /**
+     * @param isLiked whether the viewer liked this post, resolved for the whole page at once
+     *                (PostLikesRepository.findLikedPostIds); never derived from post.getLikedUsers().
+     */
+    public PostDto(Posts post, boolean isLiked) {
         this.id = post.getId();
         this.content = post.getContent();
         this.hashtags = post.getHashtags();
         this.imageUrl = post.getImageUrl();
         this.postDatetime = post.getPostDatetime() != null ? post.getPostDatetime().toString() : null;
 
-        this.likeCount = post.getLikedUsers() != null ? post.getLikedUsers().size() : 0;
-        this.commentCount = post.getComments() != null ? post.getComments().size() : 0;
-
-        this.isLiked = post.getLikedUsers() != null &&
-                post.getLikedUsers().stream().anyMatch(u -> u.getId().equals(currentUserId));
+        this.likeCount = post.getLikeCount();
+        this.commentCount = post.getCommentCount();
+        this.isLiked = isLiked;
 
         this.visibility = (post.getVisibility() != null && post.getVisibility().getName() != null)
                 ? post.getVisibility().getName()
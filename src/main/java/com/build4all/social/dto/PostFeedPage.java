@@ -0,0 +1,9 @@
+package com.build4all.social.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of posts (newest first).
+ * nextCursor is the last post id of the page, to pass back as ?cursor= (null on the last page).
+ */
+public record PostFeedPage(List<PostDto> items, boolean hasMore, String nextCursor) {}
@@ -3,20 +3,16 @@ package com.build4all.social.repository;
 import com.build4all.social.domain.ChatMessages;
 import com.build4all.user.domain.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ChatMessagesRepository extends JpaRepository<ChatMessages, Long> {
 
-    // ✅ Get all messages in the conversation between two users
-    @Query("SELECT m FROM ChatMessages m WHERE " +
-           "(m.sender.id = :id1 AND m.receiver.id = :id2) OR " +
-           "(m.sender.id = :id2 AND m.receiver.id = :id1) " +
-           "ORDER BY m.sentAt ASC")
-    List<ChatMessages> findConversationBetween(@Param("id1") Long id1, @Param("id2") Long id2);
-
     // ✅ Get all messages where user is sender or receiver
     List<ChatMessages> findBySenderOrReceiver(Users sender, Users receiver);
 
@@ -57,13 +53,95 @@ public interface ChatMessagesRepository extends JpaRepository<ChatMessages, Long
     	List<Object[]> countUnreadMessagesGroupedByContact(@Param("userId") Long userId);
 
 
-    // ✅ Find all unread messages sent from a specific sender to a receiver
+    // ✅ Mark a whole conversation as read in one statement; returns how many messages flipped
+    @Modifying
     @Query("""
-        SELECT m FROM ChatMessages m
+        UPDATE ChatMessages m SET m.isRead = true
         WHERE m.receiver.id = :receiverId AND m.sender.id = :senderId AND m.isRead = false
     """)
-    List<ChatMessages> findUnreadMessages(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
-    
+    int markConversationRead(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    /* ================ Keyset pages on (sent_at, message_id) ================ */
+    // Each direction of a conversation is its own index range (idx_chat_pair), so the two halves are
+    // read separately and merged: a page costs O(limit) whatever the length of the conversation.
+    // They return message ids in page order; rows are then loaded with findAllWithUsersByIdIn.
+
+    // ✅ Conversation page strictly older than the cursor (newest first)
+    @Query(value = """
+        SELECT m.message_id FROM (
+            (SELECT * FROM chat_messages
+              WHERE sender_id = :id1 AND receiver_id = :id2
+                AND (sent_at, message_id) < (:sentAt, :id)
+              ORDER BY sent_at DESC, message_id DESC
+              LIMIT :limit)
+            UNION ALL
+            (SELECT * FROM chat_messages
+              WHERE sender_id = :id2 AND receiver_id = :id1
+                AND (sent_at, message_id) < (:sentAt, :id)
+              ORDER BY sent_at DESC, message_id DESC
+              LIMIT :limit)
+        ) m
+        ORDER BY m.sent_at DESC, m.message_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findConversationIdsBefore(@Param("id1") Long id1,
+                                         @Param("id2") Long id2,
+                                         @Param("sentAt") LocalDateTime sentAt,
+                                         @Param("id") Long id,
+                                         @Param("limit") int limit);
+
+    // ✅ Conversation page strictly newer than the cursor (oldest first)
+    @Query(value = """
+        SELECT m.message_id FROM (
+            (SELECT * FROM chat_messages
+              WHERE sender_id = :id1 AND receiver_id = :id2
+                AND (sent_at, message_id) > (:sentAt, :id)
+              ORDER BY sent_at ASC, message_id ASC
+              LIMIT :limit)
+            UNION ALL
+            (SELECT * FROM chat_messages
+              WHERE sender_id = :id2 AND receiver_id = :id1
+                AND (sent_at, message_id) > (:sentAt, :id)
+              ORDER BY sent_at ASC, message_id ASC
+              LIMIT :limit)
+        ) m
+        ORDER BY m.sent_at ASC, m.message_id ASC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findConversationIdsAfter(@Param("id1") Long id1,
+                                        @Param("id2") Long id2,
+                                        @Param("sentAt") LocalDateTime sentAt,
+                                        @Param("id") Long id,
+                                        @Param("limit") int limit);
+
+    // ✅ Everything a user sent or received, strictly older than the cursor (newest first)
+    @Query(value = """
+        SELECT m.message_id FROM (
+            (SELECT * FROM chat_messages
+              WHERE sender_id = :userId
+                AND (sent_at, message_id) < (:sentAt, :id)
+              ORDER BY sent_at DESC, message_id DESC
+              LIMIT :limit)
+            UNION ALL
+            (SELECT * FROM chat_messages
+              WHERE receiver_id = :userId
+                AND sender_id <> :userId
+                AND (sent_at, message_id) < (:sentAt, :id)
+              ORDER BY sent_at DESC, message_id DESC
+              LIMIT :limit)
+        ) m
+        ORDER BY m.sent_at DESC, m.message_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findUserMessageIdsBefore(@Param("userId") Long userId,
+                                        @Param("sentAt") LocalDateTime sentAt,
+                                        @Param("id") Long id,
+                                        @Param("limit") int limit);
+
+    // ✅ Page rows with both users fetched (ChatMessageDto reads sender/receiver): one query, no lazy loads
+    @Query("SELECT m FROM ChatMessages m JOIN FETCH m.sender JOIN FETCH m.receiver WHERE m.id IN :ids")
+    List<ChatMessages> findAllWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT m FROM ChatMessages m JOIN FETCH m.sender WHERE m.sender = :user OR m.receiver = :user")
     List<ChatMessages> findBySenderOrReceiverWithUser(@Param("user") Users user);
 
@@ -0,0 +1,105 @@
+package com.build4all.social.repository;
+
+import com.build4all.social.domain.ChatUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChatUnreadCounterRepository extends JpaRepository<ChatUnreadCounter, ChatUnreadCounter.Key> {
+
+    /** One more unread message from contactId for userId (row created on first message). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO chat_unread_counters (user_id, contact_id, unread_count, updated_at)
+        VALUES (:userId, :contactId, 1, :now)
+        ON CONFLICT (user_id, contact_id) DO UPDATE
+           SET unread_count = chat_unread_counters.unread_count + 1,
+               updated_at = EXCLUDED.updated_at
+    """, nativeQuery = true)
+    int increment(@Param("userId") Long userId,
+                  @Param("contactId") Long contactId,
+                  @Param("now") LocalDateTime now);
+
+    /** Called with the number of rows actually flipped to read / deleted, never below 0. */
+    @Modifying
+    @Query(value = """
+        UPDATE chat_unread_counters
+           SET unread_count = GREATEST(unread_count - :by, 0),
+               updated_at = :now
+         WHERE user_id = :userId
+           AND contact_id = :contactId
+    """, nativeQuery = true)
+    int decrement(@Param("userId") Long userId,
+                  @Param("contactId") Long contactId,
+                  @Param("by") long by,
+                  @Param("now") LocalDateTime now);
+
+    /** (contactId, unreadCount) rows, same shape as the old GROUP BY. */
+    @Query("""
+        SELECT c.contactId, c.unreadCount
+        FROM ChatUnreadCounter c
+        WHERE c.userId = :userId
+          AND c.unreadCount > 0
+    """)
+    List<Object[]> findUnreadByContact(@Param("userId") Long userId);
+
+    /* ================ rebuild from chat_messages (chunked by user_id range) ================ */
+
+    /** Next :limit user ids after :afterId: the upper bound of one reconcile chunk. */
+    @Query(value = """
+        SELECT user_id FROM users
+         WHERE user_id > :afterId
+         ORDER BY user_id
+         LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> nextUserIds(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Row-locks the range's counters first: an increment / decrement racing the chunk waits for its
+     * commit and then applies on top of the recount, instead of being overwritten by a stale count.
+     */
+    @Query(value = """
+        SELECT user_id FROM chat_unread_counters
+         WHERE user_id > :afterId AND user_id <= :upTo
+         FOR UPDATE
+    """, nativeQuery = true)
+    List<Long> lockRange(@Param("afterId") long afterId, @Param("upTo") long upTo);
+
+    /** Existing counters of the range set to their unread messages (0 when none are left). */
+    @Modifying
+    @Query(value = """
+        UPDATE chat_unread_counters c
+           SET unread_count = x.cnt, updated_at = :now
+          FROM (SELECT c2.user_id, c2.contact_id,
+                       (SELECT COUNT(*) FROM chat_messages m
+                         WHERE m.sender_id = c2.contact_id
+                           AND m.receiver_id = c2.user_id
+                           AND m.is_read = false) AS cnt
+                  FROM chat_unread_counters c2
+                 WHERE c2.user_id > :afterId AND c2.user_id <= :upTo) x
+         WHERE c.user_id = x.user_id
+           AND c.contact_id = x.contact_id
+           AND c.unread_count <> x.cnt
+    """, nativeQuery = true)
+    int recountRange(@Param("afterId") long afterId, @Param("upTo") long upTo, @Param("now") LocalDateTime now);
+
+    /**
+     * Pairs of the range with unread messages but no counter yet. DO NOTHING: a counter created
+     * concurrently by increment() already counts from its own message on.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO chat_unread_counters (user_id, contact_id, unread_count, updated_at)
+        SELECT m.receiver_id, m.sender_id, COUNT(*), :now
+          FROM chat_messages m
+         WHERE m.is_read = false
+           AND m.receiver_id > :afterId AND m.receiver_id <= :upTo
+         GROUP BY m.receiver_id, m.sender_id
+        ON CONFLICT (user_id, contact_id) DO NOTHING
+    """, nativeQuery = true)
+    int insertMissingInRange(@Param("afterId") long afterId, @Param("upTo") long upTo, @Param("now") LocalDateTime now);
+}
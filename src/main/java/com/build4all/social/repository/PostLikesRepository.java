@@ -4,8 +4,13 @@ import com.build4all.social.domain.PostLikes;
 import com.build4all.user.domain.Users;
 import com.build4all.social.domain.Posts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +23,13 @@ public interface PostLikesRepository extends JpaRepository<PostLikes, Long> {
 
   boolean existsByPostIdAndUser(Long postId, Users user);
 
+  /** Which of these posts the user liked: one query per feed page. */
+  @Query("SELECT l.post.id FROM PostLikes l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+  List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+  /** Returns how many rows went away, so the counter moves by exactly that much. */
+  @Modifying
+  @Query("DELETE FROM PostLikes l WHERE l.user.id = :userId AND l.post.id = :postId")
+  int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
 }
@@ -2,17 +2,17 @@ package com.build4all.social.repository;
 
 import com.build4all.social.domain.Posts;
 import com.build4all.social.domain.PostVisibility;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface PostsRepository extends JpaRepository<Posts, Long> {
 
-    @EntityGraph(attributePaths = {"likedUsers", "user"})
-    List<Posts> findAll();
-
     List<Posts> findByUserId(Long userId);
 
     List<Posts> findByVisibility(PostVisibility visibility);
@@ -21,4 +21,102 @@ public interface PostsRepository extends JpaRepository<Posts, Long> {
 
     /** Owner-scoped feed (optional) */
     List<Posts> findByOwnerProject_IdOrderByPostDatetimeDesc(Long aupId);
+
+    /* ================ Keyset pages (newest first, post_id < :beforeId) ================ */
+
+    /**
+     * Viewer's feed inside one app: posts of ACTIVE users that are PUBLIC, the viewer's own,
+     * or FRIENDS_ONLY from an accepted friend. Visibility is decided in SQL, so a page costs one query.
+     */
+    @Query("""
+        SELECT p FROM Posts p
+        JOIN FETCH p.user u
+        JOIN FETCH p.visibility v
+        WHERE p.ownerProject.id = :aupId
+          AND p.id < :beforeId
+          AND u.status.name = 'ACTIVE'
+          AND (
+                u.id = :viewerId
+             OR UPPER(v.name) = 'PUBLIC'
+             OR (UPPER(v.name) = 'FRIENDS_ONLY' AND EXISTS (
+                    SELECT 1 FROM Friendship f
+                    WHERE f.status = 'ACCEPTED'
+                      AND ((f.user.id = :viewerId AND f.friend.id = u.id)
+                        OR (f.user.id = u.id AND f.friend.id = :viewerId))
+                ))
+          )
+        ORDER BY p.id DESC
+    """)
+    List<Posts> findFeedPage(@Param("aupId") Long aupId,
+                             @Param("viewerId") Long viewerId,
+                             @Param("beforeId") Long beforeId,
+                             Limit limit);
+
+    /** Every post of one app (owner view). */
+    @Query("""
+        SELECT p FROM Posts p
+        JOIN FETCH p.user u
+        JOIN FETCH p.visibility v
+        WHERE p.ownerProject.id = :aupId
+          AND p.id < :beforeId
+        ORDER BY p.id DESC
+    """)
+    List<Posts> findOwnerPage(@Param("aupId") Long aupId,
+                              @Param("beforeId") Long beforeId,
+                              Limit limit);
+
+    /** One user's posts inside one app. */
+    @Query("""
+        SELECT p FROM Posts p
+        JOIN FETCH p.user u
+        JOIN FETCH p.visibility v
+        WHERE u.id = :userId
+          AND p.ownerProject.id = :aupId
+          AND p.id < :beforeId
+        ORDER BY p.id DESC
+    """)
+    List<Posts> findUserPage(@Param("userId") Long userId,
+                             @Param("aupId") Long aupId,
+                             @Param("beforeId") Long beforeId,
+                             Limit limit);
+
+    /* ================ Counters (atomic, no read-modify-write) ================ */
+
+    /** NULL + delta stays NULL: rows not backfilled yet are left to PostCountersService. */
+    @Modifying
+    @Query("UPDATE Posts p SET p.likeCount = p.likeCount + :delta WHERE p.id = :postId")
+    int addLikes(@Param("postId") Long postId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Posts p SET p.commentCount = p.commentCount + :delta WHERE p.id = :postId")
+    int addComments(@Param("postId") Long postId, @Param("delta") int delta);
+
+    /** Recomputes both counters for at most :limit posts that have none yet. */
+    @Modifying
+    @Query(value = """
+        UPDATE posts p
+           SET like_count    = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.post_id),
+               comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.post_id)
+         WHERE p.post_id IN (
+               SELECT post_id FROM posts
+                WHERE like_count IS NULL OR comment_count IS NULL
+                LIMIT :limit
+         )
+    """, nativeQuery = true)
+    int recountMissing(@Param("limit") int limit);
+
+    /** Recomputes both counters for the next :limit posts after :afterId; returns their ids. */
+    @Query(value = """
+        UPDATE posts p
+           SET like_count    = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.post_id),
+               comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.post_id)
+         WHERE p.post_id IN (
+               SELECT post_id FROM posts
+                WHERE post_id > :afterId
+                ORDER BY post_id
+                LIMIT :limit
+         )
+        RETURNING p.post_id
+    """, nativeQuery = true)
+    List<Long> recountAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 }
@@ -1,11 +1,18 @@
 package com.build4all.social.service;
 
+import com.build4all.common.jobs.RetentionJobRunner;
 import com.build4all.notifications.service.NotificationsService;
 import com.build4all.webSocket.service.WebSocketService;
 import com.build4all.social.domain.ChatMessages;
+import com.build4all.social.dto.ChatCursor;
+import com.build4all.social.dto.ChatHistoryPage;
 import com.build4all.user.domain.Users;
 import com.build4all.social.repository.ChatMessagesRepository;
+import com.build4all.social.repository.ChatUnreadCounterRepository;
 import com.build4all.social.repository.FriendshipRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,7 +20,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -23,15 +34,26 @@ public class ChatMessagesService {
     private final NotificationsService notificationsService;
     private final FriendshipRepository friendshipRepo;
     private final WebSocketService webSocketService;
+    private final ChatUnreadCounterRepository unreadRepo;
+    private final RetentionJobRunner jobRunner;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int UNPAGED = Integer.MAX_VALUE - 1; // size + 1 must not overflow
+    private static final int IN_CHUNK = 1_000;
 
     public ChatMessagesService(ChatMessagesRepository chatRepo,
                                NotificationsService notificationsService,
                                FriendshipRepository friendshipRepo,
-                               WebSocketService webSocketService) {
+                               WebSocketService webSocketService,
+                               ChatUnreadCounterRepository unreadRepo,
+                               RetentionJobRunner jobRunner) {
         this.chatRepo = chatRepo;
         this.notificationsService = notificationsService;
         this.friendshipRepo = friendshipRepo;
         this.webSocketService = webSocketService;
+        this.unreadRepo = unreadRepo;
+        this.jobRunner = jobRunner;
     }
 
     @Transactional
@@ -46,6 +68,7 @@ public class ChatMessagesService {
         ChatMessages chat = new ChatMessages(sender, receiver, message);
         chat.setSentAt(LocalDateTime.now());
         ChatMessages saved = chatRepo.save(chat);
+        unreadRepo.increment(receiver.getId(), sender.getId(), LocalDateTime.now());
 
         if (!sender.getId().equals(receiver.getId())) {
             notificationsService.createNotification(
@@ -75,6 +98,7 @@ public class ChatMessagesService {
         chat.setImageUrl(imageUrl);
         chat.setSentAt(LocalDateTime.now());
         ChatMessages saved = chatRepo.save(chat);
+        unreadRepo.increment(receiver.getId(), sender.getId(), LocalDateTime.now());
 
         if (!sender.getId().equals(receiver.getId())) {
             notificationsService.createNotification(
@@ -111,34 +135,61 @@ public class ChatMessagesService {
         return chatRepo.countMessagesGroupedByContact(user.getId());
     }
 
+    /** (contactId, unreadCount) read from chat_unread_counters (one index range, no GROUP BY). */
     @Transactional
     public List<Object[]> countUnreadMessagesGroupedByContact(Long userId) {
-        return chatRepo.countUnreadMessagesGroupedByContact(userId);
+        return unreadRepo.findUnreadByContact(userId);
     }
 
+    /** One UPDATE for the whole conversation; the counter drops by exactly the rows flipped. */
     @Transactional
     public void markMessagesAsRead(Users receiver, Users sender) {
-        var unread = chatRepo.findUnreadMessages(receiver.getId(), sender.getId());
-        unread.forEach(m -> m.setIsRead(true));
-        chatRepo.saveAll(unread);
+        int flipped = chatRepo.markConversationRead(receiver.getId(), sender.getId());
+        if (flipped > 0) {
+            unreadRepo.decrement(receiver.getId(), sender.getId(), flipped, LocalDateTime.now());
+        }
     }
 
+    /**
+     * One page of the conversation, oldest -> newest in the result.
+     * - neither cursor: the latest page
+     * - before: older messages (scrolling up)
+     * - after: newer messages (catching up / polling)
+     * - no cursor and no limit: the whole conversation (unpaged, as before keyset paging)
+     */
     @Transactional
-    public List<ChatMessages> getConversation(Users user1, Users user2) {
+    public ChatHistoryPage getConversation(Users user1, Users user2, String before, String after, Integer limit) {
         if (!friendshipRepo.areFriends(user1.getId(), user2.getId())) {
             throw new RuntimeException("You are not friends. Cannot view this conversation.");
         }
-        var messages = chatRepo.findConversationBetween(user1.getId(), user2.getId());
-        messages.forEach(msg -> {
-            msg.getSender().getUsername();
-            msg.getReceiver().getUsername();
-        });
-        return messages;
+        int size = pageSize(isPaged(before, after, limit), limit);
+
+        if (after != null && !after.isBlank()) {
+            ChatCursor from = ChatCursor.decode(after, ChatCursor.EARLIEST);
+            List<ChatMessages> rows = withUsers(chatRepo.findConversationIdsAfter(
+                    user1.getId(), user2.getId(), from.sentAt(), from.id(), size + 1));
+            return toPage(rows, size, false);
+        }
+
+        ChatCursor from = ChatCursor.decode(before, ChatCursor.LATEST);
+        List<ChatMessages> rows = withUsers(chatRepo.findConversationIdsBefore(
+                user1.getId(), user2.getId(), from.sentAt(), from.id(), size + 1));
+        return toPage(rows, size, true);
     }
 
+    /** Everything the user sent or received, newest first, keyset-paged (?before=) or whole (neither ?before= nor ?limit=). */
     @Transactional
-    public List<ChatMessages> getMessagesByUser(Users user) {
-        return chatRepo.findBySenderOrReceiverOrderByMessageDatetimeDesc(user, user);
+    public ChatHistoryPage getMessagesByUser(Users user, String before, Integer limit) {
+        int size = pageSize(isPaged(before, null, limit), limit);
+        ChatCursor from = ChatCursor.decode(before, ChatCursor.LATEST);
+
+        List<ChatMessages> rows = withUsers(chatRepo.findUserMessageIdsBefore(user.getId(), from.sentAt(), from.id(), size + 1));
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+
+        String next = hasMore ? cursorOf(rows.get(rows.size() - 1)) : null;
+        String latest = rows.isEmpty() ? null : cursorOf(rows.get(0));
+        return new ChatHistoryPage(rows, hasMore, next, latest);
     }
 
     @Transactional
@@ -146,6 +197,10 @@ public class ChatMessagesService {
         var message = chatRepo.findById(messageId).orElse(null);
         if (message == null || !message.getSender().getId().equals(user.getId())) return false;
         chatRepo.delete(message);
+
+        if (!Boolean.TRUE.equals(message.getIsRead())) {
+            unreadRepo.decrement(message.getReceiver().getId(), user.getId(), 1, LocalDateTime.now());
+        }
         return true;
     }
 
@@ -156,10 +211,97 @@ public class ChatMessagesService {
         if (!message.getReceiver().getId().equals(currentUser.getId())) {
             throw new RuntimeException("Unauthorized to mark this message as read");
         }
+        if (Boolean.TRUE.equals(message.getIsRead())) return;
+
         message.setIsRead(true);
         chatRepo.save(message);
+        unreadRepo.decrement(currentUser.getId(), message.getSender().getId(), 1, LocalDateTime.now());
+    }
+
+    /* ================ unread counters: rebuild ================ */
+
+    /** First start with the table: build every counter from chat_messages. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUnreadCounters() {
+        try {
+            if (unreadRepo.count() == 0) reconcileUnreadCounters();
+        } catch (Exception e) {
+            System.out.println("⚠️ Chat unread counters backfill failed => " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every counter from the unread messages (absorbs drift from rows removed by
+     * ON DELETE CASCADE when a user is purged).
+     *
+     * Runs through RetentionJobRunner (one replica) in chunks of receivers (user_id ranges), one
+     * transaction each: a chunk locks its counters, recounts them and adds missing pairs, so
+     * concurrent sends / reads only wait for that short chunk and are never overwritten.
+     */
+    @Scheduled(cron = "0 45 4 * * SUN")
+    public void reconcileUnreadCounters() {
+        long[] lastUserId = {0L};
+
+        jobRunner.run("chat.reconcileUnreadCounters", limit -> {
+            List<Long> userIds = unreadRepo.nextUserIds(lastUserId[0], limit);
+            if (userIds.isEmpty()) return 0;
+
+            long after = lastUserId[0];
+            long upTo = userIds.get(userIds.size() - 1);
+            LocalDateTime now = LocalDateTime.now();
+
+            unreadRepo.lockRange(after, upTo);
+            unreadRepo.recountRange(after, upTo, now);
+            unreadRepo.insertMissingInRange(after, upTo, now);
+
+            lastUserId[0] = upTo;
+            return userIds.size();
+        });
+    }
+
+    /* ================ paging helpers ================ */
+
+    /** Loads the page's messages with sender + receiver fetched, in the order of ids (IN lists bounded). */
+    private List<ChatMessages> withUsers(List<Long> ids) {
+        Map<Long, ChatMessages> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            for (ChatMessages m : chatRepo.findAllWithUsersByIdIn(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK)))) {
+                byId.put(m.getId(), m);
+            }
+        }
+
+        List<ChatMessages> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ChatMessages m = byId.get(id);
+            if (m != null) rows.add(m);
+        }
+        return rows;
+    }
+
+    /** rows come in query order (newest first for "before", oldest first for "after"); result is oldest first. */
+    private static ChatHistoryPage toPage(List<ChatMessages> rows, int size, boolean newestFirst) {
+        boolean hasMore = rows.size() > size;
+        List<ChatMessages> page = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (newestFirst) Collections.reverse(page);
+
+        String next = null;
+        if (hasMore) next = cursorOf(newestFirst ? page.get(0) : page.get(page.size() - 1));
+        String latest = page.isEmpty() ? null : cursorOf(page.get(page.size() - 1));
+
+        return new ChatHistoryPage(page, hasMore, next, latest);
+    }
+
+    private static String cursorOf(ChatMessages m) {
+        return new ChatCursor(m.getSentAt(), m.getId()).encode();
+    }
+
+    /** Paging is opt-in: without a cursor or a limit the whole list is returned. */
+    public static boolean isPaged(String before, String after, Integer limit) {
+        return before != null || after != null || limit != null;
+    }
+
+    private static int pageSize(boolean paged, Integer limit) {
+        if (!paged) return UNPAGED;
+        return (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
     }
-    
-   
-    
 }
@@ -8,6 +8,7 @@ import com.build4all.user.domain.Users;
 import com.build4all.social.repository.CommentsRepository;
 import com.build4all.social.repository.PostsRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -31,11 +32,14 @@ public class CommentsService {
         this.ws = ws;
     }
 
+    /** Posts.commentCount moves in the same transaction as the insert/delete (atomic UPDATE). */
+    @Transactional
     public Comments addComment(Long postId, String content, Users user) {
         Posts post = postsRepo.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
         Comments savedComment = commentsRepo.save(new Comments(post, user, content));
+        postsRepo.addComments(postId, 1);
 
         if (!user.getId().equals(post.getUser().getId())) {
             notificationsService.createNotification(
@@ -70,6 +74,7 @@ public class CommentsService {
         return commentsRepo.findByPost(post);
     }
 
+    @Transactional
     public void deleteComment(Long commentId, Users user) {
         Comments comment = commentsRepo.findById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -79,6 +84,7 @@ public class CommentsService {
         }
 
         commentsRepo.delete(comment);
+        postsRepo.addComments(comment.getPost().getId(), -1);
         ws.sendCommentDeleted(comment.getPost().getId(), comment.getId());
     }
 }
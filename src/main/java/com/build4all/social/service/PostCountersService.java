@@ -0,0 +1,53 @@
+package com.build4all.social.service;
+
+import com.build4all.common.jobs.RetentionJobRunner;
+import com.build4all.social.repository.PostsRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Keeps Posts.likeCount / commentCount honest outside the normal write path.
+ *
+ * - backfill: posts created before the columns existed (NULL counters), at startup
+ * - weekly reconcile: rows that vanish without going through PostLikesService / CommentsService
+ *   (ON DELETE CASCADE when a user is purged) make the counters drift; this recomputes them
+ *
+ * Both run in chunks through RetentionJobRunner (one replica, one transaction per chunk).
+ */
+@Service
+public class PostCountersService {
+
+    private final PostsRepository postsRepository;
+    private final RetentionJobRunner jobRunner;
+
+    public PostCountersService(PostsRepository postsRepository, RetentionJobRunner jobRunner) {
+        this.postsRepository = postsRepository;
+        this.jobRunner = jobRunner;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        try {
+            jobRunner.run("posts.backfillCounters", postsRepository::recountMissing);
+        } catch (Exception e) {
+            System.out.println("⚠️ Post counters backfill failed => " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 30 4 * * SUN")
+    public void reconcileAll() {
+        long[] lastId = {0L};
+
+        jobRunner.run("posts.reconcileCounters", limit -> {
+            List<Long> ids = postsRepository.recountAfter(lastId[0], limit);
+            if (ids.isEmpty()) return 0;
+
+            lastId[0] = ids.stream().mapToLong(Long::longValue).max().orElse(lastId[0]);
+            return ids.size();
+        });
+    }
+}
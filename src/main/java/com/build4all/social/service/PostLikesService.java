@@ -8,6 +8,7 @@ import com.build4all.user.domain.Users;
 import com.build4all.social.repository.PostLikesRepository;
 import com.build4all.social.repository.PostsRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PostLikesService {
@@ -27,19 +28,27 @@ public class PostLikesService {
         this.ws = ws;
     }
 
+    /**
+     * Like / unlike. Posts.likeCount moves in the same transaction by exactly the number of
+     * post_likes rows inserted or deleted (atomic UPDATE, no read-modify-write).
+     */
+    @Transactional
     public String toggleLike(Long postId, Users user) {
         Posts post = postsRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post non trouvé"));
 
         return likesRepository.findByUserAndPost(user, post)
                 .map(like -> {
-                    likesRepository.delete(like);
+                    int removed = likesRepository.deleteByUserIdAndPostId(user.getId(), postId);
+                    if (removed > 0) postsRepository.addLikes(postId, -removed);
+
                     // broadcast unliked
                     ws.sendLikeChanged(postId, false, user.getId());
                     return "disliked";
                 })
                 .orElseGet(() -> {
                     likesRepository.save(new PostLikes(user, post));
+                    postsRepository.addLikes(postId, 1);
 
                     if (!user.getId().equals(post.getUser().getId())) {
                         notificationsService.createNotification(
@@ -2,13 +2,16 @@ package com.build4all.social.service;
 
 import com.build4all.webSocket.service.WebSocketEventService;
 import com.build4all.social.dto.PostDto;
+import com.build4all.social.dto.PostFeedPage;
 import com.build4all.social.domain.PostVisibility;
 import com.build4all.social.domain.Posts;
 import com.build4all.user.domain.Users;
+import com.build4all.social.repository.PostLikesRepository;
 import com.build4all.social.repository.PostVisibilityRepository;
 import com.build4all.social.repository.PostsRepository;
 import com.build4all.admin.repository.AdminUserProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -24,21 +27,26 @@ public class PostService {
 
     private final PostsRepository postsRepository;
     private final PostVisibilityRepository postVisibilityRepository;
-    private final FriendshipService friendshipService;
     private final WebSocketEventService ws;
     private final AdminUserProjectRepository aupRepo;
+    private final PostLikesRepository postLikesRepository;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int UNPAGED = Integer.MAX_VALUE;
+    private static final int IN_CHUNK = 1_000;
 
     @Autowired
     public PostService(PostsRepository postsRepository,
                        PostVisibilityRepository postVisibilityRepository,
-                       FriendshipService friendshipService,
                        WebSocketEventService ws,
-                       AdminUserProjectRepository aupRepo) {
+                       AdminUserProjectRepository aupRepo,
+                       PostLikesRepository postLikesRepository) {
         this.postsRepository = postsRepository;
         this.postVisibilityRepository = postVisibilityRepository;
-        this.friendshipService = friendshipService;
         this.ws = ws;
         this.aupRepo = aupRepo;
+        this.postLikesRepository = postLikesRepository;
     }
 
     /**
@@ -112,44 +120,21 @@ public class PostService {
         ws.sendPostUpdated(postId, Collections.singletonMap("deleted", true));
     }
 
-    @Transactional
-    public List<PostDto> getAllPostDtos(Long currentUserId) {
-        List<Posts> posts = postsRepository.findAll();
-        return posts.stream()
-                .filter(post -> {
-                    try {
-                        Users poster = post.getUser();
-                        if (poster.getStatus() == null || !"ACTIVE".equals(poster.getStatus().getName()))
-                            return false;
-
-                        if (Objects.equals(poster.getId(), currentUserId))
-                            return true;
-
-                        String visibilityName = post.getVisibility() != null ? post.getVisibility().getName() : "PUBLIC";
-                        if ("PUBLIC".equalsIgnoreCase(visibilityName)) return true;
-
-                        if ("FRIENDS_ONLY".equalsIgnoreCase(visibilityName) &&
-                                friendshipService.areFriends(
-                                        new Users() {{ setId(currentUserId); }},
-                                        new Users() {{ setId(poster.getId()); }}
-                                )) {
-                            return true;
-                        }
-                        return false;
-                    } catch (Exception e) {
-                        return false;
-                    }
-                })
-                .map(post -> new PostDto(post, currentUserId))
-                .collect(Collectors.toList());
+    /**
+     * Viewer's feed inside one app (PUBLIC + own + friends' FRIENDS_ONLY posts of ACTIVE users).
+     * Visibility is filtered in SQL and "liked by me" is one query for the page: cost is O(page size).
+     */
+    @Transactional(readOnly = true)
+    public PostFeedPage getFeedPage(Long aupId, Long viewerId, String cursor, Integer limit) {
+        int size = pageSize(cursor, limit);
+        return toPage(postsRepository.findFeedPage(aupId, viewerId, beforeId(cursor), fetchLimit(size)), size, viewerId);
     }
 
-    @Transactional
-    public List<PostDto> getPostDtosByUser(Long userId) {
-        return postsRepository.findByUserId(userId)
-                .stream()
-                .map(post -> new PostDto(post, userId))
-                .collect(Collectors.toList());
+    /** One user's posts inside one app; isLiked is relative to the viewer. */
+    @Transactional(readOnly = true)
+    public PostFeedPage getUserPostsPage(Long userId, Long aupId, Long viewerId, String cursor, Integer limit) {
+        int size = pageSize(cursor, limit);
+        return toPage(postsRepository.findUserPage(userId, aupId, beforeId(cursor), fetchLimit(size)), size, viewerId);
     }
 
     public Posts updatePost(Long postId,
@@ -194,12 +179,58 @@ public class PostService {
         return saved;
     }
 
-    /** Owner-scoped feed (optional). */
+    /** Owner-scoped feed: every post of the app, no visibility filter. */
     @Transactional(readOnly = true)
-    public List<PostDto> getOwnerFeed(Long aupId, Long currentUserId) {
-        return postsRepository.findByOwnerProject_IdOrderByPostDatetimeDesc(aupId)
-                .stream()
-                .map(p -> new PostDto(p, currentUserId))
+    public PostFeedPage getOwnerFeedPage(Long aupId, Long currentUserId, String cursor, Integer limit) {
+        int size = pageSize(cursor, limit);
+        return toPage(postsRepository.findOwnerPage(aupId, beforeId(cursor), fetchLimit(size)), size, currentUserId);
+    }
+
+    /* ================ paging helpers ================ */
+
+    private PostFeedPage toPage(List<Posts> rows, int size, Long viewerId) {
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+
+        Set<Long> liked = new HashSet<>();
+        if (viewerId != null && !rows.isEmpty()) {
+            List<Long> ids = rows.stream().map(Posts::getId).toList();
+            // bounded IN lists: an unpaged feed can hold more posts than Postgres accepts bind parameters
+            for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                liked.addAll(postLikesRepository.findLikedPostIds(viewerId, ids.subList(from, Math.min(ids.size(), from + IN_CHUNK))));
+            }
+        }
+
+        List<PostDto> items = rows.stream()
+                .map(p -> new PostDto(p, liked.contains(p.getId())))
                 .collect(Collectors.toList());
+
+        String nextCursor = hasMore ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+        return new PostFeedPage(items, hasMore, nextCursor);
+    }
+
+    /** Paging is opt-in: no ?cursor= and no ?limit= => the whole list, as before keyset paging. */
+    public static boolean isPaged(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
+
+    private static int pageSize(String cursor, Integer limit) {
+        if (!isPaged(cursor, limit)) return UNPAGED;
+        return (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /** Page size + 1 to know if there is a next page. */
+    private static Limit fetchLimit(int size) {
+        return size == UNPAGED ? Limit.unlimited() : Limit.of(size + 1);
+    }
+
+    /** Cursor = id of the last post already shown; absent => start from the newest. */
+    private static Long beforeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Long.MAX_VALUE;
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 }
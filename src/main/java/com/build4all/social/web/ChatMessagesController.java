@@ -1,5 +1,6 @@
 package com.build4all.social.web;
 
+import com.build4all.social.dto.ChatHistoryPage;
 import com.build4all.social.dto.ChatMessageDto;
 import com.build4all.social.dto.ContactMessageCountDto;
 import com.build4all.social.domain.ChatMessages;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -64,11 +66,20 @@ public class ChatMessagesController {
         return new ChatMessageDto(chat, sender.getId());
     }
 
+    /**
+     * The conversation (oldest -> newest). Paging is opt-in: no ?before= / ?after= / ?limit= = the whole
+     * conversation, as before. ?limit= alone = latest page; ?before= older; ?after= newer.
+     * Body stays a plain list. When paging, headers: X-Has-More, X-Next-Cursor (same direction),
+     * X-Latest-Cursor (newest message of the page, for ?after= polling); exposed over CORS.
+     */
     @GetMapping("/conversation/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public List<ChatMessageDto> getConversation(@PathVariable Long userId,
-                                                @RequestParam Long ownerProjectLinkId,
-                                                Principal principal) {
+    public ResponseEntity<List<ChatMessageDto>> getConversation(@PathVariable Long userId,
+                                                                @RequestParam Long ownerProjectLinkId,
+                                                                @RequestParam(required = false) String before,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                Principal principal) {
         Users currentUser = usersService.getUserByEmaill(principal.getName(), ownerProjectLinkId);
         Users otherUser   = usersService.getUserById(userId, ownerProjectLinkId);
 
@@ -76,23 +87,25 @@ public class ChatMessagesController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
 
-        chatService.markMessagesAsRead(currentUser, otherUser);
+        // opening / catching up on the conversation reads it; scrolling back through history does not
+        if (before == null || before.isBlank()) {
+            chatService.markMessagesAsRead(currentUser, otherUser);
+        }
 
-        List<ChatMessages> messages = chatService.getConversation(currentUser, otherUser);
-        return messages.stream()
-                .map(msg -> new ChatMessageDto(msg, currentUser.getId()))
-                .collect(Collectors.toList());
+        ChatHistoryPage page = chatService.getConversation(currentUser, otherUser, before, after, limit);
+        return pageResponse(page, currentUser.getId(), ChatMessagesService.isPaged(before, after, limit));
     }
 
+    /** Everything I sent or received, newest first; opt-in keyset paging with ?before= / ?limit= (same headers as above). */
     @GetMapping("/my")
     @PreAuthorize("hasRole('USER')")
-    public List<ChatMessageDto> getMyMessages(@RequestParam Long ownerProjectLinkId,
-                                              Principal principal) {
+    public ResponseEntity<List<ChatMessageDto>> getMyMessages(@RequestParam Long ownerProjectLinkId,
+                                                              @RequestParam(required = false) String before,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              Principal principal) {
         Users user = usersService.getUserByEmaill(principal.getName(), ownerProjectLinkId);
-        List<ChatMessages> messages = chatService.getMessagesByUser(user);
-        return messages.stream()
-                .map(msg -> new ChatMessageDto(msg, user.getId()))
-                .collect(Collectors.toList());
+        return pageResponse(chatService.getMessagesByUser(user, before, limit), user.getId(),
+                ChatMessagesService.isPaged(before, null, limit));
     }
 
     @GetMapping("/count/my")
@@ -147,4 +160,16 @@ public class ChatMessagesController {
         Users user = usersService.getUserByEmaill(principal.getName(), ownerProjectLinkId);
         chatService.markSingleMessageAsRead(user, messageId);
     }
+
+    private static ResponseEntity<List<ChatMessageDto>> pageResponse(ChatHistoryPage page, Long currentUserId, boolean paged) {
+        List<ChatMessageDto> body = page.messages().stream()
+                .map(msg -> new ChatMessageDto(msg, currentUserId))
+                .collect(Collectors.toList());
+        if (!paged) return ResponseEntity.ok(body);
+
+        var response = ResponseEntity.ok().header("X-Has-More", String.valueOf(page.hasMore()));
+        if (page.nextCursor() != null) response.header("X-Next-Cursor", page.nextCursor());
+        if (page.latestCursor() != null) response.header("X-Latest-Cursor", page.latestCursor());
+        return response.body(body);
+    }
 }
@@ -1,6 +1,7 @@
 package com.build4all.social.web;
 
 import com.build4all.social.dto.PostDto;
+import com.build4all.social.dto.PostFeedPage;
 import com.build4all.social.domain.Posts;
 import com.build4all.user.domain.Users;
 import com.build4all.social.domain.PostVisibility;
@@ -64,9 +65,14 @@ public class PostsController {
         }
 
         Posts created = postsService.createPost(content, image, hashtags, user, postVisibility, /*owner scope*/ ownerProjectLinkId);
-        return ResponseEntity.ok(new PostDto(created, user.getId()));
+        return ResponseEntity.ok(new PostDto(created, false));
     }
 
+    /**
+     * Viewer's feed inside the app, newest first, keyset-paged.
+     * Paging is opt-in (?limit= and/or ?cursor=); without them the whole feed is returned, as before.
+     * Body stays a plain list; paging goes through X-Has-More / X-Next-Cursor (pass back as ?cursor=).
+     */
     @ApiResponses({
         @ApiResponse(responseCode = "200"),
         @ApiResponse(responseCode = "401")
@@ -74,6 +80,8 @@ public class PostsController {
     @GetMapping
     public ResponseEntity<List<PostDto>> getAllPosts(Principal principal,
                                                      @RequestParam Long ownerProjectLinkId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit,
                                                      @RequestHeader("Authorization") String authHeader) {
         ResponseEntity<String> tokenCheck = validateUserToken(authHeader);
         if (tokenCheck != null) return ResponseEntity.status(tokenCheck.getStatusCode()).build();
@@ -81,20 +89,21 @@ public class PostsController {
         if (principal == null) return ResponseEntity.status(401).build();
 
         Users user = usersService.getUserByEmaill(principal.getName(), ownerProjectLinkId);
-        List<PostDto> postDtos = postsService.getAllPostDtos(user.getId());
-        return ResponseEntity.ok(postDtos);
+        return pageResponse(postsService.getFeedPage(ownerProjectLinkId, user.getId(), cursor, limit), PostService.isPaged(cursor, limit));
     }
 
-    /** Optional owner-scoped feed (pass ownerProjectLinkId). */
+    /** Owner-scoped feed (every post of the app), optionally keyset-paged like GET /api/posts. */
     @GetMapping("/by-owner")
     public ResponseEntity<?> getOwnerFeed(@RequestParam Long ownerProjectLinkId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
                                           Principal principal,
                                           @RequestHeader("Authorization") String authHeader) {
         ResponseEntity<String> tokenCheck = validateUserToken(authHeader);
         if (tokenCheck != null) return ResponseEntity.status(tokenCheck.getStatusCode()).build();
 
         Users user = usersService.getUserByEmaill(principal.getName(), ownerProjectLinkId);
-        return ResponseEntity.ok(postsService.getOwnerFeed(ownerProjectLinkId, user.getId()));
+        return pageResponse(postsService.getOwnerFeedPage(ownerProjectLinkId, user.getId(), cursor, limit), PostService.isPaged(cursor, limit));
     }
 
     @ApiResponses({
@@ -121,14 +130,15 @@ public class PostsController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<PostDto>> getPostsByUser(@PathVariable Long userId,
                                                         @RequestParam Long ownerProjectLinkId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit,
                                                         @RequestHeader("Authorization") String authHeader) {
         ResponseEntity<String> tokenCheck = validateUserToken(authHeader);
         if (tokenCheck != null) return ResponseEntity.status(tokenCheck.getStatusCode()).build();
 
         // still scoped by ownerProjectLinkId to prevent cross-tenant access
         Users viewer = usersService.getUserByEmaill(jwtUtil.extractUsername(authHeader.substring(7)), ownerProjectLinkId);
-        List<PostDto> postDtos = postsService.getPostDtosByUser(userId);
-        return ResponseEntity.ok(postDtos);
+        return pageResponse(postsService.getUserPostsPage(userId, ownerProjectLinkId, viewer.getId(), cursor, limit), PostService.isPaged(cursor, limit));
     }
 
     @ApiResponses({
@@ -153,6 +163,16 @@ public class PostsController {
         }
     }
 
+    private static ResponseEntity<List<PostDto>> pageResponse(PostFeedPage page, boolean paged) {
+        if (!paged) return ResponseEntity.ok(page.items());
+
+        var response = ResponseEntity.ok().header("X-Has-More", String.valueOf(page.hasMore()));
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
     private ResponseEntity<String> validateUserToken(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header");
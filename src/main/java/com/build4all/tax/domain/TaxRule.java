@@ -3,6 +3,7 @@ package com.build4all.tax.domain;
 import com.build4all.admin.domain.AdminUserProject;
 import com.build4all.catalog.domain.Country;
 import com.build4all.catalog.domain.Region;
+import com.build4all.tax.service.TaxRuleIndexListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
@@ -19,7 +20,7 @@ import java.math.BigDecimal;
  *
  * Typical usage (TaxService):
  * 1) Determine shipping address (country/region) from CheckoutRequest
- * 2) Load enabled rules for ownerProject, then pick the best match:
+ * 2) Resolve the best match from the tenant's cached TaxRuleIndex:
  *    - region match wins over country match
  *    - country match wins over global rule
  * 3) Apply rate (%) to:
@@ -28,6 +29,7 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "tax_rules")
+@EntityListeners(TaxRuleIndexListener.class)
 public class TaxRule {
 
     /** Primary key for this tax rule. */
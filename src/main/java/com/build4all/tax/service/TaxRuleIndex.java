@@ -0,0 +1,99 @@
+package com.build4all.tax.service;
+
+import com.build4all.tax.domain.TaxRule;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-indexed view of the ENABLED tax rules of one tenant (ownerProject).
+ *
+ * Same priority as the old list scan, resolved with O(1) lookups:
+ *   1) region match   (rule has a region)
+ *   2) country match  (rule has a country and no region)
+ *   3) global rule    (no country, no region)
+ *
+ * Item rules and shipping rules (appliesToShipping = true) are indexed separately.
+ * When two rules share a scope, the first one in load order wins (as findFirst did).
+ *
+ * Holds plain values only (no entities), so it is safe to share across threads/transactions.
+ */
+public final class TaxRuleIndex {
+
+    /** Resolved rule values needed by the calculations. */
+    public record Rule(Long id, String name, BigDecimal rate) {}
+
+    private static final TaxRuleIndex EMPTY = new TaxRuleIndex(new Scopes(), new Scopes());
+
+    private final Scopes items;
+    private final Scopes shipping;
+
+    private TaxRuleIndex(Scopes items, Scopes shipping) {
+        this.items = items;
+        this.shipping = shipping;
+    }
+
+    public static TaxRuleIndex empty() {
+        return EMPTY;
+    }
+
+    /** Builds the index from the tenant's enabled rules (disabled ones are skipped defensively). */
+    public static TaxRuleIndex build(List<TaxRule> enabledRules) {
+        if (enabledRules == null || enabledRules.isEmpty()) return EMPTY;
+
+        Scopes items = new Scopes();
+        Scopes shipping = new Scopes();
+
+        for (TaxRule r : enabledRules) {
+            if (r == null || !r.isEnabled()) continue;
+
+            Rule rule = new Rule(r.getId(), r.getName(), r.getRate());
+            Long regionId = (r.getRegion() != null) ? r.getRegion().getId() : null;
+            Long countryId = (r.getCountry() != null) ? r.getCountry().getId() : null;
+            boolean regional = r.getRegion() != null;
+            boolean national = !regional && r.getCountry() != null;
+
+            items.add(rule, regional, regionId, national, countryId);
+            if (r.isAppliesToShipping()) {
+                shipping.add(rule, regional, regionId, national, countryId);
+            }
+        }
+
+        return new TaxRuleIndex(items, shipping);
+    }
+
+    /** Best rule for the address, or null when no rule matches. */
+    public Rule resolve(Long countryId, Long regionId, boolean forShipping) {
+        return (forShipping ? shipping : items).resolve(countryId, regionId);
+    }
+
+    private static final class Scopes {
+        private final Map<Long, Rule> byRegion = new HashMap<>();
+        private final Map<Long, Rule> byCountry = new HashMap<>();
+        private Rule global;
+
+        void add(Rule rule, boolean regional, Long regionId, boolean national, Long countryId) {
+            if (regional) {
+                if (regionId != null) byRegion.putIfAbsent(regionId, rule);
+            } else if (national) {
+                if (countryId != null) byCountry.putIfAbsent(countryId, rule);
+            } else if (global == null) {
+                global = rule;
+            }
+        }
+
+        Rule resolve(Long countryId, Long regionId) {
+            if (regionId != null) {
+                Rule r = byRegion.get(regionId);
+                if (r != null) return r;
+            }
+            if (countryId != null) {
+                Rule r = byCountry.get(countryId);
+                if (r != null) return r;
+            }
+            return global;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.build4all.tax.service;
+
+import com.build4all.common.cache.InvalidatingCache;
+import com.build4all.tax.repository.TaxRuleRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-tenant cache of {@link TaxRuleIndex} (tax preview / checkout quote hot path).
+ *
+ * Invalidation:
+ * - any insert/update/delete of a TaxRule row (TaxRuleIndexListener), so CRUD, the Excel
+ *   importer and the seeders are all covered; invalidated again after commit
+ * - TTL_MS bounds staleness for changes made by another instance
+ *
+ * Rebuild is atomic: a fresh index replaces the old one in a single map write, and a
+ * build that raced with an invalidation is discarded (see InvalidatingCache).
+ */
+@Component
+public class TaxRuleIndexCache {
+
+    private static final long TTL_MS = 5 * 60_000L;
+    private static final int MAX_TENANTS = 5_000;
+
+    private final TaxRuleRepository ruleRepository;
+
+    private final InvalidatingCache<Long, TaxRuleIndex> indexes = InvalidatingCache.perScope(TTL_MS, MAX_TENANTS);
+
+    public TaxRuleIndexCache(TaxRuleRepository ruleRepository) {
+        this.ruleRepository = ruleRepository;
+    }
+
+    public TaxRuleIndex get(Long ownerProjectId) {
+        if (ownerProjectId == null) return TaxRuleIndex.empty();
+
+        return indexes.get(ownerProjectId, () ->
+                TaxRuleIndex.build(ruleRepository.findByOwnerProject_IdAndEnabledTrue(ownerProjectId)));
+    }
+
+    public void invalidate(Long ownerProjectId) {
+        indexes.invalidate(ownerProjectId);
+    }
+
+    /** Invalidates now and again after the surrounding transaction commits (if any). */
+    public void invalidateNowAndAfterCommit(Long ownerProjectId) {
+        indexes.invalidateNowAndAfterCommit(ownerProjectId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.build4all.tax.service;
+
+import com.build4all.tax.domain.TaxRule;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA listener on TaxRule: any change to a tenant's rules drops its cached TaxRuleIndex.
+ */
+public class TaxRuleIndexListener {
+
+    private final TaxRuleIndexCache indexCache;
+
+    public TaxRuleIndexListener(TaxRuleIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRuleChanged(TaxRule rule) {
+        if (rule == null || rule.getOwnerProject() == null) return;
+        indexCache.invalidateNowAndAfterCommit(rule.getOwnerProject().getId());
+    }
+}
@@ -108,4 +108,22 @@ public interface TaxService {
     BigDecimal calculateShippingTax(Long ownerProjectId,
                                     ShippingAddressDTO address,
                                     BigDecimal shippingAmount);
+
+    // ===== Single-pass variants (PricingContext) =====
+
+    /**
+     * The tenant's cached rule index; load it once per pricing run
+     * and pass it to the two overloads below.
+     */
+    TaxRuleIndex ruleIndex(Long ownerProjectId);
+
+    /** Same as calculateItemTax above, on an already computed items subtotal. */
+    BigDecimal calculateItemTax(TaxRuleIndex rules,
+                                ShippingAddressDTO address,
+                                BigDecimal itemsSubtotal);
+
+    /** Same as calculateShippingTax above, with an already loaded rule index. */
+    BigDecimal calculateShippingTax(TaxRuleIndex rules,
+                                    ShippingAddressDTO address,
+                                    BigDecimal shippingAmount);
 }
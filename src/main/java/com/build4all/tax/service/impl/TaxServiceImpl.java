@@ -4,6 +4,8 @@ import com.build4all.order.dto.CartLine;
 import com.build4all.order.dto.ShippingAddressDTO;
 import com.build4all.tax.domain.TaxRule;
 import com.build4all.tax.repository.TaxRuleRepository;
+import com.build4all.tax.service.TaxRuleIndex;
+import com.build4all.tax.service.TaxRuleIndexCache;
 import com.build4all.tax.service.TaxService;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
@@ -18,12 +20,14 @@ import java.util.Objects;
 public class TaxServiceImpl implements TaxService {
 
     private final TaxRuleRepository ruleRepository;
+    private final TaxRuleIndexCache ruleIndexCache;
 
     private static final BigDecimal ZERO = BigDecimal.ZERO;
     private static final BigDecimal MAX_TAX_RATE = new BigDecimal("100.00");
 
-    public TaxServiceImpl(TaxRuleRepository ruleRepository) {
+    public TaxServiceImpl(TaxRuleRepository ruleRepository, TaxRuleIndexCache ruleIndexCache) {
         this.ruleRepository = ruleRepository;
+        this.ruleIndexCache = ruleIndexCache;
     }
 
     /* ==============================
@@ -142,46 +146,31 @@ public class TaxServiceImpl implements TaxService {
      *   3) global rule
      *
      * If forShipping=true -> only rules where appliesToShipping=true.
+     *
+     * Resolved from the tenant's cached TaxRuleIndex (no DB hit, no list scan);
+     * the index is dropped whenever a rule of the tenant changes.
      */
-    private TaxRule pickBestRule(Long ownerProjectId,
-                                 ShippingAddressDTO addr,
-                                 boolean forShipping) {
-
-        if (ownerProjectId == null) return null;
+    private TaxRuleIndex.Rule pickBestRule(TaxRuleIndex rules,
+                                           ShippingAddressDTO addr,
+                                           boolean forShipping) {
 
-        List<TaxRule> rules = ruleRepository.findByOwnerProject_IdAndEnabledTrue(ownerProjectId);
-        if (rules == null || rules.isEmpty()) return null;
+        if (rules == null) return null;
 
         Long countryId = (addr != null) ? addr.getCountryId() : null;
         Long regionId = (addr != null) ? addr.getRegionId() : null;
 
-        // 1) region-specific rule
-        TaxRule regionRule = rules.stream()
-                .filter(r -> !forShipping || r.isAppliesToShipping())
-                .filter(r -> r.getRegion() != null)
-                .filter(r -> regionId != null && Objects.equals(r.getRegion().getId(), regionId))
-                .findFirst()
-                .orElse(null);
-
-        if (regionRule != null) return regionRule;
-
-        // 2) country-specific rule
-        TaxRule countryRule = rules.stream()
-                .filter(r -> !forShipping || r.isAppliesToShipping())
-                .filter(r -> r.getRegion() == null)
-                .filter(r -> r.getCountry() != null)
-                .filter(r -> countryId != null && Objects.equals(r.getCountry().getId(), countryId))
-                .findFirst()
-                .orElse(null);
-
-        if (countryRule != null) return countryRule;
-
-        // 3) global rule
-        return rules.stream()
-                .filter(r -> !forShipping || r.isAppliesToShipping())
-                .filter(r -> r.getCountry() == null && r.getRegion() == null)
-                .findFirst()
-                .orElse(null);
+        return rules.resolve(countryId, regionId, forShipping);
+    }
+
+    /** amount * rate% (HALF_UP, 2 decimals), or 0 when no rule / no positive rate. */
+    private BigDecimal applyRate(TaxRuleIndex.Rule rule, BigDecimal amount) {
+        if (rule == null || rule.rate() == null) return BigDecimal.ZERO;
+
+        BigDecimal rate = rule.rate();
+        if (rate.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
+
+        return amount.multiply(rate)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
     }
 
     /* ==============================
@@ -291,12 +280,18 @@ public class TaxServiceImpl implements TaxService {
        Tax calculations
        ============================== */
 
+    @Override
+    public TaxRuleIndex ruleIndex(Long ownerProjectId) {
+        return ruleIndexCache.get(ownerProjectId);
+    }
+
     @Override
     public BigDecimal calculateItemTax(Long ownerProjectId,
                                        ShippingAddressDTO address,
                                        List<CartLine> lines) {
 
         if (lines == null || lines.isEmpty()) return BigDecimal.ZERO;
+        if (ownerProjectId == null) return BigDecimal.ZERO;
 
         BigDecimal subtotal = BigDecimal.ZERO;
         for (CartLine line : lines) {
@@ -306,14 +301,15 @@ public class TaxServiceImpl implements TaxService {
             subtotal = subtotal.add(unit.multiply(BigDecimal.valueOf(qty)));
         }
 
-        TaxRule rule = pickBestRule(ownerProjectId, address, false);
-        if (rule == null || rule.getRate() == null) return BigDecimal.ZERO;
+        return calculateItemTax(ruleIndex(ownerProjectId), address, subtotal);
+    }
 
-        BigDecimal rate = rule.getRate();
-        if (rate.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
+    @Override
+    public BigDecimal calculateItemTax(TaxRuleIndex rules,
+                                       ShippingAddressDTO address,
+                                       BigDecimal itemsSubtotal) {
 
-        return subtotal.multiply(rate)
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return applyRate(pickBestRule(rules, address, false), safe(itemsSubtotal));
     }
 
     @Override
@@ -321,16 +317,18 @@ public class TaxServiceImpl implements TaxService {
                                            ShippingAddressDTO address,
                                            BigDecimal shippingAmount) {
 
-        BigDecimal shipping = safe(shippingAmount);
-        if (shipping.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
+        if (ownerProjectId == null) return BigDecimal.ZERO;
+        return calculateShippingTax(ruleIndex(ownerProjectId), address, shippingAmount);
+    }
 
-        TaxRule rule = pickBestRule(ownerProjectId, address, true);
-        if (rule == null || rule.getRate() == null) return BigDecimal.ZERO;
+    @Override
+    public BigDecimal calculateShippingTax(TaxRuleIndex rules,
+                                           ShippingAddressDTO address,
+                                           BigDecimal shippingAmount) {
 
-        BigDecimal rate = rule.getRate();
-        if (rate.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
+        BigDecimal shipping = safe(shippingAmount);
+        if (shipping.compareTo(BigDecimal.ZERO) <= 0) return BigDecimal.ZERO;
 
-        return shipping.multiply(rate)
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return applyRate(pickBestRule(rules, address, true), shipping);
     }
-}
\ No newline at end of file
+}
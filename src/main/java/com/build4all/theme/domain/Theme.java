@@ -1,11 +1,13 @@
 // src/main/java/com/build4all/theme/domain/Theme.java
 package com.build4all.theme.domain;
 
+import com.build4all.app.service.RuntimeConfigArtifactListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "app_theme")
+@EntityListeners(RuntimeConfigArtifactListener.class) // drops the compiled public runtime config on change
 public class Theme {
 
     @Id
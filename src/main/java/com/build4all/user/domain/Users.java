@@ -1,10 +1,13 @@
 package com.build4all.user.domain;
 
 import com.build4all.admin.domain.AdminUserProject;
+import com.build4all.licensing.service.EntitlementSnapshotListener;
+import com.build4all.licensing.service.UserSlotListener;
 import com.build4all.order.domain.OrderItem;
 import com.build4all.notifications.domain.Notifications;
 import com.build4all.review.domain.Review;
 import com.build4all.role.domain.Role;
+import com.build4all.security.service.AuthPrincipalCacheListener;
 import com.build4all.social.domain.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
@@ -21,6 +24,11 @@ import java.util.Collections;
 import java.util.List;
 
 @Entity
+@EntityListeners({
+        AuthPrincipalCacheListener.class,   // evicts the cached auth principal on update/delete
+        EntitlementSnapshotListener.class,  // active-user count of the app's entitlement snapshot
+        UserSlotListener.class              // app_user_counters on ACTIVE <-> non-ACTIVE transitions
+})
 @Table(
         name = "users", // <- LOWERCASE physical table name (good for portability across DBs / naming strategies)
         uniqueConstraints = {
@@ -35,7 +43,9 @@ import java.util.List;
                 @Index(name = "idx_users_owner_project",  columnList = "aup_id"),
                 @Index(name = "idx_users_email",          columnList = "email"),
                 @Index(name = "idx_users_phone",          columnList = "phone_number"),
-                @Index(name = "idx_users_username",       columnList = "username")
+                @Index(name = "idx_users_username",       columnList = "username"),
+                // retention jobs: WHERE status = ? AND updated_at < ?
+                @Index(name = "idx_users_status_updated", columnList = "status, updated_at")
         }
 )
 public class Users implements UserDetails {
@@ -154,6 +164,19 @@ public class Users implements UserDetails {
     @PrePersist protected void onCreate() { this.createdAt = LocalDateTime.now(); }
     @PreUpdate  protected void onUpdate() { this.updatedAt = LocalDateTime.now(); }
 
+    // ACTIVE state as last loaded / flushed: UserSlotListener diffs against it to keep the app's active-user counter.
+    @Transient
+    @JsonIgnore
+    private boolean activeWhenLoaded;
+
+    @JsonIgnore
+    public boolean isActiveStatus() { return status != null && "ACTIVE".equalsIgnoreCase(status.getName()); }
+
+    @JsonIgnore
+    public boolean isActiveWhenLoaded() { return activeWhenLoaded; }
+
+    public void rememberActiveState() { this.activeWhenLoaded = isActiveStatus(); }
+
     // ========== UserDetails implementation ==========
     // These methods allow Spring Security to treat this entity as an authenticated principal.
 
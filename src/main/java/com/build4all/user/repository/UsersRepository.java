@@ -70,17 +70,6 @@ public interface UsersRepository extends JpaRepository<Users, Long> {
      */
     Users findByPhoneNumberAndOwnerProject(String phoneNumber, AdminUserProject link);
 
-    
-    @Query("""
-    		  select u from Users u
-    		  join u.status s
-    		  where s.name = 'DELETED'
-    		    and u.updatedAt < :cutoff
-    		""")
-    		List<Users> findDeletedUsersBefore(@Param("cutoff") LocalDateTime cutoff);
-
-   
-   
     /**
      * Find by username inside a tenant link.
      *
@@ -437,4 +426,46 @@ public interface UsersRepository extends JpaRepository<Users, Long> {
 
 	boolean existsByEmailIgnoreCaseAndIdNot(String newEmail, Long ownerId);
 
+    /* ================ Retention (RetentionJobRunner chunks) ================ */
+
+    /**
+     * Moves at most :limit users from one status to another (idle since :cutoff) and returns their ids.
+     * Uses idx_users_status_updated; SKIP LOCKED so a user being edited right now is simply left for the next chunk.
+     *
+     * Bulk statement: the AuthPrincipalCache listener does not fire, callers evict the returned ids.
+     */
+    @Query(value = """
+        UPDATE users
+           SET status = :toStatusId, updated_at = :now
+         WHERE user_id IN (
+               SELECT user_id
+                 FROM users
+                WHERE status = :fromStatusId
+                  AND updated_at < :cutoff
+                ORDER BY updated_at
+                LIMIT :limit
+                  FOR UPDATE SKIP LOCKED
+         )
+        RETURNING user_id
+    """, nativeQuery = true)
+    List<Long> moveStatusBatch(@Param("fromStatusId") Long fromStatusId,
+                               @Param("toStatusId") Long toStatusId,
+                               @Param("cutoff") LocalDateTime cutoff,
+                               @Param("now") LocalDateTime now,
+                               @Param("limit") int limit);
+
+    /** Next :limit users in a status idle since :cutoff, keyset-paged by id (user_id > :afterId). */
+    @Query(value = """
+        SELECT user_id
+          FROM users
+         WHERE status = :statusId
+           AND updated_at < :cutoff
+           AND user_id > :afterId
+         ORDER BY user_id
+         LIMIT :limit
+    """, nativeQuery = true)
+    List<Long> findIdsByStatusBefore(@Param("statusId") Long statusId,
+                                     @Param("cutoff") LocalDateTime cutoff,
+                                     @Param("afterId") long afterId,
+                                     @Param("limit") int limit);
 }
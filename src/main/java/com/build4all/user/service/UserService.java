@@ -5,9 +5,12 @@ import com.build4all.admin.domain.AdminUserProject;
 import com.build4all.admin.repository.AdminUserProjectRepository;
 import com.build4all.catalog.domain.Category;
 import com.build4all.catalog.repository.CategoryRepository;
+import com.build4all.common.jobs.RetentionJobRunner;
+import com.build4all.licensing.service.LicensingService;
 import com.build4all.notifications.service.EmailService;
 import com.build4all.role.domain.Role;
 import com.build4all.role.repository.RoleRepository;
+import com.build4all.security.service.AuthPrincipalCache;
 import com.build4all.user.domain.PendingEmailChange;
 import com.build4all.user.domain.PendingPhoneChange;
 import com.build4all.user.domain.PendingUser;
@@ -70,6 +73,9 @@ public class UserService {
     @Autowired private PendingPhoneChangeRepository pendingPhoneChangeRepository;
     /** Tenant link repository: AdminUserProject table (often called admin_user_project / aup). */
     @Autowired private AdminUserProjectRepository aupRepo;
+    @Autowired private RetentionJobRunner retentionJobRunner;
+    @Autowired private AuthPrincipalCache authPrincipalCache;
+    @Autowired private LicensingService licensingService;
     
     
     private static final int EMAIL_CHANGE_TTL_MIN = 15;
@@ -1051,6 +1057,9 @@ public class UserService {
             throw new RuntimeException("Username already in use in this app.");
         }
 
+        // Plan user limit: conditional increment of app_user_counters, held until this transaction commits
+        licensingService.admitUser(ownerProjectLinkId);
+
         Users user = new Users();
         user.setOwnerProject(link);
         user.setUsername(username);
@@ -1549,73 +1558,73 @@ public class UserService {
     /* ================ Scheduled cleanups (global) ================ */
 
     /**
-     * Soft-delete after 30 days:
-     * - Loads ALL users in memory (SELECT * FROM users)
-     * - For each match, updates status to DELETED (UPDATE users ...)
+     * Soft-delete after 30 days: INACTIVE users idle for 30+ days become DELETED.
      *
-     * Better (future):
-     * - one SQL UPDATE with WHERE conditions.
+     * Set-based: each chunk is one UPDATE ... WHERE status = INACTIVE AND updated_at < cutoff LIMIT n
+     * (idx_users_status_updated), one transaction per chunk, one replica at a time (RetentionJobRunner).
      */
     @Scheduled(cron = "0 0 2 * * *")
     public void softDeleteInactiveUsersAfter30Days() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        Long inactiveId = getStatus("INACTIVE").getId();
+        Long deletedId = getStatus("DELETED").getId();
 
-        // SQL:
-        //   SELECT * FROM users;
-        userRepository.findAll().stream()
-                .filter(u -> u.getStatus() != null && "INACTIVE".equalsIgnoreCase(u.getStatus().getName()))
-                .filter(u -> u.getUpdatedAt() != null && u.getUpdatedAt().isBefore(cutoff))
-                .forEach(u -> {
-                    // SQL:
-                    //   SELECT * FROM user_status WHERE name='DELETED' LIMIT 1;
-                    u.setStatus(getStatus("DELETED"));
-                    u.setUpdatedAt(LocalDateTime.now());
-
-                    // SQL:
-                    //   UPDATE users SET status_id=?, updated_at=? WHERE user_id=?;
-                    userRepository.save(u);
-                });
+        retentionJobRunner.run("users.softDeleteInactive", limit -> {
+            List<Long> ids = userRepository.moveStatusBatch(inactiveId, deletedId, cutoff, LocalDateTime.now(), limit);
+            authPrincipalCache.evictAll("USER", ids);
+            return ids.size();
+        });
     }
 
     /**
-     * Hard-delete after 90 days:
-     * - Loads ALL users (SELECT * FROM users)
-     * - For each match, deletes row (DELETE FROM users WHERE user_id=?)
+     * Hard-delete after 90 days: DELETED users idle for 90+ days are removed.
      *
-     * Better (future):
-     * - one SQL DELETE with WHERE conditions.
+     * Ids come from the (status, updated_at) index in chunks; the rows are removed through JPA
+     * so the cascades declared on Users (friends, bookings, messages, ...) still apply.
+     * Each row is deleted in its own transaction and the cursor moves past the chunk, so a row that
+     * cannot be deleted is skipped (and retried next night) instead of blocking every row after it.
      */
     @Scheduled(cron = "0 0 3 * * *")
     public void permanentlyDeleteUsersAfter90Days() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        Long deletedId = getStatus("DELETED").getId();
+        long[] lastId = {0L};
 
-        // SQL:
-        //   SELECT * FROM users;
-        userRepository.findAll().stream()
-                .filter(u -> u.getStatus() != null && "DELETED".equalsIgnoreCase(u.getStatus().getName()))
-                .filter(u -> u.getUpdatedAt() != null && u.getUpdatedAt().isBefore(cutoff))
-                // SQL per user:
-                //   DELETE FROM users WHERE user_id=?;
-                .forEach(userRepository::delete);
+        retentionJobRunner.run("users.purgeDeleted", limit -> {
+            List<Long> ids = userRepository.findIdsByStatusBefore(deletedId, cutoff, lastId[0], limit);
+            if (ids.isEmpty()) return 0;
+
+            lastId[0] = ids.get(ids.size() - 1);
+
+            for (Long id : ids) {
+                retentionJobRunner.runRow("users.purgeDeleted", id, () -> userRepository.deleteById(id));
+            }
+            return ids.size();
+        });
     }
-    
- // Every 12 hours (pick what you want)
+
+    /**
+     * Wipes PII of users DELETED for 30+ days (well before the 90-day purge).
+     * Streams through them in id order, one chunk per transaction, instead of loading them all at once.
+     */
     @Scheduled(cron = "0 0 */12 * * *")
-    @Transactional
     public void anonymizeDeletedUsersAfter90Days() {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+        Long deletedId = getStatus("DELETED").getId();
+        long[] lastId = {0L};
 
-        List<Users> usersToPurge = userRepository.findDeletedUsersBefore(cutoff);
-
-        for (Users u : usersToPurge) {
-            if (isAlreadyAnonymized(u)) continue;
+        retentionJobRunner.run("users.anonymizeDeleted", limit -> {
+            List<Long> ids = userRepository.findIdsByStatusBefore(deletedId, cutoff, lastId[0], limit);
+            if (ids.isEmpty()) return 0;
 
-            anonymizeUser(u);
-        }
+            lastId[0] = ids.get(ids.size() - 1);
 
-        // Not required strictly (Hibernate dirty checking will flush),
-        // but harmless and explicit:
-        userRepository.saveAll(usersToPurge);
+            for (Users u : userRepository.findAllById(ids)) {
+                if (isAlreadyAnonymized(u)) continue;
+                anonymizeUser(u); // flushed by dirty checking at chunk commit
+            }
+            return ids.size();
+        });
     }
 
     private boolean isAlreadyAnonymized(Users u) {
@@ -1755,6 +1764,22 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * INACTIVE / DELETED -> ACTIVE (self reactivation).
+     * Takes a plan user slot in the same transaction, so concurrent reactivations can't exceed the limit.
+     */
+    @Transactional
+    public Users reactivateUser(Users user) {
+        Long ownerProjectLinkId = user.getOwnerProject() != null ? user.getOwnerProject().getId() : null;
+        if (ownerProjectLinkId == null) throw new IllegalArgumentException("User has no app");
+
+        licensingService.admitUser(ownerProjectLinkId);
+
+        user.setStatus(getStatus("ACTIVE"));
+        user.setLastLogin(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
     /**
      * Get category names for a user.
      *
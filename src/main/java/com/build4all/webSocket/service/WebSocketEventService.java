@@ -1,27 +1,56 @@
 package com.build4all.webSocket.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Publishes app events to STOMP topics.
+ *
+ * Tenant stock / product events (/topic/tenant/{id}/events) are published after commit, one message
+ * per event (the wire format clients already parse).
+ *
+ * Opt-in (build4all.ws.coalesce.enabled=true, only once every client understands "batch" envelopes):
+ * events go into a per-tenant buffer (one entry per item / product, merged), and flushTenantEvents()
+ * publishes each tenant's buffer every build4all.ws.coalesce.intervalMs as ONE message:
+ * - a single pending event is sent as-is (same envelope as before)
+ * - several are sent as domain "batch", action "changed", data.events = [envelope, ...]
+ */
 @Service
 public class WebSocketEventService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final boolean coalesce;
     
     private static final Logger log = LoggerFactory.getLogger(WebSocketEventService.class);
 
+    /** tenantId -> pending events; only mutated inside compute()/remove() so a flush never sees half an update. */
+    private final ConcurrentHashMap<Long, TenantBuffer> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong eventsIn = new AtomicLong();
+    private final AtomicLong messagesOut = new AtomicLong();
+    private final AtomicLong batchesOut = new AtomicLong();
+
     @Autowired
-    public WebSocketEventService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketEventService(SimpMessagingTemplate messagingTemplate,
+                                 @Value("${build4all.ws.coalesce.enabled:false}") boolean coalesce) {
         this.messagingTemplate = messagingTemplate;
+        this.coalesce = coalesce;
     }
 
     // --- simple legacy channels (strings only) stay fine
@@ -152,44 +181,38 @@ public class WebSocketEventService {
     
     public void sendProductCreated(Long tenantId, Object productDto) {
         long id = extractId(productDto);
-        log.info("[WS] send product.created tenant={} id={}", tenantId, id);
+        log.debug("[WS] product.created tenant={} id={}", tenantId, id);
 
-        afterCommit(() -> messagingTemplate.convertAndSend(
-            tenantTopic(tenantId),
-            tenantEnvelope(tenantId, "product", "created", id, mapOf("productId", id)) // ✅ better than full dto
-        ));
+        afterCommit(() -> publishProduct(tenantId, id, "created"));
     }
 
     public void sendProductUpdated(Long tenantId, Object productDto) {
         long id = extractId(productDto);
-        log.info("[WS] send product.updated tenant={} id={}", tenantId, id);
+        log.debug("[WS] product.updated tenant={} id={}", tenantId, id);
 
-        afterCommit(() -> messagingTemplate.convertAndSend(
-            tenantTopic(tenantId),
-            tenantEnvelope(tenantId, "product", "updated", id, mapOf("productId", id))
-        ));
+        afterCommit(() -> publishProduct(tenantId, id, "updated"));
     }
 
     public void sendProductDeleted(Long tenantId, Long productId) {
-        afterCommit(() -> messagingTemplate.convertAndSend(
-            tenantTopic(tenantId),
-            tenantEnvelope(tenantId, "product", "deleted", productId == null ? 0 : productId, mapOf("productId", productId))
-        ));
+        long id = productId == null ? 0 : productId;
+        afterCommit(() -> publishProduct(tenantId, id, "deleted"));
     }
 
     public void sendStockChanged(Long tenantId, Long itemId, int delta, Integer newStock, String reason, Long orderId) {
-        afterCommit(() -> messagingTemplate.convertAndSend(
-            tenantTopic(tenantId),
-            tenantEnvelope(tenantId, "stock", "changed", itemId == null ? 0 : itemId,
-                mapOf(
-                    "itemId", itemId,
-                    "delta", delta,
-                    "newStock", newStock,
-                    "reason", reason,
-                    "orderId", orderId
-                )
-            )
-        ));
+        afterCommit(() -> {
+            if (!coalesce) {
+                send(tenantId, stockEnvelope(tenantId, new StockChange(itemId, delta, newStock, reason, orderId, 1)));
+                return;
+            }
+            eventsIn.incrementAndGet();
+            pending.compute(key(tenantId), (k, buf) -> {
+                if (buf == null) buf = new TenantBuffer();
+                buf.stock.merge(itemId == null ? 0L : itemId,
+                        new StockChange(itemId, delta, newStock, reason, orderId, 1),
+                        StockChange::then);
+                return buf;
+            });
+        });
     }
 
     public void sendImportCompleted(Long tenantId, Object resultDto) {
@@ -199,6 +222,102 @@ public class WebSocketEventService {
         ));
     }
 
+    /* ==================== coalescing ==================== */
+
+    /** Publishes every tenant's pending events, one message per tenant. */
+    @Scheduled(fixedDelayString = "${build4all.ws.coalesce.intervalMs:150}")
+    public void flushTenantEvents() {
+        if (pending.isEmpty()) return;
+
+        for (Long tenantId : List.copyOf(pending.keySet())) {
+            TenantBuffer buf = pending.remove(tenantId);
+            if (buf == null) continue;
+
+            try {
+                List<Map<String, Object>> events = new ArrayList<>(buf.products.size() + buf.stock.size());
+                buf.products.forEach((id, action) ->
+                        events.add(tenantEnvelope(tenantId, "product", action, id, mapOf("productId", id))));
+                buf.stock.values().forEach(change -> events.add(stockEnvelope(tenantId, change)));
+
+                if (events.size() == 1) {
+                    send(tenantId, events.get(0));
+                } else if (!events.isEmpty()) {
+                    batchesOut.incrementAndGet();
+                    send(tenantId, tenantEnvelope(tenantId, "batch", "changed", 0L,
+                            mapOf("count", events.size(), "events", events)));
+                }
+            } catch (Exception e) {
+                log.warn("[WS] flush failed tenant={} => {}", tenantId, e.getMessage());
+            }
+        }
+    }
+
+    /** Counters for the diagnostics endpoint. */
+    public Map<String, Object> coalescingStats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", coalesce);
+        m.put("eventsIn", eventsIn.get());
+        m.put("messagesOut", messagesOut.get());
+        m.put("batchesOut", batchesOut.get());
+        m.put("tenantsPending", pending.size());
+        return m;
+    }
+
+    private void publishProduct(Long tenantId, long productId, String action) {
+        if (!coalesce) {
+            send(tenantId, tenantEnvelope(tenantId, "product", action, productId, mapOf("productId", productId)));
+            return;
+        }
+        eventsIn.incrementAndGet();
+        pending.compute(key(tenantId), (k, buf) -> {
+            if (buf == null) buf = new TenantBuffer();
+            buf.products.merge(productId, action, WebSocketEventService::mergeProductAction);
+            return buf;
+        });
+    }
+
+    /** created+updated = created; anything+deleted = deleted; otherwise the latest. */
+    private static String mergeProductAction(String before, String after) {
+        if ("deleted".equals(after)) return after;
+        if ("created".equals(before) && "updated".equals(after)) return before;
+        return after;
+    }
+
+    private Map<String, Object> stockEnvelope(Long tenantId, StockChange c) {
+        Map<String, Object> data = mapOf(
+                "itemId", c.itemId(),
+                "delta", c.delta(),
+                "newStock", c.newStock(),
+                "reason", c.reason(),
+                "orderId", c.orderId()
+        );
+        if (c.merged() > 1) data.put("merged", c.merged());
+        return tenantEnvelope(tenantId, "stock", "changed", c.itemId() == null ? 0 : c.itemId(), data);
+    }
+
+    private void send(Long tenantId, Map<String, Object> envelope) {
+        messagesOut.incrementAndGet();
+        messagingTemplate.convertAndSend(tenantTopic(tenantId), envelope);
+    }
+
+    private static Long key(Long tenantId) {
+        return tenantId == null ? 0L : tenantId;
+    }
+
+    /** Pending events of one tenant, in first-seen order. */
+    private static final class TenantBuffer {
+        final LinkedHashMap<Long, String> products = new LinkedHashMap<>();
+        final LinkedHashMap<Long, StockChange> stock = new LinkedHashMap<>();
+    }
+
+    /** Stock movements of one item since the last flush: deltas add up, newStock/reason/orderId are the latest. */
+    private record StockChange(Long itemId, int delta, Integer newStock, String reason, Long orderId, int merged) {
+        StockChange then(StockChange next) {
+            return new StockChange(itemId, delta + next.delta, next.newStock, next.reason,
+                    next.orderId != null ? next.orderId : orderId, merged + next.merged);
+        }
+    }
+
     // try extract id from DTO via reflection (safe-ish)
     private long extractId(Object dto) {
         if (dto == null) return 0L;
@@ -0,0 +1,56 @@
+package com.build4all.webSocket.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Snapshot of the STOMP channel executors (sized in WebSocketConfig) and of the tenant event coalescing.
+ * A growing outbound queue means clients (or the relay) can't keep up with what the app publishes.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final Executor inbound;
+    private final Executor outbound;
+    private final WebSocketEventService events;
+
+    public WebSocketMetrics(@Qualifier("clientInboundChannelExecutor") Executor inbound,
+                            @Qualifier("clientOutboundChannelExecutor") Executor outbound,
+                            WebSocketEventService events) {
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.events = events;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("inbound", executorStats(inbound));
+        m.put("outbound", executorStats(outbound));
+        m.put("coalescing", events.coalescingStats());
+        return m;
+    }
+
+    private static Map<String, Object> executorStats(Executor executor) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        if (!(executor instanceof ThreadPoolTaskExecutor tp) || tp.getThreadPoolExecutor() == null) {
+            m.put("type", executor == null ? null : executor.getClass().getSimpleName());
+            return m;
+        }
+
+        ThreadPoolExecutor pool = tp.getThreadPoolExecutor();
+        m.put("poolSize", pool.getPoolSize());
+        m.put("active", pool.getActiveCount());
+        m.put("corePoolSize", pool.getCorePoolSize());
+        m.put("maxPoolSize", pool.getMaximumPoolSize());
+        m.put("queueDepth", pool.getQueue().size());
+        m.put("queueRemaining", pool.getQueue().remainingCapacity());
+        m.put("completedTasks", pool.getCompletedTaskCount());
+        return m;
+    }
+}